@@ -0,0 +1,69 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Association rules (20 best by confidence, minimum support down to 1%, items with value t
+ * only) on synthetic market baskets of 50 products: Apriori against FastApriori.
+ *
+ * Apriori takes tens of seconds from 10000 baskets on; larger sizes for FastApriori alone
+ * can be asked for with AssociationBenchmark.fastApriori -p rows=1000000
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import irisDataExamples.FastApriori;
+import weka.associations.Apriori;
+import weka.core.Instances;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class AssociationBenchmark {
+
+	@Param({"1000", "10000"})
+	public int rows;
+
+	private Instances data;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		data = SyntheticBaskets.generate(rows, 50, 47);
+	}
+
+	@Benchmark
+	public String apriori() throws Exception {
+		return associate(new Apriori());
+	}
+
+	@Benchmark
+	public String fastApriori() throws Exception {
+		return associate(new FastApriori());
+	}
+
+	private String associate(Apriori apriori) throws Exception {
+		apriori.setNumRules(20);
+		apriori.setLowerBoundMinSupport(0.01);
+		apriori.setMinMetric(0.8);
+		apriori.setTreatZeroAsMissing(true);
+		apriori.buildAssociations(data);
+		return apriori.toString();
+	}
+}
@@ -0,0 +1,28 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Entry point of benchmarks.jar.
+ *
+ * Runs the JMH benchmarks and always writes the results as JSON (jmh-results.json by default),
+ * so runs can be compared to track regressions. Any JMH command line option can be passed,
+ * e.g. a benchmark regex or -p rows=1000000; "-rff other.json" changes the output file.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class BenchmarkRunner {
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions cmd = new CommandLineOptions(args);
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd).resultFormat(ResultFormatType.JSON);
+		if(!cmd.getResult().hasValue())
+			options.result("jmh-results.json");
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,92 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Boosting decision stumps on Iris-shaped data: AdaBoostM1 and LogitBoost against FastAdaBoostM1
+ * and FastLogitBoost (columns sorted once, attributes and classes searched concurrently) with
+ * the exact DecisionStump search and over 64 histogram bins, 10 rounds each.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import irisDataExamples.FastAdaBoostM1;
+import irisDataExamples.FastLogitBoost;
+import weka.classifiers.Classifier;
+import weka.classifiers.meta.AdaBoostM1;
+import weka.classifiers.meta.LogitBoost;
+import weka.core.Instances;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BoostingBenchmark {
+
+	private static final int BINS = 64;
+
+	@Param({"10000", "100000"})
+	public int rows;
+
+	private Instances data;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		data = SyntheticIris.generate(rows, 47);
+	}
+
+	@Benchmark
+	public Classifier adaBoostM1() throws Exception {
+		return build(new AdaBoostM1());
+	}
+
+	@Benchmark
+	public Classifier fastAdaBoostM1() throws Exception {
+		return build(new FastAdaBoostM1());
+	}
+
+	@Benchmark
+	public Classifier fastAdaBoostM1Binned() throws Exception {
+		FastAdaBoostM1 boost = new FastAdaBoostM1();
+		boost.setNumBins(BINS);
+		return build(boost);
+	}
+
+	@Benchmark
+	public Classifier logitBoost() throws Exception {
+		return build(new LogitBoost());
+	}
+
+	@Benchmark
+	public Classifier fastLogitBoost() throws Exception {
+		return build(new FastLogitBoost());
+	}
+
+	@Benchmark
+	public Classifier fastLogitBoostBinned() throws Exception {
+		FastLogitBoost boost = new FastLogitBoost();
+		boost.setNumBins(BINS);
+		return build(boost);
+	}
+
+	private Classifier build(Classifier classifier) throws Exception {
+		classifier.buildClassifier(data);
+		return classifier;
+	}
+}
@@ -0,0 +1,79 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Hierarchical clustering of Clustering (Chebyshev distance, 3 clusters, no class) on Iris-shaped
+ * data: HierarchicalClusterer against FastHierarchicalClusterer, building and ClusterEvaluation.
+ *
+ * HierarchicalClusterer gets slow quickly (single link takes over a minute for 2000 rows);
+ * larger sizes for the fast one alone can be asked for with
+ * ClusteringBenchmark.fastHierarchicalClusterer -p rows=100000 -p link=SINGLE
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import irisDataExamples.FastHierarchicalClusterer;
+import weka.clusterers.ClusterEvaluation;
+import weka.clusterers.HierarchicalClusterer;
+import weka.core.ChebyshevDistance;
+import weka.core.Instances;
+import weka.core.SelectedTag;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ClusteringBenchmark {
+
+	@Param({"SINGLE", "COMPLETE"})
+	public String link;
+
+	@Param({"1000", "2000"})
+	public int rows;
+
+	private Instances data;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		data = SyntheticIris.generate(rows, 47);
+		data.setClassIndex(-1);
+	}
+
+	@Benchmark
+	public String hierarchicalClusterer() throws Exception {
+		return cluster(new HierarchicalClusterer());
+	}
+
+	@Benchmark
+	public String fastHierarchicalClusterer() throws Exception {
+		return cluster(new FastHierarchicalClusterer());
+	}
+
+	private String cluster(HierarchicalClusterer clusterer) throws Exception {
+		clusterer.setNumClusters(3);
+		clusterer.setDistanceFunction(new ChebyshevDistance());
+		clusterer.setLinkType(new SelectedTag(link, HierarchicalClusterer.TAGS_LINK_TYPE));
+		clusterer.buildClusterer(data);
+		ClusterEvaluation eval = new ClusterEvaluation();
+		eval.setClusterer(clusterer);
+		eval.evaluateClusterer(data);
+		return eval.clusterResultsToString();
+	}
+}
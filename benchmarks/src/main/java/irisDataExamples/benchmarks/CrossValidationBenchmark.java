@@ -0,0 +1,97 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * 10-fold cross-validation of a J48, as in ModelEvaluation:
+ * Evaluation.crossValidateModel against the same folds as RowViews (row indices, no
+ * copies) and the fold-parallel ParallelFolds; then the 10 training and test folds alone,
+ * copied by Instances and as RowViews.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import irisDataExamples.ParallelFolds;
+import irisDataExamples.RowView;
+import weka.classifiers.evaluation.Evaluation;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CrossValidationBenchmark {
+
+	@Param({"1000", "100000", "1000000"})
+	public int rows;
+
+	private Instances data;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		data = SyntheticIris.generate(rows, 47);
+	}
+
+	@Benchmark
+	public double crossValidateModel() throws Exception {
+		Evaluation eval = new Evaluation(data);
+		eval.crossValidateModel(new J48(), data, 10, new Random(47));
+		return eval.errorRate();
+	}
+
+	@Benchmark
+	public double rowViews() throws Exception {
+		Evaluation eval = new Evaluation(data);
+		RowView.crossValidateModel(eval, new J48(), data, 10, new Random(47));
+		return eval.errorRate();
+	}
+
+	@Benchmark
+	public double parallelFolds() throws Exception {
+		ParallelFolds cv = new ParallelFolds();
+		cv.setClassifier(new J48());
+		cv.setNumFolds(10);
+		cv.setSeed(47);
+		return cv.crossValidate(data).errorRate();
+	}
+
+	@Benchmark
+	public int copiedFolds() {
+		Instances randData = new Instances(data);
+		randData.randomize(new Random(47));
+		randData.stratify(10);
+		int rows = 0;
+		for(int n=0;n<10;n++)
+			rows += randData.trainCV(10, n).numInstances() + randData.testCV(10, n).numInstances();
+		return rows;
+	}
+
+	@Benchmark
+	public int rowViewFolds() throws Exception {
+		RowView randData = new RowView(data);
+		randData.randomize(new Random(47));
+		randData.stratify(10);
+		int rows = 0;
+		for(int n=0;n<10;n++)
+			rows += randData.trainCV(10, n).instances().numInstances() + randData.testCV(10, n).instances().numInstances();
+		return rows;
+	}
+}
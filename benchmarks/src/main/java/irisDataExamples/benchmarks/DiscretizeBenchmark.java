@@ -0,0 +1,76 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Discretization of all the numeric attributes: WEKA's Discretize (supervised for MDL) against
+ * HistogramDiscretize, which finds the cut points of every column in parallel from histograms.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import irisDataExamples.HistogramDiscretize;
+import weka.core.Instances;
+import weka.filters.Filter;
+import weka.filters.unsupervised.attribute.Discretize;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class DiscretizeBenchmark {
+
+	@Param({"EqualWidth", "EqualFrequency", "MDL"})
+	public String method;
+
+	@Param({"100000", "1000000"})
+	public int rows;
+
+	private Instances data;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		data = SyntheticIris.generate(rows, 47);
+	}
+
+	@Benchmark
+	public Instances weka() throws Exception {
+		Filter filter;
+		if(method.equals("MDL"))
+			filter = new weka.filters.supervised.attribute.Discretize();
+		else {
+			Discretize discretize = new Discretize();
+			discretize.setBins(10);
+			discretize.setUseEqualFrequency(method.equals("EqualFrequency"));
+			filter = discretize;
+		}
+		filter.setInputFormat(data);
+		return Filter.useFilter(data, filter);
+	}
+
+	@Benchmark
+	public Instances histogram() throws Exception {
+		HistogramDiscretize discretize = new HistogramDiscretize();
+		discretize.setBins(10);
+		discretize.setUseEqualFrequency(method.equals("EqualFrequency"));
+		discretize.setUseMDL(method.equals("MDL"));
+		discretize.setInputFormat(data);
+		return Filter.useFilter(data, discretize);
+	}
+}
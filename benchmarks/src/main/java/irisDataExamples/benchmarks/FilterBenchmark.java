@@ -0,0 +1,86 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Filter.useFilter with the filters (and options) of AttributesFilter, DiscretizeAttributes,
+ * SparsityHandler and VariableSelection.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import weka.attributeSelection.CfsSubsetEval;
+import weka.attributeSelection.GreedyStepwise;
+import weka.core.Instances;
+import weka.filters.Filter;
+import weka.filters.supervised.attribute.AttributeSelection;
+import weka.filters.unsupervised.attribute.Discretize;
+import weka.filters.unsupervised.attribute.Remove;
+import weka.filters.unsupervised.instance.NonSparseToSparse;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class FilterBenchmark {
+
+	@Param({"Remove", "Discretize", "NonSparseToSparse", "AttributeSelection"})
+	public String filter;
+
+	@Param({"1000", "100000", "1000000"})
+	public int rows;
+
+	private Instances data;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		data = SyntheticIris.generate(rows, 47);
+	}
+
+	@Benchmark
+	public Instances useFilter() throws Exception {
+		Filter f = newFilter(filter);
+		f.setInputFormat(data);
+		return Filter.useFilter(data, f);
+	}
+
+	static Filter newFilter(String name) throws Exception {
+		if(name.equals("Remove")) {
+			Remove remove = new Remove();
+			remove.setOptions(new String[] {"-R","1,4","-V"});
+			return remove;
+		}
+		if(name.equals("Discretize")) {
+			Discretize discretize = new Discretize();
+			discretize.setOptions(new String[] {"-B","4","-R","1-2","-V"});
+			return discretize;
+		}
+		if(name.equals("NonSparseToSparse"))
+			return new NonSparseToSparse();
+		if(name.equals("AttributeSelection")) {
+			AttributeSelection selection = new AttributeSelection();
+			GreedyStepwise search = new GreedyStepwise();
+			search.setSearchBackwards(true);
+			selection.setEvaluator(new CfsSubsetEval());
+			selection.setSearch(search);
+			return selection;
+		}
+		throw new IllegalArgumentException("Unknown filter: " + name);
+	}
+}
@@ -0,0 +1,115 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * k-means (3 clusters, k-means++, no class) on Iris-shaped data: SimpleKMeans against
+ * FastKMeans with parallel Lloyd iterations and with mini-batches of 1000 rows, building and
+ * ClusterEvaluation. learnFromFile clusters an ARFF file of the same rows chunk by chunk
+ * (reading the file included), as data too large for memory would be.
+ *
+ * HierarchicalClusterer needs the distances of all the pairs and does not get past a few
+ * thousand rows; ClusteringBenchmark has it (and FastHierarchicalClusterer) for 2000 rows.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import irisDataExamples.ChunkedDataSource;
+import irisDataExamples.FastKMeans;
+import weka.clusterers.ClusterEvaluation;
+import weka.clusterers.SimpleKMeans;
+import weka.core.Instances;
+import weka.core.SelectedTag;
+import weka.core.converters.ArffSaver;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class KMeansBenchmark {
+
+	@Param({"2000", "100000", "1000000"})
+	public int rows;
+
+	private Instances data;
+	private File arff;
+
+	@Setup(Level.Trial)
+	public void generate() throws Exception {
+		data = SyntheticIris.generate(rows, 47);
+		data.setClassIndex(-1);
+		arff = File.createTempFile("iris_synthetic", ".arff");
+		ArffSaver saver = new ArffSaver();
+		saver.setInstances(data);
+		saver.setFile(arff);
+		saver.writeBatch();
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteArff() {
+		arff.delete();
+	}
+
+	@Benchmark
+	public String simpleKMeans() throws Exception {
+		return cluster(new SimpleKMeans());
+	}
+
+	@Benchmark
+	public String fastKMeans() throws Exception {
+		return cluster(new FastKMeans());
+	}
+
+	@Benchmark
+	public String miniBatch() throws Exception {
+		FastKMeans kmeans = new FastKMeans();
+		kmeans.setMiniBatchSize(1000);
+		return cluster(kmeans);
+	}
+
+	@Benchmark
+	public String learnFromFile() throws Exception {
+		FastKMeans kmeans = new FastKMeans();
+		configure(kmeans);
+		kmeans.setMiniBatchSize(1000);
+		ChunkedDataSource source = new ChunkedDataSource(arff.getPath(), 10000);
+		try {
+			kmeans.learn(source);
+		} finally {
+			source.close();
+		}
+		return kmeans.toString();
+	}
+
+	private String cluster(SimpleKMeans kmeans) throws Exception {
+		configure(kmeans);
+		kmeans.buildClusterer(data);
+		ClusterEvaluation eval = new ClusterEvaluation();
+		eval.setClusterer(kmeans);
+		eval.evaluateClusterer(data);
+		return eval.clusterResultsToString();
+	}
+
+	private static void configure(SimpleKMeans kmeans) throws Exception {
+		kmeans.setNumClusters(3);
+		kmeans.setInitializationMethod(new SelectedTag(SimpleKMeans.KMEANS_PLUS_PLUS, SimpleKMeans.TAGS_SELECTION));
+	}
+}
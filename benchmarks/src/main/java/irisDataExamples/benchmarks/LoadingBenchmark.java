@@ -0,0 +1,71 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * ARFF loading with DataSource.getDataSet, as every example starts with,
+ * against loading the same file through its ColumnarCache.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import irisDataExamples.ColumnarCache;
+import weka.core.Instances;
+import weka.core.converters.ArffSaver;
+import weka.core.converters.ConverterUtils.DataSource;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class LoadingBenchmark {
+
+	@Param({"1000", "100000", "1000000"})
+	public int rows;
+
+	private File arff;
+
+	@Setup(Level.Trial)
+	public void writeArff() throws Exception {
+		arff = File.createTempFile("iris_synthetic", ".arff");
+		ArffSaver saver = new ArffSaver();
+		saver.setInstances(SyntheticIris.generate(rows, 47));
+		saver.setFile(arff);
+		saver.writeBatch();
+		ColumnarCache.getDataSet(arff.getPath());//writes the cache once
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteArff() {
+		arff.delete();
+		new File(arff.getPath() + ColumnarCache.EXTENSION).delete();
+	}
+
+	@Benchmark
+	public Instances getDataSet() throws Exception {
+		return new DataSource(arff.getPath()).getDataSet();
+	}
+
+	@Benchmark
+	public Instances columnarCache() throws Exception {
+		return ColumnarCache.getDataSet(arff.getPath());
+	}
+}
@@ -0,0 +1,103 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Logistic regression on Iris-shaped data: Logistic against FastLogistic (likelihood and
+ * gradient reduced over row partitions), MultiClassClassifier of Logistic against
+ * FastMultiClassClassifier of FastLogistic (binary models trained concurrently), and the
+ * update of a FastLogistic trained on 90% of the rows with the other 10%.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import irisDataExamples.FastLogistic;
+import irisDataExamples.FastMultiClassClassifier;
+import weka.classifiers.Classifier;
+import weka.classifiers.functions.Logistic;
+import weka.classifiers.meta.MultiClassClassifier;
+import weka.core.Instances;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class LogisticBenchmark {
+
+	@Param({"10000", "100000"})
+	public int rows;
+
+	private Instances data;
+	private Instances first;
+	private Instances rest;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		data = SyntheticIris.generate(rows, 47);
+		int split = rows/10*9;
+		first = new Instances(data, 0, split);
+		rest = new Instances(data, split, rows - split);
+	}
+
+	//a model of the first 90% of the rows, trained again before every update
+	@State(Scope.Thread)
+	public static class Trained {
+
+		FastLogistic model;
+
+		@Setup(Level.Invocation)
+		public void train(LogisticBenchmark benchmark) throws Exception {
+			model = new FastLogistic();
+			model.buildClassifier(benchmark.first);
+		}
+	}
+
+	@Benchmark
+	public Classifier logistic() throws Exception {
+		return build(new Logistic());
+	}
+
+	@Benchmark
+	public Classifier fastLogistic() throws Exception {
+		return build(new FastLogistic());
+	}
+
+	@Benchmark
+	public Classifier multiClassClassifier() throws Exception {
+		MultiClassClassifier multiClass = new MultiClassClassifier();
+		multiClass.setClassifier(new Logistic());
+		return build(multiClass);
+	}
+
+	@Benchmark
+	public Classifier fastMultiClassClassifier() throws Exception {
+		return build(new FastMultiClassClassifier());
+	}
+
+	@Benchmark
+	public Classifier fastLogisticUpdate(Trained trained) throws Exception {
+		trained.model.update(rest);
+		return trained.model;
+	}
+
+	private Classifier build(Classifier classifier) throws Exception {
+		classifier.buildClassifier(data);
+		return classifier;
+	}
+}
@@ -0,0 +1,81 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * MultilayerPerceptron on Iris-shaped data: WEKA's per-instance training against
+ * FastMultilayerPerceptron row by row (the same network) and by mini-batches of 64 rows
+ * (blocks of rows split across cores).
+ *
+ * Each build runs 100 epochs instead of the default 500, so the larger size stays within a
+ * measurement.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import irisDataExamples.FastMultilayerPerceptron;
+import weka.classifiers.Classifier;
+import weka.classifiers.functions.MultilayerPerceptron;
+import weka.core.Instances;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class MlpBenchmark {
+
+	private static final int EPOCHS = 100;
+
+	@Param({"10000", "50000"})
+	public int rows;
+
+	private Instances data;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		data = SyntheticIris.generate(rows, 47);
+	}
+
+	@Benchmark
+	public Classifier multilayerPerceptron() throws Exception {
+		MultilayerPerceptron mlp = new MultilayerPerceptron();
+		mlp.setTrainingTime(EPOCHS);
+		return build(mlp);
+	}
+
+	@Benchmark
+	public Classifier fastMultilayerPerceptron() throws Exception {
+		FastMultilayerPerceptron mlp = new FastMultilayerPerceptron();
+		mlp.setTrainingTime(EPOCHS);
+		return build(mlp);
+	}
+
+	@Benchmark
+	public Classifier fastMultilayerPerceptronMiniBatch() throws Exception {
+		FastMultilayerPerceptron mlp = new FastMultilayerPerceptron();
+		mlp.setTrainingTime(EPOCHS);
+		mlp.setMiniBatchSize(64);
+		return build(mlp);
+	}
+
+	private Classifier build(Classifier classifier) throws Exception {
+		classifier.buildClassifier(data);
+		return classifier;
+	}
+}
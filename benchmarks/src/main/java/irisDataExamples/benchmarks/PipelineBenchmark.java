@@ -0,0 +1,86 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Remove -> Discretize -> NonSparseToSparse, chained with Filter.useFilter (one full copy of
+ * the data per filter) against one streaming pass through FilterPipeline.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import irisDataExamples.FilterPipeline;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.filters.Filter;
+import weka.filters.unsupervised.attribute.Discretize;
+import weka.filters.unsupervised.attribute.Remove;
+import weka.filters.unsupervised.instance.NonSparseToSparse;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class PipelineBenchmark {
+
+	@Param({"1000", "100000", "1000000"})
+	public int rows;
+
+	private Instances data;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		data = SyntheticIris.generate(rows, 47);
+	}
+
+	@Benchmark
+	public Instances chainedUseFilter() throws Exception {
+		Instances result = data;
+		for(Filter f : newFilters()) {
+			f.setInputFormat(result);
+			result = Filter.useFilter(result, f);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public void fusedPipeline(final Blackhole bh) throws Exception {
+		FilterPipeline pipeline = new FilterPipeline();
+		for(Filter f : newFilters())
+			pipeline.add(f);
+		pipeline.setInputFormat(data);
+		FilterPipeline.RowConsumer consumer = new FilterPipeline.RowConsumer() {
+			public void accept(Instance inst) {
+				bh.consume(inst);
+			}
+		};
+		for(int n=0;n<data.numInstances();n++)
+			pipeline.process(data.instance(n), consumer);
+		pipeline.flush(consumer);
+	}
+
+	static Filter[] newFilters() throws Exception {
+		Remove remove = new Remove();
+		remove.setOptions(new String[] {"-R","1,4,5","-V"});
+		Discretize discretize = new Discretize();
+		discretize.setOptions(new String[] {"-B","4","-R","1-2"});
+		return new Filter[] {remove, discretize, new NonSparseToSparse()};
+	}
+}
@@ -0,0 +1,93 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Repeated scoring traffic: BatchPredictor against a PredictionCache that has already seen the
+ * rows (warm) and one made for every call (cold, only the repeats within the block are saved).
+ * The synthetic values have one decimal, so rows repeat as in Iris.
+ *
+ * IBk and SMO with an RBF kernel compute every prediction from their training rows or support
+ * vectors, J48 is compiled to flat arrays by BatchPredictor and costs less than a lookup.
+ * Models are trained once on 1000 synthetic rows.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import irisDataExamples.BatchPredictor;
+import irisDataExamples.PredictionCache;
+import weka.classifiers.Classifier;
+import weka.classifiers.functions.SMO;
+import weka.classifiers.functions.supportVector.RBFKernel;
+import weka.classifiers.lazy.IBk;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class PredictionCacheBenchmark {
+
+	@Param({"IBk", "SMORBF", "J48"})
+	public String classifier;
+
+	@Param({"1000", "10000"})
+	public int rows;
+
+	private Classifier model;
+	private Instances data;
+	private BatchPredictor predictor;
+	private PredictionCache cache;
+
+	@Setup(Level.Trial)
+	public void train() throws Exception {
+		Instances train = SyntheticIris.generate(1000, 47);
+		data = SyntheticIris.generate(rows, 48);
+		if(classifier.equals("IBk")) {
+			model = new IBk(5);
+		} else if(classifier.equals("SMORBF")) {
+			SMO smo = new SMO();
+			smo.setKernel(new RBFKernel());
+			model = smo;
+		} else {
+			model = new J48();
+		}
+		model.buildClassifier(train);
+		predictor = new BatchPredictor(model);
+		cache = new PredictionCache(model);
+		cache.setMaximumSize(rows);
+		cache.classifyInstances(data);
+	}
+
+	@Benchmark
+	public double[] batchPredictor() throws Exception {
+		return predictor.classifyInstances(data);
+	}
+
+	@Benchmark
+	public double[] predictionCacheWarm() throws Exception {
+		return cache.classifyInstances(data);
+	}
+
+	@Benchmark
+	public double[] predictionCacheCold() throws Exception {
+		return new PredictionCache(model).classifyInstances(data);
+	}
+}
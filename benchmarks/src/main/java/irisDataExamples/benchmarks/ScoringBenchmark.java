@@ -0,0 +1,74 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Scoring throughput: one classifyInstance call per row, as in the prediction examples,
+ * against one BatchPredictor call for the whole block.
+ *
+ * Models are trained once on 1000 synthetic rows; the benchmark scores rows rows.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import irisDataExamples.BatchPredictor;
+import weka.classifiers.Classifier;
+import weka.core.Instances;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ScoringBenchmark {
+
+	@Param({"J48", "LMT", "SMO", "SMOreg", "MLP", "NaiveBayes"})
+	public String classifier;
+
+	@Param({"1000", "100000", "1000000"})
+	public int rows;
+
+	private Classifier model;
+	private Instances data;
+	private BatchPredictor predictor;
+
+	@Setup(Level.Trial)
+	public void train() throws Exception {
+		Instances train = SyntheticIris.generate(1000, 47);
+		data = SyntheticIris.generate(rows, 48);
+		if(TrainingBenchmark.isRegression(classifier)) {
+			train.setClassIndex(train.numAttributes()-2);
+			data.setClassIndex(data.numAttributes()-2);
+		}
+		model = TrainingBenchmark.newClassifier(classifier);
+		model.buildClassifier(train);
+		predictor = new BatchPredictor(model);
+	}
+
+	@Benchmark
+	public void classifyInstance(Blackhole bh) throws Exception {
+		for(int n=0;n<data.numInstances();n++)
+			bh.consume(model.classifyInstance(data.instance(n)));
+	}
+
+	@Benchmark
+	public double[] batchPredictor() throws Exception {
+		return predictor.classifyInstances(data);
+	}
+}
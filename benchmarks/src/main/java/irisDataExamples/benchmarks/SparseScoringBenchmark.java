@@ -0,0 +1,100 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Scoring of 99%-zero data: one classifyInstance call per SparseInstance, BatchPredictor on
+ * the Instances and BatchPredictor on a SparseStore (non-zero entries only). For NaiveBayes
+ * the first two score WEKA's model and the last one the same model trained as a SparseNaiveBayes.
+ *
+ * Models are trained once on 3000 synthetic text rows of attributes words;
+ * the benchmark scores rows rows.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import irisDataExamples.BatchPredictor;
+import irisDataExamples.SparseNaiveBayes;
+import irisDataExamples.SparseStore;
+import weka.classifiers.Classifier;
+import weka.classifiers.bayes.NaiveBayes;
+import weka.classifiers.functions.Logistic;
+import weka.core.Instances;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SparseScoringBenchmark {
+
+	@Param({"NaiveBayes", "Logistic", "SMO"})
+	public String classifier;
+
+	@Param({"1000"})
+	public int attributes;
+
+	@Param({"10000", "100000"})
+	public int rows;
+
+	private Classifier model;
+	private Instances data;
+	private SparseStore store;
+	private BatchPredictor predictor;
+	private BatchPredictor sparsePredictor;
+
+	@Setup(Level.Trial)
+	public void train() throws Exception {
+		Instances train = SyntheticText.generate(3000, attributes, 47);
+		data = SyntheticText.generate(rows, attributes, 48);
+		store = SparseStore.of(data);
+		if(classifier.equals("NaiveBayes")) {
+			model = new NaiveBayes();
+			SparseNaiveBayes sparseModel = new SparseNaiveBayes();
+			sparseModel.buildClassifier(SparseStore.of(train));
+			sparsePredictor = new BatchPredictor(sparseModel);
+		} else if(classifier.equals("Logistic")) {
+			Logistic logistic = new Logistic();
+			logistic.setMaxIts(100);
+			model = logistic;
+		} else {
+			model = TrainingBenchmark.newClassifier(classifier);
+		}
+		model.buildClassifier(train);
+		predictor = new BatchPredictor(model);
+		if(sparsePredictor == null)
+			sparsePredictor = predictor;
+	}
+
+	@Benchmark
+	public void classifyInstance(Blackhole bh) throws Exception {
+		for(int n=0;n<data.numInstances();n++)
+			bh.consume(model.classifyInstance(data.instance(n)));
+	}
+
+	@Benchmark
+	public double[] batchPredictor() throws Exception {
+		return predictor.classifyInstances(data);
+	}
+
+	@Benchmark
+	public double[] batchPredictorSparseStore() throws Exception {
+		return sparsePredictor.classify(store);
+	}
+}
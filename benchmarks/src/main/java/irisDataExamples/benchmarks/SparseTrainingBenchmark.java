@@ -0,0 +1,66 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * NaiveBayes training on 99%-zero data: WEKA's buildClassifier on the SparseInstances
+ * against SparseNaiveBayes on a SparseStore of the same rows (building the store included).
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import irisDataExamples.SparseNaiveBayes;
+import irisDataExamples.SparseStore;
+import weka.classifiers.Classifier;
+import weka.classifiers.bayes.NaiveBayes;
+import weka.core.Instances;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SparseTrainingBenchmark {
+
+	@Param({"1000"})
+	public int attributes;
+
+	@Param({"10000", "100000"})
+	public int rows;
+
+	private Instances data;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		data = SyntheticText.generate(rows, attributes, 47);
+	}
+
+	@Benchmark
+	public Classifier naiveBayes() throws Exception {
+		NaiveBayes model = new NaiveBayes();
+		model.buildClassifier(data);
+		return model;
+	}
+
+	@Benchmark
+	public Classifier sparseNaiveBayes() throws Exception {
+		SparseNaiveBayes model = new SparseNaiveBayes();
+		model.buildClassifier(SparseStore.of(data));
+		return model;
+	}
+}
@@ -0,0 +1,68 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Backward CfsSubsetEval search of VariableSelection on synthetic text data with many attributes:
+ * GreedyStepwise against ParallelGreedyStepwise (building the evaluator included).
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import irisDataExamples.ParallelGreedyStepwise;
+import weka.attributeSelection.CfsSubsetEval;
+import weka.attributeSelection.GreedyStepwise;
+import weka.core.Instances;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SubsetSearchBenchmark {
+
+	@Param({"100", "300"})
+	public int attributes;
+
+	@Param({"2000"})
+	public int rows;
+
+	private Instances data;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		data = SyntheticText.generate(rows, attributes, 47);
+	}
+
+	@Benchmark
+	public int[] greedyStepwise() throws Exception {
+		return search(new GreedyStepwise());
+	}
+
+	@Benchmark
+	public int[] parallelGreedyStepwise() throws Exception {
+		return search(new ParallelGreedyStepwise());
+	}
+
+	private int[] search(GreedyStepwise search) throws Exception {
+		CfsSubsetEval eval = new CfsSubsetEval();
+		eval.buildEvaluator(data);
+		search.setSearchBackwards(true);
+		return search.search(eval, data);
+	}
+}
@@ -0,0 +1,96 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Support vector machines on Iris-shaped data: SMO against FastSMO (one-vs-one machines trained
+ * concurrently, kernel rows cached for the RBF kernel) with the default linear kernel and with an
+ * RBF kernel, and SMOreg against FastSMOreg (kernel rows cached) predicting petalwidth.
+ *
+ * The WEKA solvers ask for about rows^2 kernel values, so the sizes stay in the thousands.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import irisDataExamples.FastSMO;
+import irisDataExamples.FastSMOreg;
+import weka.classifiers.Classifier;
+import weka.classifiers.functions.SMO;
+import weka.classifiers.functions.SMOreg;
+import weka.classifiers.functions.supportVector.RBFKernel;
+import weka.core.Instances;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SvmBenchmark {
+
+	@Param({"1000", "3000"})
+	public int rows;
+
+	private Instances data;
+	private Instances regression;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		data = SyntheticIris.generate(rows, 47);
+		regression = new Instances(data);
+		regression.setClassIndex(3);
+	}
+
+	@Benchmark
+	public Classifier smo() throws Exception {
+		return build(new SMO(), data);
+	}
+
+	@Benchmark
+	public Classifier fastSMO() throws Exception {
+		return build(new FastSMO(), data);
+	}
+
+	@Benchmark
+	public Classifier smoRBF() throws Exception {
+		SMO smo = new SMO();
+		smo.setKernel(new RBFKernel());
+		return build(smo, data);
+	}
+
+	@Benchmark
+	public Classifier fastSMORBF() throws Exception {
+		FastSMO smo = new FastSMO();
+		smo.setKernel(new RBFKernel());
+		return build(smo, data);
+	}
+
+	@Benchmark
+	public Classifier smoreg() throws Exception {
+		return build(new SMOreg(), regression);
+	}
+
+	@Benchmark
+	public Classifier fastSMOreg() throws Exception {
+		return build(new FastSMOreg(), regression);
+	}
+
+	private static Classifier build(Classifier classifier, Instances data) throws Exception {
+		classifier.buildClassifier(data);
+		return classifier;
+	}
+}
@@ -0,0 +1,53 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Market-basket synthetic data for the association rule benchmarks.
+ *
+ * numItems nominal {f, t} attributes, one per product. Every row is a basket of one of five
+ * kinds of shopper: the products of its kind (every fifth one) are bought with probability 0.6,
+ * the others with probability 0.08, so baskets have about 20% of the products and the products
+ * of a kind come together. Rows are stored as SparseInstances (f is 0).
+ * A fixed seed gives the same rows every time.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import weka.core.Attribute;
+import weka.core.Instances;
+import weka.core.SparseInstance;
+
+public class SyntheticBaskets {
+
+	private static final int KINDS = 5;
+
+	/**
+	 * Empty dataset with numItems product attributes and no class.
+	 */
+	public static Instances header(int numItems, int capacity) {
+		ArrayList<Attribute> atts = new ArrayList<Attribute>();
+		for(int j=0;j<numItems;j++)
+			atts.add(new Attribute("product" + j, Arrays.asList("f", "t")));
+		return new Instances("baskets_synthetic", atts, capacity);
+	}
+
+	/**
+	 * numRows baskets over numItems products.
+	 */
+	public static Instances generate(int numRows, int numItems, long seed) {
+		Random rand = new Random(seed);
+		Instances data = header(numItems, numRows);
+		for(int i=0;i<numRows;i++) {
+			int kind = rand.nextInt(KINDS);
+			double[] values = new double[numItems];
+			for(int j=0;j<numItems;j++)
+				values[j] = rand.nextDouble() < (j % KINDS == kind ? 0.6 : 0.08) ? 1 : 0;
+			data.add(new SparseInstance(1.0, values));
+		}
+		return data;
+	}
+}
@@ -0,0 +1,69 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Iris-shaped synthetic data for the benchmarks.
+ *
+ * Same header as src/data/iris.arff (4 numeric attributes and the 3-valued class),
+ * with rows drawn from per-class Gaussians fitted on the real Iris data and rounded to
+ * one decimal, so it can be scaled to any number of rows. A fixed seed gives the same rows every time.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+public class SyntheticIris {
+
+	private static final String[] CLASSES = {"Iris-setosa", "Iris-versicolor", "Iris-virginica"};
+
+	//per class mean and standard deviation of sepallength, sepalwidth, petallength, petalwidth
+	private static final double[][] MEANS = {
+		{5.006, 3.428, 1.462, 0.246},
+		{5.936, 2.770, 4.260, 1.326},
+		{6.588, 2.974, 5.552, 2.026}};
+	private static final double[][] SDS = {
+		{0.352, 0.379, 0.174, 0.105},
+		{0.516, 0.314, 0.470, 0.198},
+		{0.636, 0.322, 0.552, 0.275}};
+
+	/**
+	 * Empty dataset with the Iris attributes, class index set to the last attribute.
+	 */
+	public static Instances header(int capacity) {
+		ArrayList<Attribute> atts = new ArrayList<Attribute>();
+		atts.add(new Attribute("sepallength"));
+		atts.add(new Attribute("sepalwidth"));
+		atts.add(new Attribute("petallength"));
+		atts.add(new Attribute("petalwidth"));
+		atts.add(new Attribute("class", Arrays.asList(CLASSES)));
+		Instances data = new Instances("iris_synthetic", atts, capacity);
+		data.setClassIndex(data.numAttributes()-1);
+		return data;
+	}
+
+	/**
+	 * numRows Iris-shaped rows, classes in equal proportion.
+	 */
+	public static Instances generate(int numRows, long seed) {
+		Random rand = new Random(seed);
+		Instances data = header(numRows);
+		for(int i=0;i<numRows;i++) {
+			int c = i % CLASSES.length;
+			double[] values = new double[5];
+			for(int j=0;j<4;j++) {
+				double v = MEANS[c][j] + SDS[c][j]*rand.nextGaussian();
+				values[j] = Math.max(0.1, Math.round(v*10)/10.0);
+			}
+			values[4] = c;
+			data.add(new DenseInstance(1.0, values));
+		}
+		return data;
+	}
+}
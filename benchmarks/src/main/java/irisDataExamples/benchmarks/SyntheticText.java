@@ -0,0 +1,60 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Text-like synthetic data for the sparse benchmarks.
+ *
+ * numAttributes numeric "word count" attributes and a 3-valued class; every row has about
+ * 1% of its attributes non-zero (counts 1 to 3), drawn mostly from the words of its own class,
+ * and is stored as a SparseInstance, as NonSparseToSparse leaves it.
+ * A fixed seed gives the same rows every time.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import weka.core.Attribute;
+import weka.core.Instances;
+import weka.core.SparseInstance;
+
+public class SyntheticText {
+
+	private static final String[] CLASSES = {"sports", "politics", "science"};
+
+	/**
+	 * Empty dataset with numAttributes word attributes and the class (last).
+	 */
+	public static Instances header(int numAttributes, int capacity) {
+		ArrayList<Attribute> atts = new ArrayList<Attribute>();
+		for(int j=0;j<numAttributes;j++)
+			atts.add(new Attribute("word" + j));
+		atts.add(new Attribute("class", Arrays.asList(CLASSES)));
+		Instances data = new Instances("text_synthetic", atts, capacity);
+		data.setClassIndex(data.numAttributes()-1);
+		return data;
+	}
+
+	/**
+	 * numRows rows over numAttributes words, classes in equal proportion.
+	 */
+	public static Instances generate(int numRows, int numAttributes, long seed) {
+		Random rand = new Random(seed);
+		Instances data = header(numAttributes, numRows);
+		int wordsPerRow = Math.max(1, numAttributes/100);
+		for(int i=0;i<numRows;i++) {
+			int c = i % CLASSES.length;
+			double[] values = new double[numAttributes+1];
+			for(int w=0;w<wordsPerRow;w++) {
+				//two words out of three from the class vocabulary
+				int j = rand.nextInt(3) < 2 ? (c*numAttributes/3 + rand.nextInt(numAttributes/3)) : rand.nextInt(numAttributes);
+				values[j] = 1 + rand.nextInt(3);
+			}
+			values[numAttributes] = c;
+			data.add(new SparseInstance(1.0, values));
+		}
+		return data;
+	}
+}
@@ -0,0 +1,90 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * buildClassifier for the classifiers used in the examples.
+ *
+ * SMOreg and MultilayerPerceptron are trained as regressions on petalwidth (as in
+ * RegressionCoefficients), the others predict the class. LMT, SMO and MLP get slow
+ * quickly: larger sizes can be asked for with -p rows=...
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.bayes.NaiveBayes;
+import weka.classifiers.functions.MultilayerPerceptron;
+import weka.classifiers.functions.SMO;
+import weka.classifiers.functions.SMOreg;
+import weka.classifiers.trees.J48;
+import weka.classifiers.trees.LMT;
+import weka.classifiers.trees.RandomForest;
+import weka.core.Instances;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class TrainingBenchmark {
+
+	@Param({"J48", "LMT", "SMO", "SMOreg", "MLP", "NaiveBayes"})
+	public String classifier;
+
+	@Param({"1000", "10000", "100000"})
+	public int rows;
+
+	private Instances data;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		data = SyntheticIris.generate(rows, 47);
+		if(isRegression(classifier))
+			data.setClassIndex(data.numAttributes()-2);
+	}
+
+	@Benchmark
+	public Classifier buildClassifier() throws Exception {
+		Classifier model = newClassifier(classifier);
+		model.buildClassifier(data);
+		return model;
+	}
+
+	static boolean isRegression(String name) {
+		return name.equals("SMOreg") || name.equals("MLP");
+	}
+
+	static Classifier newClassifier(String name) {
+		if(name.equals("J48"))
+			return new J48();
+		if(name.equals("LMT"))
+			return new LMT();
+		if(name.equals("RandomForest"))
+			return new RandomForest();
+		if(name.equals("SMO"))
+			return new SMO();
+		if(name.equals("SMOreg"))
+			return new SMOreg();
+		if(name.equals("MLP"))
+			return new MultilayerPerceptron();
+		if(name.equals("NaiveBayes"))
+			return new NaiveBayes();
+		throw new IllegalArgumentException("Unknown classifier: " + name);
+	}
+}
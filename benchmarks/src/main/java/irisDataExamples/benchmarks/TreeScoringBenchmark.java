@@ -0,0 +1,72 @@
+package irisDataExamples.benchmarks;
+
+/**
+ * Tree inference: the object walk of distributionForInstance (one call and one tree of
+ * node objects per row) against the flat arrays of ModelCodec.compile, scored block by block
+ * on a single thread.
+ *
+ * Models are trained once on 1000 synthetic rows; the benchmark scores rows rows.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import irisDataExamples.CompactModel;
+import irisDataExamples.ModelCodec;
+import weka.classifiers.Classifier;
+import weka.core.Instances;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class TreeScoringBenchmark {
+
+	@Param({"J48", "LMT", "RandomForest"})
+	public String classifier;
+
+	@Param({"1000", "100000", "1000000"})
+	public int rows;
+
+	private Classifier model;
+	private CompactModel compiled;
+	private Instances data;
+
+	@Setup(Level.Trial)
+	public void train() throws Exception {
+		Instances train = SyntheticIris.generate(1000, 47);
+		data = SyntheticIris.generate(rows, 48);
+		model = TrainingBenchmark.newClassifier(classifier);
+		model.buildClassifier(train);
+		compiled = ModelCodec.compile(model, train);
+	}
+
+	@Benchmark
+	public void objectWalk(Blackhole bh) throws Exception {
+		for(int n=0;n<data.numInstances();n++)
+			bh.consume(model.distributionForInstance(data.instance(n)));
+	}
+
+	@Benchmark
+	public double[][] flatArrays() {
+		return compiled.distributionsForInstances(data);
+	}
+}
@@ -0,0 +1,101 @@
+package irisDataExamples;
+
+/**
+ * DatasetStats against Instances.attributeStats: same statistics (AttributeStats.toString) for
+ * numeric and nominal attributes, integer-valued ones, missing values and weighted rows, and the
+ * same whether computed in one pass, over parallel row ranges, merged from chunks or row by row.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import irisDataExamples.benchmarks.SyntheticIris;
+import weka.core.Attribute;
+import weka.core.Instances;
+
+public class DatasetStatsTest {
+
+	//the Iris rows with a 3-valued nominal attribute, an integer-valued one, weights of 0.5 to 2.5
+	//and some values missing
+	private static Instances mixed(int numRows, long seed) {
+		Instances data = SyntheticIris.generate(numRows, seed);
+		data.insertAttributeAt(new Attribute("group", Arrays.asList("a", "b", "c")), 0);
+		data.insertAttributeAt(new Attribute("count"), 1);
+		Random rand = new Random(seed);
+		for(int i=0;i<data.numInstances();i++) {
+			data.instance(i).setValue(0, rand.nextInt(3));
+			data.instance(i).setValue(1, rand.nextInt(20) - 5);
+			data.instance(i).setWeight(0.5 + rand.nextInt(3));
+			for(int j=0;j<data.numAttributes();j++) {
+				if(rand.nextInt(20) == 0)
+					data.instance(i).setMissing(j);
+			}
+		}
+		return data;
+	}
+
+	private static void assertSameAsWeka(Instances data, DatasetStats stats, String message) {
+		assertEquals(message, data.numInstances(), stats.numRows());
+		for(int j=0;j<data.numAttributes();j++)
+			assertEquals(message + ", " + data.attribute(j).name(), data.attributeStats(j).toString(), stats.attributeStats(j).toString());
+	}
+
+	@Test
+	public void iris() throws Exception {
+		Instances data = SyntheticIris.generate(300, 1);
+		assertSameAsWeka(data, DatasetStats.compute(data, 1), "one pass");
+	}
+
+	@Test
+	public void mixedAttributes() throws Exception {
+		Instances data = mixed(300, 2);
+		assertSameAsWeka(data, DatasetStats.compute(data, 1), "one pass");
+	}
+
+	@Test
+	public void parallel() throws Exception {
+		//several ranges of rows, merged
+		Instances data = mixed(50000, 3);
+		assertSameAsWeka(data, DatasetStats.compute(data, 4), "4 threads");
+		assertSameAsWeka(data, DatasetStats.of(data), "cached");
+	}
+
+	@Test
+	public void chunks() throws Exception {
+		Instances data = mixed(1000, 4);
+		DatasetStats merged = new DatasetStats(data);
+		for(int first=0;first<data.numInstances();first+=128) {
+			int to = Math.min(data.numInstances(), first + 128);
+			DatasetStats partial = new DatasetStats(data);
+			partial.add(data, first, to);
+			merged.merge(partial);
+		}
+		assertSameAsWeka(data, merged, "chunks");
+
+		DatasetStats rows = new DatasetStats(data);
+		for(int i=0;i<data.numInstances();i++)
+			rows.add(data.instance(i));
+		assertSameAsWeka(data, rows, "row by row");
+	}
+
+	@Test
+	public void cacheFollowsRows() throws Exception {
+		//rows added after the first call are counted
+		Instances data = mixed(300, 5);
+		DatasetStats.of(data);
+		data.addAll(mixed(100, 6));
+		assertSameAsWeka(data, DatasetStats.of(data), "after adding rows");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void otherHeader() throws Exception {
+		new DatasetStats(mixed(10, 7)).merge(new DatasetStats(SyntheticIris.generate(10, 7)));
+	}
+}
@@ -0,0 +1,112 @@
+package irisDataExamples;
+
+/**
+ * FastAdaBoostM1 against AdaBoostM1 with the same options: same stumps and weights (toString)
+ * and class probabilities, for the number of iterations, seeds, weighted rows, nominal
+ * attributes with missing values, a separable class (boosting stops early) and the options
+ * left to AdaBoostM1.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import irisDataExamples.benchmarks.SyntheticIris;
+import weka.classifiers.meta.AdaBoostM1;
+import weka.core.Attribute;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class FastAdaBoostM1Test {
+
+	//the Iris rows with a 3-valued nominal attribute, weights of 0.5 to 2.5 and some values missing
+	private static Instances mixed(int numRows, long seed) {
+		Instances data = SyntheticIris.generate(numRows, seed);
+		data.insertAttributeAt(new Attribute("group", Arrays.asList("a", "b", "c")), 0);
+		Random rand = new Random(seed);
+		for(int i=0;i<data.numInstances();i++) {
+			data.instance(i).setValue(0, rand.nextInt(4) == 0 ? rand.nextInt(3) : (int) data.instance(i).classValue());
+			data.instance(i).setWeight(0.5 + rand.nextInt(3));
+			for(int j=0;j<data.numAttributes()-1;j++) {
+				if(rand.nextInt(20) == 0)
+					data.instance(i).setMissing(j);
+			}
+		}
+		return data;
+	}
+
+	private static void assertSameAsWeka(Instances data, String options) throws Exception {
+		AdaBoostM1 weka = new AdaBoostM1();
+		weka.setOptions(Utils.splitOptions(options));
+		weka.buildClassifier(data);
+		FastAdaBoostM1 fast = new FastAdaBoostM1();
+		fast.setOptions(Utils.splitOptions(options));
+		fast.buildClassifier(data);
+		assertSame(weka, fast, data, options);
+	}
+
+	private static void assertSame(AdaBoostM1 expected, AdaBoostM1 actual, Instances data, String options) throws Exception {
+		assertEquals(options, expected.toString(), actual.toString());
+		for(int i=0;i<data.numInstances();i++)
+			assertArrayEquals(options + ", row " + i, expected.distributionForInstance(data.instance(i)), actual.distributionForInstance(data.instance(i)), 0);
+	}
+
+	@Test
+	public void iterations() throws Exception {
+		Instances data = SyntheticIris.generate(300, 1);
+		for(String iterations : new String[] {"1", "10", "50"})
+			assertSameAsWeka(data, "-I " + iterations);
+	}
+
+	@Test
+	public void seeds() throws Exception {
+		Instances data = SyntheticIris.generate(300, 2);
+		assertSameAsWeka(data, "-I 20 -S 7");
+		assertSameAsWeka(data, "-I 20 -S 42");
+	}
+
+	@Test
+	public void nominalWeightedAndMissing() throws Exception {
+		assertSameAsWeka(mixed(300, 3), "-I 30");
+	}
+
+	@Test
+	public void separableClass() throws Exception {
+		//setosa against versicolor: the first stump makes no error and boosting stops
+		Instances data = SyntheticIris.generate(300, 4);
+		for(int i=data.numInstances()-1;i>=0;i--) {
+			if(data.instance(i).classValue() == 2)
+				data.delete(i);
+		}
+		assertSameAsWeka(data, "-I 10");
+	}
+
+	@Test
+	public void leftToAdaBoostM1() throws Exception {
+		//weight pruning, resampling and another base classifier
+		Instances data = SyntheticIris.generate(300, 5);
+		assertSameAsWeka(data, "-I 10 -P 90");
+		assertSameAsWeka(data, "-I 10 -Q -S 3");
+		assertSameAsWeka(data, "-I 5 -W weka.classifiers.trees.J48");
+	}
+
+	@Test
+	public void singleThread() throws Exception {
+		Instances data = SyntheticIris.generate(300, 6);
+		AdaBoostM1 weka = new AdaBoostM1();
+		weka.setNumIterations(20);
+		weka.buildClassifier(data);
+		FastAdaBoostM1 fast = new FastAdaBoostM1();
+		fast.setNumIterations(20);
+		fast.setNumThreads(1);
+		fast.buildClassifier(data);
+		assertSame(weka, fast, data, "1 thread");
+	}
+}
@@ -0,0 +1,184 @@
+package irisDataExamples;
+
+/**
+ * FastApriori against Apriori with the same options: same rules, counts of large itemsets and
+ * number of cycles (the whole toString), for every metric type and the options of the search.
+ *
+ * Data: synthetic market baskets (sparse rows, values f and t) and a small nominal dataset with
+ * missing values, like weatherNominal.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import irisDataExamples.benchmarks.SyntheticBaskets;
+import weka.associations.Apriori;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+import weka.core.SelectedTag;
+import weka.core.Utils;
+
+public class FastAprioriTest {
+
+	//numRows rows of 5 attributes with 2 to 4 values, about one value in twenty missing
+	private static Instances nominal(int numRows, long seed) {
+		Random rand = new Random(seed);
+		ArrayList<Attribute> atts = new ArrayList<Attribute>();
+		for(int j=0;j<5;j++) {
+			ArrayList<String> values = new ArrayList<String>();
+			for(int v=0;v<2+j%3;v++)
+				values.add("v" + v);
+			atts.add(new Attribute("a" + j, values));
+		}
+		Instances data = new Instances("nominal", atts, numRows);
+		for(int i=0;i<numRows;i++) {
+			double[] values = new double[atts.size()];
+			for(int j=0;j<values.length;j++) {
+				//the first values more frequent, so there are itemsets of every size
+				int numValues = atts.get(j).numValues();
+				values[j] = rand.nextInt(20) == 0 ? Utils.missingValue() : Math.min(rand.nextInt(numValues+1), numValues-1);
+			}
+			data.add(new DenseInstance(1.0, values));
+		}
+		return data;
+	}
+
+	private interface Options {
+		void set(Apriori apriori) throws Exception;
+	}
+
+	private static void assertSameAsWeka(Instances data, Options options) throws Exception {
+		Apriori weka = new Apriori();
+		options.set(weka);
+		weka.buildAssociations(new Instances(data));
+		FastApriori fast = new FastApriori();
+		options.set(fast);
+		fast.buildAssociations(new Instances(data));
+		assertEquals(weka.toString(), fast.toString());
+	}
+
+	private static SelectedTag metric(int type) {
+		return new SelectedTag(type, Apriori.TAGS_SELECTION);
+	}
+
+	@Test
+	public void defaultOptions() throws Exception {
+		assertSameAsWeka(nominal(14, 1), new Options() {
+			public void set(Apriori apriori) {
+			}
+		});
+		assertSameAsWeka(nominal(40, 2), new Options() {
+			public void set(Apriori apriori) {
+			}
+		});
+	}
+
+	@Test
+	public void baskets() throws Exception {
+		Instances data = SyntheticBaskets.generate(500, 20, 3);
+		assertSameAsWeka(data, new Options() {
+			public void set(Apriori apriori) {
+				apriori.setNumRules(30);
+				apriori.setLowerBoundMinSupport(0.05);
+			}
+		});
+		//f as missing: only the products bought
+		assertSameAsWeka(data, new Options() {
+			public void set(Apriori apriori) {
+				apriori.setNumRules(30);
+				apriori.setLowerBoundMinSupport(0.02);
+				apriori.setMinMetric(0.5);
+				apriori.setTreatZeroAsMissing(true);
+			}
+		});
+	}
+
+	@Test
+	public void metricTypes() throws Exception {
+		Instances data = nominal(200, 4);
+		//confidence, lift, leverage and conviction (the tag ids, protected in Apriori)
+		final double[] minMetrics = {0.6, 1.1, 0.01, 1.1};
+		for(int t=0;t<minMetrics.length;t++) {
+			final int type = t;
+			assertSameAsWeka(data, new Options() {
+				public void set(Apriori apriori) {
+					apriori.setMetricType(metric(type));
+					apriori.setMinMetric(minMetrics[type]);
+					apriori.setNumRules(20);
+				}
+			});
+		}
+	}
+
+	@Test
+	public void supportBounds() throws Exception {
+		Instances data = nominal(200, 5);
+		assertSameAsWeka(data, new Options() {
+			public void set(Apriori apriori) {
+				apriori.setMinMetric(0.7);
+				apriori.setNumRules(50);
+				apriori.setDelta(0.02);
+				apriori.setLowerBoundMinSupport(0.05);
+				apriori.setUpperBoundMinSupport(0.6);
+			}
+		});
+	}
+
+	@Test
+	public void significanceAndItemSets() throws Exception {
+		Instances data = nominal(200, 6);
+		assertSameAsWeka(data, new Options() {
+			public void set(Apriori apriori) {
+				apriori.setMinMetric(0.5);
+				apriori.setSignificanceLevel(0.05);
+				apriori.setOutputItemSets(true);
+			}
+		});
+	}
+
+	@Test
+	public void missingColumns() throws Exception {
+		Instances data = nominal(50, 7);
+		Instances withEmpty = new Instances(data);
+		withEmpty.insertAttributeAt(new Attribute("empty", Arrays.asList("x", "y")), 2);
+		assertSameAsWeka(withEmpty, new Options() {
+			public void set(Apriori apriori) {
+				apriori.setRemoveAllMissingCols(true);
+			}
+		});
+	}
+
+	@Test
+	public void classAssociationRules() throws Exception {
+		//left to Apriori
+		final Instances data = nominal(200, 8);
+		data.setClassIndex(data.numAttributes()-1);
+		assertSameAsWeka(data, new Options() {
+			public void set(Apriori apriori) {
+				apriori.setCar(true);
+				apriori.setMinMetric(0.5);
+			}
+		});
+	}
+
+	@Test
+	public void singleThread() throws Exception {
+		Instances data = SyntheticBaskets.generate(300, 15, 9);
+		assertSameAsWeka(data, new Options() {
+			public void set(Apriori apriori) {
+				apriori.setNumRules(20);
+				if(apriori instanceof FastApriori)
+					((FastApriori) apriori).setNumThreads(1);
+			}
+		});
+	}
+}
@@ -0,0 +1,172 @@
+package irisDataExamples;
+
+/**
+ * FastHierarchicalClusterer against HierarchicalClusterer: same hierarchy (toString and graph),
+ * same cluster for every row and the same ClusterEvaluation, for every link type and distance
+ * function it takes over, with the exact engine and with the large-data one.
+ *
+ * The synthetic Iris rows are rounded to one decimal, so many distances tie: single and complete
+ * link are compared on them, average link (equal only up to rounding) on rows with some noise added.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import irisDataExamples.benchmarks.SyntheticIris;
+import weka.clusterers.ClusterEvaluation;
+import weka.clusterers.HierarchicalClusterer;
+import weka.core.ChebyshevDistance;
+import weka.core.EuclideanDistance;
+import weka.core.Instances;
+import weka.core.ManhattanDistance;
+import weka.core.NormalizableDistance;
+import weka.core.SelectedTag;
+
+public class FastHierarchicalClustererTest {
+
+	private static final int SINGLE = 0, COMPLETE = 1, AVERAGE = 2;
+
+	//rows with no class, as the Clustering example gives them to the clusterers
+	private static Instances data(int numRows, long seed) {
+		Instances data = SyntheticIris.generate(numRows, seed);
+		data.setClassIndex(-1);
+		return data;
+	}
+
+	//same rows with a small gaussian noise on every numeric value: no two distances tie
+	private static Instances jittered(int numRows, long seed) {
+		Instances data = data(numRows, seed);
+		Random rand = new Random(seed);
+		for(int i=0;i<data.numInstances();i++) {
+			for(int j=0;j<4;j++)
+				data.instance(i).setValue(j, data.instance(i).value(j) + rand.nextGaussian()*0.01);
+		}
+		return data;
+	}
+
+	private static void configure(HierarchicalClusterer clusterer, int link, NormalizableDistance distance, int numClusters) {
+		clusterer.setNumClusters(numClusters);
+		clusterer.setLinkType(new SelectedTag(link, HierarchicalClusterer.TAGS_LINK_TYPE));
+		clusterer.setDistanceFunction(distance);
+	}
+
+	private static void assertSameClusters(HierarchicalClusterer expected, HierarchicalClusterer actual, Instances data) throws Exception {
+		for(int i=0;i<data.numInstances();i++)
+			assertEquals("row " + i, expected.clusterInstance(data.instance(i)), actual.clusterInstance(data.instance(i)));
+	}
+
+	private static void assertSameAsWeka(int link, NormalizableDistance wekaDistance, NormalizableDistance fastDistance, Instances data, int numClusters) throws Exception {
+		HierarchicalClusterer weka = new HierarchicalClusterer();
+		configure(weka, link, wekaDistance, numClusters);
+		weka.buildClusterer(new Instances(data));
+		FastHierarchicalClusterer fast = new FastHierarchicalClusterer();
+		configure(fast, link, fastDistance, numClusters);
+		fast.buildClusterer(new Instances(data));
+
+		assertEquals(weka.toString(), fast.toString());
+		assertEquals(weka.graph(), fast.graph());
+		assertSameClusters(weka, fast, data);
+		//rows it was not built on go to the cluster of their nearest training row
+		assertSameClusters(weka, fast, data(60, 99));
+	}
+
+	@Test
+	public void singleLink() throws Exception {
+		Instances data = data(150, 1);
+		assertSameAsWeka(SINGLE, new EuclideanDistance(), new EuclideanDistance(), data, 3);
+		assertSameAsWeka(SINGLE, new ManhattanDistance(), new ManhattanDistance(), data, 3);
+		assertSameAsWeka(SINGLE, new ChebyshevDistance(), new ChebyshevDistance(), data, 3);
+	}
+
+	@Test
+	public void completeLink() throws Exception {
+		Instances data = data(150, 2);
+		assertSameAsWeka(COMPLETE, new EuclideanDistance(), new EuclideanDistance(), data, 3);
+		assertSameAsWeka(COMPLETE, new ManhattanDistance(), new ManhattanDistance(), data, 5);
+		assertSameAsWeka(COMPLETE, new ChebyshevDistance(), new ChebyshevDistance(), data, 2);
+	}
+
+	@Test
+	public void averageLink() throws Exception {
+		Instances data = jittered(150, 3);
+		for(int numClusters : new int[] {1, 3, 4}) {
+			HierarchicalClusterer weka = new HierarchicalClusterer();
+			configure(weka, AVERAGE, new EuclideanDistance(), numClusters);
+			weka.buildClusterer(new Instances(data));
+			FastHierarchicalClusterer fast = new FastHierarchicalClusterer();
+			configure(fast, AVERAGE, new EuclideanDistance(), numClusters);
+			fast.buildClusterer(new Instances(data));
+			assertSameClusters(weka, fast, data);
+		}
+	}
+
+	@Test
+	public void distanceIsBranchLength() throws Exception {
+		Instances data = data(120, 4);
+		HierarchicalClusterer weka = new HierarchicalClusterer();
+		configure(weka, COMPLETE, new EuclideanDistance(), 3);
+		weka.setDistanceIsBranchLength(true);
+		weka.buildClusterer(new Instances(data));
+		FastHierarchicalClusterer fast = new FastHierarchicalClusterer();
+		configure(fast, COMPLETE, new EuclideanDistance(), 3);
+		fast.setDistanceIsBranchLength(true);
+		fast.buildClusterer(new Instances(data));
+		assertEquals(weka.toString(), fast.toString());
+	}
+
+	@Test
+	public void largeDataEngine() throws Exception {
+		//exactOrderLimit 0: minimum spanning tree and nearest-neighbor chain, same hierarchy with no ties
+		Instances data = jittered(150, 5);
+		for(int link : new int[] {SINGLE, COMPLETE}) {
+			HierarchicalClusterer weka = new HierarchicalClusterer();
+			configure(weka, link, new EuclideanDistance(), 3);
+			weka.buildClusterer(new Instances(data));
+			FastHierarchicalClusterer fast = new FastHierarchicalClusterer();
+			configure(fast, link, new EuclideanDistance(), 3);
+			fast.setExactOrderLimit(0);
+			fast.buildClusterer(new Instances(data));
+			assertEquals(weka.toString(), fast.toString());
+			assertSameClusters(weka, fast, data);
+		}
+	}
+
+	@Test
+	public void singleThread() throws Exception {
+		Instances data = data(150, 6);
+		HierarchicalClusterer weka = new HierarchicalClusterer();
+		configure(weka, SINGLE, new ManhattanDistance(), 3);
+		weka.buildClusterer(new Instances(data));
+		FastHierarchicalClusterer fast = new FastHierarchicalClusterer();
+		configure(fast, SINGLE, new ManhattanDistance(), 3);
+		fast.setNumThreads(1);
+		fast.buildClusterer(new Instances(data));
+		assertEquals(weka.toString(), fast.toString());
+	}
+
+	@Test
+	public void clusterEvaluation() throws Exception {
+		//the check the Clustering example made: Chebyshev distance, 3 clusters
+		Instances data = data(150, 7);
+		HierarchicalClusterer weka = new HierarchicalClusterer();
+		configure(weka, SINGLE, new ChebyshevDistance(), 3);
+		weka.buildClusterer(data);
+		FastHierarchicalClusterer fast = new FastHierarchicalClusterer();
+		configure(fast, SINGLE, new ChebyshevDistance(), 3);
+		fast.buildClusterer(data);
+
+		ClusterEvaluation wekaEval = new ClusterEvaluation();
+		wekaEval.setClusterer(weka);
+		wekaEval.evaluateClusterer(data);
+		ClusterEvaluation fastEval = new ClusterEvaluation();
+		fastEval.setClusterer(fast);
+		fastEval.evaluateClusterer(data);
+		assertEquals(wekaEval.clusterResultsToString(), fastEval.clusterResultsToString());
+	}
+}
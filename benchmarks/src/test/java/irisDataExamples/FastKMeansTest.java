@@ -0,0 +1,202 @@
+package irisDataExamples;
+
+/**
+ * FastKMeans (Lloyd, the default) against SimpleKMeans with the same options and seed: same
+ * output, cluster sizes, squared error, assignments and clusters of new rows, for both
+ * initializations and the options that change the centroids or what toString prints.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import irisDataExamples.benchmarks.SyntheticIris;
+import weka.clusterers.ClusterEvaluation;
+import weka.clusterers.SimpleKMeans;
+import weka.core.Instances;
+import weka.core.SelectedTag;
+import weka.core.Utils;
+
+public class FastKMeansTest {
+
+	private static Instances data(int numRows, long seed) {
+		Instances data = SyntheticIris.generate(numRows, seed);
+		data.setClassIndex(-1);
+		return data;
+	}
+
+	//about one value in ten missing, and weights of 0.5 to 2.5
+	private static Instances missingAndWeighted(int numRows, long seed) {
+		Instances data = data(numRows, seed);
+		Random rand = new Random(seed);
+		for(int i=0;i<data.numInstances();i++) {
+			for(int j=0;j<data.numAttributes();j++) {
+				if(rand.nextInt(10) == 0)
+					data.instance(i).setValue(j, Utils.missingValue());
+			}
+			data.instance(i).setWeight(0.5 + rand.nextInt(3));
+		}
+		return data;
+	}
+
+	private interface Options {
+		void set(SimpleKMeans kmeans) throws Exception;
+	}
+
+	private static void assertSameAsWeka(Instances data, Options options) throws Exception {
+		SimpleKMeans weka = new SimpleKMeans();
+		options.set(weka);
+		weka.buildClusterer(new Instances(data));
+		FastKMeans fast = new FastKMeans();
+		options.set(fast);
+		Instances copy = new Instances(data);
+		fast.buildClusterer(copy);
+
+		assertEquals(weka.toString(), fast.toString());
+		assertArrayEquals(weka.getClusterSizes(), fast.getClusterSizes(), 0);
+		assertEquals(weka.getSquaredError(), fast.getSquaredError(), 0);
+		if(weka.getPreserveInstancesOrder())
+			assertArrayEquals(weka.getAssignments(), fast.getAssignments());
+		Instances test = data(90, 99);
+		double[][] dist = fast.distributionsForInstances(test);
+		for(int i=0;i<test.numInstances();i++) {
+			int cluster = weka.clusterInstance(test.instance(i));
+			assertEquals("row " + i, cluster, fast.clusterInstance(test.instance(i)));
+			assertEquals("row " + i, 1, dist[i][cluster], 0);
+		}
+		//the data it was given is left as it was
+		assertEquals(data.toString(), copy.toString());
+	}
+
+	private static SelectedTag init(int method) {
+		return new SelectedTag(method, SimpleKMeans.TAGS_SELECTION);
+	}
+
+	@Test
+	public void randomInitialization() throws Exception {
+		Instances data = data(300, 1);
+		for(final int seed : new int[] {1, 10, 42}) {
+			for(final int k : new int[] {1, 3, 6}) {
+				assertSameAsWeka(data, new Options() {
+					public void set(SimpleKMeans kmeans) throws Exception {
+						kmeans.setNumClusters(k);
+						kmeans.setSeed(seed);
+					}
+				});
+			}
+		}
+	}
+
+	@Test
+	public void kMeansPlusPlus() throws Exception {
+		Instances data = data(300, 2);
+		for(final int seed : new int[] {1, 7, 42}) {
+			assertSameAsWeka(data, new Options() {
+				public void set(SimpleKMeans kmeans) throws Exception {
+					kmeans.setNumClusters(4);
+					kmeans.setSeed(seed);
+					kmeans.setInitializationMethod(init(SimpleKMeans.KMEANS_PLUS_PLUS));
+				}
+			});
+		}
+	}
+
+	@Test
+	public void nominalAttribute() throws Exception {
+		//the class left as an attribute, as in the Clustering example: modes in the centroids
+		final Instances data = SyntheticIris.generate(150, 3);
+		data.setClassIndex(-1);
+		assertSameAsWeka(data, new Options() {
+			public void set(SimpleKMeans kmeans) throws Exception {
+				kmeans.setNumClusters(3);
+				kmeans.setInitializationMethod(init(SimpleKMeans.KMEANS_PLUS_PLUS));
+			}
+		});
+	}
+
+	@Test
+	public void outputOptions() throws Exception {
+		Instances data = data(300, 4);
+		assertSameAsWeka(data, new Options() {
+			public void set(SimpleKMeans kmeans) throws Exception {
+				kmeans.setNumClusters(3);
+				kmeans.setDisplayStdDevs(true);
+				kmeans.setPreserveInstancesOrder(true);
+				kmeans.setFastDistanceCalc(true);
+			}
+		});
+	}
+
+	@Test
+	public void maxIterations() throws Exception {
+		Instances data = data(300, 5);
+		for(final int iterations : new int[] {1, 2}) {
+			assertSameAsWeka(data, new Options() {
+				public void set(SimpleKMeans kmeans) throws Exception {
+					kmeans.setNumClusters(5);
+					kmeans.setMaxIterations(iterations);
+				}
+			});
+		}
+	}
+
+	@Test
+	public void missingValues() throws Exception {
+		Instances data = missingAndWeighted(300, 6);
+		assertSameAsWeka(data, new Options() {
+			public void set(SimpleKMeans kmeans) throws Exception {
+				kmeans.setNumClusters(3);
+				kmeans.setDisplayStdDevs(true);
+			}
+		});
+		assertSameAsWeka(data, new Options() {
+			public void set(SimpleKMeans kmeans) throws Exception {
+				kmeans.setNumClusters(3);
+				kmeans.setDontReplaceMissingValues(true);
+				kmeans.setPreserveInstancesOrder(true);
+				kmeans.setInitializationMethod(init(SimpleKMeans.KMEANS_PLUS_PLUS));
+			}
+		});
+	}
+
+	@Test
+	public void singleThread() throws Exception {
+		Instances data = data(300, 7);
+		assertSameAsWeka(data, new Options() {
+			public void set(SimpleKMeans kmeans) throws Exception {
+				kmeans.setNumClusters(3);
+				if(kmeans instanceof FastKMeans)
+					((FastKMeans) kmeans).setNumThreads(1);
+			}
+		});
+	}
+
+	@Test
+	public void clusterEvaluation() throws Exception {
+		//the check the Clustering example made: k-means++, 3 clusters
+		Instances data = SyntheticIris.generate(150, 8);
+		data.setClassIndex(-1);
+		SimpleKMeans weka = new SimpleKMeans();
+		weka.setNumClusters(3);
+		weka.setInitializationMethod(init(SimpleKMeans.KMEANS_PLUS_PLUS));
+		weka.buildClusterer(data);
+		FastKMeans fast = new FastKMeans();
+		fast.setNumClusters(3);
+		fast.setInitializationMethod(init(SimpleKMeans.KMEANS_PLUS_PLUS));
+		fast.buildClusterer(data);
+
+		ClusterEvaluation wekaEval = new ClusterEvaluation();
+		wekaEval.setClusterer(weka);
+		wekaEval.evaluateClusterer(data);
+		ClusterEvaluation fastEval = new ClusterEvaluation();
+		fastEval.setClusterer(fast);
+		fastEval.evaluateClusterer(data);
+		assertEquals(wekaEval.clusterResultsToString(), fastEval.clusterResultsToString());
+	}
+}
@@ -0,0 +1,136 @@
+package irisDataExamples;
+
+/**
+ * FastLogistic against Logistic with the same options: up to 1024 rows (one partition) the same
+ * model (toString) and class probabilities, for ridges, iterations, the conjugate gradient,
+ * unstandardized attributes, nominal attributes and missing values; above it the same model up
+ * to rounding, whatever the number of threads. update reaches the model of all the rows (with
+ * the default ridge: a larger one applies to the standardization of the first rows).
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import irisDataExamples.benchmarks.SyntheticIris;
+import weka.classifiers.functions.Logistic;
+import weka.core.Attribute;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class FastLogisticTest {
+
+	//the Iris rows with a 3-valued nominal attribute (related to the class) and some values missing
+	private static Instances mixed(int numRows, long seed) {
+		Instances data = SyntheticIris.generate(numRows, seed);
+		data.insertAttributeAt(new Attribute("group", Arrays.asList("a", "b", "c")), 0);
+		Random rand = new Random(seed);
+		for(int i=0;i<data.numInstances();i++) {
+			int group = rand.nextInt(4) == 0 ? rand.nextInt(3) : (int) data.instance(i).classValue();
+			data.instance(i).setValue(0, group);
+			for(int j=0;j<data.numAttributes()-1;j++) {
+				if(rand.nextInt(20) == 0)
+					data.instance(i).setMissing(j);
+			}
+		}
+		return data;
+	}
+
+	private static Logistic[] train(Instances data, String options) throws Exception {
+		Logistic weka = new Logistic();
+		weka.setOptions(Utils.splitOptions(options));
+		weka.buildClassifier(data);
+		FastLogistic fast = new FastLogistic();
+		fast.setOptions(Utils.splitOptions(options));
+		fast.buildClassifier(data);
+		return new Logistic[] {weka, fast};
+	}
+
+	private static void assertSameAsWeka(Instances data, String options) throws Exception {
+		Logistic[] models = train(data, options);
+		assertEquals(options, models[0].toString(), models[1].toString());
+		assertSameDistributions(models[0], models[1], data, options, 0);
+	}
+
+	private static void assertSameDistributions(Logistic expected, Logistic actual, Instances data, String message, double delta) throws Exception {
+		for(int i=0;i<data.numInstances();i++)
+			assertArrayEquals(message + ", row " + i, expected.distributionForInstance(data.instance(i)), actual.distributionForInstance(data.instance(i)), delta);
+	}
+
+	@Test
+	public void ridge() throws Exception {
+		Instances data = SyntheticIris.generate(300, 1);
+		for(String ridge : new String[] {"1.0E-8", "1.0E-4", "0.1", "10"})
+			assertSameAsWeka(data, "-R " + ridge);
+	}
+
+	@Test
+	public void methodOptions() throws Exception {
+		Instances data = SyntheticIris.generate(300, 2);
+		//a few iterations, the conjugate gradient, unstandardized attributes
+		assertSameAsWeka(data, "-M 5");
+		assertSameAsWeka(data, "-C");
+		assertSameAsWeka(data, "-C -M 10 -R 0.01");
+		assertSameAsWeka(data, "-S");
+	}
+
+	@Test
+	public void nominalAndMissing() throws Exception {
+		Instances data = mixed(300, 3);
+		assertSameAsWeka(data, "");
+		assertSameAsWeka(data, "-R 0.5");
+	}
+
+	@Test
+	public void binaryClass() throws Exception {
+		//versicolor against virginica
+		Instances data = SyntheticIris.generate(300, 4);
+		for(int i=data.numInstances()-1;i>=0;i--) {
+			if(data.instance(i).classValue() == 0)
+				data.delete(i);
+		}
+		assertSameAsWeka(data, "");
+	}
+
+	@Test
+	public void partitions() throws Exception {
+		//5000 rows, five partitions: the sums round differently, the model is the same up to that
+		Instances data = SyntheticIris.generate(5000, 5);
+		Logistic[] models = train(data, "-R 0.01");
+		assertSameDistributions(models[0], models[1], data, "5000 rows", 1e-6);
+
+		FastLogistic one = new FastLogistic();
+		one.setRidge(0.01);
+		one.setNumThreads(1);
+		one.buildClassifier(data);
+		assertEquals(models[1].toString(), one.toString());
+	}
+
+	@Test
+	public void update() throws Exception {
+		//one class in ten changed at random: no class is separable, so there is one optimum
+		Instances data = SyntheticIris.generate(600, 6);
+		Random rand = new Random(6);
+		for(int i=0;i<data.numInstances();i++) {
+			if(rand.nextInt(10) == 0)
+				data.instance(i).setClassValue(rand.nextInt(3));
+		}
+		data.randomize(rand);
+		Logistic all = new Logistic();
+		all.buildClassifier(data);
+
+		FastLogistic updated = new FastLogistic();
+		updated.buildClassifier(new Instances(data, 0, 200));
+		updated.update(new Instances(data, 200, 250));
+		updated.update(new Instances(data, 450, 150));
+		assertEquals(600, updated.numTrainingRows());
+		assertSameDistributions(all, updated, data, "updated", 1e-4);
+	}
+}
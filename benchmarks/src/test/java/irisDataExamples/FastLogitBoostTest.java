@@ -0,0 +1,110 @@
+package irisDataExamples;
+
+/**
+ * FastLogitBoost against LogitBoost with the same options: same stumps (toString) and class
+ * probabilities, for the number of iterations, shrinkage, estimated priors, the likelihood
+ * threshold, Z max, weighted rows, nominal attributes with missing values and the options left
+ * to LogitBoost.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import irisDataExamples.benchmarks.SyntheticIris;
+import weka.classifiers.meta.LogitBoost;
+import weka.core.Attribute;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class FastLogitBoostTest {
+
+	//the Iris rows with a 3-valued nominal attribute, weights of 0.5 to 2.5 and some values missing
+	private static Instances mixed(int numRows, long seed) {
+		Instances data = SyntheticIris.generate(numRows, seed);
+		data.insertAttributeAt(new Attribute("group", Arrays.asList("a", "b", "c")), 0);
+		Random rand = new Random(seed);
+		for(int i=0;i<data.numInstances();i++) {
+			data.instance(i).setValue(0, rand.nextInt(4) == 0 ? rand.nextInt(3) : (int) data.instance(i).classValue());
+			data.instance(i).setWeight(0.5 + rand.nextInt(3));
+			for(int j=0;j<data.numAttributes()-1;j++) {
+				if(rand.nextInt(20) == 0)
+					data.instance(i).setMissing(j);
+			}
+		}
+		return data;
+	}
+
+	private static void assertSameAsWeka(Instances data, String options) throws Exception {
+		LogitBoost weka = new LogitBoost();
+		weka.setOptions(Utils.splitOptions(options));
+		weka.buildClassifier(data);
+		FastLogitBoost fast = new FastLogitBoost();
+		fast.setOptions(Utils.splitOptions(options));
+		fast.buildClassifier(data);
+		assertEquals(options, weka.toString(), fast.toString());
+		for(int i=0;i<data.numInstances();i++)
+			assertArrayEquals(options + ", row " + i, weka.distributionForInstance(data.instance(i)), fast.distributionForInstance(data.instance(i)), 0);
+	}
+
+	@Test
+	public void iterations() throws Exception {
+		Instances data = SyntheticIris.generate(300, 1);
+		for(String iterations : new String[] {"1", "10", "50"})
+			assertSameAsWeka(data, "-I " + iterations);
+	}
+
+	@Test
+	public void shrinkageAndPriors() throws Exception {
+		Instances data = SyntheticIris.generate(300, 2);
+		assertSameAsWeka(data, "-I 20 -H 0.5");
+		assertSameAsWeka(data, "-I 20 -H 0.1 -use-estimated-priors");
+	}
+
+	@Test
+	public void stoppingOptions() throws Exception {
+		//stop once the likelihood improves less than the threshold, smaller Z max
+		Instances data = SyntheticIris.generate(300, 3);
+		assertSameAsWeka(data, "-I 50 -L 0.5");
+		assertSameAsWeka(data, "-I 20 -Z 1");
+	}
+
+	@Test
+	public void nominalWeightedAndMissing() throws Exception {
+		assertSameAsWeka(mixed(300, 4), "-I 20");
+	}
+
+	@Test
+	public void binaryClass() throws Exception {
+		//versicolor against virginica
+		Instances data = SyntheticIris.generate(300, 5);
+		for(int i=data.numInstances()-1;i>=0;i--) {
+			if(data.instance(i).classValue() == 0)
+				data.delete(i);
+		}
+		assertSameAsWeka(data, "-I 20");
+	}
+
+	@Test
+	public void leftToLogitBoost() throws Exception {
+		//weight pruning, resampling and another base classifier
+		Instances data = SyntheticIris.generate(300, 6);
+		assertSameAsWeka(data, "-I 10 -P 90");
+		assertSameAsWeka(data, "-I 10 -Q -S 3");
+		assertSameAsWeka(data, "-I 5 -W weka.classifiers.trees.REPTree");
+	}
+
+	@Test
+	public void threads() throws Exception {
+		Instances data = SyntheticIris.generate(300, 7);
+		assertSameAsWeka(data, "-I 20 -O 1");
+		assertSameAsWeka(data, "-I 20 -O 4");
+	}
+}
@@ -0,0 +1,157 @@
+package irisDataExamples;
+
+/**
+ * FastMultiClassClassifier against MultiClassClassifier with the same options and base
+ * classifier: same output and class probabilities for every method (1-against-all, error
+ * correcting codes, 1-against-1 with and without pairwise coupling), code widths and seeds.
+ * update with FastLogistic models reaches the model of all the rows.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import irisDataExamples.benchmarks.SyntheticIris;
+import weka.classifiers.Classifier;
+import weka.classifiers.functions.Logistic;
+import weka.classifiers.meta.MultiClassClassifier;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class FastMultiClassClassifierTest {
+
+	private static final String LOGISTIC = "weka.classifiers.functions.Logistic";
+
+	private interface Base {
+		Classifier make();
+	}
+
+	private static void assertSameAsWeka(Instances data, String options, Base wekaBase, Base fastBase) throws Exception {
+		MultiClassClassifier weka = new MultiClassClassifier();
+		weka.setOptions(Utils.splitOptions(options));
+		weka.setClassifier(wekaBase.make());
+		weka.buildClassifier(data);
+		FastMultiClassClassifier fast = new FastMultiClassClassifier();
+		fast.setOptions(Utils.splitOptions(options));
+		fast.setClassifier(fastBase.make());
+		fast.buildClassifier(data);
+		assertEquals(options, weka.toString(), fast.toString());
+		assertSameDistributions(weka, fast, data, options, 0);
+	}
+
+	private static void assertSameDistributions(Classifier expected, Classifier actual, Instances data, String message, double delta) throws Exception {
+		for(int i=0;i<data.numInstances();i++)
+			assertArrayEquals(message + ", row " + i, expected.distributionForInstance(data.instance(i)), actual.distributionForInstance(data.instance(i)), delta);
+	}
+
+	private static final Base WEKA_LOGISTIC = new Base() {
+		public Classifier make() {
+			return new Logistic();
+		}
+	};
+
+	private static final Base FAST_LOGISTIC = new Base() {
+		public Classifier make() {
+			return new FastLogistic();
+		}
+	};
+
+	private static final Base TREE = new Base() {
+		public Classifier make() {
+			return new J48();
+		}
+	};
+
+	@Test
+	public void methods() throws Exception {
+		//FastLogistic (the default) against Logistic, MultiClassClassifier's default
+		Instances data = SyntheticIris.generate(300, 1);
+		assertSameAsWeka(data, "-M 0", WEKA_LOGISTIC, FAST_LOGISTIC);
+		assertSameAsWeka(data, "-M 1 -R 2.0 -S 3", WEKA_LOGISTIC, FAST_LOGISTIC);
+		assertSameAsWeka(data, "-M 1 -R 4.0 -S 7", WEKA_LOGISTIC, FAST_LOGISTIC);
+		assertSameAsWeka(data, "-M 2", WEKA_LOGISTIC, FAST_LOGISTIC);
+		assertSameAsWeka(data, "-M 3", WEKA_LOGISTIC, FAST_LOGISTIC);
+		assertSameAsWeka(data, "-M 3 -P", WEKA_LOGISTIC, FAST_LOGISTIC);
+	}
+
+	@Test
+	public void ridge() throws Exception {
+		Instances data = SyntheticIris.generate(300, 2);
+		for(final String ridge : new String[] {"1.0E-4", "1"}) {
+			Base wekaBase = new Base() {
+				public Classifier make() {
+					Logistic logistic = new Logistic();
+					logistic.setRidge(Double.parseDouble(ridge));
+					return logistic;
+				}
+			};
+			Base fastBase = new Base() {
+				public Classifier make() {
+					FastLogistic logistic = new FastLogistic();
+					logistic.setRidge(Double.parseDouble(ridge));
+					return logistic;
+				}
+			};
+			assertSameAsWeka(data, "-M 0", wekaBase, fastBase);
+			assertSameAsWeka(data, "-M 3", wekaBase, fastBase);
+		}
+	}
+
+	@Test
+	public void otherBase() throws Exception {
+		Instances data = SyntheticIris.generate(300, 3);
+		assertSameAsWeka(data, "-M 0", TREE, TREE);
+		assertSameAsWeka(data, "-M 3", TREE, TREE);
+	}
+
+	@Test
+	public void defaultBase() throws Exception {
+		Instances data = SyntheticIris.generate(300, 4);
+		assertEquals(FastLogistic.class, new FastMultiClassClassifier().getClassifier().getClass());
+		assertEquals(LOGISTIC, new MultiClassClassifier().getClassifier().getClass().getName());
+		assertSameAsWeka(data, "", WEKA_LOGISTIC, FAST_LOGISTIC);
+	}
+
+	@Test
+	public void singleThread() throws Exception {
+		Instances data = SyntheticIris.generate(300, 5);
+		MultiClassClassifier weka = new MultiClassClassifier();
+		weka.buildClassifier(data);
+		FastMultiClassClassifier fast = new FastMultiClassClassifier();
+		fast.setNumThreads(1);
+		fast.buildClassifier(data);
+		assertEquals(weka.toString(), fast.toString());
+	}
+
+	@Test
+	public void update() throws Exception {
+		//one class in ten changed at random: no class is separable, so every binary problem has one
+		//optimum (1-against-1 compared with pairwise coupling, as votes jump for tiny differences)
+		Instances data = SyntheticIris.generate(600, 6);
+		Random rand = new Random(6);
+		for(int i=0;i<data.numInstances();i++) {
+			if(rand.nextInt(10) == 0)
+				data.instance(i).setClassValue(rand.nextInt(3));
+		}
+		data.randomize(rand);
+		for(String method : new String[] {"-M 0", "-M 3 -P"}) {
+			MultiClassClassifier all = new MultiClassClassifier();
+			all.setOptions(Utils.splitOptions(method));
+			all.buildClassifier(data);
+
+			FastMultiClassClassifier updated = new FastMultiClassClassifier();
+			updated.setOptions(Utils.splitOptions(method));
+			updated.setClassifier(new FastLogistic());
+			updated.buildClassifier(new Instances(data, 0, 300));
+			updated.update(new Instances(data, 300, 300));
+			assertSameDistributions(all, updated, data, method + " updated", 1e-4);
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package irisDataExamples;
+
+/**
+ * FastMultilayerPerceptron against MultilayerPerceptron with the same options: same network
+ * (toString) and predictions with miniBatchSize 1, for a nominal and a numeric class, hidden
+ * layers, learning parameters, the validation set and the filters. Mini-batches do not depend on
+ * the number of threads, and a saved model loads as a MultilayerPerceptron.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+
+import irisDataExamples.benchmarks.SyntheticIris;
+import weka.classifiers.functions.MultilayerPerceptron;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+import weka.core.Utils;
+
+public class FastMultilayerPerceptronTest {
+
+	//petalwidth as the class, as in the RegressionCoefficients example
+	private static Instances numeric(int numRows, long seed) {
+		Instances data = SyntheticIris.generate(numRows, seed);
+		data.setClassIndex(data.numAttributes()-2);
+		return data;
+	}
+
+	private static void assertSameAsWeka(Instances data, String options) throws Exception {
+		MultilayerPerceptron weka = new MultilayerPerceptron();
+		weka.setOptions(Utils.splitOptions(options));
+		weka.buildClassifier(data);
+		FastMultilayerPerceptron fast = new FastMultilayerPerceptron();
+		fast.setOptions(Utils.splitOptions(options));
+		fast.buildClassifier(data);
+		assertSame(weka, fast, data, options);
+	}
+
+	private static void assertSame(MultilayerPerceptron expected, MultilayerPerceptron actual, Instances data, String options) throws Exception {
+		assertEquals(options, expected.toString(), actual.toString());
+		for(int i=0;i<data.numInstances();i++)
+			assertArrayEquals(options + ", row " + i, expected.distributionForInstance(data.instance(i)), actual.distributionForInstance(data.instance(i)), 0);
+	}
+
+	@Test
+	public void defaultOptions() throws Exception {
+		assertSameAsWeka(SyntheticIris.generate(150, 1), "");
+		assertSameAsWeka(numeric(150, 1), "");
+	}
+
+	@Test
+	public void hiddenLayers() throws Exception {
+		Instances data = SyntheticIris.generate(150, 2);
+		for(String layers : new String[] {"3", "5,4", "i", "t,2", "0"})
+			assertSameAsWeka(data, "-N 100 -H " + layers);
+		assertSameAsWeka(numeric(150, 2), "-N 100 -H 6,3");
+	}
+
+	@Test
+	public void learningParameters() throws Exception {
+		Instances data = SyntheticIris.generate(150, 3);
+		assertSameAsWeka(data, "-N 100 -L 0.1 -M 0.5 -S 7");
+		assertSameAsWeka(data, "-N 100 -L 0.5 -M 0 -D -R");
+		assertSameAsWeka(numeric(150, 3), "-N 100 -L 0.05 -M 0.9 -S 3");
+	}
+
+	@Test
+	public void validationSet() throws Exception {
+		//early stopping on a fifth of the rows
+		assertSameAsWeka(SyntheticIris.generate(150, 4), "-N 300 -V 20 -E 5");
+		assertSameAsWeka(numeric(150, 4), "-N 300 -V 20 -E 3");
+	}
+
+	@Test
+	public void filters() throws Exception {
+		//no attribute or class normalization, no nominal to binary
+		Instances data = numeric(150, 6);
+		assertSameAsWeka(data, "-N 100 -I");
+		assertSameAsWeka(data, "-N 100 -C");
+		assertSameAsWeka(data, "-N 100 -B");
+		assertSameAsWeka(SyntheticIris.generate(150, 6), "-N 100 -I -B");
+	}
+
+	@Test
+	public void miniBatchesAndThreads() throws Exception {
+		Instances data = SyntheticIris.generate(600, 7);
+		String options = "-N 100 -L 0.9 -H 8";
+		FastMultilayerPerceptron one = new FastMultilayerPerceptron();
+		one.setOptions(Utils.splitOptions(options));
+		one.setMiniBatchSize(64);
+		one.setNumThreads(1);
+		one.buildClassifier(data);
+		FastMultilayerPerceptron many = new FastMultilayerPerceptron();
+		many.setOptions(Utils.splitOptions(options));
+		many.setMiniBatchSize(64);
+		many.setNumThreads(4);
+		many.buildClassifier(data);
+		assertSame(one, many, data, options + " (1 and 4 threads)");
+	}
+
+	@Test
+	public void savedAsMultilayerPerceptron() throws Exception {
+		Instances data = SyntheticIris.generate(150, 8);
+		FastMultilayerPerceptron fast = new FastMultilayerPerceptron();
+		fast.setOptions(Utils.splitOptions("-N 100"));
+		fast.buildClassifier(data);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SerializationHelper.write(bytes, fast);
+		Object read = SerializationHelper.read(new ByteArrayInputStream(bytes.toByteArray()));
+		assertEquals(MultilayerPerceptron.class, read.getClass());
+		assertSame(fast, (MultilayerPerceptron) read, data, "saved");
+	}
+}
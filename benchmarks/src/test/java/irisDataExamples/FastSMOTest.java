@@ -0,0 +1,130 @@
+package irisDataExamples;
+
+/**
+ * FastSMO against SMO with the same options: same machines (toString but the number of kernel
+ * evaluations) and the same class probabilities.
+ *
+ * PolyKernel and NormalizedPolyKernel machines are those of SMO itself; RBFKernel and Puk ones
+ * those of SMO with the kernel's cache turned off (cacheSize -1), as SMO's cache may keep K(j,i)
+ * for K(i,j) (see RowCacheKernel).
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import irisDataExamples.benchmarks.SyntheticIris;
+import weka.classifiers.functions.SMO;
+import weka.classifiers.functions.supportVector.CachedKernel;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class FastSMOTest {
+
+	private static final String RBF = "weka.classifiers.functions.supportVector.RBFKernel";
+	private static final String POLY = "weka.classifiers.functions.supportVector.PolyKernel";
+	private static final String NORMALIZED_POLY = "weka.classifiers.functions.supportVector.NormalizedPolyKernel";
+	private static final String PUK = "weka.classifiers.functions.supportVector.Puk";
+
+	//only the kernel evaluations printed by toString may differ
+	private static String model(SMO smo) {
+		return smo.toString().replaceAll("Number of kernel evaluations.*", "");
+	}
+
+	private static void assertSameAsWeka(Instances data, String options, boolean wekaCacheOff) throws Exception {
+		SMO weka = new SMO();
+		weka.setOptions(Utils.splitOptions(options));
+		if(wekaCacheOff)
+			((CachedKernel) weka.getKernel()).setCacheSize(-1);
+		weka.buildClassifier(data);
+		FastSMO fast = new FastSMO();
+		fast.setOptions(Utils.splitOptions(options));
+		fast.buildClassifier(data);
+		assertSame(weka, fast, options);
+	}
+
+	private static void assertSame(SMO weka, SMO fast, String options) throws Exception {
+		assertEquals(options, model(weka), model(fast));
+		Instances test = SyntheticIris.generate(60, 99);
+		for(int i=0;i<test.numInstances();i++)
+			assertArrayEquals(options + ", row " + i, weka.distributionForInstance(test.instance(i)), fast.distributionForInstance(test.instance(i)), 0);
+	}
+
+	@Test
+	public void polyKernels() throws Exception {
+		//SMO's default (linear PolyKernel) and non-linear ones, against SMO with its cache
+		Instances data = SyntheticIris.generate(300, 1);
+		for(String c : new String[] {"-C 1", "-C 10"}) {
+			assertSameAsWeka(data, c + " -K \"" + POLY + " -E 1\"", false);
+			assertSameAsWeka(data, c + " -K \"" + POLY + " -E 2\"", false);
+			assertSameAsWeka(data, c + " -K \"" + NORMALIZED_POLY + " -E 2\"", false);
+		}
+	}
+
+	@Test
+	public void rbfKernel() throws Exception {
+		Instances data = SyntheticIris.generate(300, 2);
+		for(String c : new String[] {"-C 1", "-C 10"}) {
+			for(String gamma : new String[] {"0.01", "0.1", "0.5", "1"})
+				assertSameAsWeka(data, c + " -K \"" + RBF + " -G " + gamma + "\"", true);
+		}
+	}
+
+	@Test
+	public void pukKernel() throws Exception {
+		Instances data = SyntheticIris.generate(300, 3);
+		assertSameAsWeka(data, "-C 1 -K \"" + PUK + " -O 1.0 -S 1.0\"", true);
+		assertSameAsWeka(data, "-C 10 -K \"" + PUK + " -O 0.5 -S 2.0\"", true);
+	}
+
+	@Test
+	public void filterTypes() throws Exception {
+		//standardized and raw attributes, instead of normalized
+		Instances data = SyntheticIris.generate(300, 4);
+		assertSameAsWeka(data, "-N 1 -K \"" + POLY + " -E 2\"", false);
+		assertSameAsWeka(data, "-N 2 -K \"" + RBF + " -G 0.1\"", true);
+	}
+
+	@Test
+	public void calibrationModels() throws Exception {
+		//logistic models fitted to the outputs, with cross-validation and a seed
+		Instances data = SyntheticIris.generate(300, 5);
+		assertSameAsWeka(data, "-M -K \"" + POLY + " -E 1\"", false);
+		assertSameAsWeka(data, "-M -V 5 -W 3 -K \"" + RBF + " -G 0.5\"", true);
+	}
+
+	@Test
+	public void evictedRows() throws Exception {
+		//1 MB holds fewer kernel rows than a machine of 1200 rows asks for
+		Instances data = SyntheticIris.generate(1200, 6);
+		String options = "-C 10 -K \"" + RBF + " -G 0.5\"";
+		SMO weka = new SMO();
+		weka.setOptions(Utils.splitOptions(options));
+		((CachedKernel) weka.getKernel()).setCacheSize(-1);
+		weka.buildClassifier(data);
+		FastSMO fast = new FastSMO();
+		fast.setOptions(Utils.splitOptions(options));
+		fast.setCacheSize(1);
+		fast.buildClassifier(data);
+		assertSame(weka, fast, options);
+	}
+
+	@Test
+	public void singleThread() throws Exception {
+		Instances data = SyntheticIris.generate(300, 7);
+		String options = "-K \"" + RBF + " -G 0.1\"";
+		SMO weka = new SMO();
+		weka.setOptions(Utils.splitOptions(options));
+		((CachedKernel) weka.getKernel()).setCacheSize(-1);
+		weka.buildClassifier(data);
+		FastSMO fast = new FastSMO();
+		fast.setOptions(Utils.splitOptions(options));
+		fast.setNumThreads(1);
+		fast.buildClassifier(data);
+		assertSame(weka, fast, options);
+	}
+}
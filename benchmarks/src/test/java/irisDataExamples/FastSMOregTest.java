@@ -0,0 +1,112 @@
+package irisDataExamples;
+
+/**
+ * FastSMOreg against SMOreg with the same options, predicting petalwidth: same machine (toString
+ * but the number of kernel evaluations) and the same predictions.
+ *
+ * PolyKernel and NormalizedPolyKernel machines are those of SMOreg itself; RBFKernel and Puk ones
+ * those of SMOreg with the kernel's cache turned off (cacheSize -1), see RowCacheKernel.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import irisDataExamples.benchmarks.SyntheticIris;
+import weka.classifiers.functions.SMOreg;
+import weka.classifiers.functions.supportVector.CachedKernel;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class FastSMOregTest {
+
+	private static final String RBF = "weka.classifiers.functions.supportVector.RBFKernel";
+	private static final String POLY = "weka.classifiers.functions.supportVector.PolyKernel";
+	private static final String NORMALIZED_POLY = "weka.classifiers.functions.supportVector.NormalizedPolyKernel";
+	private static final String PUK = "weka.classifiers.functions.supportVector.Puk";
+
+	//petalwidth as the class, as in the RegressionCoefficients example
+	private static Instances data(int numRows, long seed) {
+		Instances data = SyntheticIris.generate(numRows, seed);
+		data.setClassIndex(data.numAttributes()-2);
+		return data;
+	}
+
+	//only the kernel evaluations printed by toString may differ
+	private static String model(SMOreg smo) {
+		return smo.toString().replaceAll("Number of kernel evaluations.*", "");
+	}
+
+	private static void assertSameAsWeka(Instances data, String options, boolean wekaCacheOff) throws Exception {
+		SMOreg weka = new SMOreg();
+		weka.setOptions(Utils.splitOptions(options));
+		if(wekaCacheOff)
+			((CachedKernel) weka.getKernel()).setCacheSize(-1);
+		weka.buildClassifier(data);
+		FastSMOreg fast = new FastSMOreg();
+		fast.setOptions(Utils.splitOptions(options));
+		fast.buildClassifier(data);
+		assertSame(weka, fast, options);
+	}
+
+	private static void assertSame(SMOreg weka, SMOreg fast, String options) throws Exception {
+		assertEquals(options, model(weka), model(fast));
+		Instances test = data(60, 99);
+		for(int i=0;i<test.numInstances();i++)
+			assertEquals(options + ", row " + i, weka.classifyInstance(test.instance(i)), fast.classifyInstance(test.instance(i)), 0);
+	}
+
+	@Test
+	public void polyKernels() throws Exception {
+		Instances data = data(300, 1);
+		for(String c : new String[] {"-C 1", "-C 10"}) {
+			assertSameAsWeka(data, c + " -K \"" + POLY + " -E 1\"", false);
+			assertSameAsWeka(data, c + " -K \"" + POLY + " -E 2\"", false);
+			assertSameAsWeka(data, c + " -K \"" + NORMALIZED_POLY + " -E 2\"", false);
+		}
+	}
+
+	@Test
+	public void rbfKernel() throws Exception {
+		Instances data = data(300, 2);
+		for(String c : new String[] {"-C 1", "-C 10"}) {
+			for(String gamma : new String[] {"0.01", "0.1", "0.5", "1"})
+				assertSameAsWeka(data, c + " -K \"" + RBF + " -G " + gamma + "\"", true);
+		}
+	}
+
+	@Test
+	public void pukKernel() throws Exception {
+		Instances data = data(300, 3);
+		assertSameAsWeka(data, "-C 1 -K \"" + PUK + " -O 1.0 -S 1.0\"", true);
+		assertSameAsWeka(data, "-C 10 -K \"" + PUK + " -O 0.5 -S 2.0\"", true);
+	}
+
+	@Test
+	public void optimizerOptions() throws Exception {
+		//epsilon parameter, tolerance and filter of RegSMOImproved, and RegSMO (left to SMOreg)
+		Instances data = data(300, 4);
+		assertSameAsWeka(data, "-N 1 -I \"weka.classifiers.functions.supportVector.RegSMOImproved -T 0.01 -V -P 1.0E-12 -L 0.01\" -K \"" + RBF + " -G 0.5\"", true);
+		assertSameAsWeka(data, "-N 2 -I \"weka.classifiers.functions.supportVector.RegSMOImproved -T 0.001 -P 1.0E-12 -L 0.1 -W 3\" -K \"" + POLY + " -E 2\"", false);
+		assertSameAsWeka(data, "-I \"weka.classifiers.functions.supportVector.RegSMO -P 1.0E-12 -L 0.001\" -K \"" + POLY + " -E 1\"", false);
+	}
+
+	@Test
+	public void evictedRows() throws Exception {
+		//1 MB holds fewer kernel rows than 1000 rows ask for
+		Instances data = data(1000, 5);
+		String options = "-C 10 -K \"" + RBF + " -G 0.5\"";
+		SMOreg weka = new SMOreg();
+		weka.setOptions(Utils.splitOptions(options));
+		((CachedKernel) weka.getKernel()).setCacheSize(-1);
+		weka.buildClassifier(data);
+		FastSMOreg fast = new FastSMOreg();
+		fast.setOptions(Utils.splitOptions(options));
+		fast.setCacheSize(1);
+		fast.buildClassifier(data);
+		assertSame(weka, fast, options);
+	}
+}
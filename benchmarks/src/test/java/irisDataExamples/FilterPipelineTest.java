@@ -0,0 +1,201 @@
+package irisDataExamples;
+
+/**
+ * FilterPipeline against Filter.useFilter, one filter after the other: same rows out of the
+ * pipeline (and in the saved file) with the cut points learnt by HistogramDiscretize from the
+ * chunks, with WEKA's batch filters primed with a sample or learning from the first run, and
+ * with a supervised filter, whatever the chunk size.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import irisDataExamples.benchmarks.SyntheticIris;
+import weka.attributeSelection.CfsSubsetEval;
+import weka.attributeSelection.GreedyStepwise;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+import weka.core.converters.ArffSaver;
+import weka.core.converters.ConverterUtils.DataSource;
+import weka.core.converters.Saver;
+import weka.filters.Filter;
+import weka.filters.supervised.attribute.AttributeSelection;
+import weka.filters.unsupervised.attribute.Discretize;
+import weka.filters.unsupervised.attribute.Remove;
+import weka.filters.unsupervised.instance.NonSparseToSparse;
+
+public class FilterPipelineTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private interface Stages {
+		Filter[] make() throws Exception;
+	}
+
+	//the Iris rows with some values missing, saved as ARFF
+	private File arff(int numRows, long seed) throws Exception {
+		Instances data = SyntheticIris.generate(numRows, seed);
+		Random rand = new Random(seed);
+		for(int i=0;i<data.numInstances();i++) {
+			for(int j=0;j<data.numAttributes()-1;j++) {
+				if(rand.nextInt(20) == 0)
+					data.instance(i).setMissing(j);
+			}
+		}
+		File file = folder.newFile("iris" + seed + ".arff");
+		ArffSaver saver = new ArffSaver();
+		saver.setInstances(data);
+		saver.setFile(file);
+		saver.writeBatch();
+		return file;
+	}
+
+	private static Filter filter(Filter filter, String options) throws Exception {
+		filter.setOptions(Utils.splitOptions(options));
+		return filter;
+	}
+
+	//Filter.useFilter once per stage
+	private static Instances useFilter(Instances data, Stages stages) throws Exception {
+		for(Filter filter : stages.make()) {
+			filter.setInputFormat(data);
+			data = Filter.useFilter(data, filter);
+		}
+		return data;
+	}
+
+	private static Instances collect(FilterPipeline pipeline, ChunkedDataSource source) throws Exception {
+		final Instances[] rows = new Instances[1];
+		pipeline.run(source, new FilterPipeline.RowConsumer() {
+			public void accept(Instance inst) throws Exception {
+				if(rows[0] == null)
+					rows[0] = new Instances(inst.dataset(), 0);
+				rows[0].add(inst);
+			}
+		});
+		return rows[0];
+	}
+
+	private static void assertSameRows(Instances expected, Instances actual, String message) {
+		//the relation name lists the filters applied
+		actual.setRelationName(expected.relationName());
+		assertEquals(message, expected.toString(), actual.toString());
+	}
+
+	private static FilterPipeline pipeline(Stages stages) throws Exception {
+		FilterPipeline pipeline = new FilterPipeline();
+		for(Filter filter : stages.make())
+			pipeline.add(filter);
+		return pipeline;
+	}
+
+	@Test
+	public void learnt() throws Exception {
+		//the stages of the example, HistogramDiscretize against Discretize
+		File file = arff(500, 1);
+		Instances data = new DataSource(file.getPath()).getDataSet();
+		for(final String discretize : new String[] {"-B 4 -R 1-2", "-F -B 5", "-B 3 -R 2 -Y"}) {
+			Instances expected = useFilter(data, new Stages() {
+				public Filter[] make() throws Exception {
+					return new Filter[] {filter(new Remove(), "-R 1,4,5 -V"), filter(new Discretize(), discretize), new NonSparseToSparse()};
+				}
+			});
+			for(int chunkSize : new int[] {1, 7, 1000}) {
+				FilterPipeline pipeline = pipeline(new Stages() {
+					public Filter[] make() throws Exception {
+						return new Filter[] {filter(new Remove(), "-R 1,4,5 -V"), filter(new HistogramDiscretize(), discretize), new NonSparseToSparse()};
+					}
+				});
+				pipeline.learn(new ChunkedDataSource(file.getPath(), chunkSize));
+				assertSameRows(expected, collect(pipeline, new ChunkedDataSource(file.getPath(), chunkSize)), discretize + ", chunks of " + chunkSize);
+			}
+		}
+	}
+
+	@Test
+	public void saved() throws Exception {
+		File file = arff(300, 2);
+		Instances data = new DataSource(file.getPath()).getDataSet();
+		Stages stages = new Stages() {
+			public Filter[] make() throws Exception {
+				return new Filter[] {filter(new Remove(), "-R 2"), filter(new HistogramDiscretize(), "-B 4"), new NonSparseToSparse()};
+			}
+		};
+		FilterPipeline pipeline = pipeline(stages);
+		pipeline.learn(new ChunkedDataSource(file.getPath(), 64));
+		File output = folder.newFile("filtered.arff");
+		ArffSaver saver = new ArffSaver();
+		saver.setRetrieval(Saver.INCREMENTAL);
+		saver.setFile(output);
+		assertEquals(300, pipeline.run(new ChunkedDataSource(file.getPath(), 64), saver));
+		assertSameRows(useFilter(data, stages), new DataSource(output.getPath()).getDataSet(), "saved");
+	}
+
+	@Test
+	public void primed() throws Exception {
+		//WEKA's Discretize learns from the sample; the later rows are converted with its cut points
+		File file = arff(400, 3);
+		Instances data = new DataSource(file.getPath()).getDataSet();
+		Instances sample = new Instances(data, 0, 100);
+		Stages stages = new Stages() {
+			public Filter[] make() throws Exception {
+				return new Filter[] {filter(new Remove(), "-R 3"), filter(new Discretize(), "-F -B 4")};
+			}
+		};
+		Filter[] reference = stages.make();
+		reference[0].setInputFormat(sample);
+		Instances removed = Filter.useFilter(sample, reference[0]);
+		reference[1].setInputFormat(removed);
+		Filter.useFilter(removed, reference[1]);
+		Instances expected = Filter.useFilter(Filter.useFilter(data, reference[0]), reference[1]);
+
+		FilterPipeline pipeline = pipeline(stages);
+		pipeline.prime(sample);
+		assertSameRows(expected, collect(pipeline, new ChunkedDataSource(file.getPath(), 50)), "primed");
+	}
+
+	@Test
+	public void firstRun() throws Exception {
+		//neither primed nor learnt: Discretize keeps the rows of the run and learns from all of them
+		File file = arff(300, 4);
+		Instances data = new DataSource(file.getPath()).getDataSet();
+		Stages stages = new Stages() {
+			public Filter[] make() throws Exception {
+				return new Filter[] {filter(new Discretize(), "-B 3"), new NonSparseToSparse()};
+			}
+		};
+		assertSameRows(useFilter(data, stages), collect(pipeline(stages), new ChunkedDataSource(file.getPath(), 50)), "first run");
+	}
+
+	@Test
+	public void supervised() throws Exception {
+		//attribute selection, then equal-frequency bins of the attributes kept
+		File file = arff(400, 5);
+		final ChunkedDataSource source = new ChunkedDataSource(file.getPath(), 50);
+		source.getStructure().setClassIndex(source.getStructure().numAttributes()-1);
+		Instances data = new DataSource(file.getPath()).getDataSet();
+		data.setClassIndex(data.numAttributes()-1);
+		Stages stages = new Stages() {
+			public Filter[] make() throws Exception {
+				AttributeSelection selection = new AttributeSelection();
+				selection.setEvaluator(new CfsSubsetEval());
+				selection.setSearch(new GreedyStepwise());
+				return new Filter[] {selection, filter(new Discretize(), "-F -B 4")};
+			}
+		};
+		FilterPipeline pipeline = pipeline(stages);
+		pipeline.prime(data);
+		assertSameRows(useFilter(data, stages), collect(pipeline, source), "supervised");
+	}
+}
@@ -0,0 +1,144 @@
+package irisDataExamples;
+
+/**
+ * HistogramDiscretize against Discretize with the same options: same output (header and rows)
+ * for equal-width and equal-frequency bins, the output options, weighted rows and missing values;
+ * with -mdl (and -E, -K) the same as supervised Discretize. Cut points learned chunk by chunk
+ * are the ones of all the rows.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import irisDataExamples.benchmarks.SyntheticIris;
+import weka.core.Instances;
+import weka.core.Utils;
+import weka.filters.Filter;
+import weka.filters.unsupervised.attribute.Discretize;
+
+public class HistogramDiscretizeTest {
+
+	//the Iris rows with weights of 0.5 to 2.5 and some values missing
+	private static Instances weightedAndMissing(int numRows, long seed) {
+		Instances data = SyntheticIris.generate(numRows, seed);
+		Random rand = new Random(seed);
+		for(int i=0;i<data.numInstances();i++) {
+			data.instance(i).setWeight(0.5 + rand.nextInt(3));
+			for(int j=0;j<data.numAttributes()-1;j++) {
+				if(rand.nextInt(20) == 0)
+					data.instance(i).setMissing(j);
+			}
+		}
+		return data;
+	}
+
+	private static Instances filter(Instances data, Filter filter) throws Exception {
+		filter.setInputFormat(data);
+		Instances output = Filter.useFilter(data, filter);
+		//the name of the filter is part of it
+		output.setRelationName(data.relationName());
+		return output;
+	}
+
+	private static void assertSameAsWeka(Instances data, String options) throws Exception {
+		Discretize weka = new Discretize();
+		weka.setOptions(Utils.splitOptions(options));
+		HistogramDiscretize histogram = new HistogramDiscretize();
+		histogram.setOptions(Utils.splitOptions(options));
+		assertEquals(options, filter(data, weka).toString(), filter(data, histogram).toString());
+	}
+
+	private static void assertSameAsSupervised(Instances data, String options) throws Exception {
+		weka.filters.supervised.attribute.Discretize weka = new weka.filters.supervised.attribute.Discretize();
+		weka.setOptions(Utils.splitOptions(options));
+		HistogramDiscretize histogram = new HistogramDiscretize();
+		histogram.setOptions(Utils.splitOptions("-mdl " + options));
+		assertEquals(options, filter(data, weka).toString(), filter(data, histogram).toString());
+	}
+
+	@Test
+	public void equalWidth() throws Exception {
+		Instances data = SyntheticIris.generate(300, 1);
+		for(String bins : new String[] {"1", "2", "4", "10"})
+			assertSameAsWeka(data, "-B " + bins);
+		assertSameAsWeka(data, "-B 4 -R 1-2 -V");
+		assertSameAsWeka(data, "-B 3 -R first,last");
+	}
+
+	@Test
+	public void equalFrequency() throws Exception {
+		Instances data = SyntheticIris.generate(300, 2);
+		for(String bins : new String[] {"2", "4", "10"})
+			assertSameAsWeka(data, "-F -B " + bins);
+		assertSameAsWeka(data, "-F -B 4 -R 1-2 -V");
+		//desired weight of rows per interval
+		assertSameAsWeka(data, "-F -M 40");
+	}
+
+	@Test
+	public void outputOptions() throws Exception {
+		//binary attributes, bin numbers instead of ranges, spread of the range precision
+		Instances data = SyntheticIris.generate(300, 3);
+		assertSameAsWeka(data, "-B 4 -D");
+		assertSameAsWeka(data, "-F -B 4 -Y");
+		assertSameAsWeka(data, "-B 5 -precision 2");
+	}
+
+	@Test
+	public void weightedAndMissing() throws Exception {
+		Instances data = weightedAndMissing(300, 4);
+		assertSameAsWeka(data, "-B 4");
+		assertSameAsWeka(data, "-F -B 4");
+		assertSameAsWeka(data, "-F -M 60");
+		assertSameAsSupervised(data, "");
+	}
+
+	@Test
+	public void mdl() throws Exception {
+		Instances data = SyntheticIris.generate(300, 5);
+		assertSameAsSupervised(data, "");
+		assertSameAsSupervised(data, "-E");
+		assertSameAsSupervised(data, "-K");
+		assertSameAsSupervised(data, "-R 3-4");
+	}
+
+	@Test
+	public void distinctValues() throws Exception {
+		//values not rounded: one bin per row, still below maxBins
+		Instances data = SyntheticIris.generate(2000, 6);
+		Random rand = new Random(6);
+		for(int i=0;i<data.numInstances();i++) {
+			for(int j=0;j<data.numAttributes()-1;j++)
+				data.instance(i).setValue(j, data.instance(i).value(j) + rand.nextGaussian()*0.01);
+		}
+		assertSameAsWeka(data, "-F -B 8");
+		assertSameAsSupervised(data, "");
+	}
+
+	@Test
+	public void chunks() throws Exception {
+		Instances data = weightedAndMissing(600, 7);
+		for(String options : new String[] {"-B 4", "-F -B 4", "-mdl"}) {
+			HistogramDiscretize all = new HistogramDiscretize();
+			all.setOptions(Utils.splitOptions(options));
+			Instances expected = filter(data, all);
+
+			HistogramDiscretize chunked = new HistogramDiscretize();
+			chunked.setOptions(Utils.splitOptions(options));
+			chunked.setInputFormat(data);
+			for(int first=0;first<data.numInstances();first+=150)
+				chunked.update(new Instances(data, first, 150));
+			chunked.computeCutPoints();
+			for(int i=0;i<data.numInstances();i++) {
+				chunked.input(data.instance(i));
+				assertEquals(options + ", row " + i, expected.instance(i).toString(), chunked.output().toString());
+			}
+		}
+	}
+}
@@ -0,0 +1,222 @@
+package irisDataExamples;
+
+/**
+ * ParallelGreedyStepwise against GreedyStepwise with CfsSubsetEval: same attributes selected and,
+ * when ranking, the same order with the same merits up to rounding, forward and backward, with
+ * the options of the search and of the evaluator, on data with redundant attributes.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import weka.attributeSelection.ASSearch;
+import weka.attributeSelection.AttributeSelection;
+import weka.attributeSelection.CfsSubsetEval;
+import weka.attributeSelection.GreedyStepwise;
+import weka.attributeSelection.WrapperSubsetEval;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class ParallelGreedyStepwiseTest {
+
+	/**
+	 * numRows rows of a 3-valued class and numAttributes attributes: a third related to the class,
+	 * a third noisy copies of those, the rest noise; every fifth one nominal, some values missing.
+	 */
+	private static Instances data(int numRows, int numAttributes, boolean numericClass, long seed) {
+		Random rand = new Random(seed);
+		ArrayList<Attribute> atts = new ArrayList<Attribute>();
+		for(int j=0;j<numAttributes;j++)
+			atts.add(j % 5 == 4 ? new Attribute("n" + j, Arrays.asList("a", "b", "c")) : new Attribute("x" + j));
+		atts.add(numericClass ? new Attribute("class") : new Attribute("class", Arrays.asList("c0", "c1", "c2")));
+		Instances data = new Instances("cfs", atts, numRows);
+		data.setClassIndex(numAttributes);
+		int third = numAttributes/3;
+		for(int i=0;i<numRows;i++) {
+			int c = rand.nextInt(3);
+			double[] values = new double[numAttributes + 1];
+			for(int j=0;j<numAttributes;j++) {
+				double x;
+				if(j < third)
+					x = c*(1 + j % 3) + rand.nextGaussian()*(1 + j % 4);
+				else if(j < 2*third)
+					x = values[j - third] + rand.nextGaussian()*0.5;
+				else
+					x = rand.nextGaussian();
+				if(atts.get(j).isNominal())
+					x = j < 2*third && rand.nextInt(3) > 0 ? c : rand.nextInt(3);
+				values[j] = rand.nextInt(50) == 0 ? Utils.missingValue() : x;
+			}
+			values[numAttributes] = numericClass ? c + rand.nextGaussian()*0.3 : c;
+			data.add(new DenseInstance(1.0, values));
+		}
+		return data;
+	}
+
+	private interface Options {
+		void set(GreedyStepwise search, CfsSubsetEval eval) throws Exception;
+	}
+
+	private static AttributeSelection select(Instances data, GreedyStepwise search, CfsSubsetEval eval, Options options) throws Exception {
+		options.set(search, eval);
+		AttributeSelection selection = new AttributeSelection();
+		selection.setEvaluator(eval);
+		selection.setSearch(search);
+		selection.SelectAttributes(data);
+		return selection;
+	}
+
+	private static void assertSameAsWeka(Instances data, Options options) throws Exception {
+		AttributeSelection weka = select(data, new GreedyStepwise(), new CfsSubsetEval(), options);
+		AttributeSelection parallel = select(data, new ParallelGreedyStepwise(), new CfsSubsetEval(), options);
+		assertArrayEquals(weka.selectedAttributes(), parallel.selectedAttributes());
+	}
+
+	private static void assertSameRanking(Instances data, Options options) throws Exception {
+		AttributeSelection weka = select(data, new GreedyStepwise(), new CfsSubsetEval(), options);
+		AttributeSelection parallel = select(data, new ParallelGreedyStepwise(), new CfsSubsetEval(), options);
+		assertArrayEquals(weka.selectedAttributes(), parallel.selectedAttributes());
+		double[][] expected = weka.rankedAttributes();
+		double[][] actual = parallel.rankedAttributes();
+		assertEquals(expected.length, actual.length);
+		for(int i=0;i<expected.length;i++) {
+			assertEquals("rank " + i, expected[i][0], actual[i][0], 0);
+			assertEquals("merit " + i, expected[i][1], actual[i][1], 1e-9);
+		}
+	}
+
+	@Test
+	public void forwardAndBackward() throws Exception {
+		Instances data = data(400, 30, false, 1);
+		for(final boolean backward : new boolean[] {false, true}) {
+			assertSameAsWeka(data, new Options() {
+				public void set(GreedyStepwise search, CfsSubsetEval eval) {
+					search.setSearchBackwards(backward);
+				}
+			});
+		}
+	}
+
+	@Test
+	public void numericClass() throws Exception {
+		Instances data = data(400, 30, true, 2);
+		for(final boolean backward : new boolean[] {false, true}) {
+			assertSameAsWeka(data, new Options() {
+				public void set(GreedyStepwise search, CfsSubsetEval eval) {
+					search.setSearchBackwards(backward);
+				}
+			});
+		}
+	}
+
+	@Test
+	public void ranking() throws Exception {
+		Instances data = data(400, 30, false, 3);
+		for(final boolean backward : new boolean[] {false, true}) {
+			assertSameRanking(data, new Options() {
+				public void set(GreedyStepwise search, CfsSubsetEval eval) {
+					search.setSearchBackwards(backward);
+					search.setGenerateRanking(true);
+				}
+			});
+		}
+		assertSameRanking(data, new Options() {
+			public void set(GreedyStepwise search, CfsSubsetEval eval) {
+				search.setGenerateRanking(true);
+				search.setNumToSelect(5);
+			}
+		});
+	}
+
+	@Test
+	public void searchOptions() throws Exception {
+		Instances data = data(400, 30, false, 4);
+		assertSameAsWeka(data, new Options() {
+			public void set(GreedyStepwise search, CfsSubsetEval eval) {
+				search.setConservativeForwardSelection(true);
+			}
+		});
+		assertSameAsWeka(data, new Options() {
+			public void set(GreedyStepwise search, CfsSubsetEval eval) throws Exception {
+				search.setStartSet("1,12,25");
+			}
+		});
+		assertSameAsWeka(data, new Options() {
+			public void set(GreedyStepwise search, CfsSubsetEval eval) throws Exception {
+				search.setSearchBackwards(true);
+				search.setStartSet("1-15");
+			}
+		});
+	}
+
+	@Test
+	public void evaluatorOptions() throws Exception {
+		Instances data = data(400, 30, false, 5);
+		assertSameAsWeka(data, new Options() {
+			public void set(GreedyStepwise search, CfsSubsetEval eval) {
+				eval.setMissingSeparate(true);
+			}
+		});
+		assertSameAsWeka(data, new Options() {
+			public void set(GreedyStepwise search, CfsSubsetEval eval) {
+				search.setSearchBackwards(true);
+				eval.setLocallyPredictive(false);
+			}
+		});
+		assertSameAsWeka(data, new Options() {
+			public void set(GreedyStepwise search, CfsSubsetEval eval) {
+				eval.setPreComputeCorrelationMatrix(true);
+			}
+		});
+	}
+
+	@Test
+	public void smallTiles() throws Exception {
+		//tiles of 4 attributes and one candidate per task: the parallel paths on a small problem
+		Instances data = data(300, 40, false, 6);
+		AttributeSelection weka = new AttributeSelection();
+		weka.setEvaluator(new CfsSubsetEval());
+		GreedyStepwise sequential = new GreedyStepwise();
+		sequential.setSearchBackwards(true);
+		weka.setSearch(sequential);
+		weka.SelectAttributes(data);
+		AttributeSelection parallel = new AttributeSelection();
+		parallel.setEvaluator(new CfsSubsetEval());
+		ParallelGreedyStepwise search = new ParallelGreedyStepwise();
+		search.setSearchBackwards(true);
+		search.setBlockSize(4);
+		search.setMinCandidatesPerTask(1);
+		parallel.setSearch(search);
+		parallel.SelectAttributes(data);
+		assertArrayEquals(weka.selectedAttributes(), parallel.selectedAttributes());
+	}
+
+	@Test
+	public void otherEvaluator() throws Exception {
+		//left to GreedyStepwise
+		Instances data = data(150, 8, false, 7);
+		WrapperSubsetEval wrapper = new WrapperSubsetEval();
+		wrapper.setClassifier(new weka.classifiers.bayes.NaiveBayes());
+		ASSearch[] searches = {new GreedyStepwise(), new ParallelGreedyStepwise()};
+		int[][] selected = new int[2][];
+		for(int s=0;s<2;s++) {
+			AttributeSelection selection = new AttributeSelection();
+			selection.setEvaluator(wrapper);
+			selection.setSearch(searches[s]);
+			selection.SelectAttributes(data);
+			selected[s] = selection.selectedAttributes();
+		}
+		assertArrayEquals(selected[0], selected[1]);
+	}
+}
@@ -0,0 +1,175 @@
+package irisDataExamples;
+
+/**
+ * SparseStore and its kernels against WEKA on sparse data (mostly zeros, nominal attributes,
+ * missing values, weighted rows): the store gives back the rows it was given, SparseNaiveBayes
+ * builds the model of NaiveBayes (toString) with its probabilities up to rounding, also with
+ * the options left to NaiveBayes, and the rows of a store are scored as distributionForInstance
+ * scores them, for NaiveBayes and the linear models.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.bayes.NaiveBayes;
+import weka.classifiers.functions.LinearRegression;
+import weka.classifiers.functions.Logistic;
+import weka.classifiers.functions.SMO;
+import weka.classifiers.functions.SMOreg;
+import weka.core.Attribute;
+import weka.core.Instances;
+import weka.core.SparseInstance;
+import weka.core.Utils;
+
+public class SparseStoreTest {
+
+	/**
+	 * numRows sparse rows of numAttributes counts (about one in ten non-zero, more often for the
+	 * attributes of the row's class), every tenth attribute nominal, some values missing, weights
+	 * of 0.5 to 2.5; the class is nominal with 3 values or, if numericClass, a sum of counts.
+	 */
+	private static Instances sparse(int numRows, int numAttributes, boolean numericClass, long seed) {
+		Random rand = new Random(seed);
+		ArrayList<Attribute> atts = new ArrayList<Attribute>();
+		for(int j=0;j<numAttributes;j++)
+			atts.add(j % 10 == 9 ? new Attribute("n" + j, Arrays.asList("none", "some", "many")) : new Attribute("w" + j));
+		atts.add(numericClass ? new Attribute("class") : new Attribute("class", Arrays.asList("c0", "c1", "c2")));
+		Instances data = new Instances("sparse", atts, numRows);
+		data.setClassIndex(numAttributes);
+		for(int i=0;i<numRows;i++) {
+			int c = rand.nextInt(3);
+			double[] values = new double[numAttributes + 1];
+			for(int j=0;j<numAttributes;j++) {
+				if(rand.nextInt(j % 3 == c ? 4 : 10) == 0)
+					values[j] = atts.get(j).isNominal() ? 1 + rand.nextInt(2) : 1 + rand.nextInt(5);
+				if(rand.nextInt(100) == 0)
+					values[j] = Utils.missingValue();
+			}
+			values[numAttributes] = numericClass ? values[0] + 2*values[1] - values[2] + rand.nextGaussian() : c;
+			if(numericClass && Double.isNaN(values[numAttributes]))
+				values[numAttributes] = rand.nextGaussian();
+			data.add(new SparseInstance(0.5 + rand.nextInt(3), values));
+		}
+		return data;
+	}
+
+	private static void assertSameDistributions(Classifier expected, double[][] actual, Instances data, String message) throws Exception {
+		assertEquals(data.numInstances(), actual.length);
+		for(int i=0;i<data.numInstances();i++)
+			assertArrayEquals(message + ", row " + i, expected.distributionForInstance(data.instance(i)), actual[i], 1e-9);
+	}
+
+	@Test
+	public void store() throws Exception {
+		Instances data = sparse(500, 60, false, 1);
+		SparseStore store = SparseStore.of(data);
+		assertEquals(data.numInstances(), store.numRows());
+		Instances back = store.toInstances();
+		for(int i=0;i<data.numInstances();i++) {
+			assertEquals("row " + i, data.instance(i).toString(), back.instance(i).toString());
+			assertEquals("row " + i, data.instance(i).weight(), back.instance(i).weight(), 0);
+		}
+		//row by row, as the end of a FilterPipeline
+		SparseStore added = new SparseStore(data);
+		for(int i=0;i<data.numInstances();i++)
+			added.accept(data.instance(i));
+		assertEquals(store.nnz(), added.nnz());
+		assertEquals(back.toString(), added.toInstances().toString());
+	}
+
+	@Test
+	public void naiveBayes() throws Exception {
+		Instances data = sparse(500, 60, false, 2);
+		NaiveBayes weka = new NaiveBayes();
+		weka.buildClassifier(data);
+		SparseNaiveBayes sparse = new SparseNaiveBayes();
+		sparse.buildClassifier(SparseStore.of(data));
+		assertTrue(sparse.isSparse());
+		assertEquals(weka.toString(), sparse.toString());
+		double[][] dist = new double[data.numInstances()][];
+		for(int i=0;i<data.numInstances();i++)
+			dist[i] = sparse.distributionForInstance(data.instance(i));
+		assertSameDistributions(weka, dist, data, "distributionForInstance");
+		assertSameDistributions(weka, sparse.distributions(SparseStore.of(data), 0, data.numInstances()), data, "distributions");
+
+		//from an Instances, dense rows too
+		SparseNaiveBayes dense = new SparseNaiveBayes();
+		dense.buildClassifier(new Instances(data));
+		assertEquals(weka.toString(), dense.toString());
+	}
+
+	@Test
+	public void leftToNaiveBayes() throws Exception {
+		//kernel estimator and supervised discretization
+		Instances data = sparse(300, 30, false, 3);
+		for(String options : new String[] {"-K", "-D"}) {
+			NaiveBayes weka = new NaiveBayes();
+			weka.setOptions(Utils.splitOptions(options));
+			weka.buildClassifier(data);
+			SparseNaiveBayes sparse = new SparseNaiveBayes();
+			sparse.setOptions(Utils.splitOptions(options));
+			sparse.buildClassifier(SparseStore.of(data));
+			assertEquals(options, false, sparse.isSparse());
+			assertEquals(options, weka.toString(), sparse.toString());
+			BatchPredictor predictor = new BatchPredictor(sparse);
+			assertSameDistributions(weka, predictor.distributions(SparseStore.of(data)), data, options);
+		}
+	}
+
+	@Test
+	public void sparseKernels() throws Exception {
+		Instances data = sparse(500, 40, false, 4);
+		SparseStore store = SparseStore.of(data);
+		SparseNaiveBayes naiveBayes = new SparseNaiveBayes();
+		naiveBayes.buildClassifier(store);
+		Logistic logistic = new Logistic();
+		logistic.buildClassifier(data);
+		SMO smo = new SMO();
+		smo.buildClassifier(data);
+		for(Classifier model : new Classifier[] {naiveBayes, logistic, smo}) {
+			BatchPredictor predictor = new BatchPredictor(model);
+			double[][] dist = predictor.distributions(store);
+			assertTrue(model.getClass().getSimpleName(), predictor.isSparse());
+			assertSameDistributions(model, dist, data, model.getClass().getSimpleName());
+		}
+	}
+
+	@Test
+	public void numericClass() throws Exception {
+		Instances data = sparse(500, 40, true, 5);
+		SparseStore store = SparseStore.of(data);
+		LinearRegression regression = new LinearRegression();
+		regression.buildClassifier(data);
+		SMOreg smoreg = new SMOreg();
+		smoreg.buildClassifier(data);
+		for(Classifier model : new Classifier[] {regression, smoreg}) {
+			BatchPredictor predictor = new BatchPredictor(model);
+			double[][] dist = predictor.distributions(store);
+			assertTrue(model.getClass().getSimpleName(), predictor.isSparse());
+			assertSameDistributions(model, dist, data, model.getClass().getSimpleName());
+		}
+	}
+
+	@Test
+	public void otherModels() throws Exception {
+		//no sparse kernel: the rows are given back as SparseInstances
+		Instances data = sparse(300, 30, false, 6);
+		NaiveBayes naiveBayes = new NaiveBayes();
+		naiveBayes.buildClassifier(data);
+		BatchPredictor predictor = new BatchPredictor(naiveBayes);
+		double[][] dist = predictor.distributions(SparseStore.of(data));
+		assertEquals(false, predictor.isSparse());
+		assertSameDistributions(naiveBayes, dist, data, "NaiveBayes");
+	}
+}
@@ -5,6 +5,9 @@ package irisDataExamples;
  * 
  * Print the best associations between variables in the weatherNominal dataset using an Apriori-type algorithm
  * 
+ * The associator is FastApriori, which counts the supports on bitsets of the rows of every value
+ * and finds the rules of Apriori (see FastAprioriTest in the benchmarks module).
+ * 
  * @author feBueno, June 2020
  * fernando.bueno.gutie@gmail.com
  */
@@ -48,7 +51,7 @@ public class AssocRules {
 		//set class index to the last attribute (categorical)
 		data_intances.setClassIndex(data_intances.numAttributes()-1);
 		
-		Apriori Apriori_model = new Apriori();//https://weka.sourceforge.io/doc.stable/
+		Apriori Apriori_model = new FastApriori();//https://weka.sourceforge.io/doc.stable/
 		Apriori_model.buildAssociations(data_intances);
 		
 		System.out.println(Apriori_model);
@@ -0,0 +1,534 @@
+package irisDataExamples;
+
+/**
+ * Incremental, asynchronous dataset writer.
+ *
+ * ArffSaver.writeBatch needs the whole dataset in memory and formats it on the calling thread.
+ * Here producers hand off rows (single rows or whole batches, from any thread) to a bounded
+ * queue, and a dedicated writer thread formats them into a reusable ByteBuffer (direct, unless
+ * the output is gzipped) and writes it through a FileChannel, so writing overlaps with
+ * computing the data. When the queue is full, producers wait for the writer.
+ *
+ * Output is ARFF text, the same as ArffSaver with the same number of decimal places
+ * (nominal values are encoded once per attribute, integral numbers skip DecimalFormat and
+ * the text of the last numbers seen is kept in a small cache, keyed by their exact bits),
+ * or a binary row format that is read back without text parsing:
+ *   "WROW", version, ARFF header, then per row a kind byte (0 dense, 1 sparse), the weight,
+ *   and all the values (dense) or the number of values followed by index/value pairs (sparse).
+ * Both can be gzipped.
+ *
+ * It is also a FilterPipeline.RowConsumer: a pipeline writes its rows while it keeps filtering.
+ * On Iris, the FilterPipeline example is streamed into src/data/iris_afterFilterPipeline.arff.gz.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.SparseInstance;
+import weka.core.Utils;
+import weka.core.converters.ConverterUtils.DataSource;
+import weka.filters.unsupervised.attribute.Remove;
+import weka.filters.unsupervised.instance.NonSparseToSparse;
+
+public class AsyncArffWriter implements Closeable, FilterPipeline.RowConsumer {
+
+	private static final int MAGIC = 0x57524f57;//"WROW"
+	private static final int VERSION = 1;
+
+	private static final byte DENSE = 0;
+	private static final byte SPARSE = 1;
+
+	private static final int CACHE_SIZE = 1 << 12;//formatted numbers kept by the writer thread
+
+	//marks the end of the stream in the queue
+	private static final List<Instance> END = Collections.emptyList();
+
+	private final String path;
+	private Instances header;
+	private boolean gzip;
+	private boolean binary;
+	private int maxDecimalPlaces = 6;//as ArffSaver
+	private int bufferSize = 1 << 20;
+	private int queueCapacity = 16;
+	private int batchSize = 1000;//rows handed off at once by write(Instance)
+
+	private BlockingQueue<List<Instance>> queue;
+	private Thread writer;
+	private volatile Throwable failure;
+	private List<Instance> pending;
+	private long numRows;
+	private boolean closed;
+
+	/**
+	 * Writer of rows with the given header to path; a null header is taken from the first row written.
+	 */
+	public AsyncArffWriter(String path, Instances header) {
+		this.path = path;
+		this.header = header == null ? null : new Instances(header, 0);
+	}
+
+	/**
+	 * Gzipped output (the buffer is then on the heap, the deflater needs an array).
+	 */
+	public void setGzip(boolean gzip) {
+		checkNotStarted();
+		this.gzip = gzip;
+	}
+
+	/**
+	 * Binary row format instead of ARFF text, see readBinary.
+	 */
+	public void setBinary(boolean binary) {
+		checkNotStarted();
+		this.binary = binary;
+	}
+
+	public void setMaxDecimalPlaces(int maxDecimalPlaces) {
+		checkNotStarted();
+		this.maxDecimalPlaces = maxDecimalPlaces;
+	}
+
+	public void setBufferSize(int bufferSize) {
+		checkNotStarted();
+		this.bufferSize = Math.max(1 << 12, bufferSize);
+	}
+
+	/**
+	 * Batches the writer may lag behind the producers before they wait.
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		checkNotStarted();
+		this.queueCapacity = Math.max(1, queueCapacity);
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = Math.max(1, batchSize);
+	}
+
+	private void checkNotStarted() {
+		if(writer != null)
+			throw new IllegalStateException("The writer has already started");
+	}
+
+	/**
+	 * Queues one row; rows are handed to the writer thread batchSize at a time.
+	 */
+	public synchronized void write(Instance inst) throws IOException {
+		if(pending == null)
+			pending = new ArrayList<Instance>(batchSize);
+		pending.add(inst);
+		if(pending.size() >= batchSize) {
+			List<Instance> batch = pending;
+			pending = null;
+			handOff(batch, inst);
+		}
+	}
+
+	/**
+	 * Queues a batch of rows. The rows are read later by the writer thread: they must not be
+	 * modified afterwards (the Instances itself may be reused).
+	 */
+	public void write(Instances batch) throws IOException {
+		if(batch.numInstances() == 0)
+			return;
+		List<Instance> rows = new ArrayList<Instance>(batch.numInstances());
+		for(int n=0;n<batch.numInstances();n++)
+			rows.add(batch.instance(n));
+		synchronized(this) {
+			handOff(rows, rows.get(0));
+		}
+	}
+
+	public void accept(Instance inst) throws IOException {
+		write(inst);
+	}
+
+	private void handOff(List<Instance> batch, Instance first) throws IOException {
+		if(closed)
+			throw new IOException("Writer closed: " + path);
+		checkFailure();
+		if(writer == null)
+			start(first);
+		numRows += batch.size();
+		try {
+			queue.put(batch);
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while writing " + path, e);
+		}
+	}
+
+	private void start(Instance first) throws IOException {
+		if(header == null) {
+			if(first == null || first.dataset() == null)
+				throw new IOException("No header for " + path + ": give one or write rows that have a dataset");
+			header = new Instances(first.dataset(), 0);
+		}
+		final FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		queue = new ArrayBlockingQueue<List<Instance>>(queueCapacity);
+		writer = new Thread(new Runnable() {
+			public void run() {
+				try {
+					writeAll(channel);
+				} catch(Throwable e) {
+					failure = e;
+					//keep taking batches so producers never block on a dead writer
+					try {
+						while(queue.take() != END) {
+							//discarded
+						}
+					} catch(InterruptedException ie) {
+						Thread.currentThread().interrupt();
+					}
+				} finally {
+					try {
+						channel.close();
+					} catch(IOException e) {
+						if(failure == null)
+							failure = e;
+					}
+				}
+			}
+		}, "AsyncArffWriter " + path);
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Writes the rows still queued and waits for the writer thread to finish.
+	 * Returns nothing until everything is on disk; rethrows any error of the writer.
+	 */
+	public synchronized void close() throws IOException {
+		if(closed)
+			return;
+		if(pending != null) {
+			List<Instance> batch = pending;
+			pending = null;
+			handOff(batch, batch.get(0));
+		}
+		closed = true;
+		if(writer == null)
+			start(null);//header only
+		try {
+			queue.put(END);
+			writer.join();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while closing " + path, e);
+		}
+		checkFailure();
+	}
+
+	/**
+	 * Rows handed to the writer so far.
+	 */
+	public synchronized long numRows() {
+		return numRows + (pending == null ? 0 : pending.size());
+	}
+
+	private void checkFailure() throws IOException {
+		if(failure != null)
+			throw failure instanceof IOException ? (IOException) failure : new IOException("Writing " + path + " failed", failure);
+	}
+
+	//writer thread
+
+	private ByteBuffer buf;
+	private OutputStream gzipOut;
+	private FileChannel out;
+	private byte[][][] nominalBytes;//quoted ARFF text of every nominal value
+	private Boolean simpleHeader;//only numeric and nominal attributes
+	private final byte[] digits = new byte[20];
+	private final long[] cachedBits = new long[CACHE_SIZE];
+	private final byte[][] cachedText = new byte[CACHE_SIZE][];//direct-mapped by the bits of the value
+
+	private void writeAll(FileChannel channel) throws IOException, InterruptedException {
+		out = channel;
+		buf = gzip ? ByteBuffer.allocate(bufferSize) : ByteBuffer.allocateDirect(bufferSize);
+		if(gzip)
+			gzipOut = new GZIPOutputStream(Channels.newOutputStream(channel), 1 << 16);
+		writeHeader();
+		List<Instance> batch;
+		while((batch = queue.take()) != END) {
+			for(Instance inst : batch) {
+				if(binary)
+					writeBinary(inst);
+				else
+					writeText(inst);
+			}
+		}
+		flushBuffer();
+		if(gzipOut != null)
+			gzipOut.close();
+	}
+
+	private void writeHeader() throws IOException {
+		byte[] text = header.toString().getBytes(StandardCharsets.UTF_8);
+		if(binary) {
+			ensure(12);
+			buf.putInt(MAGIC);
+			buf.putInt(VERSION);
+			buf.putInt(text.length);
+			put(text);
+			return;
+		}
+		put(text);//same layout as ArffSaver.writeBatch
+		nominalBytes = new byte[header.numAttributes()][][];
+		for(int j=0;j<header.numAttributes();j++) {
+			Attribute att = header.attribute(j);
+			if(!att.isNominal())
+				continue;
+			nominalBytes[j] = new byte[att.numValues()][];
+			for(int v=0;v<att.numValues();v++)
+				nominalBytes[j][v] = Utils.quote(att.value(v)).getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	//the line ArffSaver writes: inst.toStringMaxDecimalDigits(maxDecimalPlaces)
+	private void writeText(Instance inst) throws IOException {
+		if(inst instanceof SparseInstance || !numericOrNominal()) {
+			put(inst.toStringMaxDecimalDigits(maxDecimalPlaces).getBytes(StandardCharsets.UTF_8));
+			put((byte) '\n');
+			return;
+		}
+		int numAtts = header.numAttributes();
+		for(int j=0;j<numAtts;j++) {
+			if(j > 0)
+				put((byte) ',');
+			double value = inst.value(j);
+			if(Utils.isMissingValue(value))
+				put((byte) '?');
+			else if(nominalBytes[j] != null)
+				put(nominalBytes[j][(int) value]);
+			else
+				putNumber(value);
+		}
+		if(inst.weight() != 1.0) {
+			put((byte) ',');
+			put((byte) '{');
+			putNumber(inst.weight());
+			put((byte) '}');
+		}
+		put((byte) '\n');
+	}
+
+	private boolean numericOrNominal() {
+		if(simpleHeader == null) {
+			boolean simple = true;
+			for(int j=0;j<header.numAttributes();j++)
+				simple &= header.attribute(j).isNominal() || header.attribute(j).type() == Attribute.NUMERIC;
+			simpleHeader = simple;
+		}
+		return simpleHeader;
+	}
+
+	//Utils.doubleToString(value, maxDecimalPlaces), with integral values written directly
+	private void putNumber(double value) throws IOException {
+		if(value == Math.rint(value) && Math.abs(value) < 1e15 && (value != 0 || 1/value > 0)) {
+			long v = (long) value;
+			int n = digits.length;
+			boolean negative = v < 0;
+			if(negative)
+				v = -v;
+			do {
+				digits[--n] = (byte) ('0' + v % 10);
+				v /= 10;
+			} while(v != 0);
+			if(negative)
+				digits[--n] = '-';
+			ensure(digits.length - n);
+			buf.put(digits, n, digits.length - n);
+			return;
+		}
+		long bits = Double.doubleToRawLongBits(value);
+		int slot = (int) (bits ^ (bits >>> 29) ^ (bits >>> 43)) & (CACHE_SIZE-1);
+		byte[] text = cachedText[slot];
+		if(text == null || cachedBits[slot] != bits) {
+			text = Utils.doubleToString(value, maxDecimalPlaces).getBytes(StandardCharsets.US_ASCII);
+			cachedText[slot] = text;
+			cachedBits[slot] = bits;
+		}
+		ensure(text.length);
+		buf.put(text);
+	}
+
+	private void writeBinary(Instance inst) throws IOException {
+		if(inst instanceof SparseInstance) {
+			int numValues = inst.numValues();
+			ensure(1 + 8 + 4 + numValues*12);
+			buf.put(SPARSE);
+			buf.putDouble(inst.weight());
+			buf.putInt(numValues);
+			for(int i=0;i<numValues;i++) {
+				buf.putInt(inst.index(i));
+				buf.putDouble(inst.valueSparse(i));
+			}
+			return;
+		}
+		int numAtts = header.numAttributes();
+		ensure(1 + 8 + numAtts*8);
+		buf.put(DENSE);
+		buf.putDouble(inst.weight());
+		for(int j=0;j<numAtts;j++)
+			buf.putDouble(inst.value(j));
+	}
+
+	private void put(byte b) throws IOException {
+		ensure(1);
+		buf.put(b);
+	}
+
+	private void put(byte[] bytes) throws IOException {
+		int off = 0;
+		while(off < bytes.length) {
+			ensure(1);
+			int n = Math.min(buf.remaining(), bytes.length - off);
+			buf.put(bytes, off, n);
+			off += n;
+		}
+	}
+
+	//room for n more bytes (n <= the buffer size, or as much as fits for larger n)
+	private void ensure(int n) throws IOException {
+		if(buf.remaining() < Math.min(n, buf.capacity()))
+			flushBuffer();
+		if(n > buf.capacity())
+			throw new IOException("Row larger than the write buffer (" + n + " bytes), increase setBufferSize");
+	}
+
+	private void flushBuffer() throws IOException {
+		buf.flip();
+		if(gzipOut != null) {
+			gzipOut.write(buf.array(), buf.arrayOffset(), buf.limit());
+		} else {
+			while(buf.hasRemaining())
+				out.write(buf);
+		}
+		buf.clear();
+	}
+
+	/**
+	 * Reads a file written with setBinary(true), gzipped or not.
+	 */
+	public static Instances readBinary(String path) throws IOException {
+		InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(path)), 1 << 16);
+		in.mark(2);
+		boolean gzipped = in.read() == 0x1f && in.read() == 0x8b;
+		in.reset();
+		DataInputStream data = new DataInputStream(new BufferedInputStream(gzipped ? new GZIPInputStream(in, 1 << 16) : in, 1 << 16));
+		try {
+			if(data.readInt() != MAGIC)
+				throw new IOException("Not a binary row file: " + path);
+			int version = data.readInt();
+			if(version != VERSION)
+				throw new IOException("Unsupported binary row version " + version);
+			byte[] text = new byte[data.readInt()];
+			data.readFully(text);
+			Instances result = new Instances(new StringReader(new String(text, StandardCharsets.UTF_8)));
+			int numAtts = result.numAttributes();
+			while(true) {
+				int kind = data.read();
+				if(kind < 0)
+					break;
+				double weight = data.readDouble();
+				if(kind == DENSE) {
+					double[] values = new double[numAtts];
+					for(int j=0;j<numAtts;j++)
+						values[j] = data.readDouble();
+					result.add(new DenseInstance(weight, values));
+				} else if(kind == SPARSE) {
+					int numValues = data.readInt();
+					int[] indices = new int[numValues];
+					double[] values = new double[numValues];
+					for(int i=0;i<numValues;i++) {
+						indices[i] = data.readInt();
+						values[i] = data.readDouble();
+					}
+					result.add(new SparseInstance(weight, values, indices, numAtts));
+				} else {
+					throw new IOException("Corrupt binary row file: " + path);
+				}
+			}
+			return result;
+		} catch(EOFException e) {
+			throw new IOException("Truncated binary row file: " + path, e);
+		} finally {
+			data.close();
+		}
+	}
+
+	/**
+	 * Reads a gzipped ARFF file written with setGzip(true).
+	 */
+	public static Instances readGzipArff(String path) throws IOException {
+		InputStreamReader reader = new InputStreamReader(new GZIPInputStream(Files.newInputStream(Paths.get(path)), 1 << 16), StandardCharsets.UTF_8);
+		try {
+			return new Instances(reader);
+		} finally {
+			reader.close();
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		//the FilterPipeline example: keep attributes 1, 4 and the class, 4 bins, sparse
+		Remove remove = new Remove();
+		remove.setOptions(new String[] {"-R", "1,4,5", "-V"});
+		HistogramDiscretize discretize = new HistogramDiscretize();
+		discretize.setOptions(new String[] {"-B", "4", "-R", "1-2"});
+		FilterPipeline pipeline = new FilterPipeline().add(remove).add(discretize).add(new NonSparseToSparse());
+		pipeline.learn(new ChunkedDataSource("src/data/iris.arff", 1000));
+
+		//rows are written (gzipped) by the writer thread while the pipeline filters
+		AsyncArffWriter writer = new AsyncArffWriter("src/data/iris_afterFilterPipeline.arff.gz", null);
+		writer.setGzip(true);
+		try {
+			pipeline.run(new ChunkedDataSource("src/data/iris.arff", 1000), writer);
+		} finally {
+			writer.close();
+		}
+		System.out.println(writer.numRows() + " rows written to src/data/iris_afterFilterPipeline.arff.gz");
+
+		//binary rows of the raw data, read back without parsing text
+		Instances iris_ds = new DataSource("src/data/iris.arff").getDataSet();
+		AsyncArffWriter binaryWriter = new AsyncArffWriter("src/data/iris.wrow", iris_ds);
+		binaryWriter.setBinary(true);
+		binaryWriter.write(iris_ds);
+		binaryWriter.close();
+		Instances back = readBinary("src/data/iris.wrow");
+		System.out.println("Binary rows read back equal the original: " + back.toString().equals(iris_ds.toString()));
+		System.out.println("Gzipped ARFF has " + readGzipArff("src/data/iris_afterFilterPipeline.arff.gz").numInstances() + " rows");
+	}
+} /*Output:
+150 rows written to src/data/iris_afterFilterPipeline.arff.gz
+Binary rows read back equal the original: true
+Gzipped ARFF has 150 rows
+*/
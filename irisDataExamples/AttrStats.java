@@ -42,12 +42,15 @@ public class AttrStats {
 		//specify format for printing numerics
 		DecimalFormat f = new DecimalFormat("##.00");
 		
+		//compute the stats of all attributes in a single pass over the data
+		DatasetStats stats = DatasetStats.of(data);
+		
 		//get number of attributes
 		int numAttr = data.numAttributes();
 		for(int i=0;i<numAttr;i++) {//attributes are 0-based
 			
 			//get an attributeStats object
-			AttributeStats as = data.attributeStats(i);//weka.core.AttributeStats
+			AttributeStats as = stats.attributeStats(i);//weka.core.AttributeStats
 			
 			//print distinct counts
 			int dc = as.distinctCount;//approach 1 to get distinct values. 
@@ -79,6 +82,11 @@ public class AttrStats {
 		int numInst = data.numInstances();
 		//loop through the first 6 instances;
 		System.out.println("The first 6 instances are printed with their z-score for the index attribute:");
+		
+		//get statistics from index class once, they are the same for every instance
+		AttributeStats classStats = stats.attributeStats(data.classIndex());//weka.core.AttributeStats
+		Stats s = classStats.numericStats;
+		
 		for(int j=0;j<6;j++) {
 			Instance minstance = data.instance(j);
 
@@ -90,10 +98,6 @@ public class AttrStats {
 			
 			//print value of the instance in the attribute selected as classIndex
 			System.out.print(data.attribute(data.classIndex()).name()+": ");//att name
-			
-			//get statistics from index class for each instance in loop
-			AttributeStats as = data.attributeStats(data.classIndex());//weka.core.AttributeStats
-			Stats s = as.numericStats;
 
 			if(data.attribute(data.classIndex()).isNominal()) {
 				System.out.println(minstance.classAttribute().value((int)cV));
@@ -0,0 +1,325 @@
+package irisDataExamples;
+
+/**
+ * Approximate attribute statistics with fixed memory per attribute.
+ *
+ * Opt-in alternative to AttrStats/DatasetStats for very large, high-cardinality data:
+ * exact distinct counts need every value in memory, here each attribute only keeps
+ * - a HyperLogLog sketch (4096 one-byte registers) for the distinct count, std error about 1.6%,
+ * - a KLL quantile sketch (k=200, about 600 values) for the distribution of numeric attributes,
+ *   rank error about 1.7%,
+ * - a Welford accumulator for mean/stdDev and, for nominal attributes, the (exact) category counts.
+ * Sketches of chunks or threads merge, like DatasetStats.
+ *
+ * The main prints the same lines as AttrStats, with the error bounds, plus the quartiles.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.text.DecimalFormat;
+import java.util.Arrays;
+import java.util.Random;
+
+import weka.core.AttributeStats;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+import weka.core.converters.ConverterUtils.DataSource;
+
+public class AttributeSketches {
+
+	private final Instances header;
+	private final HyperLogLog[] distinct;
+	private final QuantileSketch[] quantiles;
+	//Welford and nominal counts, without the exact distinct value counts
+	private final DatasetStats.Accumulator[] moments;
+	private int numRows;
+
+	public AttributeSketches(Instances header) {
+		this.header = new Instances(header, 0);
+		int numAtts = header.numAttributes();
+		distinct = new HyperLogLog[numAtts];
+		quantiles = new QuantileSketch[numAtts];
+		moments = new DatasetStats.Accumulator[numAtts];
+		for(int j=0;j<numAtts;j++) {
+			distinct[j] = new HyperLogLog();
+			if(header.attribute(j).isNumeric())
+				quantiles[j] = new QuantileSketch(QuantileSketch.DEFAULT_K, j);
+			moments[j] = new DatasetStats.Accumulator(header.attribute(j).isNominal() ? header.attribute(j).numValues() : -1, false);
+		}
+	}
+
+	/**
+	 * Sketches of a whole dataset, one pass.
+	 */
+	public static AttributeSketches of(Instances data) {
+		AttributeSketches sketches = new AttributeSketches(data);
+		sketches.add(data);
+		return sketches;
+	}
+
+	public void add(Instances data) {
+		for(int i=0;i<data.numInstances();i++)
+			add(data.instance(i));
+	}
+
+	public void add(Instance inst) {
+		double weight = inst.weight();
+		for(int j=0;j<distinct.length;j++) {
+			double value = inst.value(j);
+			moments[j].add(value, weight);
+			if(Utils.isMissingValue(value))
+				continue;
+			distinct[j].add(value);
+			if(quantiles[j] != null)
+				quantiles[j].add(value);
+		}
+		numRows++;
+	}
+
+	/**
+	 * Adds the sketches of other (same header) to these ones.
+	 */
+	public AttributeSketches merge(AttributeSketches other) {
+		if(!header.equalHeaders(other.header))
+			throw new IllegalArgumentException("Headers differ: " + header.equalHeadersMsg(other.header));
+		for(int j=0;j<distinct.length;j++) {
+			distinct[j].merge(other.distinct[j]);
+			if(quantiles[j] != null)
+				quantiles[j].merge(other.quantiles[j]);
+			moments[j].merge(other.moments[j]);
+		}
+		numRows += other.numRows;
+		return this;
+	}
+
+	public int numRows() {
+		return numRows;
+	}
+
+	public long distinctCount(int index) {
+		return distinct[index].estimate();
+	}
+
+	/**
+	 * Relative standard error of distinctCount.
+	 */
+	public double distinctError() {
+		return HyperLogLog.STANDARD_ERROR;
+	}
+
+	/**
+	 * Approximate q-quantile (0 <= q <= 1) of a numeric attribute.
+	 */
+	public double quantile(int index, double q) {
+		return quantiles[index].quantile(q);
+	}
+
+	/**
+	 * Normalized rank error of quantile.
+	 */
+	public double quantileError() {
+		return QuantileSketch.RANK_ERROR;
+	}
+
+	/**
+	 * Mean, stdDev, min, max, missing and nominal counts (exact, fixed memory);
+	 * distinctCount, uniqueCount and intCount are left at 0, see distinctCount.
+	 */
+	public AttributeStats moments(int index) {
+		return moments[index].toAttributeStats(header.attribute(index).isNumeric(), numRows);
+	}
+
+	/**
+	 * HyperLogLog distinct counter with 2^12 registers.
+	 */
+	static class HyperLogLog {
+		static final int P = 12;
+		static final int M = 1 << P;
+		static final double STANDARD_ERROR = 1.04/Math.sqrt(M);
+		private final byte[] registers = new byte[M];
+
+		void add(double value) {
+			if(value == 0)
+				value = 0.0;//-0.0 and 0.0 are the same value
+			long h = mix(Double.doubleToLongBits(value));
+			int index = (int) (h >>> (64 - P));
+			int rank = Long.numberOfLeadingZeros((h << P) | (1L << (P - 1))) + 1;
+			if(rank > registers[index])
+				registers[index] = (byte) rank;
+		}
+
+		void merge(HyperLogLog other) {
+			for(int i=0;i<M;i++) {
+				if(other.registers[i] > registers[i])
+					registers[i] = other.registers[i];
+			}
+		}
+
+		long estimate() {
+			double sum = 0;
+			int zeros = 0;
+			for(int i=0;i<M;i++) {
+				sum += 1.0/(1L << registers[i]);
+				if(registers[i] == 0)
+					zeros++;
+			}
+			double alpha = 0.7213/(1 + 1.079/M);
+			double estimate = alpha*M*M/sum;
+			//small range: linear counting is far more accurate
+			if(estimate <= 2.5*M && zeros > 0)
+				estimate = M*Math.log((double) M/zeros);
+			return Math.round(estimate);
+		}
+
+		//murmur3 finalizer
+		private static long mix(long h) {
+			h ^= h >>> 33;
+			h *= 0xff51afd7ed558ccdL;
+			h ^= h >>> 33;
+			h *= 0xc4ceb9fe1a85ec53L;
+			h ^= h >>> 33;
+			return h;
+		}
+	}
+
+	/**
+	 * KLL quantile sketch: a stack of compactors, level h holding values of weight 2^h.
+	 * When the sketch is full, the lowest full level is sorted and every other value
+	 * (random offset) is promoted to the next level. Memory stays around 3k values.
+	 * The seed makes the sketch of a given stream reproducible.
+	 */
+	static class QuantileSketch {
+		static final int DEFAULT_K = 200;
+		static final double RANK_ERROR = 0.017;//for k=200
+		private static final double C = 2.0/3.0;
+
+		private final int k;
+		private final Random random;
+		private double[][] levels = new double[1][];
+		private int[] sizes = new int[1];
+
+		QuantileSketch(int k, long seed) {
+			this.k = k;
+			this.random = new Random(seed);
+			levels[0] = new double[capacity(0)];
+		}
+
+		private int capacity(int level) {
+			int depth = levels.length - level - 1;
+			return Math.max(2, (int) Math.ceil(k*Math.pow(C, depth)));
+		}
+
+		void add(double value) {
+			append(0, value);
+			compress();
+		}
+
+		void merge(QuantileSketch other) {
+			for(int h=0;h<other.levels.length;h++) {
+				for(int i=0;i<other.sizes[h];i++)
+					append(h, other.levels[h][i]);
+			}
+			compress();
+		}
+
+		private void append(int level, double value) {
+			while(level >= levels.length)
+				addLevel();
+			if(sizes[level] == levels[level].length)
+				levels[level] = Arrays.copyOf(levels[level], levels[level].length*2);
+			levels[level][sizes[level]++] = value;
+		}
+
+		private void addLevel() {
+			levels = Arrays.copyOf(levels, levels.length+1);
+			sizes = Arrays.copyOf(sizes, sizes.length+1);
+			levels[levels.length-1] = new double[2];
+		}
+
+		private void compress() {
+			for(int h=0;h<levels.length;h++) {
+				if(sizes[h] < capacity(h))
+					continue;
+				double[] level = levels[h];
+				Arrays.sort(level, 0, sizes[h]);
+				//an odd value out (the largest) stays at this level
+				int even = sizes[h] - sizes[h] % 2;
+				int offset = random.nextBoolean() ? 1 : 0;
+				for(int i=offset;i<even;i+=2)
+					append(h+1, level[i]);
+				level[0] = level[sizes[h]-1];
+				sizes[h] -= even;
+			}
+		}
+
+		double quantile(double q) {
+			int n = 0;
+			for(int h=0;h<levels.length;h++)
+				n += sizes[h];
+			if(n == 0)
+				return Double.NaN;
+			double[] values = new double[n];
+			long[] weights = new long[n];
+			int i = 0;
+			for(int h=0;h<levels.length;h++) {
+				for(int s=0;s<sizes[h];s++) {
+					values[i] = levels[h][s];
+					weights[i++] = 1L << h;
+				}
+			}
+			int[] order = Utils.sort(values);
+			long total = 0;
+			for(long w : weights)
+				total += w;
+			double target = q*total;
+			long cumulative = 0;
+			for(int o : order) {
+				cumulative += weights[o];
+				if(cumulative >= target)
+					return values[o];
+			}
+			return values[order[order.length-1]];
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		//load dataset
+		DataSource source = new DataSource("src/data/iris.arff");
+		Instances data = source.getDataSet();
+
+		System.out.println("number of attributes: " + data.numAttributes());
+
+		//specify format for printing numerics
+		DecimalFormat f = new DecimalFormat("##.00");
+		DecimalFormat pct = new DecimalFormat("0.0");
+
+		//sketch all attributes in one pass, fixed memory per attribute
+		AttributeSketches sketches = AttributeSketches.of(data);
+
+		int numAttr = data.numAttributes();
+		for(int i=0;i<numAttr;i++) {
+
+			//print approximate distinct counts
+			System.out.println("The "+i+" attribute has ~"+sketches.distinctCount(i)+" distinct values (+-"+pct.format(100*sketches.distinctError())+"%)");
+
+			//print mean and quartiles if numeric
+			if(data.attribute(i).isNumeric()) {
+				System.out.println("The "+i+" attribute is numeric");
+				weka.experiment.Stats s = sketches.moments(i).numericStats;
+				System.out.println("The "+i+" attribute mean(sd) value is "+ f.format(s.mean) + "(" + f.format(s.stdDev) +")");
+				System.out.println("The "+i+" attribute quartiles are "+f.format(sketches.quantile(i, 0.25))+", "+f.format(sketches.quantile(i, 0.5))+", "+f.format(sketches.quantile(i, 0.75))
+					+" (rank error +-"+pct.format(100*sketches.quantileError())+"%)");
+			}
+
+			//nominal counts are exact
+			if(data.attribute(i).isNominal()) {
+				System.out.println("The "+i+" attribute is nominal");
+				System.out.println("The "+i+" attribute has "+data.attribute(i).numValues()+" categories");
+				System.out.println("The "+i+" attribute has "+Arrays.toString(sketches.moments(i).nominalCounts)+" elements in each of the categories");
+			}
+		}
+	}
+}
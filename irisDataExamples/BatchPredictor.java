@@ -0,0 +1,318 @@
+package irisDataExamples;
+
+/**
+ * Batch predictions with WEKA.
+ *
+ * Scores a whole Instances block (or a double[][] matrix of rows) in one call instead of
+ * calling classifyInstance row by row.
+ * Large batches are split in row ranges that run on the common ForkJoinPool; since WEKA
+ * classifiers keep filter state while predicting, every range works on its own copy of the model.
+ * Linear models (Logistic, LinearRegression, SMO and SMOreg with a linear kernel) skip the
+ * per-row dispatch altogether and are scored with the dot-product kernel in LinearScorer.
+ * Trees and networks the compact format supports (J48, LMT, RandomForest, Bagging,
+ * MultilayerPerceptron...) are compiled once into flat arrays with ModelCodec.compile and
+ * scored block by block from there; the compiled model is stateless, so no copies are made.
+ * Rows held in a SparseStore are scored from their non-zero entries by the linear kernel or,
+ * for a SparseNaiveBayes, by its own sparse kernel; other models get the rows as SparseInstances.
+ * A BatchPredictor is meant for one caller at a time (the model copies are reused between calls).
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.Classifier;
+import weka.classifiers.functions.SMOreg;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.SparseInstance;
+import weka.core.Utils;
+import weka.core.converters.ConverterUtils.DataSource;
+
+public class BatchPredictor {
+
+	private final Classifier model;
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+	private int minRowsPerThread = 1000;//smaller batches are scored on the calling thread
+
+	//per-thread copies of the trained model, created on the first parallel batch
+	private Classifier[] copies;
+
+	//closed-form kernel, compiled on the first batch (null if the model is not linear)
+	private LinearScorer linear;
+	//flat-array form of the model, if it is not linear and ModelCodec supports it
+	private CompactModel flat;
+	private boolean compiled;
+
+	public BatchPredictor(Classifier model) {
+		this.model = model;
+	}
+
+	public void setNumThreads(int numThreads) {
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	public void setMinRowsPerThread(int minRowsPerThread) {
+		this.minRowsPerThread = Math.max(1, minRowsPerThread);
+	}
+
+	public Classifier getModel() {
+		return model;
+	}
+
+	/**
+	 * True if the model is scored with the closed-form kernel rather than row by row.
+	 */
+	public boolean isClosedForm() {
+		return linear != null;
+	}
+
+	/**
+	 * True if the model is scored from its flat-array form (see ModelCodec.compile).
+	 */
+	public boolean isFlattened() {
+		return flat != null;
+	}
+
+	/**
+	 * True if rows of a SparseStore are scored from their non-zero entries
+	 * (known after the first batch).
+	 */
+	public boolean isSparse() {
+		return linear != null || (model instanceof SparseNaiveBayes && ((SparseNaiveBayes) model).isSparse());
+	}
+
+	//scores rows [from, to) of the batch with the given model (or copy)
+	private interface RangeTask {
+		void score(Classifier worker, int from, int to) throws Exception;
+	}
+
+	/**
+	 * Class distributions (or the predicted value, for a numeric class) for every instance.
+	 */
+	public double[][] distributionsForInstances(final Instances data) throws Exception {
+		final int n = data.numInstances();
+		final double[][] result = new double[n][];
+		if(n == 0)
+			return result;
+		compile(data);
+		runRanges(n, linear == null && flat == null, new RangeTask() {
+			public void score(Classifier worker, int from, int to) throws Exception {
+				BatchPredictor.this.score(worker, data, from, to, result);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Same as distributionsForInstances, for the rows of a SparseStore.
+	 */
+	public double[][] distributions(final SparseStore store) throws Exception {
+		final int n = store.numRows();
+		final double[][] result = new double[n][];
+		if(n == 0)
+			return result;
+		compile(store.toInstances(0, Math.min(n, 100)));
+		if(!isSparse())
+			return distributionsForInstances(store.toInstances());
+		final boolean nominal = store.header().classAttribute().isNominal();
+		runRanges(n, false, new RangeTask() {
+			public void score(Classifier worker, int from, int to) throws Exception {
+				double[][] dist = linear != null ? linear.distributions(store, from, to) : ((SparseNaiveBayes) model).distributions(store, from, to);
+				for(int i=from;i<to;i++) {
+					//as in score: the missing terms of the linear kernel are not checked
+					if(linear != null && store.hasMissing(i)) {
+						synchronized(model) {
+							dist[i-from] = distribution(model, store.instance(i), nominal);
+						}
+					}
+					result[i] = dist[i-from];
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Same as classifyInstances, for the rows of a SparseStore.
+	 */
+	public double[] classify(SparseStore store) throws Exception {
+		double[][] dist = distributions(store);
+		double[] pred = new double[dist.length];
+		boolean nominal = store.header().classAttribute().isNominal();
+		for(int i=0;i<dist.length;i++)
+			pred[i] = nominal ? classFromDistribution(dist[i]) : dist[i][0];
+		return pred;
+	}
+
+	//splits [0, n) in ranges run by Tasks on the common pool; each range gets its own model copy if needed
+	private void runRanges(int n, boolean needCopies, final RangeTask task) throws Exception {
+		final int numRanges = (int) Math.max(1, Math.min(numThreads, n/(long) minRowsPerThread));
+		if(numRanges > 1 && needCopies)
+			makeCopies(numRanges);
+
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for(int r=0;r<numRanges;r++) {
+			final int from = (int) ((long) n*r/numRanges);
+			final int to = (int) ((long) n*(r+1)/numRanges);
+			final Classifier worker = r == 0 || !needCopies ? model : copies[r];
+			tasks.add(new Callable<Void>() {
+				public Void call() throws Exception {
+					task.score(worker, from, to);
+					return null;
+				}
+			});
+		}
+
+		Tasks.run(tasks);
+	}
+
+	/**
+	 * Predicted class index (or value, for a numeric class) for every instance,
+	 * same as classifyInstance would return.
+	 */
+	public double[] classifyInstances(Instances data) throws Exception {
+		double[][] dist = distributionsForInstances(data);
+		double[] pred = new double[dist.length];
+		boolean nominal = data.classAttribute().isNominal();
+		for(int i=0;i<dist.length;i++)
+			pred[i] = nominal ? classFromDistribution(dist[i]) : dist[i][0];
+		return pred;
+	}
+
+	/**
+	 * Same as distributionsForInstances, for rows given as attribute values in header order.
+	 */
+	public double[][] distributions(double[][] rows, Instances header) throws Exception {
+		return distributionsForInstances(toInstances(rows, header));
+	}
+
+	/**
+	 * Same as classifyInstances, for rows given as attribute values in header order.
+	 */
+	public double[] classify(double[][] rows, Instances header) throws Exception {
+		return classifyInstances(toInstances(rows, header));
+	}
+
+	//wraps rows without copying their values
+	static Instances toInstances(double[][] rows, Instances header) {
+		Instances data = new Instances(header, rows.length);
+		for(int i=0;i<rows.length;i++)
+			data.add(new DenseInstance(1.0, rows[i]));
+		return data;
+	}
+
+	//classifyInstance semantics: index of the largest probability, missing if all are 0
+	static double classFromDistribution(double[] dist) {
+		int max = Utils.maxIndex(dist);
+		return dist[max] > 0 ? max : Utils.missingValue();
+	}
+
+	private synchronized void compile(Instances data) throws Exception {
+		if(compiled)
+			return;
+		linear = LinearScorer.compile(model, data);
+		if(linear == null) {
+			try {
+				flat = ModelCodec.compile(model, data);
+			} catch(IllegalArgumentException e) {
+				//not supported by the compact format: scored row by row
+				flat = null;
+			}
+		}
+		compiled = true;
+	}
+
+	private synchronized void makeCopies(int numRanges) throws Exception {
+		if(copies != null && copies.length >= numRanges)
+			return;
+		copies = new Classifier[numRanges];
+		for(int r=1;r<numRanges;r++)
+			copies[r] = AbstractClassifier.makeCopy(model);//serialized copy keeps the trained state
+	}
+
+	private void score(Classifier worker, Instances data, int from, int to, double[][] result) throws Exception {
+		boolean nominal = data.classAttribute().isNominal();
+		if(linear != null) {
+			//sparse rows are read by binary search: walk their stored entries instead when the whole range is sparse
+			double[][] dist = allSparse(data, from, to)
+				? linear.distributions(SparseStore.of(new Instances(data, from, to-from)), 0, to-from)
+				: linear.distributions(data, from, to);
+			for(int i=from;i<to;i++) {
+				Instance inst = data.instance(i);
+				//missing values are replaced inside the model, not in the kernel
+				if(LinearScorer.hasMissingInput(inst)) {
+					synchronized(model) {
+						dist[i-from] = distribution(model, inst, nominal);
+					}
+				}
+				result[i] = dist[i-from];
+			}
+			return;
+		}
+		if(flat != null) {
+			double[][] dist = flat.distributionsForInstances(data, from, to);
+			System.arraycopy(dist, 0, result, from, dist.length);
+			return;
+		}
+		if(worker instanceof weka.core.BatchPredictor && ((weka.core.BatchPredictor) worker).implementsMoreEfficientBatchPrediction()) {
+			Instances range = new Instances(data, from, to-from);
+			double[][] dist = ((weka.core.BatchPredictor) worker).distributionsForInstances(range);
+			System.arraycopy(dist, 0, result, from, dist.length);
+			return;
+		}
+		for(int i=from;i<to;i++)
+			result[i] = distribution(worker, data.instance(i), nominal);
+	}
+
+	private static boolean allSparse(Instances data, int from, int to) {
+		for(int i=from;i<to;i++) {
+			if(!(data.instance(i) instanceof SparseInstance))
+				return false;
+		}
+		return true;
+	}
+
+	private static double[] distribution(Classifier worker, Instance inst, boolean nominal) throws Exception {
+		if(nominal)
+			return worker.distributionForInstance(inst);
+		return new double[] {worker.classifyInstance(inst)};
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		//load dataset
+		DataSource source_DS = new DataSource("src/data/irisTrain_df.arff");
+		Instances data_intances = source_DS.getDataSet();
+
+		//set class index to the 2nd last attribute (quantitative)
+		data_intances.setClassIndex(data_intances.numAttributes()-2);
+
+		//build model
+		SMOreg SMOr_model = new SMOreg();
+		SMOr_model.buildClassifier(data_intances);
+
+		//load test dataset
+		DataSource sourceTest_DS = new DataSource("src/data/irisTest_df.arff");
+		Instances dataTest_instances = sourceTest_DS.getDataSet();
+		dataTest_instances.setClassIndex(dataTest_instances.numAttributes()-2);
+
+		//score the whole test set in one call
+		BatchPredictor predictor = new BatchPredictor(SMOr_model);
+		double[] pred_douArr = predictor.classifyInstances(dataTest_instances);
+		System.out.println("Closed-form kernel used: " + predictor.isClosedForm());
+
+		//compare with the row by row predictions
+		double maxDiff = 0;
+		for(int n=0;n<dataTest_instances.numInstances();n++) {
+			double predSMOr_dou = SMOr_model.classifyInstance(dataTest_instances.instance(n));
+			maxDiff = Math.max(maxDiff, Math.abs(predSMOr_dou-pred_douArr[n]));
+		}
+		System.out.println("Max difference with classifyInstance: " + maxDiff);
+	}
+}
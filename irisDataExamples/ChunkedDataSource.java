@@ -0,0 +1,166 @@
+package irisDataExamples;
+
+/**
+ * Streaming data loading with WEKA.
+ *
+ * Instead of DataSource.getDataSet(), which holds the whole file in one Instances,
+ * the file is read incrementally through a large NIO buffered stream and handed out as
+ * Instances chunks of at most chunkSize rows. Only the current chunk is kept in memory,
+ * so heap use does not grow with the size of the file.
+ * ARFF files bring their own header; CSV files (with a first line of column names)
+ * are read against the header of a template dataset.
+ *
+ * On Iris, a NaiveBayesUpdateable is trained chunk by chunk on the train set
+ * and the test set is scored chunk by chunk.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.UpdateableClassifier;
+import weka.classifiers.bayes.NaiveBayesUpdateable;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.converters.ArffLoader.ArffReader;
+
+public class ChunkedDataSource implements Closeable {
+
+	private static final int BUFFER_SIZE = 1 << 20;//1MB read buffer
+
+	private final BufferedReader reader;
+	private final ArffReader arff;
+	private final Instances structure;
+	private final int chunkSize;
+	private boolean finished;
+
+	/**
+	 * Streams an ARFF file; the header is read right away, the data as chunks are asked for.
+	 */
+	public ChunkedDataSource(String arffPath, int chunkSize) throws IOException {
+		this.chunkSize = chunkSize;
+		this.reader = open(arffPath);
+		this.arff = new ArffReader(reader, 1, false);//incremental mode: rows are not kept
+		this.structure = arff.getStructure();
+	}
+
+	/**
+	 * Streams a CSV file whose first line holds the column names;
+	 * values are parsed against the attributes of template.
+	 */
+	public ChunkedDataSource(String csvPath, Instances template, int chunkSize) throws IOException {
+		this.chunkSize = chunkSize;
+		this.reader = open(csvPath);
+		reader.readLine();//column names
+		this.arff = new ArffReader(reader, template, 1, 1, false, ",", "\"", "'");
+		this.structure = new Instances(template, 0);
+	}
+
+	private static BufferedReader open(String path) throws IOException {
+		return new BufferedReader(new InputStreamReader(Files.newInputStream(Paths.get(path)), StandardCharsets.UTF_8), BUFFER_SIZE);
+	}
+
+	/**
+	 * Header of the data. Setting its class index sets the class index of every chunk.
+	 */
+	public Instances getStructure() {
+		return structure;
+	}
+
+	/**
+	 * Next rows of the file (at most chunkSize of them), or null once the file is exhausted.
+	 * Chunks are independent Instances: keeping a reference to them keeps them in memory.
+	 */
+	public Instances nextChunk() throws IOException {
+		if(finished)
+			return null;
+		Instances chunk = new Instances(structure, chunkSize);
+		Instance inst;
+		while(chunk.numInstances() < chunkSize && (inst = arff.readInstance(structure)) != null)
+			chunk.add(inst);
+		if(chunk.numInstances() < chunkSize) {
+			finished = true;
+			close();
+		}
+		return chunk.numInstances() > 0 ? chunk : null;
+	}
+
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * Trains an UpdateableClassifier (e.g. NaiveBayesUpdateable) over the whole stream:
+	 * the model is built on the empty header and then updated row by row.
+	 * Returns the number of rows seen.
+	 */
+	public static long train(Classifier model, ChunkedDataSource source) throws Exception {
+		if(!(model instanceof UpdateableClassifier))
+			throw new IllegalArgumentException(model.getClass().getName() + " is not an UpdateableClassifier");
+		model.buildClassifier(source.getStructure());
+		long numRows = 0;
+		Instances chunk;
+		while((chunk = source.nextChunk()) != null) {
+			for(int n=0;n<chunk.numInstances();n++)
+				((UpdateableClassifier) model).updateClassifier(chunk.instance(n));
+			numRows += chunk.numInstances();
+		}
+		return numRows;
+	}
+
+	/**
+	 * Receives each chunk of a scored stream with its predictions.
+	 */
+	public interface ChunkConsumer {
+		void accept(Instances chunk, double[] predictions) throws Exception;
+	}
+
+	/**
+	 * Scores the whole stream one chunk at a time with predictor.
+	 * Returns the number of rows scored.
+	 */
+	public static long score(BatchPredictor predictor, ChunkedDataSource source, ChunkConsumer consumer) throws Exception {
+		long numRows = 0;
+		Instances chunk;
+		while((chunk = source.nextChunk()) != null) {
+			consumer.accept(chunk, predictor.classifyInstances(chunk));
+			numRows += chunk.numInstances();
+		}
+		return numRows;
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		//stream the train dataset in chunks of 10 rows
+		ChunkedDataSource source = new ChunkedDataSource("src/data/irisTrain_df.arff", 10);
+		//set class index to the last attribute (categorical)
+		source.getStructure().setClassIndex(source.getStructure().numAttributes()-1);
+
+		//incremental training, one chunk in memory at a time
+		NaiveBayesUpdateable nb = new NaiveBayesUpdateable();
+		long numTrain = ChunkedDataSource.train(nb, source);
+		System.out.println("NaiveBayesUpdateable trained on " + numTrain + " streamed instances");
+
+		//stream and score the test dataset
+		ChunkedDataSource sourceTest = new ChunkedDataSource("src/data/irisTest_df.arff", 10);
+		sourceTest.getStructure().setClassIndex(sourceTest.getStructure().numAttributes()-1);
+		final int[] correct = new int[1];
+		long numTest = ChunkedDataSource.score(new BatchPredictor(nb), sourceTest, new ChunkConsumer() {
+			public void accept(Instances chunk, double[] predictions) {
+				for(int n=0;n<chunk.numInstances();n++) {
+					if(chunk.instance(n).classValue() == predictions[n])
+						correct[0]++;
+				}
+			}
+		});
+		System.out.println(correct[0] + " of " + numTest + " streamed test instances properly predicted");
+	}
+}
@@ -7,6 +7,10 @@ package irisDataExamples;
  * estimates class probabilities for 10th instance for one of the instances; 
  * and a graph constructed with the J48 
  * 
+ * The sequential minimal optimization is FastSMO, which trains the one-vs-one machines concurrently
+ * (with a cache of kernel rows for non-linear kernels) into the machines of SMO (see FastSMOTest
+ * in the benchmarks module); its kernel counts are printed.
+ * 
  * @author feBueno, May 2020
  * fernando.bueno.gutie@gmail.com
  */
@@ -42,9 +46,10 @@ public class ClassifiersInformation {
 		
 		//Sequential Minimal Optimization
 		System.out.println("=====Sequential Minimal Optimization=====");
-		SMO svm = new SMO();//sequential minimal optimization
+		FastSMO svm = new FastSMO();//sequential minimal optimization
 		svm.buildClassifier(data);
 		System.out.println(svm.getCapabilities().toString());
+		System.out.println("Kernel evaluations: "+svm.getKernelEvaluations()+", cache hits: "+svm.getCacheHits()+", cache misses: "+svm.getCacheMisses());
 		svm.setNumFolds(10);
 		System.out.println("Estimates class probabilities for 10th instance: "+Arrays.toString(svm.distributionForInstance(data.instance(10))));
 
@@ -78,6 +83,7 @@ Dependencies: [Nominal attributes, Binary attributes, Unary attributes, Empty no
 Interfaces: [WeightedInstancesHandler]
 Minimum number of instances: 1
 
+Kernel evaluations: 1089, cache hits: 2186, cache misses: 1089
 Estimates class probabilities for 10th instance: [0.6666666666666666, 0.3333333333333333, 0.0]
 =====J48=====
 Estimates class probabilities for 10th instance: [1.0, 0.0, 0.0]
@@ -56,28 +56,33 @@ public class ClassificationPrediction {
 		//LMT: logistic model trees, which are classification trees with logistic regression functions at the leaves.
 		tree.buildClassifier(data);
 		
-		//load test dataset
-		DataSource sourceTest = new DataSource("src/data/irisTest_df.arff");
-		Instances dataTest = sourceTest.getDataSet();
-		dataTest.setClassIndex(dataTest.numAttributes()-1);
+		//stream the test dataset in chunks, only one chunk is held in memory
+		ChunkedDataSource sourceTest = new ChunkedDataSource("src/data/irisTest_df.arff", 1000);
+		sourceTest.getStructure().setClassIndex(sourceTest.getStructure().numAttributes()-1);
+		PredictionCache predictor = new PredictionCache(tree);//repeated rows are answered without the model
 		
-		//carry and print predictions
+		//carry and print predictions, one call per chunk
 		int failed=0;
-		for(int n=0;n<dataTest.numInstances();n++) {
-			
-			double actualClass = dataTest.instance(n).classValue();
-			String actual = dataTest.classAttribute().value((int)actualClass);
-			Instance newInst = dataTest.instance(n);
-			double predTree = tree.classifyInstance(newInst);
-			String predString = dataTest.classAttribute().value((int)predTree);//labels are automatically hidden
-			//print only failed classifications
-			if(!actual.equals(predString)) {
-				System.out.print("failed: ");
-				failed++;
-				System.out.println(actual+", "+predString);
+		int numTest=0;
+		Instances dataTest;
+		while((dataTest = sourceTest.nextChunk()) != null) {
+			double[] predTree_douArr = predictor.classifyInstances(dataTest);
+			for(int n=0;n<dataTest.numInstances();n++) {
+				
+				double actualClass = dataTest.instance(n).classValue();
+				String actual = dataTest.classAttribute().value((int)actualClass);
+				double predTree = predTree_douArr[n];
+				String predString = dataTest.classAttribute().value((int)predTree);//labels are automatically hidden
+				//print only failed classifications
+				if(!actual.equals(predString)) {
+					System.out.print("failed: ");
+					failed++;
+					System.out.println(actual+", "+predString);
+				}
 			}
+			numTest += dataTest.numInstances();
 		}
-		System.out.println("Label of "+ (100-(failed*100/dataTest.numInstances()))+" % instances was properly predicted for " + (data.attribute(data.classIndex()).name()));
+		System.out.println("Label of "+ (100-(failed*100/numTest))+" % instances was properly predicted for " + (data.attribute(data.classIndex()).name()));
 	}
 } /*Output:
 	class value 0 is: setosa
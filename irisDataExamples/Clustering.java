@@ -5,16 +5,22 @@ package irisDataExamples;
  * 
  * Print n number of instances-clusters given the Iris dataset.
  * 
+ * The clusterer is FastHierarchicalClusterer, which merges the clusters from a primitive
+ * distance matrix into the hierarchy of HierarchicalClusterer (see FastHierarchicalClustererTest
+ * in the benchmarks module).
+ * Then k-means with k-means++ initialization: FastKMeans, whose Lloyd iterations run on the kernel
+ * of the distance in parallel and give the clusters of SimpleKMeans (see FastKMeansTest).
+ * 
  * @author feBueno, June 2020
  * fernando.bueno.gutie@gmail.com
  */
 
 import weka.clusterers.ClusterEvaluation;
-import weka.clusterers.HierarchicalClusterer;
 import weka.clusterers.SimpleKMeans;
 import weka.core.ChebyshevDistance;
 import weka.core.DistanceFunction;
 import weka.core.Instances;
+import weka.core.SelectedTag;
 import weka.core.converters.ConverterUtils.DataSource;
 
 
@@ -24,15 +30,25 @@ public class Clustering {
 		Instances data_intances = source_DS.getDataSet();
 		
 		//hierarchical clustering using the Chebyshev distance resulting in 3 clusters of equal size
-		HierarchicalClusterer kmeans = new HierarchicalClusterer();
-		kmeans.setNumClusters(3);
-		kmeans.setDistanceFunction(new ChebyshevDistance());//Chebyshev distance: The distance between two vectors is the greatest of their differences along any coordinate dimension.
-		kmeans.buildClusterer(data_intances);
+		FastHierarchicalClusterer fastHierarchical = new FastHierarchicalClusterer();
+		fastHierarchical.setNumClusters(3);
+		fastHierarchical.setDistanceFunction(new ChebyshevDistance());//Chebyshev distance: The distance between two vectors is the greatest of their differences along any coordinate dimension.
+		fastHierarchical.buildClusterer(data_intances);
 		
 		ClusterEvaluation eval = new ClusterEvaluation();
-		eval.setClusterer(kmeans);
+		eval.setClusterer(fastHierarchical);
 		eval.evaluateClusterer(data_intances);
 		System.out.println(eval.clusterResultsToString());
+
+		//k-means (Euclidean distance) with 3 clusters, the initial centroids spread out by k-means++
+		FastKMeans kmeans = new FastKMeans();
+		kmeans.setNumClusters(3);
+		kmeans.setInitializationMethod(new SelectedTag(SimpleKMeans.KMEANS_PLUS_PLUS, SimpleKMeans.TAGS_SELECTION));
+		kmeans.buildClusterer(data_intances);
+		ClusterEvaluation kmeansEval = new ClusterEvaluation();
+		kmeansEval.setClusterer(kmeans);
+		kmeansEval.evaluateClusterer(data_intances);
+		System.out.println(kmeansEval.clusterResultsToString());
 	}
 } /* Output:
 Cluster 0
@@ -44,6 +60,38 @@ Cluster 1
 Cluster 2
 ((((((((((((((((((((2.0:0.0678,(2.0:0.04167,2.0:0.04167):0.02613):0.01554,2.0:0.08333):0,((2.0:0.08333,(((2.0:0.0339,2.0:0.0339):0.01695,2.0:0.05085):0.01695,(2.0:0.05556,2.0:0.05556):0.01224):0.01554):0,2.0:0.08333):0):0,(2.0:0.08333,((2.0:0.04167,2.0:0.04167):0.04167,2.0:0.08333):0):0):0,((((2.0:0.05556,(2.0:0.04167,2.0:0.04167):0.01389):0.02778,(2.0:0.0678,(2.0:0.04167,2.0:0.04167):0.02613):0.01554):0,2.0:0.08333):0,2.0:0.08333):0):0,(2.0:0.04167,2.0:0.04167):0.04167):0,2.0:0.08333):0,((2.0:0.02778,2.0:0.02778):0.02307,2.0:0.05085):0.03249):0,(((2.0:0,2.0:0):0.05556,2.0:0.05556):0.02778,2.0:0.08333):0):0,(2.0:0.04167,2.0:0.04167):0.04167):0.00141,(2.0:0.08333,2.0:0.08333):0.00141):0,2.0:0.08475):0,(2.0:0.08333,2.0:0.08333):0.00141):0,2.0:0.08475):0.04025,2.0:0.125):0,(2.0:0.08475,2.0:0.08475):0.04025):0.01389,(2.0:0.13889,(2.0:0.08333,2.0:0.08333):0.05556):0):0.02778,2.0:0.16667):0,2.0:0.16667):0.02778,2.0:0.19444)
 
+Clustered Instances
+
+0       50 ( 33%)
+1       50 ( 33%)
+2       50 ( 33%)
+
+kMeans
+======
+
+Number of iterations: 2
+Within cluster sum of squared errors: 7.817456892309573
+
+Initial starting points (k-means++):
+
+Cluster 0: 6.1,2.9,4.7,1.4,Iris-versicolor
+Cluster 1: 5.1,3.8,1.9,0.4,Iris-setosa
+Cluster 2: 6.7,2.5,5.8,1.8,Iris-virginica
+
+Missing values globally replaced with mean/mode
+
+Final cluster centroids:
+                                          Cluster#
+Attribute                Full Data               0               1               2
+                           (150.0)          (50.0)          (50.0)          (50.0)
+==================================================================================
+sepallength                 5.8433           5.936           5.006           6.588
+sepalwidth                   3.054            2.77           3.418           2.974
+petallength                 3.7587            4.26           1.464           5.552
+petalwidth                  1.1987           1.326           0.244           2.026
+class                  Iris-setosa Iris-versicolor     Iris-setosa  Iris-virginica
+
+
 Clustered Instances
 
 0       50 ( 33%)
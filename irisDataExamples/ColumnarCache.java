@@ -0,0 +1,299 @@
+package irisDataExamples;
+
+/**
+ * Binary columnar cache of ARFF files.
+ *
+ * The first time an ARFF file is loaded it is parsed as usual and written next to it
+ * (src/data/iris.arff -> src/data/iris.arff.wcol) in a compact columnar layout:
+ * the ARFF header (which is also the dictionary of the nominal values), then one column per
+ * attribute, a primitive double[] for numeric attributes and the category codes for nominal ones.
+ * Later loads memory-map that file and build the Instances from the columns without any text parsing.
+ * The cache stores a CRC32 of the ARFF content and is rewritten as soon as the ARFF changes.
+ *
+ * Only numeric (and date) and nominal attributes are cached; datasets with string or
+ * relational attributes are always parsed from the ARFF.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.converters.ConverterUtils.DataSource;
+
+public class ColumnarCache {
+
+	public static final String EXTENSION = ".wcol";
+
+	private static final int MAGIC = 0x57434f4c;//"WCOL"
+	private static final int VERSION = 1;
+
+	private static final byte NUMERIC = 0;
+	private static final byte NOMINAL_BYTE = 1;
+	private static final byte NOMINAL_SHORT = 2;
+	private static final byte NOMINAL_INT = 3;
+
+	private static final int MAP_WINDOW = 1 << 30;//columns are mapped in windows of at most 1GB
+
+	/**
+	 * Drop-in replacement for new DataSource(arffPath).getDataSet(): reads the columnar cache
+	 * if it matches the current ARFF content, otherwise parses the ARFF and (re)writes the cache.
+	 */
+	public static Instances getDataSet(String arffPath) throws Exception {
+		long hash = contentHash(arffPath);
+		File cache = new File(arffPath + EXTENSION);
+		if(cache.isFile()) {
+			Instances data = read(cache.getPath(), hash);
+			if(data != null)
+				return data;
+		}
+		Instances data = new DataSource(arffPath).getDataSet();
+		if(isCacheable(data))
+			write(data, cache.getPath(), hash);
+		return data;
+	}
+
+	/**
+	 * True if every attribute can be stored as a numeric or nominal column.
+	 */
+	public static boolean isCacheable(Instances data) {
+		for(int j=0;j<data.numAttributes();j++) {
+			if(!data.attribute(j).isNumeric() && !data.attribute(j).isNominal())
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * CRC32 of the file content (plus its length), read through a memory map.
+	 */
+	public static long contentHash(String path) throws IOException {
+		CRC32 crc = new CRC32();
+		FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			for(long pos=0;pos<size;pos+=MAP_WINDOW) {
+				MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(MAP_WINDOW, size-pos));
+				crc.update(buf);
+			}
+			return (size << 32) ^ crc.getValue();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Writes data as a columnar cache file tagged with the hash of its source.
+	 */
+	public static void write(Instances data, String cachePath, long sourceHash) throws IOException {
+		if(!isCacheable(data))
+			throw new IOException("Only numeric and nominal attributes can be cached: " + data.relationName());
+		int numRows = data.numInstances();
+		boolean hasWeights = false;
+		for(int i=0;i<numRows && !hasWeights;i++)
+			hasWeights = data.instance(i).weight() != 1.0;
+
+		//write to a temporary file first, so a half written cache is never picked up
+		File tmp = new File(cachePath + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(sourceHash);
+			byte[] header = new Instances(data, 0).toString().getBytes(StandardCharsets.UTF_8);
+			out.writeInt(header.length);
+			out.write(header);
+			out.writeInt(data.classIndex());
+			out.writeInt(numRows);
+			out.writeBoolean(hasWeights);
+			if(hasWeights) {
+				for(int i=0;i<numRows;i++)
+					out.writeDouble(data.instance(i).weight());
+			}
+			byte[] types = new byte[data.numAttributes()];
+			for(int j=0;j<types.length;j++)
+				types[j] = columnType(data.attribute(j));
+			out.write(types);
+			for(int j=0;j<types.length;j++) {
+				byte type = types[j];
+				for(int i=0;i<numRows;i++) {
+					Instance inst = data.instance(i);
+					if(type == NUMERIC) {
+						out.writeDouble(inst.value(j));//missing is NaN
+					} else {
+						int code = inst.isMissing(j) ? -1 : (int) inst.value(j);
+						if(type == NOMINAL_BYTE)
+							out.writeByte(code);
+						else if(type == NOMINAL_SHORT)
+							out.writeShort(code);
+						else
+							out.writeInt(code);
+					}
+				}
+			}
+		} finally {
+			out.close();
+		}
+		File cache = new File(cachePath);
+		if(cache.exists() && !cache.delete())
+			throw new IOException("Could not replace " + cache);
+		if(!tmp.renameTo(cache))
+			throw new IOException("Could not write " + cache);
+	}
+
+	//smallest code width that holds every category (-1 is missing)
+	private static byte columnType(Attribute att) {
+		if(att.isNumeric())
+			return NUMERIC;
+		if(att.numValues() <= Byte.MAX_VALUE)
+			return NOMINAL_BYTE;
+		if(att.numValues() <= Short.MAX_VALUE)
+			return NOMINAL_SHORT;
+		return NOMINAL_INT;
+	}
+
+	/**
+	 * Memory-maps a cache file and builds the Instances from its columns.
+	 * Returns null if the file is not a cache of this version, was built from different content or
+	 * is shorter than its header says.
+	 */
+	public static Instances read(String cachePath, long expectedHash) throws IOException {
+		FileChannel channel = FileChannel.open(Paths.get(cachePath), StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, 4096));
+			//magic, version, hash and header length
+			if(buf.remaining() < 20 || buf.getInt() != MAGIC || buf.getInt() != VERSION || buf.getLong() != expectedHash)
+				return null;
+
+			//header, small enough to be mapped separately
+			int headerLength = buf.getInt();
+			long pos = 20;
+			if(headerLength < 0 || pos + headerLength + 9 > size)
+				return null;
+			buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, headerLength + 9);
+			byte[] header = new byte[headerLength];
+			buf.get(header);
+			Instances data = new Instances(new StringReader(new String(header, StandardCharsets.UTF_8)));
+			int classIndex = buf.getInt();
+			int numRows = buf.getInt();
+			boolean hasWeights = buf.get() != 0;
+			pos += headerLength + 9;
+
+			//the body (weights, column types and columns) is sized by the header: a truncated file is not mapped
+			int numAtts = data.numAttributes();
+			if(numRows < 0)
+				return null;
+			long bodyLength = (hasWeights ? 8L*numRows : 0) + numAtts;
+			for(int j=0;j<numAtts;j++)
+				bodyLength += (long) width(columnType(data.attribute(j)))*numRows;
+			if(pos + bodyLength > size)
+				return null;
+
+			double[] weights = null;
+			if(hasWeights) {
+				weights = new double[numRows];
+				pos = readDoubles(channel, pos, weights);
+			}
+
+			//one primitive array per column
+			byte[] types = new byte[numAtts];
+			channel.map(FileChannel.MapMode.READ_ONLY, pos, numAtts).get(types);
+			pos += numAtts;
+			for(int j=0;j<numAtts;j++) {
+				if(types[j] != columnType(data.attribute(j)))
+					return null;
+			}
+			double[][] columns = new double[numAtts][];
+			for(int j=0;j<numAtts;j++) {
+				columns[j] = new double[numRows];
+				if(types[j] == NUMERIC)
+					pos = readDoubles(channel, pos, columns[j]);
+				else
+					pos = readCodes(channel, pos, types[j], columns[j]);
+			}
+
+			//rows are assembled from the columns, Instances.add keeps the row array as is
+			data = new Instances(data, numRows);
+			for(int i=0;i<numRows;i++) {
+				double[] row = new double[numAtts];
+				for(int j=0;j<numAtts;j++)
+					row[j] = columns[j][i];
+				data.add(new DenseInstance(hasWeights ? weights[i] : 1.0, row));
+			}
+			data.setClassIndex(classIndex);
+			return data;
+		} finally {
+			channel.close();
+		}
+	}
+
+	private static long readDoubles(FileChannel channel, long pos, double[] column) throws IOException {
+		int done = 0;
+		while(done < column.length) {
+			int count = Math.min(column.length - done, MAP_WINDOW / 8);
+			channel.map(FileChannel.MapMode.READ_ONLY, pos, (long) count*8).asDoubleBuffer().get(column, done, count);
+			done += count;
+			pos += (long) count*8;
+		}
+		return pos;
+	}
+
+	//bytes per value of a column
+	private static int width(byte type) {
+		return type == NUMERIC ? 8 : type == NOMINAL_BYTE ? 1 : type == NOMINAL_SHORT ? 2 : 4;
+	}
+
+	private static long readCodes(FileChannel channel, long pos, byte type, double[] column) throws IOException {
+		int width = width(type);
+		int done = 0;
+		while(done < column.length) {
+			int count = Math.min(column.length - done, MAP_WINDOW / width);
+			ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, (long) count*width);
+			for(int i=0;i<count;i++) {
+				int code = width == 1 ? buf.get() : width == 2 ? buf.getShort() : buf.getInt();
+				column[done+i] = code < 0 ? Double.NaN : code;
+			}
+			done += count;
+			pos += (long) count*width;
+		}
+		return pos;
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		String path = "src/data/iris.arff";
+
+		//first load parses the ARFF and writes src/data/iris.arff.wcol
+		long start = System.nanoTime();
+		Instances parsed = ColumnarCache.getDataSet(path);
+		System.out.println("First load (parse + write cache): " + (System.nanoTime()-start)/1000 + " us");
+
+		//later loads come from the memory-mapped columns
+		start = System.nanoTime();
+		Instances cached = ColumnarCache.getDataSet(path);
+		System.out.println("Cached load: " + (System.nanoTime()-start)/1000 + " us");
+
+		//same instances either way
+		boolean same = parsed.numInstances() == cached.numInstances();
+		for(int i=0;same && i<parsed.numInstances();i++)
+			same = parsed.instance(i).toString().equals(cached.instance(i).toString());
+		System.out.println(cached.numInstances() + " instances, identical to the ARFF: " + same);
+	}
+}
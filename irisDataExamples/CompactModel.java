@@ -0,0 +1,645 @@
+package irisDataExamples;
+
+/**
+ * Trained model decoded from the compact binary format of ModelCodec.
+ *
+ * A CompactModel holds no WEKA classifier: only the header of the training data and
+ * flat primitive arrays (tree nodes, linear weights, network weights), and it scores rows
+ * with the same arithmetic as the original model's distributionForInstance.
+ * The parts of a model are
+ * - Constant: a fixed distribution (ZeroR, default models),
+ * - Average: Bagging/RandomForest, the normalized sum (or mean, for a numeric class) of its members,
+ * - C45Tree: a J48 tree, missing values split over the branches with the training proportions,
+ * - RandomTree: a RandomForest tree,
+ * - LogisticTree: an LMT, with its missing value replacement and a logistic model per leaf,
+ * - Linear: the tables of LinearScorer,
+ * - Neural: a MultilayerPerceptron, nodes in topological order.
+ * Batches are copied into a contiguous row-major block and every tree walks the whole block
+ * before the next tree is read, so its node arrays stay in cache; rows without missing values
+ * go down a loop with no recursion and no allocation.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.Arrays;
+
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class CompactModel {
+
+	private static final int BLOCK_ROWS = 1024;//rows copied into the block at once
+
+	private final Instances header;
+	private final Part root;
+
+	CompactModel(Instances header, Part root) {
+		this.header = header;
+		this.root = root;
+	}
+
+	/**
+	 * Header of the training data (with its class index); rows are scored in this attribute order.
+	 */
+	public Instances getHeader() {
+		return header;
+	}
+
+	/**
+	 * Class distribution (or the predicted value, for a numeric class) of a row of attribute
+	 * values in header order, missing values as NaN.
+	 */
+	public double[] distribution(double[] row) {
+		double[] dist = root.distribution(row);
+		if(dist == null) {
+			//a tree that cannot classify the row, as RandomTree: no prediction
+			dist = new double[header.classAttribute().isNominal() ? header.numClasses() : 1];
+			if(header.classAttribute().isNumeric())
+				dist[0] = Double.NaN;
+		}
+		return dist;
+	}
+
+	public double[] distributionForInstance(Instance inst) {
+		return distribution(inst.toDoubleArray());
+	}
+
+	/**
+	 * Same as classifyInstance of the original model.
+	 */
+	public double classify(double[] row) {
+		double[] dist = distribution(row);
+		return header.classAttribute().isNominal() ? BatchPredictor.classFromDistribution(dist) : dist[0];
+	}
+
+	public double[] classifyInstances(Instances data) {
+		double[][] dist = distributionsForInstances(data, 0, data.numInstances());
+		double[] pred = new double[dist.length];
+		for(int i=0;i<pred.length;i++)
+			pred[i] = header.classAttribute().isNominal() ? BatchPredictor.classFromDistribution(dist[i]) : dist[i][0];
+		return pred;
+	}
+
+	public double[][] distributionsForInstances(Instances data) {
+		return distributionsForInstances(data, 0, data.numInstances());
+	}
+
+	/**
+	 * Same as distribution for rows [from, to) of data, scored block by block.
+	 */
+	public double[][] distributionsForInstances(Instances data, int from, int to) {
+		int width = header.numAttributes();
+		double[][] result = new double[to-from][];
+		double[] block = new double[Math.min(BLOCK_ROWS, to-from)*width];
+		for(int start=from;start<to;start+=BLOCK_ROWS) {
+			int count = Math.min(BLOCK_ROWS, to-start);
+			for(int r=0;r<count;r++) {
+				Instance inst = data.instance(start+r);
+				for(int j=0;j<width;j++)
+					block[r*width+j] = inst.value(j);
+			}
+			root.distributions(block, width, count, result, start-from);
+			for(int r=0;r<count;r++) {
+				if(result[start-from+r] == null)
+					result[start-from+r] = distribution(row(block, width, r));
+			}
+		}
+		return result;
+	}
+
+	static double[] row(double[] block, int width, int r) {
+		return Arrays.copyOfRange(block, r*width, (r+1)*width);
+	}
+
+	/**
+	 * One piece of a model; returns a new array or null (no prediction).
+	 */
+	abstract static class Part {
+		abstract double[] distribution(double[] row);
+
+		//rows [0, count) of a row-major block, into result[offset...]
+		void distributions(double[] block, int width, int count, double[][] result, int offset) {
+			for(int r=0;r<count;r++)
+				result[offset+r] = distribution(row(block, width, r));
+		}
+	}
+
+	/**
+	 * A tree whose prediction for most rows is the distribution of a single node.
+	 */
+	abstract static class Tree extends Part {
+		final int numClasses;
+		final double[] dist;
+
+		Tree(int numClasses, double[] dist) {
+			this.numClasses = numClasses;
+			this.dist = dist;
+		}
+
+		//node whose dist[node*numClasses...] is the prediction for the row at block[base...], -1 if the walk needs recursion
+		abstract int leafOf(double[] block, int base);
+
+		void distributions(double[] block, int width, int count, double[][] result, int offset) {
+			for(int r=0;r<count;r++) {
+				int node = leafOf(block, r*width);
+				result[offset+r] = node >= 0 ? Arrays.copyOfRange(dist, node*numClasses, (node+1)*numClasses) : distribution(row(block, width, r));
+			}
+		}
+	}
+
+	static class Constant extends Part {
+		final double[] dist;
+
+		Constant(double[] dist) {
+			this.dist = dist;
+		}
+
+		double[] distribution(double[] row) {
+			return dist.clone();
+		}
+	}
+
+	/**
+	 * Bagging.distributionForInstance over the members.
+	 */
+	static class Average extends Part {
+		final boolean numeric;
+		final int numClasses;
+		final Part[] members;
+
+		Average(boolean numeric, int numClasses, Part[] members) {
+			this.numeric = numeric;
+			this.numClasses = numClasses;
+			this.members = members;
+		}
+
+		double[] distribution(double[] row) {
+			double[] sums = new double[numClasses];
+			double numPreds = 0;
+			for(Part member : members) {
+				double[] dist = member.distribution(row);
+				if(numeric) {
+					//classifyInstance of a member, missing if it has no prediction
+					double pred = dist == null ? Double.NaN : dist[0];
+					if(!Double.isNaN(pred)) {
+						sums[0] += pred;
+						numPreds++;
+					}
+				} else {
+					//a member without prediction counts as all zeros (AbstractClassifier semantics)
+					if(dist == null)
+						continue;
+					for(int j=0;j<dist.length;j++)
+						sums[j] += dist[j];
+				}
+			}
+			if(numeric) {
+				sums[0] = numPreds == 0 ? Double.NaN : sums[0]/numPreds;
+				return sums;
+			}
+			double sum = 0;
+			for(double s : sums)
+				sum += s;
+			if(Utils.eq(sum, 0))
+				return sums;
+			Utils.normalize(sums, sum);
+			return sums;
+		}
+
+		//member after member over the whole block, summed in the same order as distribution
+		void distributions(double[] block, int width, int count, double[][] result, int offset) {
+			double[][] sums = new double[count][numClasses];
+			double[] numPreds = new double[count];
+			double[][] dist = new double[count][];
+			for(Part member : members) {
+				if(member instanceof Tree) {
+					add((Tree) member, block, width, count, sums, numPreds);
+					continue;
+				}
+				member.distributions(block, width, count, dist, 0);
+				for(int r=0;r<count;r++) {
+					if(numeric) {
+						double pred = dist[r] == null ? Double.NaN : dist[r][0];
+						if(!Double.isNaN(pred)) {
+							sums[r][0] += pred;
+							numPreds[r]++;
+						}
+					} else if(dist[r] != null) {
+						for(int j=0;j<dist[r].length;j++)
+							sums[r][j] += dist[r][j];
+					}
+				}
+			}
+			for(int r=0;r<count;r++) {
+				if(numeric) {
+					sums[r][0] = numPreds[r] == 0 ? Double.NaN : sums[r][0]/numPreds[r];
+				} else {
+					double sum = 0;
+					for(double s : sums[r])
+						sum += s;
+					if(!Utils.eq(sum, 0))
+						Utils.normalize(sums[r], sum);
+				}
+				result[offset+r] = sums[r];
+			}
+		}
+
+		//same sums as in distributions, read straight from the leaves of tree
+		private void add(Tree tree, double[] block, int width, int count, double[][] sums, double[] numPreds) {
+			for(int r=0;r<count;r++) {
+				int node = tree.leafOf(block, r*width);
+				double[] dist = node >= 0 ? null : tree.distribution(row(block, width, r));
+				if(numeric) {
+					double pred = node >= 0 ? tree.dist[node] : dist == null ? Double.NaN : dist[0];
+					if(!Double.isNaN(pred)) {
+						sums[r][0] += pred;
+						numPreds[r]++;
+					}
+				} else if(node >= 0) {
+					for(int j=0;j<numClasses;j++)
+						sums[r][j] += tree.dist[node*numClasses+j];
+				} else if(dist != null) {
+					for(int j=0;j<dist.length;j++)
+						sums[r][j] += dist[j];
+				}
+			}
+		}
+	}
+
+	/**
+	 * J48 tree: node n is a leaf if att[n] < 0, otherwise its children are the
+	 * numChildren[n] nodes from firstChild[n] on. Leaves (and empty children) hold their
+	 * class probabilities in dist[n*numClasses...].
+	 */
+	static class C45Tree extends Tree {
+		final int[] att;
+		final double[] split;
+		final int[] firstChild;
+		final int[] numChildren;
+		final boolean[] empty;
+		final double[] missingWeight;//share of the parent's training weight, per node
+		final boolean[] nominalAtt;
+
+		C45Tree(int numClasses, int[] att, double[] split, int[] firstChild, int[] numChildren, boolean[] empty, double[] missingWeight, double[] dist, boolean[] nominalAtt) {
+			super(numClasses, dist);
+			this.att = att;
+			this.split = split;
+			this.firstChild = firstChild;
+			this.numChildren = numChildren;
+			this.empty = empty;
+			this.missingWeight = missingWeight;
+			this.nominalAtt = nominalAtt;
+		}
+
+		double[] distribution(double[] row) {
+			return probs(0, row, 1);
+		}
+
+		//rows with a missing value on their path take the recursive walk
+		int leafOf(double[] block, int base) {
+			int node = 0;
+			while(att[node] >= 0) {
+				double value = block[base+att[node]];
+				if(Double.isNaN(value))
+					return -1;
+				node = firstChild[node] + (nominalAtt[att[node]] ? (int) value : value <= split[node] ? 0 : 1);
+				if(empty[node])
+					break;
+			}
+			return node;
+		}
+
+		//ClassifierTree.getProbs, all classes at once (same sums in the same order)
+		private double[] probs(int node, double[] row, double weight) {
+			while(att[node] >= 0) {
+				double value = row[att[node]];
+				if(Double.isNaN(value)) {
+					double[] prob = new double[numClasses];
+					for(int i=0;i<numChildren[node];i++) {
+						int child = firstChild[node] + i;
+						if(empty[child])
+							continue;
+						double[] p = probs(child, row, missingWeight[child]*weight);
+						for(int c=0;c<numClasses;c++)
+							prob[c] += p[c];
+					}
+					return prob;
+				}
+				int child = firstChild[node] + (nominalAtt[att[node]] ? (int) value : value <= split[node] ? 0 : 1);
+				node = child;
+				if(empty[child])
+					break;
+			}
+			double[] prob = new double[numClasses];
+			for(int c=0;c<numClasses;c++)
+				prob[c] = weight*dist[node*numClasses+c];
+			return prob;
+		}
+	}
+
+	/**
+	 * RandomTree (RandomForest member): same layout as C45Tree, with the proportions of the
+	 * children for missing values and the normalized class distribution of every node
+	 * (hasDist false for nodes without training data).
+	 */
+	static class RandomTree extends Tree {
+		final int[] att;
+		final double[] split;
+		final int[] firstChild;
+		final int[] numChildren;
+		final double[] prop;
+		final boolean[] hasDist;
+		final boolean allowUnclassified;
+		final boolean numeric;
+		final boolean[] nominalAtt;
+
+		RandomTree(int numClasses, int[] att, double[] split, int[] firstChild, int[] numChildren, double[] prop, boolean[] hasDist, double[] dist, boolean allowUnclassified, boolean numeric, boolean[] nominalAtt) {
+			super(numClasses, dist);
+			this.att = att;
+			this.split = split;
+			this.firstChild = firstChild;
+			this.numChildren = numChildren;
+			this.prop = prop;
+			this.hasDist = hasDist;
+			this.allowUnclassified = allowUnclassified;
+			this.numeric = numeric;
+			this.nominalAtt = nominalAtt;
+		}
+
+		double[] distribution(double[] row) {
+			return distribution(0, row);
+		}
+
+		//rows with a missing value on their path, or ending in a node without data, take the recursive walk
+		int leafOf(double[] block, int base) {
+			int node = 0;
+			while(att[node] >= 0) {
+				double value = block[base+att[node]];
+				if(Double.isNaN(value))
+					return -1;
+				node = firstChild[node] + (nominalAtt[att[node]] ? (int) value : value < split[node] ? 0 : 1);
+			}
+			return hasDist[node] ? node : -1;
+		}
+
+		//RandomTree.Tree.distributionForInstance
+		private double[] distribution(int node, double[] row) {
+			double[] returned = null;
+			if(att[node] >= 0) {
+				double value = row[att[node]];
+				if(Double.isNaN(value)) {
+					returned = new double[numClasses];
+					for(int i=0;i<numChildren[node];i++) {
+						int child = firstChild[node] + i;
+						double[] help = distribution(child, row);
+						if(help != null) {
+							for(int j=0;j<help.length;j++)
+								returned[j] += prop[child]*help[j];
+						}
+					}
+				} else if(nominalAtt[att[node]]) {
+					returned = distribution(firstChild[node] + (int) value, row);
+				} else {
+					returned = distribution(firstChild[node] + (value < split[node] ? 0 : 1), row);
+				}
+			}
+			if(att[node] < 0 || returned == null) {
+				if(!hasDist[node]) {
+					if(!allowUnclassified)
+						return null;
+					double[] result = new double[numClasses];
+					if(numeric)
+						result[0] = Double.NaN;
+					return result;
+				}
+				double[] result = new double[numClasses];
+				System.arraycopy(dist, node*numClasses, result, 0, numClasses);
+				return result;
+			}
+			return returned;
+		}
+	}
+
+	/**
+	 * LMT: missing values are replaced with the training means/modes (replace[j], NaN for
+	 * attributes left alone), the row goes down the splits (residual[n] for LMT's own
+	 * residual splits, which compare with Utils.smOrEq) and the leaf scores the row, expanded
+	 * as NominalToBinary does, with LogisticBase.getFs: for every input g and class c a simple
+	 * regression intercept + slope*input, at regressions[leafStart[n] + g*numClasses + c].
+	 */
+	static class LogisticTree extends Part {
+		final int numClasses;
+		final double[] replace;
+		final int[] att;
+		final double[] split;
+		final boolean[] residual;
+		final int[] firstChild;
+		final int[] leafStart;
+		final int[] sourceAtt;
+		final int[] sourceValue;
+		final int numGroups;
+		final int[] regressionAtt;
+		final double[] slope;
+		final double[] intercept;
+		final boolean[] nominalAtt;
+
+		LogisticTree(int numClasses, double[] replace, int[] att, double[] split, boolean[] residual, int[] firstChild, int[] leafStart,
+			int[] sourceAtt, int[] sourceValue, int numGroups, int[] regressionAtt, double[] slope, double[] intercept, boolean[] nominalAtt) {
+			this.numClasses = numClasses;
+			this.replace = replace;
+			this.att = att;
+			this.split = split;
+			this.residual = residual;
+			this.firstChild = firstChild;
+			this.leafStart = leafStart;
+			this.sourceAtt = sourceAtt;
+			this.sourceValue = sourceValue;
+			this.numGroups = numGroups;
+			this.regressionAtt = regressionAtt;
+			this.slope = slope;
+			this.intercept = intercept;
+			this.nominalAtt = nominalAtt;
+		}
+
+		double[] distribution(double[] row) {
+			return distribution(row, 0, new double[sourceAtt.length]);
+		}
+
+		void distributions(double[] block, int width, int count, double[][] result, int offset) {
+			double[] inputs = new double[sourceAtt.length];
+			for(int r=0;r<count;r++)
+				result[offset+r] = distribution(block, r*width, inputs);
+		}
+
+		private double[] distribution(double[] block, int base, double[] inputs) {
+			int node = 0;
+			while(att[node] >= 0) {
+				double value = value(block, base, att[node]);
+				int branch;
+				if(nominalAtt[att[node]])
+					branch = (int) value;
+				else if(residual[node])
+					branch = Utils.smOrEq(value, split[node]) ? 0 : 1;
+				else
+					branch = value <= split[node] ? 0 : 1;
+				node = firstChild[node] + branch;
+			}
+
+			//NominalToBinary
+			for(int u=0;u<inputs.length;u++) {
+				double value = value(block, base, sourceAtt[u]);
+				inputs[u] = sourceValue[u] < 0 || Double.isNaN(value) ? value : value == sourceValue[u] ? 1 : 0;
+			}
+
+			//LogisticBase.getFs and probs
+			double[] pred = new double[numClasses];
+			double[] fs = new double[numClasses];
+			int k = leafStart[node];
+			for(int g=0;g<numGroups;g++) {
+				double predSum = 0;
+				for(int c=0;c<numClasses;c++,k++) {
+					pred[c] = intercept[k] + slope[k]*inputs[regressionAtt[k]];
+					predSum += pred[c];
+				}
+				predSum /= numClasses;
+				for(int c=0;c<numClasses;c++)
+					fs[c] += (pred[c] - predSum)*(numClasses - 1)/numClasses;
+			}
+			double maxF = -Double.MAX_VALUE;
+			for(double f : fs) {
+				if(f > maxF)
+					maxF = f;
+			}
+			double sum = 0;
+			for(int c=0;c<numClasses;c++) {
+				fs[c] = Math.exp(fs[c] - maxF);
+				sum += fs[c];
+			}
+			Utils.normalize(fs, sum);
+			return fs;
+		}
+
+		//ReplaceMissingValues
+		private double value(double[] block, int base, int j) {
+			double value = block[base+j];
+			return Double.isNaN(value) && !Double.isNaN(replace[j]) ? replace[j] : value;
+		}
+	}
+
+	static class Linear extends Part {
+		final LinearScorer scorer;
+
+		Linear(LinearScorer scorer) {
+			this.scorer = scorer;
+		}
+
+		double[] distribution(double[] row) {
+			return scorer.distribution(row);
+		}
+	}
+
+	/**
+	 * MultilayerPerceptron: the row is expanded as NominalToBinary does (input u takes
+	 * attribute sourceAtt[u], or the indicator of category sourceValue[u]), normalized with
+	 * the training bases and ranges, and fed through the nodes in topological order.
+	 * A node input i >= 0 is the output of node i, i < 0 is network input -i-1.
+	 */
+	static class Neural extends Part {
+		final int[] sourceAtt;
+		final int[] sourceValue;
+		final int classInput;
+		final boolean normalize;
+		final double[] bases;
+		final double[] ranges;
+		final boolean[] sigmoid;
+		final int[] inputStart;//node n reads inputs[inputStart[n]..inputStart[n+1]) with weights from weightStart[n]
+		final int[] inputs;
+		final int[] weightStart;
+		final double[] weights;
+		final int[] outputStart;//output o sums nodes outputs[outputStart[o]..outputStart[o+1])
+		final int[] outputs;
+		final boolean numeric;
+		final boolean normalizeClass;
+		final double classBase;
+		final double classRange;
+		final double[] defaultDist;
+
+		Neural(int[] sourceAtt, int[] sourceValue, int classInput, boolean normalize, double[] bases, double[] ranges,
+			boolean[] sigmoid, int[] inputStart, int[] inputs, int[] weightStart, double[] weights, int[] outputStart, int[] outputs,
+			boolean numeric, boolean normalizeClass, double classBase, double classRange, double[] defaultDist) {
+			this.sourceAtt = sourceAtt;
+			this.sourceValue = sourceValue;
+			this.classInput = classInput;
+			this.normalize = normalize;
+			this.bases = bases;
+			this.ranges = ranges;
+			this.sigmoid = sigmoid;
+			this.inputStart = inputStart;
+			this.inputs = inputs;
+			this.weightStart = weightStart;
+			this.weights = weights;
+			this.outputStart = outputStart;
+			this.outputs = outputs;
+			this.numeric = numeric;
+			this.normalizeClass = normalizeClass;
+			this.classBase = classBase;
+			this.classRange = classRange;
+			this.defaultDist = defaultDist;
+		}
+
+		double[] distribution(double[] row) {
+			//NominalToBinary and normalization, missing inputs are 0
+			double[] x = new double[sourceAtt.length];
+			for(int u=0;u<x.length;u++) {
+				double value = row[sourceAtt[u]];
+				if(sourceValue[u] >= 0 && !Double.isNaN(value))
+					value = value == sourceValue[u] ? 1 : 0;
+				if(normalize && u != classInput)
+					value = ranges[u] != 0 ? (value - bases[u])/ranges[u] : value - bases[u];
+				x[u] = Double.isNaN(value) ? 0 : value;
+			}
+
+			double[] out = new double[sigmoid.length];
+			for(int n=0;n<out.length;n++) {
+				int w = weightStart[n];
+				double value = weights[w++];
+				for(int i=inputStart[n];i<inputStart[n+1];i++) {
+					int in = inputs[i];
+					value += (in >= 0 ? out[in] : x[-in-1])*weights[w++];
+				}
+				if(sigmoid[n]) {
+					if(value < -45)
+						value = 0;
+					else if(value > 45)
+						value = 1;
+					else
+						value = 1/(1 + Math.exp(-value));
+				}
+				out[n] = value;
+			}
+
+			double[] result = new double[outputStart.length-1];
+			for(int o=0;o<result.length;o++) {
+				double value = 0;
+				for(int i=outputStart[o];i<outputStart[o+1];i++)
+					value += out[outputs[i]];
+				if(numeric && normalizeClass)
+					value = value*classRange + classBase;
+				result[o] = value;
+			}
+			if(numeric)
+				return result;
+
+			double count = 0;
+			for(double r : result)
+				count += r;
+			if(count <= 0)
+				return defaultDist.clone();
+			for(int o=0;o<result.length;o++)
+				result[o] /= count;
+			return result;
+		}
+	}
+}
@@ -0,0 +1,370 @@
+package irisDataExamples;
+
+/**
+ * Single-pass attribute statistics for WEKA datasets.
+ *
+ * Instances.attributeStats(i) scans the whole dataset once per attribute (and AttrStats
+ * used to call it again for every printed instance). Here one pass over the rows updates,
+ * for every attribute at once: a weighted Welford accumulator (mean, stdDev, min, max),
+ * the counts of each distinct value in a primitive open-addressing hash map, the nominal
+ * counts and the missing count.
+ * Accumulators of different chunks or threads can be merged, so the same statistics can be
+ * built from a ChunkedDataSource stream or from row ranges computed in parallel.
+ * Results are exposed as plain weka.core.AttributeStats objects, the ones attributeStats returns
+ * (DatasetStatsTest in the benchmarks module checks them).
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+
+import weka.core.AttributeStats;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+import weka.core.converters.ConverterUtils.DataSource;
+import weka.experiment.Stats;
+
+public class DatasetStats {
+
+	private static final int MIN_ROWS_PER_THREAD = 10000;
+
+	//statistics already computed, per dataset (identity, weak keys)
+	private static final Map<Instances, DatasetStats> CACHE = Collections.synchronizedMap(new WeakHashMap<Instances, DatasetStats>());
+
+	private final Instances header;
+	private final Accumulator[] accumulators;
+	private int numRows;
+
+	/**
+	 * Empty statistics for datasets with the given header; fill them with add.
+	 */
+	public DatasetStats(Instances header) {
+		this.header = new Instances(header, 0);
+		this.accumulators = new Accumulator[header.numAttributes()];
+		for(int j=0;j<accumulators.length;j++)
+			accumulators[j] = new Accumulator(header.attribute(j).isNominal() ? header.attribute(j).numValues() : -1);
+	}
+
+	/**
+	 * Statistics of data, computed in one parallel pass the first time and cached afterwards.
+	 * The cache is keyed on the Instances object: it is recomputed if rows were added or removed,
+	 * but not if values were modified in place.
+	 */
+	public static DatasetStats of(Instances data) throws Exception {
+		DatasetStats stats = CACHE.get(data);
+		if(stats == null || stats.numRows != data.numInstances()) {
+			stats = compute(data, Runtime.getRuntime().availableProcessors());
+			CACHE.put(data, stats);
+		}
+		return stats;
+	}
+
+	/**
+	 * Statistics of data, computed over row ranges on up to numThreads threads and merged.
+	 */
+	public static DatasetStats compute(final Instances data, int numThreads) throws Exception {
+		int n = data.numInstances();
+		int numRanges = (int) Math.max(1, Math.min(numThreads, n/(long) MIN_ROWS_PER_THREAD));
+		if(numRanges == 1) {
+			DatasetStats stats = new DatasetStats(data);
+			stats.add(data, 0, n);
+			return stats;
+		}
+
+		List<Callable<DatasetStats>> tasks = new ArrayList<Callable<DatasetStats>>();
+		for(int r=0;r<numRanges;r++) {
+			final int from = (int) ((long) n*r/numRanges);
+			final int to = (int) ((long) n*(r+1)/numRanges);
+			tasks.add(new Callable<DatasetStats>() {
+				public DatasetStats call() {
+					DatasetStats partial = new DatasetStats(data);
+					partial.add(data, from, to);
+					return partial;
+				}
+			});
+		}
+		DatasetStats stats = new DatasetStats(data);
+		for(DatasetStats partial : Tasks.run(tasks))
+			stats.merge(partial);
+		return stats;
+	}
+
+	/**
+	 * Adds every row of data (e.g. one chunk of a stream).
+	 */
+	public void add(Instances data) {
+		add(data, 0, data.numInstances());
+	}
+
+	/**
+	 * Adds rows [from, to) of data.
+	 */
+	public void add(Instances data, int from, int to) {
+		for(int i=from;i<to;i++)
+			add(data.instance(i));
+	}
+
+	public void add(Instance inst) {
+		double weight = inst.weight();
+		for(int j=0;j<accumulators.length;j++)
+			accumulators[j].add(inst.value(j), weight);
+		numRows++;
+	}
+
+	/**
+	 * Adds the statistics of other (same header) to these ones.
+	 */
+	public DatasetStats merge(DatasetStats other) {
+		if(!header.equalHeaders(other.header))
+			throw new IllegalArgumentException("Headers differ: " + header.equalHeadersMsg(other.header));
+		for(int j=0;j<accumulators.length;j++)
+			accumulators[j].merge(other.accumulators[j]);
+		numRows += other.numRows;
+		return this;
+	}
+
+	public int numRows() {
+		return numRows;
+	}
+
+	/**
+	 * Same content as Instances.attributeStats(index).
+	 */
+	public AttributeStats attributeStats(int index) {
+		return accumulators[index].toAttributeStats(header.attribute(index).isNumeric(), numRows);
+	}
+
+	/**
+	 * Welford accumulator, distinct value counts and nominal counts of one attribute.
+	 */
+	static class Accumulator {
+		int missing;
+		//weighted Welford
+		double weightSum, mean, m2, sum, sumSq;
+		double min = Double.NaN, max = Double.NaN;
+		//counts per category, nominal attributes only
+		final int[] nominalCounts;
+		final double[] nominalWeights;
+		//counts per distinct value, numeric attributes only
+		final DoubleCountMap counts;
+
+		Accumulator(int numValues) {
+			this(numValues, true);
+		}
+
+		//without distinctCounts the memory used does not depend on the data (no distinctCount/uniqueCount/intCount)
+		Accumulator(int numValues, boolean distinctCounts) {
+			nominalCounts = numValues >= 0 ? new int[numValues] : null;
+			nominalWeights = numValues >= 0 ? new double[numValues] : null;
+			counts = numValues >= 0 || !distinctCounts ? null : new DoubleCountMap();
+		}
+
+		void add(double value, double weight) {
+			if(Utils.isMissingValue(value)) {
+				missing++;
+				return;
+			}
+			if(nominalCounts != null) {
+				nominalCounts[(int) value]++;
+				nominalWeights[(int) value] += weight;
+			} else if(counts != null) {
+				counts.add(value, weight);
+			}
+			if(weight <= 0)
+				return;
+			weightSum += weight;
+			double delta = value - mean;
+			mean += delta*weight/weightSum;
+			m2 += weight*delta*(value - mean);
+			sum += value*weight;
+			sumSq += value*value*weight;
+			if(Double.isNaN(min) || value < min)
+				min = value;
+			if(Double.isNaN(max) || value > max)
+				max = value;
+		}
+
+		//Chan et al. pairwise combination of two Welford accumulators
+		void merge(Accumulator other) {
+			missing += other.missing;
+			if(nominalCounts != null) {
+				for(int v=0;v<nominalCounts.length;v++) {
+					nominalCounts[v] += other.nominalCounts[v];
+					nominalWeights[v] += other.nominalWeights[v];
+				}
+			} else if(counts != null) {
+				counts.merge(other.counts);
+			}
+			if(other.weightSum == 0)
+				return;
+			double total = weightSum + other.weightSum;
+			double delta = other.mean - mean;
+			mean += delta*other.weightSum/total;
+			m2 += other.m2 + delta*delta*weightSum*other.weightSum/total;
+			weightSum = total;
+			sum += other.sum;
+			sumSq += other.sumSq;
+			if(Double.isNaN(min) || other.min < min)
+				min = other.min;
+			if(Double.isNaN(max) || other.max > max)
+				max = other.max;
+		}
+
+		AttributeStats toAttributeStats(boolean numeric, int numRows) {
+			AttributeStats as = new AttributeStats();
+			as.totalCount = numRows;
+			as.missingCount = missing;
+			if(nominalCounts != null) {
+				as.nominalCounts = nominalCounts.clone();
+				as.nominalWeights = nominalWeights.clone();
+				for(int v=0;v<nominalCounts.length;v++) {
+					if(nominalCounts[v] > 0) {
+						as.distinctCount++;
+						if(nominalCounts[v] == 1)
+							as.uniqueCount++;
+						as.intCount += nominalCounts[v];
+					}
+				}
+			} else if(counts != null) {
+				as.distinctCount = counts.size();
+				as.uniqueCount = counts.numSingletons();
+				as.intCount = counts.intCount();
+				as.realCount = numRows - missing - as.intCount;
+			}
+			if(numeric) {
+				Stats s = new Stats();
+				s.count = weightSum;
+				s.sum = sum;
+				s.sumSq = sumSq;
+				s.min = min;
+				s.max = max;
+				s.mean = weightSum > 0 ? mean : Double.NaN;
+				s.stdDev = weightSum > 1 ? Math.sqrt(Math.max(0, m2/(weightSum-1))) : Double.NaN;
+				as.numericStats = s;
+			}
+			return as;
+		}
+	}
+
+	/**
+	 * Open-addressing hash map from double values to their count and weight,
+	 * stored in primitive arrays (no boxing).
+	 */
+	static class DoubleCountMap {
+		private long[] keys = new long[16];
+		private int[] counts = new int[16];
+		private double[] weights = new double[16];
+		private int size;
+
+		void add(double value, double weight) {
+			add(value, 1, weight);
+		}
+
+		private void add(double value, int count, double weight) {
+			if(value == 0)
+				value = 0.0;//-0.0 and 0.0 are the same value
+			long bits = Double.doubleToLongBits(value);
+			int slot = slot(bits, keys.length);
+			while(counts[slot] != 0 && keys[slot] != bits)
+				slot = (slot + 1) & (keys.length - 1);
+			if(counts[slot] == 0) {
+				keys[slot] = bits;
+				size++;
+			}
+			counts[slot] += count;
+			weights[slot] += weight;
+			if(size*2 > keys.length)
+				grow();
+		}
+
+		void merge(DoubleCountMap other) {
+			for(int s=0;s<other.keys.length;s++) {
+				if(other.counts[s] != 0)
+					add(Double.longBitsToDouble(other.keys[s]), other.counts[s], other.weights[s]);
+			}
+		}
+
+		int size() {
+			return size;
+		}
+
+		int numSingletons() {
+			int n = 0;
+			for(int s=0;s<counts.length;s++) {
+				if(counts[s] == 1)
+					n++;
+			}
+			return n;
+		}
+
+		//number of rows whose value is an integer
+		int intCount() {
+			int n = 0;
+			for(int s=0;s<counts.length;s++) {
+				double value = Double.longBitsToDouble(keys[s]);
+				if(counts[s] != 0 && value == (int) value)
+					n += counts[s];
+			}
+			return n;
+		}
+
+		private void grow() {
+			long[] oldKeys = keys;
+			int[] oldCounts = counts;
+			double[] oldWeights = weights;
+			keys = new long[oldKeys.length*2];
+			counts = new int[oldKeys.length*2];
+			weights = new double[oldKeys.length*2];
+			for(int s=0;s<oldKeys.length;s++) {
+				if(oldCounts[s] == 0)
+					continue;
+				int slot = slot(oldKeys[s], keys.length);
+				while(counts[slot] != 0)
+					slot = (slot + 1) & (keys.length - 1);
+				keys[slot] = oldKeys[s];
+				counts[slot] = oldCounts[s];
+				weights[slot] = oldWeights[s];
+			}
+		}
+
+		private static int slot(long bits, int capacity) {
+			long h = bits * 0x9E3779B97F4A7C15L;//Fibonacci hashing
+			return (int) (h >>> 40) & (capacity - 1);
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		//load dataset
+		DataSource source = new DataSource("src/data/iris.arff");
+		Instances data = source.getDataSet();
+
+		//all attributes in one pass
+		DatasetStats stats = DatasetStats.of(data);
+		for(int i=0;i<data.numAttributes();i++) {
+			AttributeStats as = stats.attributeStats(i);
+			System.out.println(data.attribute(i).name() + ": distinct=" + as.distinctCount + " unique=" + as.uniqueCount
+				+ (as.numericStats != null ? " mean=" + Utils.doubleToString(as.numericStats.mean, 4) + " sd=" + Utils.doubleToString(as.numericStats.stdDev, 4) : "")
+				+ (as.nominalCounts != null ? " counts=" + Arrays.toString(as.nominalCounts) : ""));
+		}
+
+		//same statistics merged from chunks of a stream
+		ChunkedDataSource chunks = new ChunkedDataSource("src/data/iris.arff", 40);
+		DatasetStats streamed = new DatasetStats(chunks.getStructure());
+		Instances chunk;
+		while((chunk = chunks.nextChunk()) != null) {
+			DatasetStats partial = new DatasetStats(chunk);
+			partial.add(chunk);
+			streamed.merge(partial);
+		}
+		System.out.println("Streamed mean of attribute 0: " + Utils.doubleToString(streamed.attributeStats(0).numericStats.mean, 4));
+	}
+}
@@ -6,6 +6,10 @@ package irisDataExamples;
  * The 3rd and 4th variables from Iris are discretized to create 4 bins
  * Discretized data is saved in src/data/iris_afterDiscretizeAttributes.arff
  * 
+ * The same bins are then computed with HistogramDiscretize (parallel, histogram-based cut points),
+ * equal-width, equal-frequency and MDL, and the cut points learned from a stream are reused on new rows.
+ * HistogramDiscretizeTest in the benchmarks module checks they are the bins of WEKA's Discretize.
+ * 
  * @author feBueno, May 2020
  * fernando.bueno.gutie@gmail.com
  */
@@ -13,6 +17,7 @@ package irisDataExamples;
 import java.io.File;
 
 import weka.core.Instances;
+import weka.core.Utils;
 import weka.core.converters.ArffSaver;
 import weka.core.converters.ConverterUtils.DataSource;
 import weka.filters.Filter;
@@ -44,7 +49,36 @@ public class DiscretizeAttributes {
 		saver.writeBatch();
 		
 		System.out.println("Discretized data was saved in src/data/iris_afterDiscretizeAttributes.arff");
+
+		//same bins with histogram-based cut points, one task per attribute
+		String[][] histogramOptions = {{"-B", "4", "-R", "1-2", "-V"}, {"-B", "4", "-R", "1-2", "-V", "-F"}};
+		for(String[] option : histogramOptions) {
+			HistogramDiscretize histogram = new HistogramDiscretize();
+			histogram.setOptions(option.clone());
+			histogram.setInputFormat(iris_ds);
+			Filter.useFilter(iris_ds, histogram);
+			System.out.println(Utils.joinOptions(option) + ": " + histogram.getBinRangesString(2));
+		}
+
+		//supervised (MDL) cut points
+		iris_ds.setClassIndex(iris_ds.numAttributes()-1);
+		HistogramDiscretize mdl = new HistogramDiscretize();
+		mdl.setUseMDL(true);
+		mdl.setInputFormat(iris_ds);
+		Filter.useFilter(iris_ds, mdl);
+		System.out.println("MDL: " + mdl.getBinRangesString(2));
+
+		//cut points learned chunk by chunk, then reused: new rows are converted as soon as they are input
+		HistogramDiscretize streaming = new HistogramDiscretize();
+		streaming.setOptions(new String[] {"-B", "4", "-R", "1-2", "-V", "-F"});
+		long numRows = streaming.learn(new ChunkedDataSource("src/data/iris.arff", 50));
+		streaming.input(new DataSource("src/data/iris.arff").getDataSet().instance(0));
+		System.out.println("Learned from " + numRows + " rows in chunks of 50, first row: " + streaming.output());
 	}
 } /*Output:
 Discretized data was saved in src/data/iris_afterDiscretizeAttributes.arff
+-B 4 -R 1-2 -V: (-inf-2.475],(2.475-3.95],(3.95-5.425],(5.425-inf)
+-B 4 -R 1-2 -V -F: (-inf-1.55],(1.55-4.35],(4.35-5.15],(5.15-inf)
+MDL: (-inf-2.45],(2.45-4.75],(4.75-inf)
+Learned from 150 rows in chunks of 50, first row: 5.1,3.5,'\'(-inf-1.55]\'','\'(-inf-0.35]\'',Iris-setosa
 */
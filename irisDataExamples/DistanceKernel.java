@@ -0,0 +1,298 @@
+package irisDataExamples;
+
+/**
+ * Euclidean, Manhattan and Chebyshev distances of WEKA on primitive arrays.
+ *
+ * WEKA's distance functions walk two Instance objects value by value through the generic
+ * DistanceFunction interface, normalizing every value on every call and dispatching on the
+ * attribute type. Here the attributes the distance uses (nominal and numeric ones, not the
+ * class, within the attribute range) are encoded once per row into a flat double array:
+ * numeric values already normalized with the ranges of the distance function, nominal values
+ * as their index, missing values as NaN. A distance then is a tight loop over two slices of
+ * that array, with the same operations in the same order as WEKA, so the values are the same
+ * to the last bit. The nearest row of a query stops adding up a row as soon as it cannot win,
+ * and a query equal to a training row is answered from a hash table of the rows,
+ * built by the first query that looks one up.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import weka.core.Attribute;
+import weka.core.ChebyshevDistance;
+import weka.core.DistanceFunction;
+import weka.core.EuclideanDistance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.ManhattanDistance;
+import weka.core.NormalizableDistance;
+import weka.core.Range;
+
+public class DistanceKernel implements Serializable {
+
+	private static final long serialVersionUID = -6211540178340905123L;
+
+	public static final int EUCLIDEAN = 0;
+	public static final int MANHATTAN = 1;
+	public static final int CHEBYSHEV = 2;
+
+	private final int kind;
+	private final boolean dontNormalize;
+	//per used attribute: index in the data, nominal or numeric, range
+	private final int[] attributes;
+	private final boolean[] nominal;
+	private final double[] min;
+	private final double[] max;
+	private final double[] width;
+	//encoded rows, attributes.length values per row
+	private final double[] rows;
+	private final int numRows;
+	//open addressing table of the first row with every distinct encoding (row+1, 0 for empty),
+	//built by the first query that needs it
+	private volatile int[] equalRows;
+
+	private DistanceKernel(int kind, NormalizableDistance distance, Instances data) throws Exception {
+		this.kind = kind;
+		this.dontNormalize = distance.getDontNormalize();
+		double[][] ranges = distance.getRanges();
+		Range range = new Range(distance.getAttributeIndices());
+		range.setInvert(distance.getInvertSelection());
+		range.setUpper(data.numAttributes()-1);
+		List<Integer> used = new ArrayList<Integer>();
+		for(int j=0;j<data.numAttributes();j++) {
+			int type = data.attribute(j).type();
+			//other types add nothing to WEKA's distances
+			if(j != data.classIndex() && range.isInRange(j) && (type == Attribute.NUMERIC || type == Attribute.NOMINAL))
+				used.add(j);
+		}
+		int m = used.size();
+		attributes = new int[m];
+		nominal = new boolean[m];
+		min = new double[m];
+		max = new double[m];
+		width = new double[m];
+		for(int a=0;a<m;a++) {
+			attributes[a] = used.get(a);
+			nominal[a] = data.attribute(attributes[a]).isNominal();
+			min[a] = ranges[attributes[a]][NormalizableDistance.R_MIN];
+			max[a] = ranges[attributes[a]][NormalizableDistance.R_MAX];
+			width[a] = ranges[attributes[a]][NormalizableDistance.R_WIDTH];
+		}
+		numRows = data.numInstances();
+		rows = new double[numRows*m];
+		for(int i=0;i<numRows;i++)
+			encode(data.instance(i), rows, i*m);
+	}
+
+	private synchronized int[] indexRows() {
+		if(equalRows != null)
+			return equalRows;
+		int m = attributes.length;
+		int[] table = new int[Integer.highestOneBit(Math.max(1, 2*numRows))*2];
+		int mask = table.length-1;
+		for(int i=0;i<numRows;i++) {
+			int slot = hash(rows, i*m) & mask;
+			while(table[slot] != 0 && !equal(rows, i*m, table[slot]-1))
+				slot = (slot+1) & mask;
+			if(table[slot] == 0)
+				table[slot] = i+1;
+		}
+		equalRows = table;
+		return table;
+	}
+
+	//same hash for values that are ==, NaN included
+	private int hash(double[] values, int from) {
+		int h = 1;
+		for(int a=0;a<attributes.length;a++) {
+			long bits = Double.doubleToLongBits(values[from+a] + 0.0);
+			h = 31*h + (int) (bits ^ (bits >>> 32));
+		}
+		return h ^ (h >>> 16);
+	}
+
+	private boolean equal(double[] values, int from, int row) {
+		int m = attributes.length;
+		for(int a=0;a<m;a++) {
+			double v = values[from+a];
+			double w = rows[row*m+a];
+			if(v != w && !(Double.isNaN(v) && Double.isNaN(w)))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * First row with the same encoded values as query, or -1. Without missing values in query,
+	 * that is the first row at distance 0 from it.
+	 */
+	public int firstEqual(double[] query) {
+		//without normalization a missing value can be at distance 0
+		if(dontNormalize)
+			return -1;
+		for(double v : query) {
+			if(Double.isNaN(v))
+				return -1;
+		}
+		int[] table = equalRows;
+		if(table == null)
+			table = indexRows();
+		int mask = table.length-1;
+		for(int slot=hash(query, 0) & mask;table[slot] != 0;slot=(slot+1) & mask) {
+			if(equal(query, 0, table[slot]-1))
+				return table[slot]-1;
+		}
+		return -1;
+	}
+
+	/**
+	 * Kernel for the rows of data with distance, which must have been set up with data;
+	 * null if distance is not exactly a Euclidean, Manhattan or Chebyshev distance.
+	 */
+	public static DistanceKernel of(DistanceFunction distance, Instances data) throws Exception {
+		Class<?> c = distance.getClass();
+		if(c == EuclideanDistance.class)
+			return new DistanceKernel(EUCLIDEAN, (NormalizableDistance) distance, data);
+		if(c == ManhattanDistance.class)
+			return new DistanceKernel(MANHATTAN, (NormalizableDistance) distance, data);
+		if(c == ChebyshevDistance.class)
+			return new DistanceKernel(CHEBYSHEV, (NormalizableDistance) distance, data);
+		return null;
+	}
+
+	public int numRows() {
+		return numRows;
+	}
+
+	/**
+	 * Used values of inst, encoded as the rows.
+	 */
+	public double[] encode(Instance inst) {
+		double[] values = new double[attributes.length];
+		encode(inst, values, 0);
+		return values;
+	}
+
+	private void encode(Instance inst, double[] dest, int offset) {
+		for(int a=0;a<attributes.length;a++) {
+			double value = inst.value(attributes[a]);
+			if(!nominal[a] && !dontNormalize && !Double.isNaN(value))
+				value = width[a] == 0 ? 0 : (value - min[a])/width[a];
+			dest[offset+a] = value;
+		}
+	}
+
+	/**
+	 * Distance between rows i and j, as distance.distance(data.instance(i), data.instance(j)).
+	 */
+	public double distance(int i, int j) {
+		int m = attributes.length;
+		return finish(raw(rows, i*m, rows, j*m, Double.POSITIVE_INFINITY));
+	}
+
+	/**
+	 * Distance between an encoded query and row j.
+	 */
+	public double distance(double[] query, int j) {
+		return finish(raw(query, 0, rows, j*attributes.length, Double.POSITIVE_INFINITY));
+	}
+
+	/**
+	 * Index of the first of the encoded centers nearest to row j, as SimpleKMeans assigns a row:
+	 * sums (of squares for Euclidean) compared with the best so far as cutoff.
+	 */
+	public int nearestCenter(double[][] centers, int j) {
+		return nearestCenter(centers, rows, j*attributes.length);
+	}
+
+	/**
+	 * Same for an encoded query.
+	 */
+	public int nearestCenter(double[][] centers, double[] query) {
+		return nearestCenter(centers, query, 0);
+	}
+
+	private int nearestCenter(double[][] centers, double[] values, int from) {
+		double bestRaw = Integer.MAX_VALUE;
+		int best = 0;
+		for(int c=0;c<centers.length;c++) {
+			double raw = raw(centers[c], 0, values, from, bestRaw);
+			if(raw < bestRaw) {
+				bestRaw = raw;
+				best = c;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * First row at the smallest distance from the encoded query, as a scan with
+	 * distance.distance(query, row) that keeps the first strictly smaller distance.
+	 */
+	public int nearest(double[] query) {
+		int best = firstEqual(query);
+		if(best >= 0)
+			return best;
+		int m = attributes.length;
+		double bestRaw = Double.MAX_VALUE;
+		for(int j=0;j<numRows;j++) {
+			double raw = raw(query, 0, rows, j*m, bestRaw);
+			if(raw < bestRaw) {
+				//Euclidean: two sums can have the same square root, only a smaller root wins
+				if(kind == EUCLIDEAN && best >= 0 && !(Math.sqrt(raw) < Math.sqrt(bestRaw)))
+					continue;
+				bestRaw = raw;
+				best = j;
+			}
+		}
+		return best;
+	}
+
+	//sum, sum of squares or maximum of the differences; stops once above cutoff
+	private double raw(double[] values1, int from1, double[] values2, int from2, double cutoff) {
+		double result = 0;
+		for(int a=0;a<attributes.length;a++) {
+			result = update(result, difference(a, values1[from1+a], values2[from2+a]));
+			if(result > cutoff)
+				return result;
+		}
+		return result;
+	}
+
+	//EuclideanDistance/ManhattanDistance/ChebyshevDistance.updateDistance
+	private double update(double result, double diff) {
+		switch(kind) {
+		case EUCLIDEAN:
+			return result + diff*diff;
+		case MANHATTAN:
+			return result + Math.abs(diff);
+		default:
+			diff = Math.abs(diff);
+			return diff > result ? diff : result;
+		}
+	}
+
+	private double finish(double raw) {
+		return kind == EUCLIDEAN ? Math.sqrt(raw) : raw;
+	}
+
+	//NormalizableDistance.difference on encoded values
+	private double difference(int a, double v1, double v2) {
+		boolean missing1 = Double.isNaN(v1);
+		boolean missing2 = Double.isNaN(v2);
+		if(nominal[a])
+			return missing1 || missing2 || (int) v1 != (int) v2 ? 1 : 0;
+		if(!missing1 && !missing2)
+			return v1 - v2;
+		if(missing1 && missing2)
+			return dontNormalize ? width[a] : 1;
+		double diff = missing2 ? v1 : v2;
+		if(!dontNormalize)
+			return diff < 0.5 ? 1.0 - diff : diff;
+		return max[a] - diff > diff - min[a] ? max[a] - diff : diff - min[a];
+	}
+}
@@ -0,0 +1,200 @@
+package irisDataExamples;
+
+/**
+ * Concurrent training of independent WEKA models.
+ *
+ * Models are added as named tasks, optionally depending on other tasks (a task graph);
+ * trainAll builds every model as soon as the models it depends on are built, with up to
+ * numThreads models training at once.
+ * Inside each model, the WEKA execution slots are set to numExecutionSlots, so Bagging bags,
+ * RandomForest trees and Stacking base classifiers (and, with ParallelStacking, its internal
+ * cross-validation folds) are trained in parallel too.
+ *
+ * Every task records its wall time and the CPU time of the thread that trained it.
+ * Work done in WEKA's own execution slot threads is not attributed to a model: it shows up
+ * in the process CPU time of the whole run.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.MultipleClassifiersCombiner;
+import weka.classifiers.ParallelIteratedSingleClassifierEnhancer;
+import weka.classifiers.ParallelMultipleClassifiersCombiner;
+import weka.classifiers.SingleClassifierEnhancer;
+import weka.core.Instances;
+
+public class EnsembleTrainer {
+
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+	private int numExecutionSlots = Runtime.getRuntime().availableProcessors();
+
+	//tasks in the order they were added
+	private final Map<String, Task> tasks = new LinkedHashMap<String, Task>();
+
+	//CPU time of the whole process during the last trainAll, -1 if not available
+	private long processCpuNanos = -1;
+	private long totalWallNanos;
+
+	/**
+	 * Wall and CPU time of one trained model.
+	 */
+	public static class Timing {
+		public final long wallNanos;
+		public final long cpuNanos;
+
+		Timing(long wallNanos, long cpuNanos) {
+			this.wallNanos = wallNanos;
+			this.cpuNanos = cpuNanos;
+		}
+	}
+
+	private static class Task {
+		final String name;
+		final Classifier model;
+		final String[] dependsOn;
+		Timing timing;
+
+		Task(String name, Classifier model, String[] dependsOn) {
+			this.name = name;
+			this.model = model;
+			this.dependsOn = dependsOn;
+		}
+	}
+
+	/**
+	 * Number of models trained at the same time.
+	 */
+	public void setNumThreads(int numThreads) {
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	/**
+	 * Execution slots given to every parallel WEKA ensemble (Bagging, RandomForest, Stacking...),
+	 * including the ones nested inside other models.
+	 */
+	public void setNumExecutionSlots(int numExecutionSlots) {
+		this.numExecutionSlots = Math.max(1, numExecutionSlots);
+	}
+
+	/**
+	 * Adds a model to train; it is only trained after the models named in dependsOn.
+	 */
+	public void add(String name, Classifier model, String... dependsOn) {
+		if(tasks.containsKey(name))
+			throw new IllegalArgumentException("Duplicate model name: " + name);
+		for(String dep : dependsOn) {
+			if(!tasks.containsKey(dep))
+				throw new IllegalArgumentException(name + " depends on unknown model " + dep);
+		}
+		tasks.put(name, new Task(name, model, dependsOn));
+	}
+
+	/**
+	 * Trains every model on data and returns them by name, in the order they were added.
+	 * Dependencies must be added before the models depending on them, so the graph has no cycles.
+	 */
+	public Map<String, Classifier> trainAll(final Instances data) throws Exception {
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		final boolean cpuTime = threads.isCurrentThreadCpuTimeSupported();
+		long processStart = processCpuTime();
+		long wallStart = System.nanoTime();
+
+		ForkJoinPool pool = new ForkJoinPool(numThreads);
+		try {
+			Map<String, CompletableFuture<Classifier>> futures = new LinkedHashMap<String, CompletableFuture<Classifier>>();
+			for(final Task task : tasks.values()) {
+				setExecutionSlots(task.model, numExecutionSlots);
+				List<CompletableFuture<Classifier>> deps = new ArrayList<CompletableFuture<Classifier>>();
+				for(String dep : task.dependsOn)
+					deps.add(futures.get(dep));
+				CompletableFuture<Void> ready = CompletableFuture.allOf(deps.toArray(new CompletableFuture<?>[0]));
+				futures.put(task.name, ready.thenApplyAsync(new Function<Void, Classifier>() {
+					public Classifier apply(Void none) {
+						long cpu0 = cpuTime ? threads.getCurrentThreadCpuTime() : 0;
+						long wall0 = System.nanoTime();
+						try {
+							task.model.buildClassifier(data);
+						} catch(Exception e) {
+							throw new CompletionException(task.name + ": " + e.getMessage(), e);
+						}
+						long wall = System.nanoTime() - wall0;
+						task.timing = new Timing(wall, cpuTime ? threads.getCurrentThreadCpuTime() - cpu0 : -1);
+						return task.model;
+					}
+				}, pool));
+			}
+
+			Map<String, Classifier> models = new LinkedHashMap<String, Classifier>();
+			for(Map.Entry<String, CompletableFuture<Classifier>> f : futures.entrySet()) {
+				try {
+					models.put(f.getKey(), f.getValue().join());
+				} catch(CompletionException e) {
+					throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+				}
+			}
+			return models;
+		} finally {
+			pool.shutdown();
+			totalWallNanos = System.nanoTime() - wallStart;
+			long processEnd = processCpuTime();
+			processCpuNanos = processStart >= 0 && processEnd >= 0 ? processEnd - processStart : -1;
+		}
+	}
+
+	/**
+	 * Sets the execution slots of model and of every classifier nested in it.
+	 */
+	public static void setExecutionSlots(Classifier model, int numSlots) {
+		if(model instanceof ParallelIteratedSingleClassifierEnhancer)
+			((ParallelIteratedSingleClassifierEnhancer) model).setNumExecutionSlots(numSlots);
+		if(model instanceof ParallelMultipleClassifiersCombiner)
+			((ParallelMultipleClassifiersCombiner) model).setNumExecutionSlots(numSlots);
+		if(model instanceof SingleClassifierEnhancer)
+			setExecutionSlots(((SingleClassifierEnhancer) model).getClassifier(), numSlots);
+		if(model instanceof MultipleClassifiersCombiner) {
+			for(Classifier c : ((MultipleClassifiersCombiner) model).getClassifiers())
+				setExecutionSlots(c, numSlots);
+		}
+	}
+
+	public Timing getTiming(String name) {
+		return tasks.get(name).timing;
+	}
+
+	/**
+	 * One line per model with its wall and CPU time, plus the totals of the last run.
+	 */
+	public String timingString() {
+		StringBuilder sb = new StringBuilder();
+		for(Task task : tasks.values()) {
+			if(task.timing == null)
+				continue;
+			sb.append(String.format("%-30s wall %8.1f ms   cpu %8.1f ms%n", task.name, task.timing.wallNanos/1e6, task.timing.cpuNanos/1e6));
+		}
+		sb.append(String.format("%-30s wall %8.1f ms", "total", totalWallNanos/1e6));
+		if(processCpuNanos >= 0)
+			sb.append(String.format("   process cpu %8.1f ms", processCpuNanos/1e6));
+		return sb.toString();
+	}
+
+	//CPU time of the whole JVM, where the platform exposes it
+	private static long processCpuTime() {
+		java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+		if(os instanceof com.sun.management.OperatingSystemMXBean)
+			return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+		return -1;
+	}
+}
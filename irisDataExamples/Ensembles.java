@@ -5,7 +5,12 @@ package irisDataExamples;
  * 
  * Multiple meta-base-classifiers are defined, 
  * plus the stacking-base classifier is used to combine multiple base-classifiers.
- * After fitting an Iris train dataset in these, the models are saved in src/models
+ * After fitting an Iris train dataset in these, the models are saved in src/models.
+ * The multi-class logistic regression trains its binary models concurrently (FastMultiClassClassifier
+ * of FastLogistic); a second one, trained on part of the training rows, is updated with the
+ * others without training again, and evaluated on the test rows before and after.
+ * The boosted decision stumps search the same presorted columns every round (FastAdaBoostM1),
+ * giving the model of AdaBoostM1 (see FastAdaBoostM1Test in the benchmarks module).
  * 
  * @author feBueno, June 2020
  * fernando.bueno.gutie@gmail.com
@@ -70,32 +75,43 @@ public class Ensembles {
 		//In each ensamble, a meta classifier is combined with a base classifier
 		
 		//ensamble, approach 1: multi-class logistic regression
-		MultiClassClassifier MultiClassClassifier_model = new MultiClassClassifier();//meta: handling multi-class datasets with 2-class classifiers
-		MultiClassClassifier_model.setClassifier(new Logistic());//base: logistic regression
-		MultiClassClassifier_model.buildClassifier(data_intances);
+		FastMultiClassClassifier MultiClassClassifier_model = new FastMultiClassClassifier();//meta: handling multi-class datasets with 2-class classifiers, trained concurrently
+		MultiClassClassifier_model.setClassifier(new FastLogistic());//base: logistic regression, updatable
 		
 		//ensamble, approach 2: additive logistic regression, can handle multi-class
 		LogitBoost LogitBoost_model = new LogitBoost();//meta: additive logistic regression
 		LogitBoost_model.setClassifier(new LogisticBase());//base: logistic regression for LogitBoost
-		LogitBoost_model.buildClassifier(data_intances);
 		
 		//ensamble, approach 3: boost a classifier, improve performance at expenses of overfit
 		AdaBoostM1 Boost_model = new AdaBoostM1();//meta
 		Boost_model.setClassifier(new BayesNet());//base
 		Boost_model.setNumIterations(100);
-		Boost_model.buildClassifier(data_intances);
 		
 		//ensamble, approach 4: bagging a classifier to reduce variance
 		Bagging Bagging_model = new Bagging();//meta
 		Bagging_model.setClassifier(new RandomForest());
-		Bagging_model.buildClassifier(data_intances);
 		
-		//ensamble, approach 5: stacking multiple base-classifiers
-		Stacking stacker_model = new Stacking(); 
+		//ensamble, approach 5: stacking multiple base-classifiers (internal CV folds trained in parallel)
+		ParallelStacking stacker_model = new ParallelStacking(); 
 		stacker_model.setMetaClassifier(new Logistic());
 		Classifier[] classifiers_modelArr = {new J48(), new NaiveBayes(), new RandomForest()};
 		stacker_model.setClassifiers(classifiers_modelArr);
-		stacker_model.buildClassifier(data_intances);
+		
+		//ensamble, approach 6: boosting decision stumps, the columns sorted once for all the rounds
+		FastAdaBoostM1 Stumps_model = new FastAdaBoostM1();//meta, DecisionStump base by default
+		Stumps_model.setNumIterations(50);
+		
+		//the six ensembles are independent: train them concurrently,
+		//bags, trees and stacking folds use the execution slots of each model
+		EnsembleTrainer trainer = new EnsembleTrainer();
+		trainer.add("MultiClassClassifier_model", MultiClassClassifier_model);
+		trainer.add("LogitBoost_model", LogitBoost_model);
+		trainer.add("Boost_model", Boost_model);
+		trainer.add("Bagging_model", Bagging_model);
+		trainer.add("stacker_model", stacker_model);
+		trainer.add("Stumps_model", Stumps_model);
+		trainer.trainAll(data_intances);
+		System.out.println(trainer.timingString());
 		
 		//save models as binary files
 		weka.core.SerializationHelper.write("src/models/MultiClassClassifier_model", MultiClassClassifier_model);
@@ -103,10 +119,36 @@ public class Ensembles {
 		weka.core.SerializationHelper.write("src/models/Boost_model", Boost_model);
 		weka.core.SerializationHelper.write("src/models/Bagging_model", Bagging_model);
 		weka.core.SerializationHelper.write("src/models/stacker_model_OnRawTainData_model", stacker_model);
+		weka.core.SerializationHelper.write("src/models/Stumps_model", Stumps_model);
 		
 		System.out.println("Ensembl models saved in src/models");
 		
+		//warm start: a model of the first 70 training rows goes on from its coefficients with the
+		//other training rows; the test rows are only used to evaluate it
+		Instances first_instances = new Instances(data_intances, 0, 70);
+		Instances rest_instances = new Instances(data_intances, 70, data_intances.numInstances()-70);
+		FastMultiClassClassifier warm_model = new FastMultiClassClassifier();
+		warm_model.setClassifier(new FastLogistic());
+		warm_model.buildClassifier(first_instances);
+		Instances test_instances = new DataSource("src/data/irisTest_df.arff").getDataSet();
+		test_instances.setClassIndex(test_instances.numAttributes()-1);
+		Evaluation before = new Evaluation(data_intances);
+		before.evaluateModel(warm_model, test_instances);
+		warm_model.update(rest_instances);
+		Evaluation after = new Evaluation(data_intances);
+		after.evaluateModel(warm_model, test_instances);
+		System.out.println("Multi-class logistic on the test rows: "+before.pctCorrect()+" % correct trained on "+first_instances.numInstances()
+			+" rows, "+after.pctCorrect()+" % once updated with the other "+rest_instances.numInstances());
+		
 	}
-} /* Output:
+} /* Output (times depend on the machine):
+MultiClassClassifier_model     wall    506.9 ms   cpu    262.9 ms
+LogitBoost_model               wall   1412.9 ms   cpu    629.3 ms
+Boost_model                    wall    905.4 ms   cpu    321.1 ms
+Bagging_model                  wall    881.5 ms   cpu    317.7 ms
+stacker_model                  wall    806.1 ms   cpu     53.6 ms
+Stumps_model                   wall     39.5 ms   cpu     16.7 ms
+total                          wall   4579.7 ms   process cpu   4500.0 ms
 Ensembl models saved in src/models
+Multi-class logistic on the test rows: 96.0 % correct trained on 70 rows, 96.0 % once updated with the other 30
 */
@@ -0,0 +1,158 @@
+package irisDataExamples;
+
+/**
+ * AdaBoostM1 of decision stumps searching the same sorted columns every round.
+ *
+ * AdaBoostM1 trains a copy of its base classifier on a copy of the weighted training data every
+ * round, evaluates it on the training data with an Evaluation and reweights the instances. With
+ * a DecisionStump (the default) every round then copies the data and sorts it by every numeric
+ * attribute again. Here a StumpSearch keeps the columns of the training data, sorted once, and
+ * every round reads the weights of the instances into an array, finds the stump on up to
+ * numThreads tasks (one attribute each), computes its error and the new weights on the arrays
+ * and writes the weights back, with the same operations in the same order as AdaBoostM1, so the
+ * stumps, their weights and the output are AdaBoostM1's.
+ *
+ * numBins > 0 searches the stumps over histogram bins of the numeric attributes (see
+ * StumpSearch): faster rounds on large data, stumps close to DecisionStump's but not the same.
+ * Other base classifiers, resampling and weight pruning (weightThreshold < 100) are left to
+ * AdaBoostM1.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import weka.classifiers.meta.AdaBoostM1;
+import weka.classifiers.trees.DecisionStump;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class FastAdaBoostM1 extends AdaBoostM1 {
+
+	private static final long serialVersionUID = -3032447216316920712L;
+
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+	private int numBins;
+
+	//columns of m_TrainingData, searched every round
+	private transient StumpSearch search;
+	private transient Instances searched;
+	private transient double[] classValues;
+
+	public void setNumThreads(int numThreads) {
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	/**
+	 * Histogram bins of every numeric attribute the stumps are searched over; 0 (default) for
+	 * the exact DecisionStump search.
+	 */
+	public void setNumBins(int numBins) {
+		this.numBins = Math.max(0, numBins);
+	}
+
+	public int getNumBins() {
+		return numBins;
+	}
+
+	@Override
+	public boolean next() throws Exception {
+		if(m_Classifier.getClass() != DecisionStump.class || m_UseResampling || m_WeightThreshold < 100)
+			return super.next();
+		if(m_NumItsThisSession >= m_NumIterations)
+			return false;
+		if(m_TrainingData.numAttributes() == 1)
+			return false;
+		if(search == null || searched != m_TrainingData) {
+			search = new StumpSearch(m_TrainingData, numBins);
+			searched = m_TrainingData;
+			classValues = m_TrainingData.attributeToDoubleArray(m_TrainingData.classIndex());
+		}
+		search.setNumThreads(numThreads);
+
+		int n = m_TrainingData.numInstances();
+		double[] weights = new double[n];
+		for(int i=0;i<n;i++)
+			weights[i] = m_TrainingData.instance(i).weight();
+		DecisionStump stump = (DecisionStump) m_Classifiers[m_NumIterationsPerformed];
+		StumpSearch.Split split = search.search(weights, classValues, (Double) ModelCodec.field(stump, "m_SplitPoint"));
+		//no weight left: as AdaBoostM1 does it
+		if(split == null)
+			return super.next();
+		if(m_Debug)
+			System.err.println("Training classifier " + (m_NumIterationsPerformed+1));
+		search.apply(split, stump);
+
+		//classes of the three subsets as classifyInstance picks them (-1 for none), error as Evaluation.errorRate
+		int[] predicted = new int[3];
+		for(int s=0;s<3;s++) {
+			predicted[s] = -1;
+			double max = 0;
+			for(int j=0;j<split.distribution[s].length;j++) {
+				if(split.distribution[s][j] > max) {
+					max = split.distribution[s][j];
+					predicted[s] = j;
+				}
+			}
+		}
+		int[] subsets = search.subsets(split);
+		boolean[] wrong = new boolean[n];
+		double incorrect = 0, withClass = 0;
+		for(int i=0;i<n;i++) {
+			int p = predicted[subsets[i]];
+			wrong[i] = p != (int) classValues[i];
+			withClass += weights[i];
+			if(p >= 0 && wrong[i])
+				incorrect += weights[i];
+		}
+		double epsilon = incorrect/withClass;
+
+		if(Utils.grOrEq(epsilon, 0.5) || Utils.eq(epsilon, 0)) {
+			if(m_NumIterationsPerformed == 0)
+				m_NumIterationsPerformed = 1;
+			return false;
+		}
+		double reweight = (1-epsilon)/epsilon;
+		m_Betas[m_NumIterationsPerformed] = Math.log(reweight);
+		if(m_Debug)
+			System.err.println("\terror rate = " + epsilon + "  beta = " + m_Betas[m_NumIterationsPerformed]);
+
+		//setWeights
+		double oldSumOfWeights = 0;
+		for(int i=0;i<n;i++)
+			oldSumOfWeights += weights[i];
+		for(int i=0;i<n;i++) {
+			if(wrong[i])
+				weights[i] = weights[i]*reweight;
+		}
+		double newSumOfWeights = 0;
+		for(int i=0;i<n;i++)
+			newSumOfWeights += weights[i];
+		for(int i=0;i<n;i++)
+			m_TrainingData.instance(i).setWeight(weights[i]*oldSumOfWeights/newSumOfWeights);
+
+		m_NumIterationsPerformed++;
+		m_NumItsThisSession++;
+		return true;
+	}
+
+	@Override
+	public void done() {
+		super.done();
+		if(!getResume()) {
+			search = null;
+			searched = null;
+			classValues = null;
+		}
+	}
+
+	/**
+	 * Command line, as for AdaBoostM1 (e.g. -t src/data/iris.arff); see Ensembles for a demo.
+	 */
+	public static void main(String[] argv) {
+		runClassifier(new FastAdaBoostM1(), argv);
+	}
+}
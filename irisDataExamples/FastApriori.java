@@ -0,0 +1,422 @@
+package irisDataExamples;
+
+/**
+ * Apriori counting the support of the itemsets on a vertical (tid-list) layout of the data.
+ *
+ * WEKA's Apriori counts every candidate itemset of a level by testing it against every
+ * instance (candidates x instances calls of containedBy), keeps the itemsets as arrays with one
+ * value per attribute in Hashtables that hash them to a weighted sum of their values, and runs
+ * the whole search again in each cycle, lowering the minimum support until numRules rules are
+ * found (17 cycles on weatherNominal). Here the data is turned once into one bitset per item
+ * (attribute=value, the rows having that value), and the support of a candidate is the number
+ * of bits set in the AND of the bitsets of its items: 64 rows per operation, in parallel over
+ * the candidates on the common pool. Candidates are merged and pruned as the sorted ids of their
+ * items, a support is counted only once in the whole search (later cycles take the ones they
+ * already know from a table), and only the large itemsets become AprioriItemSets.
+ *
+ * Candidates come in the order of mergeAllItemSets and the rules from WEKA's own generateRules,
+ * so the rules, the counts of large itemsets and the output are the same as Apriori's.
+ * Class association rules (car) are left to Apriori.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import weka.associations.Apriori;
+import weka.associations.AprioriItemSet;
+import weka.associations.ItemSet;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class FastApriori extends Apriori {
+
+	private static final long serialVersionUID = 2917003557921345114L;
+
+	//candidates per parallel task below which a level is not split further
+	private static final int MIN_CANDIDATES_PER_TASK = 256;
+
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+
+	//items of every attribute: ids firstItem[j] to firstItem[j+1]-1, the values in order
+	private transient int[] firstItem;
+	private transient int[] itemAttribute;
+	//rows having every item, 64 rows per long
+	private transient long[][] tidLists;
+	//supports counted so far in this search
+	private transient Map<Items, Integer> supports;
+
+	public void setNumThreads(int numThreads) {
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	/**
+	 * Apriori.buildAssociations (without class association rules) with the supports counted on
+	 * the tid-lists of the data.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void buildAssociations(Instances instances) throws Exception {
+		if(m_car) {
+			super.buildAssociations(instances);
+			return;
+		}
+		if(m_removeMissingCols)
+			instances = removeMissingColumns(instances);
+		getCapabilities().testWithFail(instances);
+		//nothing changes the rows, so they are not copied as Apriori does
+		m_instances = instances;
+		m_cycles = 0;
+
+		//make sure that the lower bound is equal to at least one instance
+		double lowerBoundMinSupportToUse = m_lowerBoundMinSupport*instances.numInstances() < 1.0
+				? 1.0/instances.numInstances() : m_lowerBoundMinSupport;
+		m_minSupport = 1.0 - m_delta;
+		if(m_minSupport < lowerBoundMinSupportToUse)
+			m_minSupport = lowerBoundMinSupportToUse;
+
+		tidLists(instances);
+		supports = new HashMap<Items, Integer>();
+		double necSupport;
+		try {
+			do {
+				m_Ls = new ArrayList<ArrayList<Object>>();
+				m_hashtables = new ArrayList<Hashtable<ItemSet, Integer>>();
+				m_allTheRules = newRuleLists();
+				findLargeItemSets();
+				findRules();
+				if(m_upperBoundMinSupport < 1.0)
+					pruneRulesForUpperBoundSupport();
+				sortRules();
+				if(m_verbose && m_Ls.size() > 1)
+					System.out.println(toString());
+
+				if(m_minSupport == lowerBoundMinSupportToUse || m_minSupport - m_delta > lowerBoundMinSupportToUse)
+					m_minSupport -= m_delta;
+				else
+					m_minSupport = lowerBoundMinSupportToUse;
+				necSupport = Math.rint(m_minSupport*m_instances.numInstances());
+				m_cycles++;
+			} while(m_allTheRules[0].size() < m_numRules && Utils.grOrEq(m_minSupport, lowerBoundMinSupportToUse) && necSupport >= 1);
+		} finally {
+			firstItem = null;
+			itemAttribute = null;
+			tidLists = null;
+			supports = null;
+		}
+		m_minSupport += m_delta;
+	}
+
+	//items (attribute=value) numbered by attribute and value, each with the rows having it
+	private void tidLists(Instances data) {
+		int numItems = 0;
+		firstItem = new int[data.numAttributes()+1];
+		for(int j=0;j<data.numAttributes();j++) {
+			firstItem[j] = numItems;
+			if(data.attribute(j).isNominal())
+				numItems += data.attribute(j).numValues();
+		}
+		firstItem[data.numAttributes()] = numItems;
+		itemAttribute = new int[numItems];
+		for(int j=0;j<data.numAttributes();j++) {
+			for(int id=firstItem[j];id<firstItem[j+1];id++)
+				itemAttribute[id] = j;
+		}
+		int words = (data.numInstances() + 63) >>> 6;
+		tidLists = new long[numItems][words];
+		for(int i=0;i<data.numInstances();i++) {
+			Instance inst = data.instance(i);
+			for(int v=0;v<inst.numValues();v++) {
+				int j = inst.index(v);
+				if(firstItem[j] < firstItem[j+1] && !Utils.isMissingValue(inst.valueSparse(v)))
+					tidLists[firstItem[j] + (int) inst.valueSparse(v)][i >>> 6] |= 1L << i;
+			}
+			//values a sparse instance leaves out are 0
+			if(inst.numValues() < data.numAttributes()) {
+				for(int j=0;j<data.numAttributes();j++) {
+					if(firstItem[j] < firstItem[j+1] && inst.value(j) == 0)
+						tidLists[firstItem[j]][i >>> 6] |= 1L << i;
+				}
+			}
+		}
+	}
+
+	//Apriori.findLargeItemSets on item ids: the same levels in the same order
+	private void findLargeItemSets() throws Exception {
+		int necSupport = (int) (m_minSupport*m_instances.numInstances() + 0.5);
+		List<Items> kSets = new ArrayList<Items>();
+		for(int j=0;j<m_instances.numAttributes();j++) {
+			for(int id=firstItem[j] + (m_treatZeroAsMissing ? 1 : 0);id<firstItem[j+1];id++)
+				kSets.add(new Items(new int[] {id}));
+		}
+		kSets = large(kSets, necSupport);
+		for(int i=0;kSets.size()>0;i++) {
+			ArrayList<Object> itemSets = itemSets(kSets);
+			m_Ls.add(itemSets);
+			m_hashtables.add(new ItemSetTable(itemSets));
+			kSets = large(prune(merge(kSets, i), new HashSet<Items>(kSets)), necSupport);
+		}
+	}
+
+	//AprioriItemSet.mergeAllItemSets: pairs with the same first size items and a last item on another attribute
+	private List<Items> merge(List<Items> kMinusOneSets, int size) {
+		List<Items> merged = new ArrayList<Items>();
+		for(int a=0;a<kMinusOneSets.size();a++) {
+			int[] first = kMinusOneSets.get(a).ids;
+			for(int b=a+1;b<kMinusOneSets.size();b++) {
+				int[] second = kMinusOneSets.get(b).ids;
+				if(!samePrefix(first, second, size))
+					break;
+				int last1 = first[size];
+				int last2 = second[size];
+				if(itemAttribute[last1] == itemAttribute[last2])
+					continue;
+				int[] ids = Arrays.copyOf(first, size+2);
+				ids[size] = Math.min(last1, last2);
+				ids[size+1] = Math.max(last1, last2);
+				merged.add(new Items(ids));
+			}
+		}
+		return merged;
+	}
+
+	private static boolean samePrefix(int[] first, int[] second, int size) {
+		for(int k=0;k<size;k++) {
+			if(first[k] != second[k])
+				return false;
+		}
+		return true;
+	}
+
+	//ItemSet.pruneItemSets: candidates with every subset one item smaller among the large ones
+	private static List<Items> prune(List<Items> candidates, Set<Items> kMinusOneSets) {
+		List<Items> pruned = new ArrayList<Items>(candidates.size());
+		for(Items candidate : candidates) {
+			int[] ids = candidate.ids;
+			int[] subset = new int[ids.length-1];
+			boolean large = true;
+			for(int leave=0;leave<ids.length && large;leave++) {
+				for(int k=0, s=0;k<ids.length;k++) {
+					if(k != leave)
+						subset[s++] = ids[k];
+				}
+				large = kMinusOneSets.contains(new Items(subset));
+			}
+			if(large)
+				pruned.add(candidate);
+		}
+		return pruned;
+	}
+
+	//candidates with at least necSupport rows: supports known from earlier cycles are not counted again
+	private List<Items> large(List<Items> candidates, int necSupport) throws Exception {
+		final List<Items> unknown = new ArrayList<Items>();
+		for(Items candidate : candidates) {
+			Integer support = supports.get(candidate);
+			if(support != null)
+				candidate.support = support;
+			else
+				unknown.add(candidate);
+		}
+		int numTasks = Math.max(1, Math.min(numThreads, unknown.size()/MIN_CANDIDATES_PER_TASK));
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for(int t=0;t<numTasks;t++) {
+			final int from = unknown.size()*t/numTasks;
+			final int to = unknown.size()*(t+1)/numTasks;
+			tasks.add(new Callable<Void>() {
+				public Void call() {
+					for(int c=from;c<to;c++)
+						unknown.get(c).support = support(unknown.get(c).ids);
+					return null;
+				}
+			});
+		}
+		Tasks.run(tasks);
+		for(Items candidate : unknown)
+			supports.put(candidate, candidate.support);
+		List<Items> large = new ArrayList<Items>();
+		for(Items candidate : candidates) {
+			if(candidate.support >= necSupport)
+				large.add(candidate);
+		}
+		return large;
+	}
+
+	//bits set in the AND of the tid-lists of the items
+	private int support(int[] ids) {
+		long[] first = tidLists[ids[0]];
+		int support = 0;
+		for(int w=0;w<first.length;w++) {
+			long bits = first[w];
+			for(int k=1;k<ids.length && bits != 0;k++)
+				bits &= tidLists[ids[k]][w];
+			support += Long.bitCount(bits);
+		}
+		return support;
+	}
+
+	//the large itemsets of a level as Apriori keeps them
+	private ArrayList<Object> itemSets(List<Items> kSets) {
+		ArrayList<Object> itemSets = new ArrayList<Object>(kSets.size());
+		for(Items kSet : kSets) {
+			AprioriItemSet itemSet = new AprioriItemSet(m_instances.numInstances());
+			int[] items = new int[m_instances.numAttributes()];
+			Arrays.fill(items, -1);
+			for(int id : kSet.ids)
+				items[itemAttribute[id]] = id - firstItem[itemAttribute[id]];
+			itemSet.setItem(items);
+			itemSet.setCounter(kSet.support);
+			itemSets.add(itemSet);
+		}
+		return itemSets;
+	}
+
+	//Apriori.findRulesQuickly/findRulesBruteForce
+	@SuppressWarnings("unchecked")
+	private void findRules() throws Exception {
+		boolean bruteForce = m_significanceLevel != -1 || m_metricType != CONFIDENCE;
+		for(int j=1;j<m_Ls.size();j++) {
+			for(Object o : m_Ls.get(j)) {
+				AprioriItemSet itemSet = (AprioriItemSet) o;
+				ArrayList<Object>[] rules = bruteForce
+						? itemSet.generateRulesBruteForce(m_minMetric, m_metricType, m_hashtables, j+1, m_instances.numInstances(), m_significanceLevel)
+						: itemSet.generateRules(m_minMetric, m_hashtables, j+1);
+				for(int r=0;r<rules.length;r++)
+					m_allTheRules[r].addAll(rules[r]);
+			}
+		}
+	}
+
+	//Apriori's pruning of the rules above the upper bound of the support
+	private void pruneRulesForUpperBoundSupport() {
+		int necMaxSupport = (int) (m_upperBoundMinSupport*m_instances.numInstances() + 0.5);
+		ArrayList<Object>[] pruned = newRuleLists();
+		for(int i=0;i<m_allTheRules[0].size();i++) {
+			if(((ItemSet) m_allTheRules[1].get(i)).support() <= necMaxSupport) {
+				for(int r=0;r<6;r++)
+					pruned[r].add(m_allTheRules[r].get(i));
+			}
+		}
+		m_allTheRules = pruned;
+	}
+
+	//Apriori's ordering: stable by decreasing support, then the numRules best by the metric
+	private void sortRules() {
+		int n = m_allTheRules[0].size();
+		double[] keys = new double[n];
+		for(int i=0;i<n;i++)
+			keys[i] = -((ItemSet) m_allTheRules[1].get(i)).support();
+		int[] indices = Utils.stableSort(keys);
+		ArrayList<Object>[] bySupport = newRuleLists();
+		for(int i=n-1;i>=0;i--) {
+			for(int r=0;r<6;r++)
+				bySupport[r].add(m_allTheRules[r].get(indices[i]));
+		}
+		for(int i=0;i<n;i++)
+			keys[i] = (Double) bySupport[2 + m_metricType].get(i);
+		indices = Utils.stableSort(keys);
+		m_allTheRules = newRuleLists();
+		for(int i=n-1;i>=n-m_numRules && i>=0;i--) {
+			for(int r=0;r<6;r++)
+				m_allTheRules[r].add(bySupport[r].get(indices[i]));
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static ArrayList<Object>[] newRuleLists() {
+		ArrayList<Object>[] lists = new ArrayList[6];
+		for(int r=0;r<6;r++)
+			lists[r] = new ArrayList<Object>();
+		return lists;
+	}
+
+	/**
+	 * Item ids of an itemset in increasing order (so by attribute), and its support once counted.
+	 * Unlike ItemSet, which hashes to a weighted sum of its values, it spreads well in a hash table.
+	 */
+	private static final class Items {
+		final int[] ids;
+		final int hash;
+		int support;
+
+		Items(int[] ids) {
+			this.ids = ids;
+			this.hash = Arrays.hashCode(ids);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Items && Arrays.equals(ids, ((Items) o).ids);
+		}
+	}
+
+	/**
+	 * The supports of the large itemsets of a level, where generateRules looks up the premises
+	 * and consequences of the rules. Apriori fills a plain Hashtable, which puts itemsets with the
+	 * same weighted sum of values in the same bucket; here they go to a HashMap by their values.
+	 * Only the lookups generateRules does (get, containsKey) and put are supported.
+	 */
+	private static final class ItemSetTable extends Hashtable<ItemSet, Integer> {
+
+		private static final long serialVersionUID = -3097612365127459130L;
+
+		private final HashMap<Items, Integer> supports = new HashMap<Items, Integer>();
+
+		ItemSetTable(List<Object> itemSets) {
+			for(Object o : itemSets)
+				put((ItemSet) o, ((ItemSet) o).counter());
+		}
+
+		@Override
+		public synchronized Integer put(ItemSet itemSet, Integer support) {
+			return supports.put(new Items(itemSet.items().clone()), support);
+		}
+
+		@Override
+		public synchronized Integer get(Object itemSet) {
+			return itemSet instanceof ItemSet ? supports.get(new Items(((ItemSet) itemSet).items())) : null;
+		}
+
+		@Override
+		public synchronized boolean containsKey(Object itemSet) {
+			return get(itemSet) != null;
+		}
+
+		@Override
+		public synchronized int size() {
+			return supports.size();
+		}
+
+		@Override
+		public synchronized boolean isEmpty() {
+			return supports.isEmpty();
+		}
+	}
+
+	/**
+	 * Command line, as for Apriori (e.g. -t src/data/weatherNominal.arff -N 10);
+	 * see AssocRules for a demo.
+	 */
+	public static void main(String[] argv) {
+		runAssociator(new FastApriori(), argv);
+	}
+}
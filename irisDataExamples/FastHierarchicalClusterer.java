@@ -0,0 +1,696 @@
+package irisDataExamples;
+
+/**
+ * HierarchicalClusterer on primitive arrays, for single, complete and average link.
+ *
+ * HierarchicalClusterer keeps a double matrix of all the distances plus a priority queue of
+ * Tuple objects, and after every merge recomputes the distance of the new cluster to every other
+ * one from all the pairs of their members through the DistanceFunction: O(n^2) objects and up to
+ * O(n^3) time. Here the distances come from a DistanceKernel (Euclidean, Manhattan, Chebyshev)
+ * and the distance of a merged cluster is updated from the two it comes from (minimum, maximum
+ * or size-weighted mean), with two engines:
+ *  - up to exactOrderLimit rows (2000 by default), a condensed double matrix and a priority
+ *    queue in primitive arrays that does the same operations as the java.util.PriorityQueue of
+ *    HierarchicalClusterer, so clusters are merged in the same order, ties included, and the
+ *    hierarchy and its Newick output are the same (average link up to rounding);
+ *  - above it, for single link a minimum spanning tree (Prim) with the distances computed on the
+ *    fly, in linear memory; for complete and average link a condensed float matrix kept off-heap
+ *    (direct buffers of at most 1 GB, so it is not limited by the array size; 100000 rows take
+ *    20 GB, see -XX:MaxDirectMemorySize) and a nearest-neighbor chain. The merges are then sorted by distance: the clusters and
+ *    heights are those of HierarchicalClusterer, but among merges at exactly the same distance
+ *    the hierarchy can be built in another order.
+ * The distances are computed in parallel blocks of rows on the common pool. Other link types and
+ * distance functions are left to HierarchicalClusterer.
+ *
+ * New instances go to the cluster of the nearest training row, as in HierarchicalClusterer, and
+ * batches (as ClusterEvaluation sends them) are assigned in parallel.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+import weka.clusterers.HierarchicalClusterer;
+import weka.core.Instance;
+import weka.core.Instances;
+
+public class FastHierarchicalClusterer extends HierarchicalClusterer implements weka.core.BatchPredictor {
+
+	private static final long serialVersionUID = 2794306533218473609L;
+
+	//ids of HierarchicalClusterer.TAGS_LINK_TYPE
+	private static final int SINGLE = 0;
+	private static final int COMPLETE = 1;
+	private static final int AVERAGE = 2;
+
+	private int exactOrderLimit = 2000;
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+	private String batchSize = "100";
+	//set by main: ClusterEvaluation's command line counts only the rows it scores one by one, and
+	//without them prints the Clustered Instances of a batch predictor with no field width
+	private transient boolean rowByRow;
+
+	//null if the clustering was left to HierarchicalClusterer
+	private DistanceKernel kernel;
+	private Instances data;
+	private int[] clusterNr;
+	//root node of every cluster, -1 for a cluster of one row
+	private int[] clusterNode;
+
+	//hierarchy: a child is a node (>= 0) or the row ~child (< 0)
+	private int numNodes;
+	private int[] left;
+	private int[] right;
+	private double[] leftLength;
+	private double[] rightLength;
+	private double[] height;
+
+	//during the build: node of the cluster in every slot (the smallest row of the cluster) and parent slot
+	private transient int[] slotNode;
+	private transient int[] parent;
+
+	/**
+	 * Number of rows up to which clusters are merged in the order of HierarchicalClusterer.
+	 */
+	public void setExactOrderLimit(int exactOrderLimit) {
+		this.exactOrderLimit = exactOrderLimit;
+	}
+
+	public int getExactOrderLimit() {
+		return exactOrderLimit;
+	}
+
+	public void setNumThreads(int numThreads) {
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	@Override
+	public void buildClusterer(Instances data) throws Exception {
+		int linkType = getLinkType().getSelectedTag().getID();
+		m_DistanceFunction.setInstances(data);
+		kernel = linkType == SINGLE || linkType == COMPLETE || linkType == AVERAGE ? DistanceKernel.of(m_DistanceFunction, data) : null;
+		if(kernel == null) {
+			super.buildClusterer(data);
+			return;
+		}
+		this.data = data;
+		int n = data.numInstances();
+		if(n == 0)
+			return;
+
+		left = new int[Math.max(0, n-1)];
+		right = new int[left.length];
+		leftLength = new double[left.length];
+		rightLength = new double[left.length];
+		height = new double[left.length];
+		numNodes = 0;
+		slotNode = new int[n];
+		Arrays.fill(slotNode, -1);
+		parent = new int[n];
+		for(int i=0;i<n;i++)
+			parent[i] = i;
+
+		int numMerges = Math.max(0, n - getNumClusters());
+		if(n <= exactOrderLimit)
+			queueClustering(linkType, numMerges);
+		else {
+			double[] merges = linkType == SINGLE ? spanningTree() : nearestNeighborChain(linkType);
+			replay(merges, numMerges);
+		}
+
+		//clusters numbered by their smallest row, as in HierarchicalClusterer
+		clusterNr = new int[n];
+		clusterNode = new int[getNumClusters()];
+		int[] numberOfSlot = new int[n];
+		int numClusters = 0;
+		for(int i=0;i<n;i++) {
+			if(find(i) == i) {
+				if(numClusters < clusterNode.length)
+					clusterNode[numClusters] = slotNode[i];
+				numberOfSlot[i] = numClusters++;
+			}
+			clusterNr[i] = numberOfSlot[find(i)];
+		}
+		for(int c=numClusters;c<clusterNode.length;c++)
+			clusterNode[c] = -1;
+		slotNode = null;
+		parent = null;
+	}
+
+	//slot (smallest row) of the cluster of row i
+	private int find(int i) {
+		while(parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+
+	//HierarchicalClusterer.merge: the cluster in slot i2 joins the one in slot i1
+	private void merge(int i1, int i2, double dist1, double dist2) {
+		if(i1 > i2) {
+			int h = i1;
+			i1 = i2;
+			i2 = h;
+			double f = dist1;
+			dist1 = dist2;
+			dist2 = f;
+		}
+		int node = numNodes++;
+		left[node] = slotNode[i1] < 0 ? ~i1 : slotNode[i1];
+		right[node] = slotNode[i2] < 0 ? ~i2 : slotNode[i2];
+		if(m_bDistanceIsBranchLength) {
+			leftLength[node] = dist1;
+			rightLength[node] = dist2;
+			height[node] = dist1 + (left[node] >= 0 ? height[left[node]] : 0);
+		} else {
+			height[node] = dist1;
+			leftLength[node] = left[node] >= 0 ? dist1 - height[left[node]] : dist1;
+			rightLength[node] = right[node] >= 0 ? dist2 - height[right[node]] : dist2;
+		}
+		slotNode[i1] = node;
+		parent[i2] = i1;
+	}
+
+	/*
+	 * Exact order engine
+	 */
+
+	//HierarchicalClusterer.doLinkClustering with the distances of the clusters kept in the matrix
+	private void queueClustering(int linkType, int numMerges) throws Exception {
+		final int n = data.numInstances();
+		final double[] dist = new double[(int) ((long) n*(n-1)/2)];
+		fillRows(n, new RowTask() {
+			public void fill(int i) {
+				long k = index(n, i, i+1);
+				for(int j=i+1;j<n;j++)
+					dist[(int) k++] = kernel.distance(i, j);
+			}
+		});
+
+		int[] size = new int[n];
+		Arrays.fill(size, 1);
+		//last merge that changed every slot: a queued pair is out of date (its sizes in
+		//HierarchicalClusterer differ) once one of its slots changed after it was queued
+		int[] changed = new int[n];
+		Arrays.fill(changed, -1);
+		TupleQueue queue = new TupleQueue(dist.length + (long) n*n/2);
+		int k = 0;
+		for(int i=0;i<n;i++) {
+			for(int j=i+1;j<n;j++)
+				queue.add(dist[k++], i, j, -1);
+		}
+		for(int m=0;m<numMerges;m++) {
+			while(changed[queue.first(0)] > queue.time[0] || changed[queue.second(0)] > queue.time[0])
+				queue.poll();
+			int i1 = queue.first(0);
+			int i2 = queue.second(0);
+			double d = queue.dist[0];
+			queue.poll();
+			merge(i1, i2, d, d);
+			for(int i=0;i<n;i++) {
+				if(i != i1 && i != i2 && size[i] != 0) {
+					int a = (int) index(n, Math.min(i1, i), Math.max(i1, i));
+					int b = (int) index(n, Math.min(i2, i), Math.max(i2, i));
+					dist[a] = link(linkType, dist[a], size[i1], dist[b], size[i2]);
+				}
+			}
+			size[i1] += size[i2];
+			size[i2] = 0;
+			changed[i1] = m;
+			changed[i2] = m;
+			for(int i=0;i<n;i++) {
+				if(i != i1 && size[i] != 0) {
+					int a = Math.min(i1, i);
+					int b = Math.max(i1, i);
+					queue.add(dist[(int) index(n, a, b)], a, b, m);
+				}
+			}
+		}
+	}
+
+	//distance of the merge of clusters a and b to another cluster, from the distances of a and b to it
+	private static double link(int linkType, double distA, int sizeA, double distB, int sizeB) {
+		if(linkType == SINGLE)
+			return Math.min(distA, distB);
+		if(linkType == COMPLETE)
+			return Math.max(distA, distB);
+		return (sizeA*distA + sizeB*distB)/(sizeA + sizeB);
+	}
+
+	/**
+	 * The PriorityQueue of Tuples of HierarchicalClusterer in parallel arrays (distance, pair of
+	 * slots, merge after which it was queued): add and poll move the entries exactly as
+	 * PriorityQueue.offer and poll do, so equal distances come out in the same order.
+	 */
+	private static class TupleQueue {
+		double[] dist;
+		long[] pair;
+		int[] time;
+		int size;
+
+		TupleQueue(long capacity) {
+			int c = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, capacity));
+			dist = new double[c];
+			pair = new long[c];
+			time = new int[c];
+		}
+
+		int first(int k) {
+			return (int) (pair[k] >>> 32);
+		}
+
+		int second(int k) {
+			return (int) pair[k];
+		}
+
+		void add(double d, int a, int b, int t) {
+			if(size == dist.length)
+				grow();
+			long p = (long) a << 32 | b;
+			int k = size++;
+			while(k > 0) {
+				int parent = (k-1) >>> 1;
+				if(!(d < dist[parent]))
+					break;
+				move(parent, k);
+				k = parent;
+			}
+			dist[k] = d;
+			pair[k] = p;
+			time[k] = t;
+		}
+
+		void poll() {
+			int n = --size;
+			if(n == 0)
+				return;
+			double d = dist[n];
+			long p = pair[n];
+			int t = time[n];
+			int k = 0;
+			int half = n >>> 1;
+			while(k < half) {
+				int child = 2*k + 1;
+				int r = child + 1;
+				//compare(c, right) > 0 and compare(key, c) <= 0 of TupleComparator
+				if(r < n && !(dist[child] < dist[r]) && dist[child] != dist[r])
+					child = r;
+				if(d < dist[child] || d == dist[child])
+					break;
+				move(child, k);
+				k = child;
+			}
+			dist[k] = d;
+			pair[k] = p;
+			time[k] = t;
+		}
+
+		private void move(int from, int to) {
+			dist[to] = dist[from];
+			pair[to] = pair[from];
+			time[to] = time[from];
+		}
+
+		private void grow() {
+			int c = (int) Math.min(Integer.MAX_VALUE - 8, dist.length + (long) dist.length/2);
+			dist = Arrays.copyOf(dist, c);
+			pair = Arrays.copyOf(pair, c);
+			time = Arrays.copyOf(time, c);
+		}
+	}
+
+	/*
+	 * Large data engines: all the merges as (row, row, distance), then replayed in distance order
+	 */
+
+	//Prim: every step adds the row nearest to the tree, whose edge is a single link merge
+	private double[] spanningTree() throws Exception {
+		final int n = data.numInstances();
+		final double[] best = new double[n];
+		final int[] from = new int[n];
+		final boolean[] inTree = new boolean[n];
+		Arrays.fill(best, Double.POSITIVE_INFINITY);
+		double[] merges = new double[3*(n-1)];
+		int last = 0;
+		inTree[0] = true;
+		//rows scanned in order, in about numThreads ranges
+		final int numRanges = (int) Math.max(1, Math.min(numThreads, n/4096L));
+		for(int m=0;m<n-1;m++) {
+			final int added = last;
+			List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+			for(int r=0;r<numRanges;r++) {
+				final int lo = (int) ((long) n*r/numRanges);
+				final int hi = (int) ((long) n*(r+1)/numRanges);
+				tasks.add(new Callable<Integer>() {
+					public Integer call() {
+						int nearest = -1;
+						double nearestDist = Double.POSITIVE_INFINITY;
+						for(int k=lo;k<hi;k++) {
+							if(inTree[k])
+								continue;
+							double d = kernel.distance(added, k);
+							if(d < best[k]) {
+								best[k] = d;
+								from[k] = added;
+							}
+							if(nearest < 0 || best[k] < nearestDist) {
+								nearest = k;
+								nearestDist = best[k];
+							}
+						}
+						return nearest;
+					}
+				});
+			}
+			//nearest row to the tree, the first one on a tie
+			int nearest = -1;
+			for(int k : Tasks.run(tasks)) {
+				if(k >= 0 && (nearest < 0 || best[k] < best[nearest]))
+					nearest = k;
+			}
+			last = nearest;
+			inTree[last] = true;
+			merges[3*m] = from[last];
+			merges[3*m+1] = last;
+			merges[3*m+2] = best[last];
+		}
+		return merges;
+	}
+
+	//nearest-neighbor chain on the condensed matrix, updated in place as clusters merge
+	private double[] nearestNeighborChain(int linkType) throws Exception {
+		final int n = data.numInstances();
+		final CondensedMatrix dist = new CondensedMatrix(n);
+		fillRows(n, new RowTask() {
+			public void fill(int i) {
+				for(int j=i+1;j<n;j++)
+					dist.set(i, j, (float) kernel.distance(i, j));
+			}
+		});
+
+		int[] size = new int[n];
+		Arrays.fill(size, 1);
+		//active slots as a linked list in increasing order
+		int[] next = new int[n+1];
+		int[] prev = new int[n+1];
+		for(int i=0;i<=n;i++) {
+			next[i] = i+1;
+			prev[i] = i-1;
+		}
+		int first = 0;
+		int[] chain = new int[n];
+		int chainLength = 0;
+		double[] merges = new double[3*(n-1)];
+		for(int m=0;m<n-1;) {
+			if(chainLength == 0)
+				chain[chainLength++] = first;
+			int a = chain[chainLength-1];
+			int previous = chainLength > 1 ? chain[chainLength-2] : -1;
+			//nearest active cluster, the previous one in the chain on a tie
+			int b = previous;
+			float bestDist = previous >= 0 ? dist.get(a, previous) : Float.POSITIVE_INFINITY;
+			for(int k=first;k<n;k=next[k]) {
+				if(k != a) {
+					float d = dist.get(a, k);
+					if(d < bestDist) {
+						bestDist = d;
+						b = k;
+					}
+				}
+			}
+			if(b != previous) {
+				chain[chainLength++] = b;
+				continue;
+			}
+			chainLength -= 2;
+			int keep = Math.min(a, b);
+			int drop = Math.max(a, b);
+			for(int k=first;k<n;k=next[k]) {
+				if(k != a && k != b)
+					dist.set(keep, k, (float) link(linkType, dist.get(keep, k), size[keep], dist.get(drop, k), size[drop]));
+			}
+			size[keep] += size[drop];
+			//unlink drop
+			if(drop == first)
+				first = next[drop];
+			else
+				next[prev[drop]] = next[drop];
+			prev[next[drop]] = prev[drop];
+			merges[3*m] = keep;
+			merges[3*m+1] = drop;
+			merges[3*m+2] = bestDist;
+			m++;
+		}
+		return merges;
+	}
+
+	//applies the first numMerges merges in increasing distance (then production) order
+	private void replay(double[] merges, int numMerges) {
+		int count = merges.length/3;
+		Integer[] order = new Integer[count];
+		for(int m=0;m<count;m++)
+			order[m] = m;
+		final double[] dist = new double[count];
+		for(int m=0;m<count;m++)
+			dist[m] = merges[3*m+2];
+		Arrays.sort(order, (x, y) -> Double.compare(dist[x], dist[y]));
+		for(int m=0;m<numMerges;m++) {
+			int k = order[m];
+			merge(find((int) merges[3*k]), find((int) merges[3*k+1]), dist[k], dist[k]);
+		}
+	}
+
+	/**
+	 * Condensed (upper triangle, row by row) float matrix of n rows, off-heap.
+	 */
+	static class CondensedMatrix {
+
+		private static final int CHUNK_BITS = 28;
+		private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+		private final int n;
+		private final FloatBuffer[] chunks;
+
+		CondensedMatrix(int n) {
+			this.n = n;
+			long size = (long) n*(n-1)/2;
+			chunks = new FloatBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_BITS)];
+			for(int c=0;c<chunks.length;c++) {
+				long length = Math.min(1L << CHUNK_BITS, size - ((long) c << CHUNK_BITS));
+				chunks[c] = ByteBuffer.allocateDirect((int) (4*length)).order(ByteOrder.nativeOrder()).asFloatBuffer();
+			}
+		}
+
+		float get(int i, int j) {
+			long k = i < j ? index(n, i, j) : index(n, j, i);
+			return chunks[(int) (k >>> CHUNK_BITS)].get((int) (k & CHUNK_MASK));
+		}
+
+		void set(int i, int j, float value) {
+			long k = i < j ? index(n, i, j) : index(n, j, i);
+			chunks[(int) (k >>> CHUNK_BITS)].put((int) (k & CHUNK_MASK), value);
+		}
+	}
+
+	//position of pair (i, j), i < j, in a condensed matrix of n rows
+	private static long index(int n, int i, int j) {
+		return (long) i*(2L*n - i - 1)/2 + (j - i - 1);
+	}
+
+	private interface RowTask {
+		void fill(int i) throws Exception;
+	}
+
+	//rows [0, n) in numThreads*4 blocks with about the same number of pairs after the diagonal
+	private void fillRows(int n, final RowTask task) throws Exception {
+		long total = (long) n*(n-1)/2;
+		int numBlocks = (int) Math.max(1, Math.min(4L*numThreads, total/100000));
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		int start = 0;
+		for(int b=0;b<numBlocks;b++) {
+			long target = total*(b+1)/numBlocks;
+			int end = start;
+			while(end < n && index(n, end, n) < target)
+				end++;
+			if(b == numBlocks-1)
+				end = n;
+			final int from = start;
+			final int to = end;
+			tasks.add(new Callable<Void>() {
+				public Void call() throws Exception {
+					for(int i=from;i<to;i++)
+						task.fill(i);
+					return null;
+				}
+			});
+			start = end;
+		}
+		Tasks.run(tasks);
+	}
+
+	/*
+	 * Assignment and output, as in HierarchicalClusterer
+	 */
+
+	@Override
+	public int clusterInstance(Instance instance) throws Exception {
+		if(kernel == null)
+			return super.clusterInstance(instance);
+		if(data.numInstances() == 0)
+			return 0;
+		return clusterNr[kernel.nearest(kernel.encode(instance))];
+	}
+
+	@Override
+	public int numberOfClusters() throws Exception {
+		if(kernel == null)
+			return super.numberOfClusters();
+		return Math.min(getNumClusters(), data.numInstances());
+	}
+
+	public double[][] distributionsForInstances(final Instances insts) throws Exception {
+		final double[][] result = new double[insts.numInstances()][];
+		int n = insts.numInstances();
+		int numRanges = (int) Math.max(1, Math.min(numThreads, n/256L));
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for(int r=0;r<numRanges;r++) {
+			final int from = (int) ((long) n*r/numRanges);
+			final int to = (int) ((long) n*(r+1)/numRanges);
+			tasks.add(new Callable<Void>() {
+				public Void call() throws Exception {
+					for(int i=from;i<to;i++)
+						result[i] = distributionForInstance(insts.instance(i));
+					return null;
+				}
+			});
+		}
+		Tasks.run(tasks);
+		return result;
+	}
+
+	public boolean implementsMoreEfficientBatchPrediction() {
+		return kernel != null && !rowByRow;
+	}
+
+	public void setBatchSize(String size) {
+		batchSize = size;
+	}
+
+	public String getBatchSize() {
+		return batchSize;
+	}
+
+	//attribute of the leaf labels: the class, else the first string attribute, else the last one
+	private int labelIndex() {
+		int attIndex = data.classIndex();
+		if(attIndex < 0) {
+			attIndex = 0;
+			while(attIndex < data.numAttributes()-1 && !data.attribute(attIndex).isString())
+				attIndex++;
+		}
+		return attIndex;
+	}
+
+	@Override
+	public String toString() {
+		if(kernel == null)
+			return super.toString();
+		StringBuilder buf = new StringBuilder();
+		try {
+			if(getPrintNewick() && numberOfClusters() > 0) {
+				for(int c=0;c<clusterNode.length;c++) {
+					if(clusterNode[c] >= 0)
+						buf.append("Cluster " + c + "\n").append(newick(clusterNode[c])).append("\n\n");
+				}
+			}
+		} catch(Exception e) {
+			e.printStackTrace();
+		}
+		return buf.toString();
+	}
+
+	@Override
+	public String graph() throws Exception {
+		if(kernel == null)
+			return super.graph();
+		if(numberOfClusters() == 0)
+			return "Newick:(no,clusters)";
+		return "Newick:" + (clusterNode[0] >= 0 ? newick(clusterNode[0]) : label(clusterNr.length == 0 ? 0 : firstRow(0), labelIndex()));
+	}
+
+	private int firstRow(int cluster) {
+		for(int i=0;i<clusterNr.length;i++) {
+			if(clusterNr[i] == cluster)
+				return i;
+		}
+		return 0;
+	}
+
+	private String label(int row, int attIndex) {
+		Instance inst = data.instance(row);
+		return data.attribute(attIndex).isString() ? inst.stringValue(attIndex) : String.valueOf(inst.value(attIndex));
+	}
+
+	//Node.toString/toString2 without recursion (a single link hierarchy can be as deep as the data)
+	private String newick(int root) {
+		NumberFormat nf = NumberFormat.getNumberInstance(new Locale("en", "US"));
+		DecimalFormat format = (DecimalFormat) nf;
+		format.applyPattern("#.#####");
+		int attIndex = labelIndex();
+		StringBuilder buf = new StringBuilder();
+		//node*3 + step (0: opening, 1: after the left child, 2: after the right child)
+		int[] stack = new int[2*numNodes + 2];
+		int top = 0;
+		stack[top++] = 3*root;
+		while(top > 0) {
+			int frame = stack[--top];
+			int node = frame/3;
+			switch(frame%3) {
+			case 0:
+				buf.append('(');
+				stack[top++] = 3*node + 1;
+				if(left[node] >= 0)
+					stack[top++] = 3*left[node];
+				else
+					buf.append(label(~left[node], attIndex));
+				break;
+			case 1:
+				buf.append(':').append(format.format(leftLength[node])).append(',');
+				stack[top++] = 3*node + 2;
+				if(right[node] >= 0)
+					stack[top++] = 3*right[node];
+				else
+					buf.append(label(~right[node], attIndex));
+				break;
+			default:
+				buf.append(':').append(format.format(rightLength[node])).append(')');
+			}
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * Command line, as for HierarchicalClusterer (e.g. -t src/data/iris.arff -N 3
+	 * -A weka.core.ChebyshevDistance); see Clustering for a demo.
+	 */
+	public static void main(String[] argv) {
+		FastHierarchicalClusterer clusterer = new FastHierarchicalClusterer();
+		clusterer.rowByRow = true;
+		runClusterer(clusterer, argv);
+	}
+}
@@ -0,0 +1,844 @@
+package irisDataExamples;
+
+/**
+ * SimpleKMeans with parallel Lloyd iterations, a mini-batch mode and streaming from chunks.
+ *
+ * SimpleKMeans assigns every row through the DistanceFunction (normalizing both instances
+ * value by value on every call) and then copies every row into one Instances per cluster to
+ * move the centroids, once per iteration. Here the rows are encoded once by a DistanceKernel and:
+ *  - Lloyd (default): the rows are assigned to the nearest centroid in parallel ranges on the
+ *    common pool, and the centroids are moved from per-cluster sums filled in parallel by
+ *    attribute, each sum taking the rows in the order SimpleKMeans does. Initialization
+ *    (random or k-means++, setInitializationMethod), iterations, empty clusters and errors
+ *    follow SimpleKMeans, so the clusters and the output are the same as SimpleKMeans with the
+ *    same seed.
+ *  - mini-batch (setMiniBatchSize): every iteration assigns miniBatchSize random rows and moves
+ *    their centroids towards them with a per-center learning rate (Sculley, "Web-scale k-means
+ *    clustering"), so an iteration costs the same for any number of rows. The iterations stop
+ *    at maxIterations or once a moving average of the batch errors has not improved for 10
+ *    batches; the rows are then assigned once to the final centroids for the sizes, errors and
+ *    statistics.
+ *  - streaming (learn): the chunks of a ChunkedDataSource are mini-batches (split into
+ *    miniBatchSize rows if set), the first one initializes the centroids and the normalization
+ *    ranges grow with the data, so the data is never in memory at once. Sizes, errors and
+ *    statistics count every row with the centroids at the time it was assigned, and missing
+ *    values are ignored (as with -M) and replaced by the full means and modes afterwards.
+ * Manhattan distance (medians), canopies and the other initializations are left to SimpleKMeans.
+ *
+ * New instances are assigned through the same kernel, in parallel for batches.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import weka.classifiers.rules.DecisionTableHashKey;
+import weka.clusterers.SimpleKMeans;
+import weka.core.DenseInstance;
+import weka.core.EuclideanDistance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+import weka.filters.Filter;
+import weka.filters.unsupervised.attribute.ReplaceMissingValues;
+
+public class FastKMeans extends SimpleKMeans implements weka.core.BatchPredictor {
+
+	private static final long serialVersionUID = -4470632716514934780L;
+
+	//rows per parallel task below which a range is not split further
+	private static final int MIN_ROWS_PER_TASK = 1024;
+	//mini-batches without a lower average error before the iterations stop
+	private static final int MAX_NO_IMPROVEMENT = 10;
+
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+	private int miniBatchSize;
+	private String batchSize = "100";
+	//set by main: ClusterEvaluation's command line counts only the rows it scores one by one, and
+	//without them prints the Clustered Instances of a batch predictor with no field width
+	private transient boolean rowByRow;
+
+	//encoding of new instances (no rows), null if the clustering was left to SimpleKMeans
+	private DistanceKernel encoder;
+	//m_ClusterCentroids, encoded
+	private double[][] centers;
+	//values for missing ones when ReplaceMissingValues was not run (no missing values to train on)
+	private double[] replacement;
+
+	/**
+	 * Rows per mini-batch iteration; 0 (default) runs Lloyd iterations over all the rows.
+	 */
+	public void setMiniBatchSize(int miniBatchSize) {
+		this.miniBatchSize = Math.max(0, miniBatchSize);
+	}
+
+	public int getMiniBatchSize() {
+		return miniBatchSize;
+	}
+
+	public void setNumThreads(int numThreads) {
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	//settings the kernel covers
+	private boolean handled() {
+		return m_DistanceFunction.getClass() == EuclideanDistance.class && !m_speedUpDistanceCompWithCanopies
+				&& (m_initializationMethod == RANDOM || m_initializationMethod == KMEANS_PLUS_PLUS);
+	}
+
+	@Override
+	public void buildClusterer(Instances data) throws Exception {
+		if(!handled()) {
+			encoder = null;
+			super.buildClusterer(data);
+			return;
+		}
+		m_canopyClusters = null;
+		getCapabilities().testWithFail(data);
+		m_Iterations = 0;
+
+		Instances instances = prepare(data);
+		int n = instances.numInstances();
+		//position of every row in SimpleKMeans' copy of the data, which random initialization shuffles
+		int[] order = identity(n);
+		ClusterSums full = new ClusterSums(instances, 1);
+		full.add(instances, order, new int[n]);
+		setFullStatistics(instances, full);
+
+		m_ClusterCentroids = new Instances(instances, m_NumClusters);
+		m_DistanceFunction.setInstances(instances);
+		DistanceKernel kernel = DistanceKernel.of(m_DistanceFunction, instances);
+		encoder = DistanceKernel.of(m_DistanceFunction, new Instances(instances, 0));
+
+		if(m_initializationMethod == KMEANS_PLUS_PLUS)
+			kMeansPlusPlus(instances, kernel);
+		else
+			randomStart(instances, order);
+		m_initialStartPoints = new Instances(m_ClusterCentroids);
+		m_NumClusters = m_ClusterCentroids.numInstances();
+		if(m_PreserveOrder)
+			order = identity(n);
+		m_squaredErrors = new double[m_NumClusters];
+		m_ClusterNominalCounts = new double[m_NumClusters][instances.numAttributes()][0];
+		m_ClusterMissingCounts = new double[m_NumClusters][instances.numAttributes()];
+
+		ClusterSums sums = miniBatchSize > 0 ? miniBatch(instances, kernel, order) : lloyd(instances, kernel, order);
+		if(!m_FastDistanceCalc)
+			squaredErrors(instances, kernel, order);
+		setClusterStatistics(instances, sums);
+		m_DistanceFunction.clean();
+	}
+
+	//missing values replaced as SimpleKMeans does, data itself if it has none (there is no class to drop)
+	private Instances prepare(Instances data) throws Exception {
+		Instances instances = data;
+		m_ReplaceMissingFilter = new ReplaceMissingValues();
+		replacement = null;
+		if(!m_dontReplaceMissing) {
+			if(hasMissingValues(instances)) {
+				m_ReplaceMissingFilter.setInputFormat(instances);
+				instances = Filter.useFilter(instances, m_ReplaceMissingFilter);
+			} else
+				replacement = modesAndMeans(instances);
+		}
+		return instances;
+	}
+
+	private static boolean hasMissingValues(Instances data) {
+		for(int i=0;i<data.numInstances();i++) {
+			if(data.instance(i).hasMissingValue())
+				return true;
+		}
+		return false;
+	}
+
+	//ReplaceMissingValues.batchFinished: the values the filter would put in place of missing ones
+	private static double[] modesAndMeans(Instances data) {
+		int numAtts = data.numAttributes();
+		double sumOfWeights = data.sumOfWeights();
+		double[][] counts = new double[numAtts][];
+		double[] sums = new double[numAtts];
+		double[] results = new double[numAtts];
+		for(int j=0;j<numAtts;j++) {
+			if(data.attribute(j).isNominal()) {
+				counts[j] = new double[data.attribute(j).numValues()];
+				if(counts[j].length > 0)
+					counts[j][0] = sumOfWeights;
+			}
+			sums[j] = sumOfWeights;
+		}
+		for(int i=0;i<data.numInstances();i++) {
+			Instance inst = data.instance(i);
+			for(int v=0;v<inst.numValues();v++) {
+				int j = inst.index(v);
+				if(data.attribute(j).isNominal()) {
+					if(counts[j].length > 0) {
+						counts[j][(int) inst.valueSparse(v)] += inst.weight();
+						counts[j][0] -= inst.weight();
+					}
+				} else if(data.attribute(j).isNumeric())
+					results[j] += inst.weight()*inst.valueSparse(v);
+			}
+		}
+		double[] modesAndMeans = new double[numAtts];
+		for(int j=0;j<numAtts;j++) {
+			if(data.attribute(j).isNominal())
+				modesAndMeans[j] = counts[j].length == 0 ? Utils.missingValue() : Utils.maxIndex(counts[j]);
+			else if(data.attribute(j).isNumeric() && Utils.gr(sums[j], 0))
+				modesAndMeans[j] = results[j]/sums[j];
+		}
+		return modesAndMeans;
+	}
+
+	//"Full Data" column of toString, as SimpleKMeans.buildClusterer sets it
+	private void setFullStatistics(Instances header, ClusterSums full) {
+		m_FullMeansOrMediansOrModes = full.centroid(0);
+		m_FullMissingCounts = full.weightMissing[0];
+		m_FullNominalCounts = full.counts[0];
+		if(m_displayStdDevs)
+			m_FullStdDevs = full.variances(0);
+		for(int j=0;j<header.numAttributes();j++) {
+			if(header.attribute(j).isNumeric()) {
+				if(m_displayStdDevs)
+					m_FullStdDevs[j] = Math.sqrt(m_FullStdDevs[j]);
+				if(m_FullMissingCounts[j] == full.weight[0])
+					m_FullMeansOrMediansOrModes[j] = Double.NaN;
+			} else if(m_FullMissingCounts[j] > m_FullNominalCounts[j][Utils.maxIndex(m_FullNominalCounts[j])])
+				m_FullMeansOrMediansOrModes[j] = -1;
+		}
+	}
+
+	private static int[] identity(int n) {
+		int[] order = new int[n];
+		for(int i=0;i<n;i++)
+			order[i] = i;
+		return order;
+	}
+
+	//SimpleKMeans' random initialization: distinct rows of a seeded shuffle
+	private void randomStart(Instances instances, int[] order) throws Exception {
+		Random random = new Random(getSeed());
+		Set<DecisionTableHashKey> chosen = new HashSet<DecisionTableHashKey>();
+		for(int j=instances.numInstances()-1;j>=0;j--) {
+			int index = random.nextInt(j+1);
+			Instance inst = instances.instance(order[index]);
+			if(chosen.add(new DecisionTableHashKey(inst, instances.numAttributes(), true)))
+				m_ClusterCentroids.add(inst);
+			int swap = order[j];
+			order[j] = order[index];
+			order[index] = swap;
+			if(m_ClusterCentroids.numInstances() == m_NumClusters)
+				break;
+		}
+	}
+
+	//SimpleKMeans.kMeansPlusPlusInit, with the distances to the last center updated in parallel
+	private void kMeansPlusPlus(final Instances instances, final DistanceKernel kernel) throws Exception {
+		Random random = new Random(getSeed());
+		Set<DecisionTableHashKey> chosen = new HashSet<DecisionTableHashKey>();
+		final int n = instances.numInstances();
+		int index = random.nextInt(n);
+		m_ClusterCentroids.add(instances.instance(index));
+		chosen.add(new DecisionTableHashKey(instances.instance(index), instances.numAttributes(), true));
+		int remaining = n - 1;
+		if(m_NumClusters <= 1)
+			return;
+		final double[] distances = new double[n];
+		final int first = index;
+		forRanges(n, new RangeTask() {
+			public boolean run(int from, int to) {
+				for(int i=from;i<to;i++)
+					distances[i] = kernel.distance(i, first);
+				return false;
+			}
+		});
+		double[] cumProbs = new double[n];
+		for(int c=1;c<m_NumClusters;c++) {
+			double[] weights = distances.clone();
+			Utils.normalize(weights);
+			double sumOfProbs = 0;
+			for(int k=0;k<n;k++) {
+				sumOfProbs += weights[k];
+				cumProbs[k] = sumOfProbs;
+			}
+			cumProbs[n-1] = 1.0;
+			double prob = random.nextDouble();
+			int center = -1;
+			for(int k=0;k<n;k++) {
+				if(prob < cumProbs[k]) {
+					if(chosen.add(new DecisionTableHashKey(instances.instance(k), instances.numAttributes(), true)))
+						m_ClusterCentroids.add(instances.instance(k));
+					remaining--;
+					center = k;
+					break;
+				}
+			}
+			if(remaining == 0)
+				break;
+			final int last = center;
+			forRanges(n, new RangeTask() {
+				public boolean run(int from, int to) {
+					for(int k=from;k<to;k++) {
+						if(distances[k] > 0) {
+							double d = kernel.distance(k, last);
+							if(d < distances[k])
+								distances[k] = d;
+						}
+					}
+					return false;
+				}
+			});
+		}
+	}
+
+	//SimpleKMeans' iterations; returns the sums of the last assignment
+	private ClusterSums lloyd(Instances instances, DistanceKernel kernel, int[] order) throws Exception {
+		int numAtts = instances.numAttributes();
+		int[] assignments = new int[instances.numInstances()];
+		if(m_PreserveOrder)
+			m_Assignments = assignments;
+		centers = encode(m_ClusterCentroids);
+		ClusterSums sums = null;
+		boolean converged = false;
+		while(!converged) {
+			m_Iterations++;
+			converged = !assign(kernel, order, assignments);
+			sums = new ClusterSums(instances, m_NumClusters);
+			sums.add(instances, order, assignments);
+			//moveCentroid for every cluster with rows
+			m_ClusterCentroids = new Instances(instances, m_NumClusters);
+			int emptyClusterCount = 0;
+			for(int c=0;c<sums.numClusters;c++) {
+				if(sums.members[c] == 0) {
+					emptyClusterCount++;
+					continue;
+				}
+				m_ClusterCentroids.add(new DenseInstance(1.0, sums.centroid(c)));
+				m_ClusterMissingCounts[c] = sums.weightMissing[c];
+				m_ClusterNominalCounts[c] = sums.counts[c];
+			}
+			if(m_Iterations == m_MaxIterations)
+				converged = true;
+			if(emptyClusterCount > 0) {
+				m_NumClusters -= emptyClusterCount;
+				if(converged) {
+					int index = 0;
+					for(int c=0;c<sums.numClusters;c++) {
+						if(sums.members[c] > 0)
+							m_ClusterNominalCounts[index++] = sums.counts[c];
+					}
+				}
+			}
+			if(!converged)
+				m_ClusterNominalCounts = new double[m_NumClusters][numAtts][0];
+			centers = encode(m_ClusterCentroids);
+		}
+		return sums;
+	}
+
+	//nearest centroid of every row, in parallel ranges; true if any changed
+	private boolean assign(final DistanceKernel kernel, final int[] order, final int[] assignments) throws Exception {
+		final double[][] current = centers;
+		return forRanges(order.length, new RangeTask() {
+			public boolean run(int from, int to) {
+				boolean changed = false;
+				for(int p=from;p<to;p++) {
+					int c = kernel.nearestCenter(current, order[p]);
+					if(c != assignments[p]) {
+						changed = true;
+						assignments[p] = c;
+					}
+				}
+				return changed;
+			}
+		});
+	}
+
+	//mini-batch iterations until the (smoothed) error of the batches stops improving,
+	//then one assignment of all the rows; returns its sums
+	private ClusterSums miniBatch(Instances instances, DistanceKernel kernel, int[] order) throws Exception {
+		int n = instances.numInstances();
+		MovingCenters moving = new MovingCenters(m_ClusterCentroids);
+		centers = encode(m_ClusterCentroids);
+		Random random = new Random(getSeed());
+		int[] batch = new int[Math.min(miniBatchSize, n)];
+		int[] assignments = new int[batch.length];
+		//weight of a batch in the moving average of the errors: about the last n/batch rows
+		double alpha = Math.min(1, 2.0*batch.length/(n + 1));
+		double averageError = Double.NaN;
+		double bestError = Double.POSITIVE_INFINITY;
+		int noImprovement = 0;
+		while(m_Iterations < m_MaxIterations && n > 0 && noImprovement < MAX_NO_IMPROVEMENT) {
+			m_Iterations++;
+			for(int b=0;b<batch.length;b++)
+				batch[b] = random.nextInt(n);
+			assign(kernel, batch, assignments);
+			double error = 0;
+			for(int b=0;b<batch.length;b++) {
+				Instance inst = instances.instance(batch[b]);
+				double dist = kernel.distance(centers[assignments[b]], batch[b]);
+				error += dist*(dist*inst.weight());
+				moving.update(assignments[b], inst);
+			}
+			error /= batch.length;
+			averageError = Double.isNaN(averageError) ? error : averageError*(1 - alpha) + error*alpha;
+			if(averageError < bestError) {
+				bestError = averageError;
+				noImprovement = 0;
+			} else
+				noImprovement++;
+			m_ClusterCentroids = moving.centroids();
+			centers = encode(m_ClusterCentroids);
+		}
+		int[] all = new int[n];
+		assign(kernel, order, all);
+		ClusterSums sums = new ClusterSums(instances, m_NumClusters);
+		sums.add(instances, order, all);
+		dropEmptyClusters(sums, all);
+		return sums;
+	}
+
+	//removes the centroids without rows, renumbering the others (and the assignments)
+	private void dropEmptyClusters(ClusterSums sums, int[] assignments) {
+		int[] renumber = new int[sums.numClusters];
+		Instances kept = new Instances(m_ClusterCentroids, sums.numClusters);
+		int index = 0;
+		for(int c=0;c<sums.numClusters;c++) {
+			renumber[c] = index;
+			if(sums.members[c] > 0) {
+				kept.add(m_ClusterCentroids.instance(c));
+				m_ClusterMissingCounts[index] = sums.weightMissing[c];
+				m_ClusterNominalCounts[index] = sums.counts[c];
+				index++;
+			}
+		}
+		m_NumClusters = index;
+		m_ClusterCentroids = kept;
+		centers = encode(kept);
+		for(int i=0;i<assignments.length;i++)
+			assignments[i] = renumber[assignments[i]];
+		if(m_PreserveOrder)
+			m_Assignments = assignments;
+	}
+
+	//SimpleKMeans' errors: the squared Euclidean distance of every row to its nearest centroid
+	private void squaredErrors(final Instances instances, final DistanceKernel kernel, final int[] order) throws Exception {
+		final int[] nearest = new int[order.length];
+		final double[] errors = new double[order.length];
+		final double[][] current = centers;
+		forRanges(order.length, new RangeTask() {
+			public boolean run(int from, int to) {
+				for(int p=from;p<to;p++) {
+					double minDist = Integer.MAX_VALUE;
+					for(int c=0;c<current.length;c++) {
+						double dist = kernel.distance(current[c], order[p]);
+						if(dist < minDist) {
+							minDist = dist;
+							nearest[p] = c;
+						}
+					}
+					errors[p] = minDist*(minDist*instances.instance(order[p]).weight());
+				}
+				return false;
+			}
+		});
+		for(int p=0;p<order.length;p++)
+			m_squaredErrors[nearest[p]] += errors[p];
+	}
+
+	//sizes and standard deviations of the clusters with rows
+	private void setClusterStatistics(Instances header, ClusterSums sums) {
+		if(m_displayStdDevs)
+			m_ClusterStdDevs = new Instances(header, m_NumClusters);
+		m_ClusterSizes = new double[m_NumClusters];
+		int index = 0;
+		for(int c=0;c<sums.numClusters && index<m_NumClusters;c++) {
+			if(sums.members[c] == 0)
+				continue;
+			if(m_displayStdDevs) {
+				double[] stdDevs = sums.variances(c);
+				for(int j=0;j<header.numAttributes();j++)
+					stdDevs[j] = header.attribute(j).isNumeric() ? Math.sqrt(stdDevs[j]) : Utils.missingValue();
+				m_ClusterStdDevs.add(new DenseInstance(1.0, stdDevs));
+			}
+			m_ClusterSizes[index++] = sums.weight[c];
+		}
+	}
+
+	/**
+	 * Clusters source chunk by chunk with mini-batch updates, so the data is never held in
+	 * memory; the first chunk (with at least numClusters distinct rows) picks the initial
+	 * centroids. Returns the number of rows read.
+	 */
+	public long learn(ChunkedDataSource source) throws Exception {
+		if(!handled())
+			throw new IllegalArgumentException("Streaming needs the Euclidean distance and random or k-means++ initialization");
+		long numRows = 0;
+		m_Iterations = 0;
+		m_canopyClusters = null;
+		m_ReplaceMissingFilter = null;
+		Instances header = null;
+		MovingCenters moving = null;
+		ClusterSums sums = null;
+		ClusterSums full = null;
+		Instances chunk;
+		while((chunk = source.nextChunk()) != null) {
+			numRows += chunk.numInstances();
+			if(moving == null) {
+				getCapabilities().testWithFail(chunk);
+				header = new Instances(chunk, 0);
+				m_DistanceFunction.setInstances(chunk);
+				m_ClusterCentroids = new Instances(header, m_NumClusters);
+				DistanceKernel kernel = DistanceKernel.of(m_DistanceFunction, chunk);
+				if(m_initializationMethod == KMEANS_PLUS_PLUS)
+					kMeansPlusPlus(chunk, kernel);
+				else
+					randomStart(chunk, identity(chunk.numInstances()));
+				m_initialStartPoints = new Instances(m_ClusterCentroids);
+				m_NumClusters = m_ClusterCentroids.numInstances();
+				moving = new MovingCenters(m_ClusterCentroids);
+				sums = new ClusterSums(header, m_NumClusters);
+				full = new ClusterSums(header, 1);
+				m_squaredErrors = new double[m_NumClusters];
+			} else {
+				for(int i=0;i<chunk.numInstances();i++)
+					m_DistanceFunction.update(chunk.instance(i));
+			}
+			DistanceKernel kernel = DistanceKernel.of(m_DistanceFunction, chunk);
+			encoder = DistanceKernel.of(m_DistanceFunction, header);
+			int step = miniBatchSize > 0 ? miniBatchSize : chunk.numInstances();
+			for(int from=0;from<chunk.numInstances();from+=step) {
+				m_Iterations++;
+				int[] batch = new int[Math.min(step, chunk.numInstances() - from)];
+				for(int b=0;b<batch.length;b++)
+					batch[b] = from + b;
+				int[] assignments = new int[batch.length];
+				centers = encode(moving.centroids());
+				assign(kernel, batch, assignments);
+				for(int b=0;b<batch.length;b++) {
+					Instance inst = chunk.instance(batch[b]);
+					int c = assignments[b];
+					if(!m_FastDistanceCalc) {
+						double dist = kernel.distance(centers[c], batch[b]);
+						m_squaredErrors[c] += dist*(dist*inst.weight());
+					}
+					moving.update(c, inst);
+					sums.add(c, inst);
+					full.add(0, inst);
+				}
+			}
+		}
+		if(moving == null)
+			throw new IllegalArgumentException("No rows to cluster");
+
+		setFullStatistics(header, full);
+		replacement = full.centroid(0);
+		m_ClusterCentroids = moving.centroids();
+		m_ClusterNominalCounts = new double[m_NumClusters][header.numAttributes()][0];
+		m_ClusterMissingCounts = new double[m_NumClusters][header.numAttributes()];
+		double[] errors = m_squaredErrors;
+		dropEmptyClusters(sums, new int[0]);
+		//rows are not kept, nor their clusters
+		m_Assignments = null;
+		m_squaredErrors = new double[m_NumClusters];
+		for(int c=0, index=0;c<sums.numClusters;c++) {
+			if(sums.members[c] > 0)
+				m_squaredErrors[index++] = errors[c];
+		}
+		setClusterStatistics(header, sums);
+		m_DistanceFunction.clean();
+		return numRows;
+	}
+
+	@Override
+	public int clusterInstance(Instance instance) throws Exception {
+		if(encoder == null)
+			return super.clusterInstance(instance);
+		return encoder.nearestCenter(centers, encoder.encode(replaceMissing(instance)));
+	}
+
+	private Instance replaceMissing(Instance instance) throws Exception {
+		if(m_dontReplaceMissing || !instance.hasMissingValue())
+			return instance;
+		if(replacement != null) {
+			Instance copy = (Instance) instance.copy();
+			for(int j=0;j<copy.numAttributes();j++) {
+				if(copy.isMissing(j) && (copy.attribute(j).isNominal() || copy.attribute(j).isNumeric()))
+					copy.setValue(j, replacement[j]);
+			}
+			return copy;
+		}
+		synchronized(m_ReplaceMissingFilter) {
+			m_ReplaceMissingFilter.input(instance);
+			m_ReplaceMissingFilter.batchFinished();
+			return m_ReplaceMissingFilter.output();
+		}
+	}
+
+	public double[][] distributionsForInstances(final Instances insts) throws Exception {
+		final double[][] result = new double[insts.numInstances()][];
+		forRanges(insts.numInstances(), new RangeTask() {
+			public boolean run(int from, int to) throws Exception {
+				for(int i=from;i<to;i++)
+					result[i] = distributionForInstance(insts.instance(i));
+				return false;
+			}
+		});
+		return result;
+	}
+
+	public boolean implementsMoreEfficientBatchPrediction() {
+		return encoder != null && !rowByRow;
+	}
+
+	public void setBatchSize(String size) {
+		batchSize = size;
+	}
+
+	public String getBatchSize() {
+		return batchSize;
+	}
+
+	private double[][] encode(Instances centroids) {
+		double[][] encoded = new double[centroids.numInstances()][];
+		for(int c=0;c<encoded.length;c++)
+			encoded[c] = encoder.encode(centroids.instance(c));
+		return encoded;
+	}
+
+	/**
+	 * Per cluster: number and weight of rows, missing and non-missing weight, weighted sums and
+	 * value counts per attribute, and the running means and variances of Instances.variances.
+	 * Every sum takes its rows in the order they are added, so the centroids are the ones
+	 * moveCentroid computes from the same rows.
+	 */
+	private class ClusterSums {
+		final Instances header;
+		final int numClusters;
+		final long[] members;
+		final double[] weight;
+		final double[][] weightMissing;
+		final double[][] weightNonMissing;
+		final double[][] sums;
+		final double[][][] counts;
+		//running mean, weight and squared deviations of the numeric attributes (NaN before the first value)
+		final double[][] means;
+		final double[][] meanWeights;
+		final double[][] deviations;
+
+		ClusterSums(Instances header, int numClusters) {
+			this.header = header;
+			this.numClusters = numClusters;
+			int numAtts = header.numAttributes();
+			members = new long[numClusters];
+			weight = new double[numClusters];
+			weightMissing = new double[numClusters][numAtts];
+			weightNonMissing = new double[numClusters][numAtts];
+			sums = new double[numClusters][numAtts];
+			counts = new double[numClusters][numAtts][];
+			means = new double[numClusters][numAtts];
+			meanWeights = new double[numClusters][numAtts];
+			deviations = new double[numClusters][numAtts];
+			for(int c=0;c<numClusters;c++) {
+				for(int j=0;j<numAtts;j++) {
+					if(header.attribute(j).isNominal())
+						counts[c][j] = new double[header.attribute(j).numValues()];
+					deviations[c][j] = Double.NaN;
+				}
+			}
+		}
+
+		void add(int c, Instance inst) {
+			members[c]++;
+			weight[c] += inst.weight();
+			for(int j=0;j<header.numAttributes();j++)
+				add(c, j, inst);
+		}
+
+		void add(int c, int j, Instance inst) {
+			double w = inst.weight();
+			if(inst.isMissing(j)) {
+				weightMissing[c][j] += w;
+				return;
+			}
+			weightNonMissing[c][j] += w;
+			double value = inst.value(j);
+			if(counts[c][j] != null) {
+				counts[c][j][(int) value] += w;
+				return;
+			}
+			sums[c][j] += w*value;
+			if(!m_displayStdDevs || !header.attribute(j).isNumeric())
+				return;
+			if(Double.isNaN(deviations[c][j])) {
+				means[c][j] = value;
+				meanWeights[c][j] = w;
+				deviations[c][j] = 0;
+				return;
+			}
+			double delta = w*(value - means[c][j]);
+			meanWeights[c][j] += w;
+			means[c][j] += delta/meanWeights[c][j];
+			deviations[c][j] += delta*(value - means[c][j]);
+		}
+
+		//rows in the order of positions, attributes split in parallel ranges
+		void add(final Instances instances, final int[] order, final int[] assignments) throws Exception {
+			for(int p=0;p<order.length;p++) {
+				members[assignments[p]]++;
+				weight[assignments[p]] += instances.instance(order[p]).weight();
+			}
+			final int numAtts = header.numAttributes();
+			List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+			int numRanges = (int) Math.max(1, Math.min(Math.min(numThreads, numAtts), (long) order.length*numAtts/MIN_ROWS_PER_TASK));
+			for(int r=0;r<numRanges;r++) {
+				final int from = numAtts*r/numRanges;
+				final int to = numAtts*(r+1)/numRanges;
+				tasks.add(new Callable<Void>() {
+					public Void call() {
+						for(int p=0;p<order.length;p++) {
+							Instance inst = instances.instance(order[p]);
+							for(int j=from;j<to;j++)
+								add(assignments[p], j, inst);
+						}
+						return null;
+					}
+				});
+			}
+			Tasks.run(tasks);
+		}
+
+		//SimpleKMeans.moveCentroid without the update of the cluster information
+		double[] centroid(int c) {
+			double[] vals = new double[header.numAttributes()];
+			for(int j=0;j<vals.length;j++) {
+				if(header.attribute(j).isNumeric())
+					vals[j] = weightNonMissing[c][j] > 0 ? sums[c][j]/weightNonMissing[c][j] : Utils.missingValue();
+				else if(counts[c][j] != null && counts[c][j].length > 0) {
+					double max = -Double.MAX_VALUE;
+					double maxIndex = -1;
+					for(int v=0;v<counts[c][j].length;v++) {
+						if(counts[c][j][v] > max) {
+							max = counts[c][j][v];
+							maxIndex = v;
+						}
+					}
+					vals[j] = max < weightMissing[c][j] ? Utils.missingValue() : maxIndex;
+				}
+			}
+			return vals;
+		}
+
+		//Instances.variances of the rows of cluster c
+		double[] variances(int c) {
+			double[] vars = new double[header.numAttributes()];
+			for(int j=0;j<vars.length;j++) {
+				vars[j] = deviations[c][j];
+				if(header.attribute(j).isNumeric() && !Double.isNaN(vars[j])) {
+					if(meanWeights[c][j] <= 1)
+						vars[j] = Double.NaN;
+					else {
+						vars[j] /= meanWeights[c][j] - 1;
+						if(vars[j] < 0)
+							vars[j] = 0;
+					}
+				}
+			}
+			return vars;
+		}
+	}
+
+	/**
+	 * Mini-batch centroids: every row moves the numeric values of its centroid towards its
+	 * own by weight/(weight of the rows seen so far), and nominal values are the mode.
+	 */
+	private static class MovingCenters {
+		final Instances header;
+		final double[][] values;
+		final double[][] weights;
+		final double[][][] counts;
+
+		MovingCenters(Instances centroids) {
+			header = new Instances(centroids, 0);
+			int numAtts = header.numAttributes();
+			values = new double[centroids.numInstances()][];
+			weights = new double[values.length][numAtts];
+			counts = new double[values.length][numAtts][];
+			for(int c=0;c<values.length;c++) {
+				values[c] = centroids.instance(c).toDoubleArray();
+				for(int j=0;j<numAtts;j++) {
+					if(header.attribute(j).isNominal())
+						counts[c][j] = new double[header.attribute(j).numValues()];
+				}
+			}
+		}
+
+		void update(int c, Instance inst) {
+			double w = inst.weight();
+			for(int j=0;j<values[c].length;j++) {
+				if(inst.isMissing(j))
+					continue;
+				double value = inst.value(j);
+				if(counts[c][j] != null) {
+					int v = (int) value;
+					counts[c][j][v] += w;
+					if(Double.isNaN(values[c][j]) || counts[c][j][v] > counts[c][j][(int) values[c][j]])
+						values[c][j] = v;
+				} else if(header.attribute(j).isNumeric()) {
+					weights[c][j] += w;
+					values[c][j] += w*(value - values[c][j])/weights[c][j];
+				}
+			}
+		}
+
+		Instances centroids() {
+			Instances centroids = new Instances(header, values.length);
+			for(double[] v : values)
+				centroids.add(new DenseInstance(1.0, v.clone()));
+			return centroids;
+		}
+	}
+
+	private interface RangeTask {
+		boolean run(int from, int to) throws Exception;
+	}
+
+	//rows [0, n) in up to numThreads ranges; true if any range returned true
+	private boolean forRanges(int n, final RangeTask task) throws Exception {
+		int numRanges = (int) Math.max(1, Math.min(numThreads, n/(long) MIN_ROWS_PER_TASK));
+		List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+		for(int r=0;r<numRanges;r++) {
+			final int from = (int) ((long) n*r/numRanges);
+			final int to = (int) ((long) n*(r+1)/numRanges);
+			tasks.add(new Callable<Boolean>() {
+				public Boolean call() throws Exception {
+					return task.run(from, to);
+				}
+			});
+		}
+		boolean any = false;
+		for(boolean result : Tasks.run(tasks))
+			any |= result;
+		return any;
+	}
+
+	/**
+	 * Command line, as for SimpleKMeans (e.g. -t src/data/iris.arff -N 3 -init 1);
+	 * see Clustering for a demo.
+	 */
+	public static void main(String[] argv) {
+		FastKMeans clusterer = new FastKMeans();
+		clusterer.rowByRow = true;
+		runClusterer(clusterer, argv);
+	}
+}
@@ -0,0 +1,438 @@
+package irisDataExamples;
+
+/**
+ * Logistic whose likelihood and gradient are reductions over row partitions, and that can be
+ * updated with new rows from the model it has.
+ *
+ * Logistic keeps the training rows in a double[][] and its optimizer (BFGS, or conjugate
+ * gradient) asks for the negative log-likelihood and its gradient at every step, each a loop
+ * over all the rows on one thread. Here the rows are filtered and standardized as in Logistic
+ * into one contiguous array, cut into partitions of 1024 rows, and every evaluation computes the
+ * partitions on up to numThreads tasks of the common pool and sums them in partition order, so
+ * the result does not depend on the number of threads. Each partition takes its rows in
+ * Logistic's order and operations, so with a single partition (up to 1024 rows) the model is
+ * Logistic's; with more, the sums round differently and the coefficients may move in the last
+ * digits. The optimizer is WEKA's, with the same ridge, iterations and starting point.
+ *
+ * update(batch) adds the rows of batch to the training rows and goes on optimizing from the
+ * current coefficients: it reaches the model of all the rows so far in a few iterations instead
+ * of training again. The filters and the standardization stay those of buildClassifier, and so
+ * does the scale of the ridge, which applies to the standardized coefficients: with a large
+ * ridge the model differs a little from one trained on all the rows at once. The
+ * rows are kept in memory for it and not serialized: a model read back from disk predicts but
+ * cannot be updated.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import weka.classifiers.functions.Logistic;
+import weka.core.ConjugateGradientOptimization;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Optimization;
+import weka.core.Utils;
+import weka.filters.Filter;
+import weka.filters.unsupervised.attribute.NominalToBinary;
+import weka.filters.unsupervised.attribute.RemoveUseless;
+import weka.filters.unsupervised.attribute.ReplaceMissingValues;
+
+public class FastLogistic extends Logistic {
+
+	private static final long serialVersionUID = -6049325581834112873L;
+
+	//rows of one partial likelihood and gradient, whatever the number of threads
+	private static final int PARTITION_ROWS = 1024;
+
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+
+	//training data of buildClassifier, filtered and standardized rows so far and the
+	//standardized coefficients, for update
+	private transient Instances header;
+	private transient Rows rows;
+	private transient double[] xMean;
+	private transient double[] xSD;
+	private transient double[] parameters;
+
+	public void setNumThreads(int numThreads) {
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	/**
+	 * Rows trained on so far (0 once read back from disk).
+	 */
+	public int numTrainingRows() {
+		return rows == null ? 0 : rows.size;
+	}
+
+	@Override
+	public void buildClassifier(Instances train) throws Exception {
+		getCapabilities().testWithFail(train);
+		header = new Instances(train, 0);
+		train = new Instances(train);
+		train.deleteWithMissingClass();
+
+		ReplaceMissingValues replaceMissingValues = new ReplaceMissingValues();
+		replaceMissingValues.setInputFormat(train);
+		train = Filter.useFilter(train, replaceMissingValues);
+		RemoveUseless attFilter = new RemoveUseless();
+		attFilter.setInputFormat(train);
+		train = Filter.useFilter(train, attFilter);
+		NominalToBinary nominalToBinary = new NominalToBinary();
+		nominalToBinary.setInputFormat(train);
+		train = Filter.useFilter(train, nominalToBinary);
+		//Logistic predicts and prints through its own (private) filters and structure
+		ModelCodec.setField(this, "m_ReplaceMissingValues", replaceMissingValues);
+		ModelCodec.setField(this, "m_AttFilter", attFilter);
+		ModelCodec.setField(this, "m_NominalToBinary", nominalToBinary);
+		ModelCodec.setField(this, "m_structure", new Instances(train, 0));
+
+		m_ClassIndex = train.classIndex();
+		m_NumClasses = train.numClasses();
+		int nK = m_NumClasses - 1;
+		int nR = m_NumPredictors = train.numAttributes() - 1;
+		rows = new Rows(nR + 1, train.numInstances());
+		rows.add(train);
+
+		double[] sY = new double[nK + 1];
+		double totWeights = 0;
+		xMean = new double[nR + 1];
+		xSD = new double[nR + 1];
+		for(int i=0;i<rows.size;i++) {
+			double w = rows.weights[i];
+			totWeights += w;
+			for(int j=1;j<=nR;j++) {
+				double x = rows.data[i*(nR+1)+j];
+				xMean[j] += w*x;
+				xSD[j] += w*x*x;
+			}
+			sY[rows.classes[i]]++;
+		}
+		if(totWeights <= 1 && rows.size > 1)
+			throw new Exception("Sum of weights of instances less than 1, please reweight!");
+		xMean[0] = 0;
+		xSD[0] = 1;
+		for(int j=1;j<=nR;j++) {
+			xMean[j] = xMean[j]/totWeights;
+			if(totWeights > 1)
+				xSD[j] = Math.sqrt(Math.abs(xSD[j] - totWeights*xMean[j]*xMean[j])/(totWeights - 1));
+			else
+				xSD[j] = 0;
+		}
+		rows.standardize(0);
+
+		//null model
+		double[] x = new double[(nR + 1)*nK];
+		for(int p=0;p<nK;p++)
+			x[p*(nR + 1)] = Math.log(sY[p] + 1.0) - Math.log(sY[nK] + 1.0);
+		parameters = optimize(x);
+		setCoefficients();
+	}
+
+	/**
+	 * Adds the rows of batch (same header as the training data) to the rows trained on and
+	 * optimizes again from the current coefficients.
+	 */
+	public void update(Instances batch) throws Exception {
+		if(rows == null)
+			throw new IllegalStateException("No training rows to update: build the classifier first (they are not serialized)");
+		if(!header.equalHeaders(batch))
+			throw new IllegalArgumentException("Headers differ: " + header.equalHeadersMsg(batch));
+		batch = new Instances(batch);
+		batch.deleteWithMissingClass();
+		if(batch.numInstances() == 0)
+			return;
+		batch = Filter.useFilter(batch, (Filter) ModelCodec.field(this, "m_ReplaceMissingValues"));
+		batch = Filter.useFilter(batch, (Filter) ModelCodec.field(this, "m_AttFilter"));
+		batch = Filter.useFilter(batch, (Filter) ModelCodec.field(this, "m_NominalToBinary"));
+		int from = rows.size;
+		rows.add(batch);
+		rows.standardize(from);
+		parameters = optimize(parameters);
+		setCoefficients();
+	}
+
+	//Logistic's search from x; m_LL is set to the log-likelihood of the optimum
+	private double[] optimize(double[] x) throws Exception {
+		double[][] b = new double[2][x.length];
+		Arrays.fill(b[0], Double.NaN);
+		Arrays.fill(b[1], Double.NaN);
+		Optimization opt = getUseConjugateGradientDescent() ? new CGEngine(new Likelihood()) : new Engine(new Likelihood());
+		opt.setDebug(m_Debug);
+		if(getMaxIts() == -1) {
+			x = opt.findArgmin(x, b);
+			while(x == null) {
+				x = opt.getVarbValues();
+				x = opt.findArgmin(x, b);
+			}
+		} else {
+			opt.setMaxIteration(getMaxIts());
+			x = opt.findArgmin(x, b);
+			if(x == null)
+				x = opt.getVarbValues();
+		}
+		m_LL = -opt.getMinFunction();
+		return x;
+	}
+
+	//m_Par from the standardized parameters, in attribute units
+	private void setCoefficients() {
+		int nK = m_NumClasses - 1;
+		int nR = m_NumPredictors;
+		m_Par = new double[nR + 1][nK];
+		for(int i=0;i<nK;i++) {
+			m_Par[0][i] = parameters[i*(nR + 1)];
+			for(int j=1;j<=nR;j++) {
+				m_Par[j][i] = parameters[i*(nR + 1) + j];
+				if(!getDoNotStandardizeAttributes() && xSD[j] != 0) {
+					m_Par[j][i] /= xSD[j];
+					m_Par[0][i] -= m_Par[j][i]*xMean[j];
+				}
+			}
+		}
+	}
+
+	//training rows: intercept then predictors (dim values per row), class and weight
+	private class Rows {
+
+		private final int dim;
+		private double[] data;
+		private int[] classes;
+		private double[] weights;
+		private int size;
+
+		private Rows(int dim, int capacity) {
+			this.dim = dim;
+			data = new double[capacity*dim];
+			classes = new int[capacity];
+			weights = new double[capacity];
+		}
+
+		void add(Instances instances) {
+			int n = size + instances.numInstances();
+			if(n > classes.length) {
+				int capacity = Math.max(n, 2*classes.length);
+				data = Arrays.copyOf(data, capacity*dim);
+				classes = Arrays.copyOf(classes, capacity);
+				weights = Arrays.copyOf(weights, capacity);
+			}
+			for(Instance current : instances) {
+				classes[size] = (int) current.classValue();
+				weights[size] = current.weight();
+				int base = size*dim;
+				data[base] = 1;
+				int j = 1;
+				for(int k=0;k<dim;k++) {
+					if(k != m_ClassIndex)
+						data[base + j++] = current.value(k);
+				}
+				size++;
+			}
+		}
+
+		//standardizes the rows from from on with the statistics of buildClassifier
+		void standardize(int from) {
+			if(getDoNotStandardizeAttributes())
+				return;
+			for(int i=from;i<size;i++) {
+				for(int j=0;j<dim;j++) {
+					if(xSD[j] != 0)
+						data[i*dim+j] = (data[i*dim+j] - xMean[j])/xSD[j];
+				}
+			}
+		}
+	}
+
+	//negative log-likelihood with ridge, and its gradient, as Logistic's OptObject over the rows
+	private class Likelihood {
+
+		private final Rows data = rows;
+
+		double value(final double[] x) throws Exception {
+			double[][] partials = partitions(x, false);
+			double nll = 0;
+			for(double[] p : partials)
+				nll += p[0];
+			//ridge: intercepts not included
+			int dim = data.dim;
+			for(int offset=0;offset<m_NumClasses - 1;offset++) {
+				for(int r=1;r<dim;r++)
+					nll += m_Ridge*x[offset*dim + r]*x[offset*dim + r];
+			}
+			return nll;
+		}
+
+		double[] gradient(final double[] x) throws Exception {
+			double[][] partials = partitions(x, true);
+			double[] grad = partials.length == 0 ? new double[x.length] : partials[0];
+			for(int p=1;p<partials.length;p++) {
+				for(int k=0;k<grad.length;k++)
+					grad[k] += partials[p][k];
+			}
+			int dim = data.dim;
+			for(int offset=0;offset<m_NumClasses - 1;offset++) {
+				for(int r=1;r<dim;r++)
+					grad[offset*dim + r] += 2*m_Ridge*x[offset*dim + r];
+			}
+			return grad;
+		}
+
+		//likelihood ({value}) or gradient of every partition of rows
+		private double[][] partitions(final double[] x, final boolean gradient) throws Exception {
+			final int numPartitions = (data.size + PARTITION_ROWS - 1)/PARTITION_ROWS;
+			final double[][] partials = new double[numPartitions][];
+			final int tasks = Math.max(1, Math.min(numThreads, numPartitions));
+			List<Callable<Void>> parts = new ArrayList<Callable<Void>>();
+			for(int t=0;t<tasks;t++) {
+				final int first = t;
+				parts.add(new Callable<Void>() {
+					public Void call() throws Exception {
+						for(int p=first;p<numPartitions;p+=tasks) {
+							int from = p*PARTITION_ROWS;
+							int to = Math.min(data.size, from + PARTITION_ROWS);
+							partials[p] = gradient ? gradient(x, from, to) : new double[] {value(x, from, to)};
+						}
+						return null;
+					}
+				});
+			}
+			Tasks.run(parts);
+			return partials;
+		}
+
+		private double value(double[] x, int from, int to) {
+			int nK = m_NumClasses - 1;
+			int dim = data.dim;
+			double nll = 0;
+			double[] exp = new double[nK];
+			for(int i=from;i<to;i++) {
+				int row = i*dim;
+				for(int offset=0;offset<nK;offset++) {
+					int index = offset*dim;
+					double v = 0;
+					for(int j=0;j<dim;j++)
+						v += data.data[row + j]*x[index + j];
+					exp[offset] = v;
+				}
+				int cls = data.classes[i];
+				double num = cls < nK ? exp[cls] : 0;
+				double denom = 0;
+				for(int offset=0;offset<nK;offset++)
+					denom = logOfSum(denom, exp[offset]);
+				nll -= data.weights[i]*(num - denom);
+			}
+			return nll;
+		}
+
+		private double[] gradient(double[] x, int from, int to) {
+			int nK = m_NumClasses - 1;
+			int dim = data.dim;
+			double[] grad = new double[x.length];
+			double[] num = new double[nK];
+			for(int i=from;i<to;i++) {
+				int row = i*dim;
+				for(int offset=0;offset<nK;offset++) {
+					int index = offset*dim;
+					double exp = 0.0;
+					for(int j=0;j<dim;j++)
+						exp += data.data[row + j]*x[index + j];
+					num[offset] = exp;
+				}
+				double max = num[Utils.maxIndex(num)];
+				double denom = Math.exp(-max);
+				for(int offset=0;offset<nK;offset++) {
+					num[offset] = Math.exp(num[offset] - max);
+					denom += num[offset];
+				}
+				Utils.normalize(num, denom);
+				double w = data.weights[i];
+				for(int offset=0;offset<nK;offset++) {
+					int index = offset*dim;
+					double firstTerm = w*num[offset];
+					for(int q=0;q<dim;q++)
+						grad[index + q] += firstTerm*data.data[row + q];
+				}
+				int cls = data.classes[i];
+				if(cls != nK) {
+					for(int p=0;p<dim;p++)
+						grad[cls*dim + p] -= w*data.data[row + p];
+				}
+			}
+			return grad;
+		}
+
+		//log(x+y) from log(x) and log(y), NaN standing for log(0)
+		private double logOfSum(double logOfX, double logOfY) {
+			if(Double.isNaN(logOfX))
+				return logOfY;
+			if(Double.isNaN(logOfY))
+				return logOfX;
+			if(logOfX > logOfY)
+				return logOfX + Math.log(1 + Math.exp(logOfY - logOfX));
+			return logOfY + Math.log(1 + Math.exp(logOfX - logOfY));
+		}
+	}
+
+	//Logistic's optimizers, private there
+	private static class Engine extends Optimization {
+
+		private final Likelihood likelihood;
+
+		private Engine(Likelihood likelihood) {
+			this.likelihood = likelihood;
+		}
+
+		@Override
+		protected double objectiveFunction(double[] x) throws Exception {
+			return likelihood.value(x);
+		}
+
+		@Override
+		protected double[] evaluateGradient(double[] x) throws Exception {
+			return likelihood.gradient(x);
+		}
+
+		public String getRevision() {
+			return "1";
+		}
+	}
+
+	private static class CGEngine extends ConjugateGradientOptimization {
+
+		private final Likelihood likelihood;
+
+		private CGEngine(Likelihood likelihood) {
+			this.likelihood = likelihood;
+		}
+
+		@Override
+		protected double objectiveFunction(double[] x) throws Exception {
+			return likelihood.value(x);
+		}
+
+		@Override
+		protected double[] evaluateGradient(double[] x) throws Exception {
+			return likelihood.gradient(x);
+		}
+
+		public String getRevision() {
+			return "1";
+		}
+	}
+
+	/**
+	 * Command line, as for Logistic (e.g. -t src/data/iris.arff); see Ensembles for a demo.
+	 */
+	public static void main(String[] argv) {
+		runClassifier(new FastLogistic(), argv);
+	}
+}
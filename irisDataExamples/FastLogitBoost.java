@@ -0,0 +1,241 @@
+package irisDataExamples;
+
+/**
+ * LogitBoost of regression stumps searching the same sorted columns every round.
+ *
+ * Every LogitBoost round copies the training data once per class, sets the working responses
+ * and weights of that class on the copy and trains a copy of the base classifier on it; with a
+ * DecisionStump (the default) every copy is sorted again by every numeric attribute. Here a
+ * StumpSearch keeps the columns of the training data, sorted once, and a round computes the
+ * responses and weights of every class in arrays and finds the stumps of the classes
+ * concurrently, each searching its attributes on up to numThreads tasks; the scores and
+ * probabilities of the rows are then updated from the subsets of the stumps. The operations are
+ * LogitBoost's, in the same order, so the stumps and the output are LogitBoost's.
+ *
+ * numThreads is LogitBoost's option (threads of batch predictions), here one per processor by
+ * default. numBins > 0 searches the stumps over histogram bins of the numeric attributes (see
+ * StumpSearch): faster rounds on large data, stumps close to DecisionStump's but not the same.
+ * Other base classifiers, resampling and weight pruning (weightThreshold < 100) are left to
+ * LogitBoost.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.Classifier;
+import weka.classifiers.meta.LogitBoost;
+import weka.classifiers.trees.DecisionStump;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.UnassignedClassException;
+import weka.core.Utils;
+
+public class FastLogitBoost extends LogitBoost {
+
+	private static final long serialVersionUID = 5904370287911327741L;
+
+	private int numBins;
+
+	//columns and weights of m_data, searched every round
+	private transient StumpSearch search;
+	private transient Instances searched;
+	private transient double[] dataWeights;
+
+	public FastLogitBoost() {
+		m_numThreads = Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Histogram bins of every numeric attribute the stumps are searched over; 0 (default) for
+	 * the exact DecisionStump search.
+	 */
+	public void setNumBins(int numBins) {
+		this.numBins = Math.max(0, numBins);
+	}
+
+	public int getNumBins() {
+		return numBins;
+	}
+
+	@Override
+	public boolean next() throws Exception {
+		if(m_Classifier.getClass() != DecisionStump.class || m_UseResampling || m_WeightThreshold < 100)
+			return super.next();
+		if(m_NumItsPerformed >= m_NumIterations)
+			return false;
+		if(m_ZeroR != null)
+			return false;
+
+		double previousLoglikelihood = m_logLikelihood;
+		iterate();
+		m_logLikelihood = negativeLogLikelihood();
+		if(m_Debug)
+			System.err.println("Avg. negative log-likelihood: " + m_logLikelihood);
+		return Math.abs(previousLoglikelihood-m_logLikelihood) >= m_Precision;
+	}
+
+	//LogitBoost.performIteration
+	private void iterate() throws Exception {
+		if(m_Debug)
+			System.err.println("Training classifier " + (m_NumGenerated+1));
+		final int n = m_probs.length;
+		if(search == null || searched != m_data) {
+			search = new StumpSearch(m_data, numBins);
+			searched = m_data;
+			dataWeights = new double[n];
+			for(int i=0;i<n;i++)
+				dataWeights[i] = m_data.instance(i).weight();
+		}
+		search.setNumThreads(m_numThreads);
+
+		//two classes need the model of the first one only
+		final int numModels = m_NumClasses == 2 ? 1 : m_NumClasses;
+		final double[][] responses = new double[numModels][];
+		final double[][] weights = new double[numModels][];
+		final StumpSearch.Split[] splits = new StumpSearch.Split[numModels];
+		final double splitPoint = (Double) ModelCodec.field(m_Classifier, "m_SplitPoint");
+		final AtomicInteger next = new AtomicInteger();
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for(int t=0;t<Math.min(m_numThreads, numModels);t++) {
+			tasks.add(new Callable<Void>() {
+				public Void call() throws Exception {
+					for(int j=next.getAndIncrement();j<numModels;j=next.getAndIncrement()) {
+						responses[j] = new double[n];
+						weights[j] = new double[n];
+						response(j, responses[j], weights[j]);
+						splits[j] = search.search(weights[j], responses[j], splitPoint);
+					}
+					return null;
+				}
+			});
+		}
+		Tasks.run(tasks);
+
+		Classifier[] classifiers = new Classifier[m_NumClasses];
+		double[][] predictions = new double[numModels][n];
+		for(int j=0;j<numModels;j++) {
+			if(m_Debug)
+				System.err.println("\t...for class " + (j+1) + " (" + m_ClassAttribute.name() + "=" + m_ClassAttribute.value(j) + ")");
+			classifiers[j] = AbstractClassifier.makeCopy(m_Classifier);
+			if(splits[j] != null) {
+				search.apply(splits[j], (DecisionStump) classifiers[j]);
+				double[][] dist = splits[j].distribution;
+				int[] subsets = search.subsets(splits[j]);
+				for(int i=0;i<n;i++)
+					predictions[j][i] = dist[subsets[i]][0];
+			} else {
+				//no weight left: trained on the data as LogitBoost does it
+				Instances boostData = new Instances(m_data);
+				for(int i=0;i<n;i++) {
+					Instance current = boostData.instance(i);
+					current.setValue(boostData.classIndex(), responses[j][i]);
+					current.setWeight(weights[j][i]);
+				}
+				classifiers[j].buildClassifier(boostData);
+				for(int i=0;i<n;i++)
+					predictions[j][i] = classifiers[j].classifyInstance(m_data.instance(i));
+			}
+		}
+		m_Classifiers.add(classifiers);
+		m_NumItsPerformed++;
+
+		for(int i=0;i<n;i++) {
+			double[] pred = new double[m_NumClasses];
+			double predSum = 0;
+			for(int j=0;j<m_NumClasses;j++) {
+				double tempPred = m_Shrinkage*predictions[j][i];
+				if(Utils.isMissingValue(tempPred))
+					throw new UnassignedClassException("LogitBoost: base learner predicted missing value.");
+				pred[j] = tempPred;
+				if(m_NumClasses == 2) {
+					pred[1] = -tempPred;
+					break;
+				}
+				predSum += pred[j];
+			}
+			predSum /= m_NumClasses;
+			for(int j=0;j<m_NumClasses;j++)
+				m_trainFs[i][j] += (pred[j]-predSum)*(m_NumClasses-1)/m_NumClasses;
+		}
+		m_NumGenerated = m_Classifiers.size();
+		for(int i=0;i<n;i++)
+			m_probs[i] = probs(m_trainFs[i]);
+	}
+
+	//responses of class j and weights of the rows, scaled to the sum of the weights of the data
+	private void response(int j, double[] z, double[] w) {
+		int n = z.length;
+		for(int i=0;i<n;i++) {
+			double p = m_probs[i][j];
+			double actual = m_trainYs[i][j];
+			if(actual == 1-m_Offset) {
+				z[i] = 1.0/p;
+				if(z[i] > m_zMax)
+					z[i] = m_zMax;
+			} else {
+				z[i] = -1.0/(1.0-p);
+				if(z[i] < -m_zMax)
+					z[i] = -m_zMax;
+			}
+			w[i] = dataWeights[i]*((actual-p)/z[i]);
+		}
+		double sumOfWeights = 0;
+		for(int i=0;i<n;i++)
+			sumOfWeights += w[i];
+		double scalingFactor = m_sumOfWeights/sumOfWeights;
+		for(int i=0;i<n;i++)
+			w[i] = w[i]*scalingFactor;
+	}
+
+	//LogitBoost.negativeLogLikelihood
+	private double negativeLogLikelihood() {
+		double logLikelihood = 0;
+		for(int i=0;i<m_trainYs.length;i++) {
+			for(int j=0;j<m_NumClasses;j++) {
+				if(m_trainYs[i][j] == 1.0-m_Offset)
+					logLikelihood -= dataWeights[i]*Math.log(m_probs[i][j]);
+			}
+		}
+		return logLikelihood/m_sumOfWeights;
+	}
+
+	//LogitBoost.probs
+	private static double[] probs(double[] Fs) {
+		double maxF = -Double.MAX_VALUE;
+		for(int i=0;i<Fs.length;i++) {
+			if(Fs[i] > maxF)
+				maxF = Fs[i];
+		}
+		double sum = 0;
+		double[] probs = new double[Fs.length];
+		for(int i=0;i<Fs.length;i++) {
+			probs[i] = Math.exp(Fs[i]-maxF);
+			sum += probs[i];
+		}
+		Utils.normalize(probs, sum);
+		return probs;
+	}
+
+	@Override
+	public void done() {
+		super.done();
+		if(!getResume()) {
+			search = null;
+			searched = null;
+			dataWeights = null;
+		}
+	}
+
+	/**
+	 * Command line, as for LogitBoost (e.g. -t src/data/iris.arff); see Ensembles for a demo.
+	 */
+	public static void main(String[] argv) {
+		runClassifier(new FastLogitBoost(), argv);
+	}
+}
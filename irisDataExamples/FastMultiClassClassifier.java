@@ -0,0 +1,195 @@
+package irisDataExamples;
+
+/**
+ * MultiClassClassifier training its binary models concurrently, FastLogistic by default.
+ *
+ * MultiClassClassifier turns a multiclass problem into binary ones (1-against-all by default,
+ * 1-against-1 or error correcting codes) and trains a copy of its base classifier on each, one
+ * after the other. Here MultiClassClassifier prepares everything as usual (class filters,
+ * codes, resampling, ZeroR) with a placeholder base classifier that only keeps the data of each
+ * binary problem; the copies of the base classifier are then trained on them by up to
+ * numThreads tasks on the common pool, the largest first. The models are the ones
+ * MultiClassClassifier trains, so the predictions and the output are the same.
+ *
+ * With FastLogistic models, update(batch) sends the rows of batch through the class filters and
+ * updates every binary model with its rows, concurrently, instead of training again.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.Classifier;
+import weka.classifiers.meta.MultiClassClassifier;
+import weka.core.Capabilities;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.WeightedInstancesHandler;
+import weka.filters.Filter;
+
+public class FastMultiClassClassifier extends MultiClassClassifier {
+
+	private static final long serialVersionUID = 2164417393845010475L;
+
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+
+	public FastMultiClassClassifier() {
+		m_Classifier = new FastLogistic();
+	}
+
+	@Override
+	protected String defaultClassifierString() {
+		return FastLogistic.class.getName();
+	}
+
+	public void setNumThreads(int numThreads) {
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	@Override
+	public void buildClassifier(Instances insts) throws Exception {
+		Classifier base = m_Classifier;
+		if(base == null)
+			throw new Exception("No base classifier has been set!");
+		getCapabilities().testWithFail(insts);
+		//resampled here as MultiClassClassifier would, the placeholder taking any weights
+		if(!(base instanceof WeightedInstancesHandler)) {
+			Instances data = new Instances(insts);
+			data.deleteWithMissingClass();
+			if(!data.allInstanceWeightsIdentical()) {
+				Random r = data.numInstances() > 0 ? data.getRandomNumberGenerator(getSeed()) : new Random(getSeed());
+				insts = data.resampleWithWeights(r);
+			}
+		}
+		m_Classifier = new Deferred(base);
+		try {
+			super.buildClassifier(insts);
+		} finally {
+			m_Classifier = base;
+		}
+
+		final List<Integer> problems = new ArrayList<Integer>();
+		final Instances[] data = new Instances[m_Classifiers.length];
+		for(int i=0;i<m_Classifiers.length;i++) {
+			if(m_Classifiers[i] != null) {
+				data[i] = ((Deferred) m_Classifiers[i]).data;
+				problems.add(i);
+			}
+		}
+		final Classifier[] models = AbstractClassifier.makeCopies(base, m_Classifiers.length);
+		problems.sort(new Comparator<Integer>() {
+			public int compare(Integer a, Integer b) {
+				return Integer.compare(data[b].numInstances(), data[a].numInstances());
+			}
+		});
+		final AtomicInteger next = new AtomicInteger();
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for(int t=0;t<Math.min(numThreads, problems.size());t++) {
+			tasks.add(new Callable<Void>() {
+				public Void call() throws Exception {
+					for(int p=next.getAndIncrement();p<problems.size();p=next.getAndIncrement()) {
+						int i = problems.get(p);
+						models[i].buildClassifier(data[i]);
+					}
+					return null;
+				}
+			});
+		}
+		Tasks.run(tasks);
+		for(int i : problems)
+			m_Classifiers[i] = models[i];
+	}
+
+	/**
+	 * Updates the FastLogistic models with the rows of batch (same header as the training data),
+	 * through the class filters of their binary problems.
+	 */
+	public void update(Instances batch) throws Exception {
+		for(Classifier model : m_Classifiers) {
+			if(model != null && !(model instanceof FastLogistic))
+				throw new IllegalStateException("Only FastLogistic models can be updated, not " + model.getClass().getName());
+		}
+		batch = new Instances(batch);
+		//the ZeroR fallback (no binary model voting) keeps the classes of buildClassifier
+		batch.deleteWithMissingClass();
+
+		final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		final List<Integer> problems = new ArrayList<Integer>();
+		final Instances[] data = new Instances[m_Classifiers.length];
+		for(int i=0;i<m_Classifiers.length;i++) {
+			if(m_Classifiers[i] == null)
+				continue;
+			if(m_ClassFilters == null) {
+				data[i] = batch;
+			} else {
+				data[i] = Filter.useFilter(batch, m_ClassFilters[i]);
+				if(m_Method == METHOD_1_AGAINST_1) {
+					data[i].setClassIndex(batch.classIndex());
+					m_SumOfWeights[i] += data[i].sumOfWeights();
+				}
+			}
+			if(data[i].numInstances() > 0)
+				problems.add(i);
+		}
+		final AtomicInteger next = new AtomicInteger();
+		for(int t=0;t<Math.min(numThreads, problems.size());t++) {
+			tasks.add(new Callable<Void>() {
+				public Void call() throws Exception {
+					for(int p=next.getAndIncrement();p<problems.size();p=next.getAndIncrement()) {
+						int i = problems.get(p);
+						((FastLogistic) m_Classifiers[i]).update(data[i]);
+					}
+					return null;
+				}
+			});
+		}
+		Tasks.run(tasks);
+	}
+
+	//base classifier while MultiClassClassifier prepares the binary problems: keeps their data
+	private static class Deferred extends AbstractClassifier implements WeightedInstancesHandler {
+
+		private static final long serialVersionUID = -5180462440911364736L;
+
+		//not copied with the placeholders
+		private final transient Classifier base;
+		private Instances data;
+
+		private Deferred(Classifier base) {
+			this.base = base;
+		}
+
+		@Override
+		public Capabilities getCapabilities() {
+			return base.getCapabilities();
+		}
+
+		@Override
+		public void buildClassifier(Instances data) {
+			this.data = data;
+		}
+
+		@Override
+		public double[] distributionForInstance(Instance instance) {
+			throw new UnsupportedOperationException("Not trained yet");
+		}
+	}
+
+	/**
+	 * Command line, as for MultiClassClassifier (e.g. -t src/data/iris.arff); see Ensembles for a demo.
+	 */
+	public static void main(String[] argv) {
+		runClassifier(new FastMultiClassClassifier(), argv);
+	}
+}
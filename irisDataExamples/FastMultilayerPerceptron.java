@@ -0,0 +1,554 @@
+package irisDataExamples;
+
+/**
+ * MultilayerPerceptron trained on primitive arrays, by mini-batches split across cores.
+ *
+ * MultilayerPerceptron trains one instance at a time by walking its network of NeuralConnection
+ * objects: every output value, error and weight update is a call on a node that calls the nodes
+ * it is connected to, one thread for everything. Here the network is set up by
+ * MultilayerPerceptron itself (filters, normalization, hidden layers, random initial weights,
+ * validation set), and when it is made of fully connected layers (as the hidden layers option
+ * builds it) the weights of every layer are copied into one contiguous array, row per node and
+ * bias first as NeuralNode keeps them. Every mini-batch of miniBatchSize rows then goes
+ * forward and backward one layer at a time over blocks of 16 rows, and each block adds up its
+ * own gradient; the blocks are shared by up to numThreads tasks on the common pool and their
+ * gradients summed in block order, so the result does not depend on the number of threads.
+ * The weights move once per mini-batch by the mean of the gradients of its rows, with
+ * learningRate, momentum and decay as MultilayerPerceptron uses them.
+ *
+ * With miniBatchSize 1 (the default) this is MultilayerPerceptron's training, operation by
+ * operation, so the network is the same; larger mini-batches make fewer, averaged updates per
+ * epoch and usually need more epochs or a larger learning rate. The validation set, its early
+ * stopping and the restart with half the learning rate when the error diverges are
+ * MultilayerPerceptron's. Once trained the weights go back to the nodes: the model prints and
+ * predicts as a MultilayerPerceptron, and is serialized as one (a plain MultilayerPerceptron
+ * with the trained network), so a saved model loads in WEKA without this class. An untrained
+ * one is serialized as itself, so its copies (makeCopy) keep the options and train fast too.
+ * With the GUI, resume or a network wired by hand, training is left to MultilayerPerceptron.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.io.NotSerializableException;
+import java.io.ObjectStreamException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import weka.classifiers.functions.MultilayerPerceptron;
+import weka.classifiers.functions.neural.LinearUnit;
+import weka.classifiers.functions.neural.NeuralConnection;
+import weka.classifiers.functions.neural.NeuralNode;
+import weka.classifiers.functions.neural.SigmoidUnit;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class FastMultilayerPerceptron extends MultilayerPerceptron {
+
+	private static final long serialVersionUID = 5097215530486410262L;
+
+	//rows of one partial gradient, whatever the number of threads
+	private static final int BLOCK_ROWS = 16;
+	//multiply-adds per parallel task below which a mini-batch is not split further
+	private static final int MIN_WORK_PER_TASK = 1 << 16;
+
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+	private int miniBatchSize = 1;
+
+	/**
+	 * Rows per weight update; 1 (default) updates after every row as MultilayerPerceptron.
+	 */
+	public void setMiniBatchSize(int miniBatchSize) {
+		this.miniBatchSize = Math.max(1, miniBatchSize);
+	}
+
+	public int getMiniBatchSize() {
+		return miniBatchSize;
+	}
+
+	public void setNumThreads(int numThreads) {
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	@Override
+	public void buildClassifier(Instances data) throws Exception {
+		if(getGUI() || getResume()) {
+			super.buildClassifier(data);
+			return;
+		}
+		initializeClassifier(data);
+		Network network = (Boolean) ModelCodec.field(this, "m_useDefaultModel") ? null : Network.of(this);
+		if(network == null) {
+			while(next()) {
+			}
+		} else if(!network.train()) {
+			//as MultilayerPerceptron.next, start again with half the learning rate
+			if(!getReset())
+				throw new Exception("Network cannot train. Try restarting with a smaller learning rate.");
+			double rate = getLearningRate();
+			if(rate <= Utils.SMALL)
+				throw new IllegalStateException("Learning rate got too small (" + rate + " <= " + Utils.SMALL + ")!");
+			done();
+			setLearningRate(rate/2);
+			try {
+				buildClassifier(data);
+			} finally {
+				setLearningRate(rate);
+			}
+			return;
+		}
+		done();
+	}
+
+	//a trained model is written as the MultilayerPerceptron it holds: its fields, nodes included
+	//(references to this model in the nodes are written as the replacement too)
+	protected Object writeReplace() throws ObjectStreamException {
+		try {
+			if(((Object[]) ModelCodec.field(this, "m_outputs")).length == 0)
+				return this;
+			MultilayerPerceptron mlp = new MultilayerPerceptron();
+			for(Class<?> c=MultilayerPerceptron.class;c!=Object.class;c=c.getSuperclass()) {
+				for(Field f : c.getDeclaredFields()) {
+					if(Modifier.isStatic(f.getModifiers()))
+						continue;
+					f.setAccessible(true);
+					f.set(mlp, f.get(this));
+				}
+			}
+			return mlp;
+		} catch(Exception e) {
+			throw new NotSerializableException("Cannot write as a MultilayerPerceptron: " + e);
+		}
+	}
+
+	//layers of the network with their weights in arrays
+	private static class Network {
+
+		private final FastMultilayerPerceptron mlp;
+		//nodes of every layer, from the first hidden layer to the outputs
+		private final NeuralNode[][] nodes;
+		//width[0] inputs, width[l+1] nodes of layer l
+		private final int[] width;
+		private final boolean[][] sigmoid;
+		//per layer, width[l+1] rows of 1+width[l] values (bias first)
+		private final double[][] weights;
+		private final double[][] changes;
+		//attribute of every input
+		private final int[] inputs;
+
+		private Network(FastMultilayerPerceptron mlp, List<NeuralNode[]> layers, int[] inputs) {
+			this.mlp = mlp;
+			this.inputs = inputs;
+			int numLayers = layers.size();
+			nodes = layers.toArray(new NeuralNode[numLayers][]);
+			width = new int[numLayers+1];
+			width[0] = inputs.length;
+			sigmoid = new boolean[numLayers][];
+			weights = new double[numLayers][];
+			changes = new double[numLayers][];
+			for(int l=0;l<numLayers;l++) {
+				int in = width[l]+1;
+				width[l+1] = nodes[l].length;
+				sigmoid[l] = new boolean[nodes[l].length];
+				weights[l] = new double[nodes[l].length*in];
+				changes[l] = new double[nodes[l].length*in];
+				for(int o=0;o<nodes[l].length;o++) {
+					sigmoid[l][o] = nodes[l][o].getMethod() instanceof SigmoidUnit;
+					System.arraycopy(nodes[l][o].getWeights(), 0, weights[l], o*in, in);
+					System.arraycopy(nodes[l][o].getChangeInWeights(), 0, changes[l], o*in, in);
+				}
+			}
+		}
+
+		/**
+		 * Layers of the network of mlp, null unless every layer reads all the nodes of the one
+		 * before (the inputs for the first), in the same order, and has sigmoid or linear nodes.
+		 */
+		static Network of(FastMultilayerPerceptron mlp) throws Exception {
+			Object[] ends = (Object[]) ModelCodec.field(mlp, "m_outputs");
+			NeuralNode[] layer = new NeuralNode[ends.length];
+			for(int k=0;k<ends.length;k++) {
+				NeuralConnection end = (NeuralConnection) ends[k];
+				if(end.getNumInputs() != 1 || !(end.getInputs()[0] instanceof NeuralNode))
+					return null;
+				layer[k] = (NeuralNode) end.getInputs()[0];
+			}
+			List<NeuralNode[]> layers = new ArrayList<NeuralNode[]>();
+			while(true) {
+				NeuralConnection[] in = layer[0].getInputs();
+				int m = layer[0].getNumInputs();
+				for(NeuralNode node : layer) {
+					if(node.getNumInputs() != m || !(node.getMethod() instanceof SigmoidUnit || node.getMethod() instanceof LinearUnit))
+						return null;
+					for(int i=0;i<m;i++) {
+						if(node.getInputs()[i] != in[i])
+							return null;
+					}
+				}
+				layers.add(0, layer);
+				int numNodes = 0;
+				for(int i=0;i<m;i++) {
+					if(in[i] instanceof NeuralNode)
+						numNodes++;
+				}
+				if(numNodes == 0) {
+					int[] inputs = new int[m];
+					for(int i=0;i<m;i++)
+						inputs[i] = (Integer) ModelCodec.field(in[i], "m_link");
+					return new Network(mlp, layers, inputs);
+				}
+				if(numNodes < m)
+					return null;
+				NeuralNode[] previous = new NeuralNode[m];
+				for(int i=0;i<m;i++) {
+					previous[i] = (NeuralNode) in[i];
+					//errors come back from the outputs in the order of the layer
+					if(previous[i].getNumOutputs() != layer.length)
+						return null;
+					for(int o=0;o<layer.length;o++) {
+						if(previous[i].getOutputs()[o] != layer[o])
+							return null;
+					}
+				}
+				layer = previous;
+			}
+		}
+
+		/**
+		 * The epochs of MultilayerPerceptron.next on the arrays, weights back into the nodes;
+		 * false if the training error diverged.
+		 */
+		boolean train() throws Exception {
+			Instances instances = (Instances) ModelCodec.field(mlp, "m_instances");
+			if(instances.numInstances() == 0)
+				return true;
+			//rows after the validation set, as initializeClassifier split them
+			Rows train = new Rows(instances, mlp.numInVal, instances.numInstances());
+			Rows validation = mlp.valSet == null ? null : new Rows(mlp.valSet, 0, mlp.valSet.numInstances());
+
+			int batchSize = mlp.getMiniBatchSize();
+			int maxBlocks = (Math.min(batchSize, Math.max(1, train.size))+BLOCK_ROWS-1)/BLOCK_ROWS;
+			double[][][] gradients = new double[maxBlocks][][];
+			for(int b=0;b<maxBlocks;b++)
+				gradients[b] = zeros(weights);
+			double[] blockErrors = new double[maxBlocks];
+			int numWeights = 0;
+			for(double[] w : weights)
+				numWeights += w.length;
+			int maxTasks = Math.min(mlp.getNumThreads(), maxBlocks);
+			Workspace[] workspaces = new Workspace[maxTasks];
+			for(int t=0;t<maxTasks;t++)
+				workspaces[t] = new Workspace();
+
+			double lastRight = Double.POSITIVE_INFINITY;
+			double bestError = Double.POSITIVE_INFINITY;
+			int driftOff = 0;
+			double[][] best = null;
+			for(int epoch=1;;epoch++) {
+				double right = 0;
+				for(int from=0;from<train.size;from+=batchSize) {
+					int to = Math.min(train.size, from+batchSize);
+					int numBlocks = (to-from+BLOCK_ROWS-1)/BLOCK_ROWS;
+					int tasks = (int) Math.min(Math.min(maxTasks, numBlocks), Math.max(1, (long) (to-from)*numWeights/MIN_WORK_PER_TASK));
+					pass(train, from, to, epoch, tasks, workspaces, gradients, blockErrors);
+					for(int b=0;b<numBlocks;b++)
+						right += blockErrors[b];
+					update(gradients, numBlocks, to-from);
+				}
+				right /= train.totalWeight;
+				if(Double.isInfinite(right) || Double.isNaN(right))
+					return false;
+
+				if(validation != null) {
+					right = 0;
+					for(int from=0;from<validation.size;from+=BLOCK_ROWS) {
+						workspaces[0].block(validation, from, Math.min(validation.size, from+BLOCK_ROWS), epoch, null);
+						right += workspaces[0].error;
+					}
+					if(right < lastRight) {
+						if(right < bestError) {
+							bestError = right;
+							best = copy(weights);
+							driftOff = 0;
+						}
+					} else {
+						driftOff++;
+					}
+					lastRight = right;
+					if(driftOff > mlp.getValidationThreshold() || epoch+1 >= mlp.getTrainingTime()) {
+						for(int l=0;best!=null&&l<weights.length;l++)
+							System.arraycopy(best[l], 0, weights[l], 0, weights[l].length);
+						break;
+					}
+				}
+				if(epoch >= mlp.getTrainingTime())
+					break;
+			}
+
+			for(int l=0;l<nodes.length;l++) {
+				int in = width[l]+1;
+				for(int o=0;o<nodes[l].length;o++) {
+					System.arraycopy(weights[l], o*in, nodes[l][o].getWeights(), 0, in);
+					System.arraycopy(changes[l], o*in, nodes[l][o].getChangeInWeights(), 0, in);
+				}
+			}
+			return true;
+		}
+
+		//forward and backward over the blocks of train rows from to to, gradients and errors by block
+		private void pass(final Rows train, final int from, final int to, final int epoch, final int tasks,
+				final Workspace[] workspaces, final double[][][] gradients, final double[] blockErrors) throws Exception {
+			final int numBlocks = (to-from+BLOCK_ROWS-1)/BLOCK_ROWS;
+			if(tasks == 1) {
+				for(int b=0;b<numBlocks;b++) {
+					workspaces[0].block(train, from+b*BLOCK_ROWS, Math.min(to, from+(b+1)*BLOCK_ROWS), epoch, gradients[b]);
+					blockErrors[b] = workspaces[0].error;
+				}
+				return;
+			}
+			List<Callable<Void>> parts = new ArrayList<Callable<Void>>();
+			for(int t=0;t<tasks;t++) {
+				final Workspace workspace = workspaces[t];
+				final int first = t;
+				parts.add(new Callable<Void>() {
+					public Void call() throws Exception {
+						for(int b=first;b<numBlocks;b+=tasks) {
+							workspace.block(train, from+b*BLOCK_ROWS, Math.min(to, from+(b+1)*BLOCK_ROWS), epoch, gradients[b]);
+							blockErrors[b] = workspace.error;
+						}
+						return null;
+					}
+				});
+			}
+			Tasks.run(parts);
+		}
+
+		//NeuralNode weight updates with the mean gradient of the mini-batch, blocks summed in order
+		private void update(double[][][] gradients, int numBlocks, int numRows) {
+			for(int l=0;l<weights.length;l++) {
+				double[] w = weights[l];
+				double[] change = changes[l];
+				double[] sum = gradients[0][l];
+				for(int b=1;b<numBlocks;b++) {
+					double[] g = gradients[b][l];
+					for(int j=0;j<sum.length;j++)
+						sum[j] += g[j];
+				}
+				double momentum = mlp.getMomentum();
+				for(int j=0;j<w.length;j++) {
+					double c = numRows == 1 ? sum[j] : sum[j]/numRows;
+					c += momentum*change[j];
+					w[j] += c;
+					change[j] = c;
+				}
+			}
+		}
+
+		//per task: values and errors of the nodes for one block of rows
+		private class Workspace {
+
+			private final double[][] values = new double[width.length][];
+			private final double[][] errors = new double[width.length][];
+			//sum of the squared output errors of the block, weighted and over the number of classes
+			private double error;
+
+			private Workspace() {
+				for(int l=0;l<width.length;l++) {
+					values[l] = new double[BLOCK_ROWS*width[l]];
+					errors[l] = new double[BLOCK_ROWS*width[l]];
+				}
+			}
+
+			//rows from to to of rows: values, errors and, if gradient is not null, the gradient
+			//(learning rate times error times input, summed over the rows)
+			void block(Rows rows, int from, int to, int epoch, double[][] gradient) {
+				int size = to-from;
+				int numInputs = width[0];
+				System.arraycopy(rows.values, from*numInputs, values[0], 0, size*numInputs);
+				for(int l=0;l<weights.length;l++)
+					forward(l, size);
+
+				int last = weights.length;
+				int numOutputs = width[last];
+				double[] out = values[last];
+				double[] outErrors = errors[last];
+				error = 0;
+				for(int k=0;k<size;k++) {
+					double squares = 0;
+					for(int o=0;o<numOutputs;o++) {
+						double value = out[k*numOutputs+o];
+						double e = rows.error(from+k, o, value);
+						squares += e*e;
+						outErrors[k*numOutputs+o] = sigmoid[last-1][o] ? e*(value*(1-value)) : e;
+					}
+					error += (squares/rows.numClasses)*rows.weights[from+k];
+				}
+				if(gradient == null)
+					return;
+
+				for(int l=last-1;l>0;l--)
+					backward(l, size);
+				for(int l=0;l<last;l++) {
+					double[] g = gradient[l];
+					java.util.Arrays.fill(g, 0);
+					int in = width[l];
+					int stride = in+1;
+					double[] input = values[l];
+					double[] delta = errors[l+1];
+					for(int k=0;k<size;k++) {
+						double rate = mlp.getLearningRate()*rows.weights[from+k];
+						if(mlp.getDecay())
+							rate /= epoch;
+						for(int o=0;o<width[l+1];o++) {
+							double learnTimesError = rate*delta[k*width[l+1]+o];
+							int row = o*stride;
+							g[row] += learnTimesError;
+							for(int i=0;i<in;i++)
+								g[row+1+i] += learnTimesError*input[k*in+i];
+						}
+					}
+				}
+			}
+
+			//values of layer l (SigmoidUnit/LinearUnit.outputValue) for the block: inputs times weights
+			private void forward(int l, int size) {
+				int in = width[l];
+				int out = width[l+1];
+				int stride = in+1;
+				double[] w = weights[l];
+				double[] input = values[l];
+				double[] output = values[l+1];
+				for(int k=0;k<size;k++) {
+					for(int o=0;o<out;o++) {
+						int row = o*stride;
+						double value = w[row];
+						for(int i=0;i<in;i++)
+							value += input[k*in+i]*w[row+1+i];
+						if(sigmoid[l][o]) {
+							if(value < -45)
+								value = 0;
+							else if(value > 45)
+								value = 1;
+							else
+								value = 1/(1+Math.exp(-value));
+						}
+						output[k*out+o] = value;
+					}
+				}
+			}
+
+			//errors of the nodes of layer l-1 (SigmoidUnit/LinearUnit.errorValue) from those of layer l
+			private void backward(int l, int size) {
+				int in = width[l];
+				int out = width[l+1];
+				int stride = in+1;
+				double[] w = weights[l];
+				double[] delta = errors[l+1];
+				double[] value = values[l];
+				double[] result = errors[l];
+				for(int k=0;k<size;k++) {
+					for(int h=0;h<in;h++) {
+						double e = 0;
+						for(int o=0;o<out;o++)
+							e += delta[k*out+o]*w[o*stride+1+h];
+						if(sigmoid[l-1][h]) {
+							double v = value[k*in+h];
+							e *= v*(1-v);
+						}
+						result[k*in+h] = e;
+					}
+				}
+			}
+		}
+
+		//rows with a class among from to to of the data, inputs in one array
+		private class Rows {
+
+			private final int size;
+			private final double[] values;
+			private final double[] classValues;
+			private final double[] weights;
+			private final double totalWeight;
+			private final boolean nominal;
+			private final int numClasses;
+			private final boolean normalizeClass;
+			private final double classRange;
+			private final double classBase;
+
+			private Rows(Instances instances, int from, int to) throws Exception {
+				int numInputs = inputs.length;
+				int count = 0;
+				for(int r=from;r<to;r++) {
+					if(!instances.instance(r).classIsMissing())
+						count++;
+				}
+				size = count;
+				values = new double[count*numInputs];
+				classValues = new double[count];
+				weights = new double[count];
+				double total = 0;
+				int k = 0;
+				for(int r=from;r<to;r++) {
+					Instance inst = instances.instance(r);
+					if(inst.classIsMissing())
+						continue;
+					//NeuralEnd gives 0 for a missing input
+					for(int i=0;i<numInputs;i++)
+						values[k*numInputs+i] = inst.isMissing(inputs[i]) ? 0 : inst.value(inputs[i]);
+					classValues[k] = inst.classValue();
+					weights[k] = inst.weight();
+					total += inst.weight();
+					k++;
+				}
+				totalWeight = total;
+				nominal = instances.classAttribute().isNominal();
+				numClasses = instances.numClasses();
+				normalizeClass = !nominal && mlp.getNormalizeNumericClass();
+				double[] ranges = (double[]) ModelCodec.field(mlp, "m_attributeRanges");
+				double[] bases = (double[]) ModelCodec.field(mlp, "m_attributeBases");
+				classRange = ranges[instances.classIndex()];
+				classBase = bases[instances.classIndex()];
+			}
+
+			//NeuralEnd.errorValue of output o for row k, whose output node gives value
+			double error(int k, int o, double value) {
+				if(nominal)
+					return (classValues[k] == o ? 1 : 0) - value;
+				if(!normalizeClass)
+					return classValues[k] - value;
+				if(classRange == 0)
+					return 0;
+				return (classValues[k] - (value*classRange + classBase))/classRange;
+			}
+		}
+
+		private static double[][] zeros(double[][] like) {
+			double[][] result = new double[like.length][];
+			for(int l=0;l<like.length;l++)
+				result[l] = new double[like[l].length];
+			return result;
+		}
+
+		private static double[][] copy(double[][] arrays) {
+			double[][] result = new double[arrays.length][];
+			for(int l=0;l<arrays.length;l++)
+				result[l] = arrays[l].clone();
+			return result;
+		}
+	}
+
+	/**
+	 * Command line, as for MultilayerPerceptron (e.g. -t src/data/iris.arff); see RegressionCoefficients for a demo.
+	 */
+	public static void main(String[] argv) {
+		runClassifier(new FastMultilayerPerceptron(), argv);
+	}
+}
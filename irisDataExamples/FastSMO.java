@@ -0,0 +1,299 @@
+package irisDataExamples;
+
+/**
+ * SMO training its one-vs-one binary machines concurrently, each on a RowCacheKernel.
+ *
+ * SMO trains the numClasses*(numClasses-1)/2 machines of a multiclass problem one after the
+ * other, each asking its kernel (a copy of the one set) for values one by one through a hash
+ * table cache of doubles. Here the data of every pair of classes is prepared as in SMO (same
+ * filters, same order, same shuffling with the seed), and then the machines are trained by up
+ * to numThreads tasks on the common pool, the largest pairs first. Every machine with a
+ * non-linear kernel wraps its copy of the kernel in a RowCacheKernel of cacheSize megabytes
+ * (so several of them can be in memory at once), which computes whole kernel rows in parallel
+ * and keeps them off-heap: such a machine computes its outputs from the kernel rows of its
+ * support vectors. A linear machine computes them from its weights and asks the kernel only for
+ * the values of its few unbound multipliers, so it keeps the kernel's own cache, where whole rows
+ * would cost more than they save (4 times slower on 30000 rows).
+ * The solver itself is SMO's BinarySMO, unchanged, and it gets from the row cache the values its
+ * kernel returns for every pair in the order asked, so the machines are those of SMO with the
+ * kernel's cache turned off, and those of SMO itself for PolyKernel and NormalizedPolyKernel
+ * (with RBFKernel and Puk SMO's cache may keep K(j,i) for K(i,j), see RowCacheKernel). The
+ * machines of the folds that collect the outputs for the calibration models (-M with -V) are on
+ * row caches too.
+ *
+ * Kernel evaluations, cache hits and misses of the last training are summed over the machines.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.functions.SMO;
+import weka.classifiers.functions.supportVector.Kernel;
+import weka.classifiers.functions.supportVector.NormalizedPolyKernel;
+import weka.classifiers.functions.supportVector.PolyKernel;
+import weka.core.Attribute;
+import weka.core.Capabilities.Capability;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.filters.Filter;
+import weka.filters.unsupervised.attribute.NominalToBinary;
+import weka.filters.unsupervised.attribute.Normalize;
+import weka.filters.unsupervised.attribute.ReplaceMissingValues;
+import weka.filters.unsupervised.attribute.Standardize;
+
+public class FastSMO extends SMO {
+
+	private static final long serialVersionUID = -1675262305823384097L;
+
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+	private int cacheSize = 64;
+
+	private long kernelEvaluations;
+	private long cacheHits;
+	private long cacheMisses;
+
+	public void setNumThreads(int numThreads) {
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	/**
+	 * Megabytes of cached kernel rows per binary machine.
+	 */
+	public void setCacheSize(int cacheSize) {
+		this.cacheSize = Math.max(0, cacheSize);
+	}
+
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
+	public long getKernelEvaluations() {
+		return kernelEvaluations;
+	}
+
+	public long getCacheHits() {
+		return cacheHits;
+	}
+
+	public long getCacheMisses() {
+		return cacheMisses;
+	}
+
+	@Override
+	public void buildClassifier(Instances insts) throws Exception {
+		if(!m_checksTurnedOff) {
+			getCapabilities().testWithFail(insts);
+			insts = new Instances(insts);
+			insts.deleteWithMissingClass();
+			//condition (8) of Keerthi's paper assumes C*weight > 0
+			Instances data = new Instances(insts, insts.numInstances());
+			for(int i=0;i<insts.numInstances();i++) {
+				if(insts.instance(i).weight() > 0)
+					data.add(insts.instance(i));
+			}
+			if(data.numInstances() == 0)
+				throw new Exception("No training instances left after removing instances with weight 0!");
+			insts = data;
+			m_Missing = new ReplaceMissingValues();
+			m_Missing.setInputFormat(insts);
+			insts = Filter.useFilter(insts, m_Missing);
+		} else {
+			m_Missing = null;
+		}
+
+		m_NominalToBinary = null;
+		if(getCapabilities().handles(Capability.NUMERIC_ATTRIBUTES) && !m_checksTurnedOff && !onlyNumeric(insts)) {
+			m_NominalToBinary = new NominalToBinary();
+			m_NominalToBinary.setInputFormat(insts);
+			insts = Filter.useFilter(insts, m_NominalToBinary);
+		}
+
+		if(m_filterType == FILTER_STANDARDIZE)
+			m_Filter = new Standardize();
+		else if(m_filterType == FILTER_NORMALIZE)
+			m_Filter = new Normalize();
+		else
+			m_Filter = null;
+		if(m_Filter != null) {
+			m_Filter.setInputFormat(insts);
+			insts = Filter.useFilter(insts, m_Filter);
+		}
+
+		m_classIndex = insts.classIndex();
+		m_classAttribute = insts.classAttribute();
+		m_KernelIsLinear = m_kernel instanceof PolyKernel && ((PolyKernel) m_kernel).getExponent() == 1.0
+				&& !((PolyKernel) m_kernel).getUseLowerOrder() && !(m_kernel instanceof NormalizedPolyKernel);
+
+		int numClasses = insts.numClasses();
+		Instances[] subsets = new Instances[numClasses];
+		for(int i=0;i<numClasses;i++)
+			subsets[i] = new Instances(insts, insts.numInstances());
+		for(int j=0;j<insts.numInstances();j++) {
+			Instance inst = insts.instance(j);
+			subsets[(int) inst.classValue()].add(inst);
+		}
+		for(int i=0;i<numClasses;i++)
+			subsets[i].compactify();
+
+		//the data of every pair in SMO's order, as the shuffles share one Random
+		Random rand = new Random(m_randomSeed);
+		m_classifiers = new BinarySMO[numClasses][numClasses];
+		final List<PairSMO> pairs = new ArrayList<PairSMO>();
+		for(int i=0;i<numClasses;i++) {
+			for(int j=i+1;j<numClasses;j++) {
+				Instances data = new Instances(insts, insts.numInstances());
+				for(int k=0;k<subsets[i].numInstances();k++)
+					data.add(subsets[i].instance(k));
+				for(int k=0;k<subsets[j].numInstances();k++)
+					data.add(subsets[j].instance(k));
+				data.compactify();
+				data.randomize(rand);
+				Kernel kernel = Kernel.makeCopy(getKernel());
+				if(!m_KernelIsLinear) {
+					RowCacheKernel rows = new RowCacheKernel(kernel);
+					rows.setCacheSize(cacheSize);
+					rows.setNumThreads(numThreads);
+					kernel = rows;
+				}
+				PairSMO pair = new PairSMO(data, i, j, kernel);
+				m_classifiers[i][j] = pair;
+				pairs.add(pair);
+			}
+		}
+
+		//largest pairs first, taken by the tasks as they finish the previous ones
+		pairs.sort(new Comparator<PairSMO>() {
+			public int compare(PairSMO a, PairSMO b) {
+				return Integer.compare(b.data.numInstances(), a.data.numInstances());
+			}
+		});
+		final AtomicInteger next = new AtomicInteger();
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for(int t=0;t<Math.min(numThreads, pairs.size());t++) {
+			tasks.add(new Callable<Void>() {
+				public Void call() throws Exception {
+					for(int p=next.getAndIncrement();p<pairs.size();p=next.getAndIncrement())
+						pairs.get(p).train();
+					return null;
+				}
+			});
+		}
+		Tasks.run(tasks);
+
+		kernelEvaluations = 0;
+		cacheHits = 0;
+		cacheMisses = 0;
+		for(PairSMO pair : pairs) {
+			kernelEvaluations += pair.evaluations;
+			cacheHits += pair.hits;
+			cacheMisses += pair.misses;
+		}
+	}
+
+	private static boolean onlyNumeric(Instances insts) {
+		for(int i=0;i<insts.numAttributes();i++) {
+			if(i != insts.classIndex() && !insts.attribute(i).isNumeric())
+				return false;
+		}
+		return true;
+	}
+
+	//BinarySMO.buildClassifier is protected, reachable from a subclass
+	private class PairSMO extends BinarySMO {
+
+		private static final long serialVersionUID = 6230775541931860285L;
+
+		private final int class1;
+		private final int class2;
+		private transient Instances data;
+		private long evaluations;
+		private long hits;
+		private long misses;
+
+		private PairSMO(Instances data, int class1, int class2, Kernel kernel) {
+			this.data = data;
+			this.class1 = class1;
+			this.class2 = class2;
+			setKernel(kernel);
+		}
+
+		private void train() throws Exception {
+			Kernel kernel = getKernel();
+			buildClassifier(data, class1, class2, m_fitCalibratorModels, m_numFolds, m_randomSeed);
+			data = null;
+			if(kernel instanceof RowCacheKernel) {
+				RowCacheKernel rows = (RowCacheKernel) kernel;
+				evaluations = rows.getEvaluations();
+				hits = rows.getHits();
+				misses = rows.getMisses();
+			} else {
+				//CachedKernel evaluates what it misses
+				evaluations = Math.max(0, m_nEvals);
+				hits = Math.max(0, m_nCacheHits);
+				misses = evaluations;
+			}
+		}
+
+		//as BinarySMO's, with the machines of the folds on row caches too (BinarySMO's train on
+		//copies of the kernel set, with its cache)
+		@Override
+		protected void fitCalibrator(Instances insts, int cl1, int cl2, int numFolds, Random random) throws Exception {
+			if(numFolds <= 0 || m_KernelIsLinear) {
+				super.fitCalibrator(insts, cl1, cl2, numFolds, random);
+				return;
+			}
+			ArrayList<Attribute> atts = new ArrayList<Attribute>(2);
+			atts.add(new Attribute("pred"));
+			ArrayList<String> attVals = new ArrayList<String>(2);
+			attVals.add(insts.classAttribute().value(cl1));
+			attVals.add(insts.classAttribute().value(cl2));
+			atts.add(new Attribute("class", attVals));
+			Instances data = new Instances("data", atts, insts.numInstances());
+			data.setClassIndex(1);
+			m_calibrationDataHeader = data;
+
+			numFolds = Math.min(numFolds, insts.numInstances());
+			insts = new Instances(insts);
+			insts.randomize(random);
+			insts.stratify(numFolds);
+			for(int i=0;i<numFolds;i++) {
+				Instances train = insts.trainCV(numFolds, i, random);
+				RowCacheKernel rows = new RowCacheKernel(Kernel.makeCopy(FastSMO.this.getKernel()));
+				rows.setCacheSize(cacheSize);
+				rows.setNumThreads(numThreads);
+				PairSMO fold = new PairSMO(train, cl1, cl2, rows);
+				fold.buildClassifier(train, cl1, cl2, false, -1, -1);
+				Instances test = insts.testCV(numFolds, i);
+				for(int j=0;j<test.numInstances();j++) {
+					double[] vals = new double[2];
+					vals[0] = fold.SVMOutput(-1, test.instance(j));
+					if(test.instance(j).classValue() == cl2)
+						vals[1] = 1;
+					data.add(new DenseInstance(test.instance(j).weight(), vals));
+				}
+			}
+			m_calibrator = AbstractClassifier.makeCopy(getCalibrator());
+			m_calibrator.buildClassifier(data);
+		}
+	}
+
+	/**
+	 * Command line, as for SMO (e.g. -t src/data/iris.arff); see ClassifiersInformation for a demo.
+	 */
+	public static void main(String[] argv) {
+		runClassifier(new FastSMO(), argv);
+	}
+}
@@ -0,0 +1,114 @@
+package irisDataExamples;
+
+/**
+ * SMOreg whose optimizer (RegSMOImproved, the default) works on a RowCacheKernel.
+ *
+ * RegSMOImproved updates the error of every instance from the kernel rows of the two multipliers
+ * of each step and computes outputs from the row of one instance, all through CachedKernel's
+ * hash table of single doubles. Here the optimizer is the same RegSMOImproved, with the same
+ * options, whose kernel is wrapped once built in a RowCacheKernel of cacheSize megabytes: rows
+ * computed in parallel and kept off-heap. When the optimization is over the wrapped
+ * kernel is put back, so a linear machine is still turned into weights and predictions are
+ * evaluated as SMOreg's. The machines are those of SMOreg with the kernel's cache turned off, and
+ * of SMOreg itself for PolyKernel and NormalizedPolyKernel (see RowCacheKernel for RBFKernel and
+ * Puk). Other optimizers (RegSMO) are left to SMOreg.
+ *
+ * Kernel evaluations, cache hits and misses of the last training are kept for metrics.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import weka.classifiers.functions.SMOreg;
+import weka.classifiers.functions.supportVector.RegSMOImproved;
+import weka.core.Instances;
+
+public class FastSMOreg extends SMOreg {
+
+	private static final long serialVersionUID = 8431179926372470351L;
+
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+	private int cacheSize = 64;
+
+	public void setNumThreads(int numThreads) {
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	/**
+	 * Megabytes of cached kernel rows.
+	 */
+	public void setCacheSize(int cacheSize) {
+		this.cacheSize = Math.max(0, cacheSize);
+	}
+
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
+	public long getKernelEvaluations() {
+		return m_optimizer instanceof CachedRegSMOImproved ? ((CachedRegSMOImproved) m_optimizer).evaluations : 0;
+	}
+
+	public long getCacheHits() {
+		return m_optimizer instanceof CachedRegSMOImproved ? ((CachedRegSMOImproved) m_optimizer).hits : 0;
+	}
+
+	public long getCacheMisses() {
+		return m_optimizer instanceof CachedRegSMOImproved ? ((CachedRegSMOImproved) m_optimizer).misses : 0;
+	}
+
+	@Override
+	public void buildClassifier(Instances instances) throws Exception {
+		if(m_optimizer.getClass() == RegSMOImproved.class) {
+			CachedRegSMOImproved optimizer = new CachedRegSMOImproved();
+			optimizer.setOptions(m_optimizer.getOptions());
+			m_optimizer = optimizer;
+		}
+		super.buildClassifier(instances);
+	}
+
+	//init and wrapUp are protected, reachable from a subclass
+	private static class CachedRegSMOImproved extends RegSMOImproved {
+
+		private static final long serialVersionUID = -2730998136420215617L;
+
+		private long evaluations;
+		private long hits;
+		private long misses;
+
+		@Override
+		protected void init(Instances data) throws Exception {
+			super.init(data);
+			FastSMOreg svm = (FastSMOreg) m_SVM;
+			RowCacheKernel kernel = new RowCacheKernel(m_kernel);
+			kernel.setCacheSize(svm.cacheSize);
+			kernel.setNumThreads(svm.numThreads);
+			kernel.buildKernel(data);
+			m_kernel = kernel;
+		}
+
+		@Override
+		protected void wrapUp() throws Exception {
+			RowCacheKernel kernel = (RowCacheKernel) m_kernel;
+			kernel.clean();
+			evaluations = kernel.getEvaluations();
+			hits = kernel.getHits();
+			misses = kernel.getMisses();
+			m_kernel = kernel.getKernel();
+			super.wrapUp();
+			m_nEvals = kernel.numEvals();
+			m_nCacheHits = kernel.numCacheHits();
+		}
+	}
+
+	/**
+	 * Command line, as for SMOreg (e.g. -t src/data/iris.arff -c 4); see RegressionCoefficients for a demo.
+	 */
+	public static void main(String[] argv) {
+		runClassifier(new FastSMOreg(), argv);
+	}
+}
@@ -0,0 +1,311 @@
+package irisDataExamples;
+
+/**
+ * Streaming chain of WEKA filters.
+ *
+ * Filter.useFilter copies the whole dataset into a new Instances at every filter, so
+ * Remove -> Discretize -> NonSparseToSparse followed by ArffSaver.writeBatch holds several
+ * full copies of the data. Here the filters are composed into one pass: every row is pushed
+ * through the input/output queues of the stages one at a time and handed to a RowConsumer
+ * (an incremental saver, a classifier...), so no intermediate dataset is built.
+ *
+ * Streamable filters (Remove, NonSparseToSparse, ...) pass each row on as soon as it arrives.
+ * Filters that need to see the data first (Discretize, AttributeSelection, ...) follow the
+ * WEKA batch protocol: they keep their first batch until batchFinished and convert every
+ * later row right away. Their first batch is either a sample given to prime (its output is
+ * discarded) or, if the pipeline is not primed, the whole stream of the first run, which run
+ * warns about. A HistogramDiscretize stage needs no sample: learn streams a source through the
+ * stages before it into its histograms, chunk by chunk, and computes its cut points.
+ * The input format of a stage is set from the output format of the previous one as soon as
+ * it is known.
+ *
+ * On Iris, attributes 2 and 3 are removed, the rest discretized in 4 bins (cut points learnt
+ * from a first pass over the file) and converted to sparse format, streamed from
+ * src/data/iris.arff into src/data/iris_afterFilterPipeline.arff. FilterPipelineTest in the
+ * benchmarks module checks the rows are those of Filter.useFilter, one filter after the other.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.converters.AbstractSaver;
+import weka.core.converters.ArffSaver;
+import weka.core.converters.Saver;
+import weka.filters.Filter;
+import weka.filters.unsupervised.attribute.Remove;
+import weka.filters.unsupervised.instance.NonSparseToSparse;
+
+public class FilterPipeline {
+
+	private final List<Filter> stages = new ArrayList<Filter>();
+	private boolean[] formatSet;
+	private RowConsumer consumer;
+
+	/**
+	 * Receives the rows coming out of the last stage.
+	 */
+	public interface RowConsumer {
+		void accept(Instance inst) throws Exception;
+	}
+
+	/**
+	 * Appends a configured filter (options set, input format not set); returns this pipeline.
+	 */
+	public FilterPipeline add(Filter filter) {
+		if(formatSet != null)
+			throw new IllegalStateException("Stages cannot be added after setInputFormat");
+		stages.add(filter);
+		return this;
+	}
+
+	/**
+	 * Sets the format of the rows fed to the first stage (with its class index).
+	 */
+	public void setInputFormat(Instances header) throws Exception {
+		if(stages.isEmpty())
+			throw new IllegalStateException("No stages in the pipeline");
+		formatSet = new boolean[stages.size()];
+		stages.get(0).setInputFormat(new Instances(header, 0));
+		formatSet[0] = true;
+		chainFormats();
+	}
+
+	/**
+	 * True once the output format of the last stage is known.
+	 */
+	public boolean isOutputFormatDefined() {
+		return formatSet != null && formatSet[stages.size()-1] && stages.get(stages.size()-1).isOutputFormatDefined();
+	}
+
+	/**
+	 * Format of the rows coming out of the pipeline.
+	 */
+	public Instances getOutputFormat() {
+		if(!isOutputFormatDefined())
+			throw new IllegalStateException("Output format not defined yet: the batch stages have not seen their first batch");
+		return stages.get(stages.size()-1).getOutputFormat();
+	}
+
+	/**
+	 * Runs sample through the pipeline as the first batch of every stage, so filters that
+	 * learn from the data (cut points, selected attributes...) learn from it; the output is discarded.
+	 */
+	public void prime(Instances sample) throws Exception {
+		if(formatSet == null)
+			setInputFormat(sample);
+		consumer = new RowConsumer() {
+			public void accept(Instance inst) {
+				//primed rows are not part of the output
+			}
+		};
+		try {
+			for(int n=0;n<sample.numInstances();n++)
+				push(0, sample.instance(n));
+			flush();
+		} finally {
+			consumer = null;
+		}
+	}
+
+	/**
+	 * Computes the cut points of the first HistogramDiscretize stage that has none from every
+	 * chunk of source, sent through the stages before it (which must be streamable); nothing
+	 * reaches the later stages. Call it again, with a new source, for the next such stage.
+	 * Returns the number of rows read.
+	 */
+	public long learn(ChunkedDataSource source) throws Exception {
+		if(formatSet == null)
+			setInputFormat(source.getStructure());
+		int h = 0;
+		while(h < stages.size() && !(stages.get(h) instanceof HistogramDiscretize && !stages.get(h).isOutputFormatDefined()))
+			h++;
+		if(h == stages.size())
+			throw new IllegalStateException("No HistogramDiscretize stage left to learn");
+		if(!formatSet[h])
+			throw new IllegalStateException("The stages before stage " + h + " must be streamable");
+		HistogramDiscretize discretize = (HistogramDiscretize) stages.get(h);
+		Instances rows = new Instances(h == 0 ? source.getStructure() : stages.get(h-1).getOutputFormat(), 0);
+		long numRows = 0;
+		Instances chunk;
+		while((chunk = source.nextChunk()) != null) {
+			for(int n=0;n<chunk.numInstances();n++)
+				pushUntil(0, h, chunk.instance(n), rows);
+			numRows += chunk.numInstances();
+			if(rows.numInstances() > 0) {
+				discretize.update(rows);
+				rows.delete();
+			}
+		}
+		//whatever the stages before still hold
+		for(int s=0;s<h;s++) {
+			stages.get(s).batchFinished();
+			Instance out;
+			while((out = stages.get(s).output()) != null)
+				pushUntil(s+1, h, out, rows);
+		}
+		if(rows.numInstances() > 0)
+			discretize.update(rows);
+		discretize.computeCutPoints();
+		chainFormats();
+		return numRows;
+	}
+
+	//pushes a row through the stages before last, into rows
+	private void pushUntil(int stage, int last, Instance inst, Instances rows) throws Exception {
+		if(stage == last) {
+			rows.add(inst);
+			return;
+		}
+		Filter filter = stages.get(stage);
+		if(filter.input(inst)) {
+			Instance out;
+			while((out = filter.output()) != null)
+				pushUntil(stage+1, last, out, rows);
+		}
+	}
+
+	/**
+	 * Streams every chunk of source through the pipeline into consumer.
+	 * Returns the number of rows fed in.
+	 */
+	public long run(ChunkedDataSource source, RowConsumer consumer) throws Exception {
+		if(formatSet == null)
+			setInputFormat(source.getStructure());
+		for(int s=0;s<stages.size();s++) {
+			if(formatSet[s] && !stages.get(s).isOutputFormatDefined()) {
+				System.err.println("Stage " + s + " (" + stages.get(s).getClass().getName() + ") is neither primed nor learnt:"
+					+ " it keeps every row of this run until the end");
+				break;
+			}
+		}
+		this.consumer = consumer;
+		long numRows = 0;
+		try {
+			Instances chunk;
+			while((chunk = source.nextChunk()) != null) {
+				for(int n=0;n<chunk.numInstances();n++)
+					push(0, chunk.instance(n));
+				numRows += chunk.numInstances();
+			}
+			flush();
+		} finally {
+			this.consumer = null;
+		}
+		return numRows;
+	}
+
+	/**
+	 * Streams source through the pipeline into saver, in incremental mode.
+	 * Returns the number of rows written.
+	 */
+	public long run(ChunkedDataSource source, final AbstractSaver saver) throws Exception {
+		final long[] written = new long[1];
+		run(source, new RowConsumer() {
+			public void accept(Instance inst) throws Exception {
+				if(written[0]++ == 0)
+					saver.setStructure(getOutputFormat());
+				saver.writeIncremental(inst);
+			}
+		});
+		if(written[0] == 0)
+			saver.setStructure(getOutputFormat());
+		saver.writeIncremental(null);
+		return written[0];
+	}
+
+	/**
+	 * Pushes one row through the pipeline now, into consumer; stages that have not seen their
+	 * first batch yet keep it until flush.
+	 */
+	public void process(Instance inst, RowConsumer consumer) throws Exception {
+		this.consumer = consumer;
+		try {
+			push(0, inst);
+		} finally {
+			this.consumer = null;
+		}
+	}
+
+	/**
+	 * Ends the current batch of every stage, in order, passing on whatever they still hold.
+	 */
+	public void flush(RowConsumer consumer) throws Exception {
+		this.consumer = consumer;
+		try {
+			flush();
+		} finally {
+			this.consumer = null;
+		}
+	}
+
+	private void flush() throws Exception {
+		for(int s=0;s<stages.size();s++) {
+			if(!formatSet[s])
+				throw new IllegalStateException("Stage " + s + " (" + stages.get(s).getClass().getName() + ") has no input format: no rows reached it");
+			stages.get(s).batchFinished();
+			drain(s);
+			chainFormats();
+		}
+	}
+
+	private void push(int stage, Instance inst) throws Exception {
+		if(stage == stages.size()) {
+			consumer.accept(inst);
+			return;
+		}
+		if(stages.get(stage).input(inst))
+			drain(stage);
+	}
+
+	private void drain(int stage) throws Exception {
+		Filter filter = stages.get(stage);
+		if(!filter.isOutputFormatDefined() || filter.numPendingOutput() == 0)
+			return;
+		chainFormats();
+		Instance out;
+		while((out = filter.output()) != null)
+			push(stage+1, out);
+	}
+
+	//sets the input format of the stages whose previous stage knows its output format
+	private void chainFormats() throws Exception {
+		for(int s=1;s<stages.size();s++) {
+			if(!formatSet[s] && formatSet[s-1] && stages.get(s-1).isOutputFormatDefined()) {
+				stages.get(s).setInputFormat(stages.get(s-1).getOutputFormat());
+				formatSet[s] = true;
+			}
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		//remove the 2nd and 3rd attributes (keep 1, 4 and the class)
+		Remove remove = new Remove();
+		remove.setOptions(new String[] {"-R", "1,4,5", "-V"});
+
+		//4 bins for the two remaining numeric attributes
+		HistogramDiscretize discretize = new HistogramDiscretize();
+		discretize.setOptions(new String[] {"-B", "4", "-R", "1-2"});
+
+		FilterPipeline pipeline = new FilterPipeline().add(remove).add(discretize).add(new NonSparseToSparse());
+
+		//a first pass learns the cut points into histograms, so no stage buffers the data
+		pipeline.learn(new ChunkedDataSource("src/data/iris.arff", 1000));
+
+		//stream the file through the three filters straight into the saver
+		ChunkedDataSource source = new ChunkedDataSource("src/data/iris.arff", 1000);
+		ArffSaver saver = new ArffSaver();
+		saver.setRetrieval(Saver.INCREMENTAL);
+		saver.setFile(new File("src/data/iris_afterFilterPipeline.arff"));
+		long numRows = pipeline.run(source, saver);
+		System.out.println(numRows + " rows filtered and saved in src/data/iris_afterFilterPipeline.arff");
+	}
+} /*Output:
+150 rows filtered and saved in src/data/iris_afterFilterPipeline.arff
+*/
@@ -19,6 +19,8 @@ import weka.core.converters.ConverterUtils.DataSource;
  * This includes: Correctly Classified Instances, Root relative squared error...
  * Also, additional statistics are printed, like AUC or the root-relative-squared-error,
  * plus a confusion matrix.
+ * The folds are RowViews: the data is randomized and split through row indices,
+ * without copying instances.
  * 
  * @author feBueno, May 2020
  * fernando.bueno.gutie@gmail.com
@@ -41,18 +43,18 @@ public class Folds {
 		Random rand = new Random(47);
 		int folds=3;
 		
-		//randomly sort instances
-		Instances randData = new Instances(data);
+		//randomly sort instances (their indices)
+		RowView randData = new RowView(data);
 		randData.randomize(rand);
-		if(randData.classAttribute().isNominal())
+		if(data.classAttribute().isNominal())
 			randData.randomize(rand);
 		
 		//carry cross-validation
 		for(int n=0;n<folds;n++) {
-			Evaluation eval = new Evaluation(randData);
+			Evaluation eval = new Evaluation(randData.instances());
 			//get folds
-			Instances dataTrain = randData.trainCV(folds, n);
-			Instances dataTest = randData.trainCV(folds, n);
+			Instances dataTrain = randData.trainCV(folds, n).instances();
+			Instances dataTest = randData.trainCV(folds, n).instances();
 			//build and evaluate classifier
 			tree.buildClassifier(dataTrain);
 			eval.evaluateModel(tree, dataTest);
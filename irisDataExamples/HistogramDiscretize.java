@@ -0,0 +1,669 @@
+package irisDataExamples;
+
+/**
+ * Discretize with parallel, histogram-based cut points.
+ *
+ * WEKA's Discretize computes the cut points of the selected attributes one after the other on
+ * the calling thread, and equal-frequency binning copies and sorts the whole dataset once per
+ * attribute (so does supervised Discretize for MDL). Here every selected attribute is a task on
+ * the common ForkJoinPool that scans its column once into a StreamingHistogram: sorted
+ * (value, weight, rows, class weights) bins, exact as long as the column has at most maxBins
+ * distinct values, and beyond that the closest bins are merged into their weighted mean.
+ * Histograms of chunks merge, so the data never needs a full sort nor to be in memory at once.
+ * The cut points are then computed from the bins:
+ * - equal-width (default): from the exact minimum and maximum,
+ * - equal-frequency (-F, -M): WEKA's algorithm run over the bins instead of the sorted rows,
+ * - MDL (-mdl): the Fayyad and Irani criterion of supervised Discretize (with its options -E
+ *   and -K), over the bins.
+ * With exact histograms the cut points are the ones WEKA computes. Finding the number of bins
+ * (-O) needs the rows and is left to WEKA.
+ *
+ * -max-bins sets maxBins. Everything else is WEKA's unsupervised Discretize: options, output
+ * format and conversion.
+ * Once the cut points are known every later row is converted as soon as it is input, so they
+ * are reused on later streaming batches (e.g. in a FilterPipeline) without recomputing. learn
+ * computes them from a ChunkedDataSource, one chunk at a time, before any row is filtered.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+
+import weka.core.ContingencyTables;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Option;
+import weka.core.SpecialFunctions;
+import weka.core.Utils;
+import weka.filters.unsupervised.attribute.Discretize;
+
+public class HistogramDiscretize extends Discretize {
+
+	private static final long serialVersionUID = -3047815121790261946L;
+
+	private int maxBins = 10000;
+	private boolean useMDL;
+	private boolean useBetterEncoding;
+	private boolean useKononenko;
+
+	//one histogram per selected attribute while learning from chunks (null for the others)
+	private StreamingHistogram[] histograms;
+
+	/**
+	 * Maximum number of bins per histogram; columns with at most this many distinct values
+	 * get exactly WEKA's cut points.
+	 */
+	public void setMaxBins(int maxBins) {
+		this.maxBins = Math.max(2, maxBins);
+	}
+
+	public int getMaxBins() {
+		return maxBins;
+	}
+
+	/**
+	 * Supervised (MDL) cut points, as in weka.filters.supervised.attribute.Discretize;
+	 * needs a nominal class.
+	 */
+	public void setUseMDL(boolean useMDL) {
+		this.useMDL = useMDL;
+	}
+
+	public boolean getUseMDL() {
+		return useMDL;
+	}
+
+	/**
+	 * MDL only: same as -E of supervised Discretize.
+	 */
+	public void setUseBetterEncoding(boolean useBetterEncoding) {
+		this.useBetterEncoding = useBetterEncoding;
+	}
+
+	public boolean getUseBetterEncoding() {
+		return useBetterEncoding;
+	}
+
+	/**
+	 * MDL only: same as -K of supervised Discretize.
+	 */
+	public void setUseKononenko(boolean useKononenko) {
+		this.useKononenko = useKononenko;
+	}
+
+	public boolean getUseKononenko() {
+		return useKononenko;
+	}
+
+	@Override
+	public Enumeration<Option> listOptions() {
+		Vector<Option> options = new Vector<Option>();
+		options.add(new Option("\tMDL cut points, as supervised Discretize (needs a nominal class).", "mdl", 0, "-mdl"));
+		options.add(new Option("\tUse better encoding of split point for MDL.", "E", 0, "-E"));
+		options.add(new Option("\tUse Kononenko's MDL criterion.", "K", 0, "-K"));
+		options.add(new Option("\tMaximum number of histogram bins per attribute.\n\t(default 10000)", "max-bins", 1, "-max-bins <num>"));
+		options.addAll(Collections.list(super.listOptions()));
+		return options.elements();
+	}
+
+	@Override
+	public void setOptions(String[] options) throws Exception {
+		//read before Discretize, which rejects the options it does not know
+		setUseMDL(Utils.getFlag("mdl", options));
+		setUseBetterEncoding(Utils.getFlag('E', options));
+		setUseKononenko(Utils.getFlag('K', options));
+		String maxBins = Utils.getOption("max-bins", options);
+		setMaxBins(maxBins.isEmpty() ? 10000 : Integer.parseInt(maxBins));
+		super.setOptions(options);
+	}
+
+	@Override
+	public String[] getOptions() {
+		List<String> options = new ArrayList<String>();
+		if(useMDL)
+			options.add("-mdl");
+		if(useBetterEncoding)
+			options.add("-E");
+		if(useKononenko)
+			options.add("-K");
+		options.add("-max-bins");
+		options.add("" + maxBins);
+		Collections.addAll(options, super.getOptions());
+		return options.toArray(new String[options.size()]);
+	}
+
+	@Override
+	public boolean setInputFormat(Instances instanceInfo) throws Exception {
+		if(useMDL && (instanceInfo.classIndex() < 0 || !instanceInfo.classAttribute().isNominal()))
+			throw new IllegalArgumentException("MDL discretization needs a nominal class");
+		histograms = null;
+		return super.setInputFormat(instanceInfo);
+	}
+
+	/**
+	 * Adds the rows of chunk to the histograms of the selected attributes (one task per
+	 * attribute), without buffering them. The input format must be set.
+	 */
+	public void update(final Instances chunk) throws Exception {
+		if(getInputFormat() == null)
+			throw new IllegalStateException("No input instance format defined");
+		if(m_CutPoints != null)
+			throw new IllegalStateException("Cut points already computed");
+		final int[] columns = selectedColumns();
+		if(histograms == null)
+			histograms = new StreamingHistogram[getInputFormat().numAttributes()];
+		run(columns, new ColumnTask() {
+			public void process(int j) {
+				StreamingHistogram h = histogram(chunk, j);
+				if(histograms[j] == null)
+					histograms[j] = h;
+				else
+					histograms[j].merge(h);
+			}
+		});
+	}
+
+	/**
+	 * Sets the cut points from the rows given to update and defines the output format: from
+	 * now on every row input is converted right away.
+	 */
+	public void computeCutPoints() {
+		if(getInputFormat() == null)
+			throw new IllegalStateException("No input instance format defined");
+		if(histograms == null)
+			histograms = new StreamingHistogram[getInputFormat().numAttributes()];
+		m_CutPoints = new double[getInputFormat().numAttributes()][];
+		for(int j : selectedColumns())
+			m_CutPoints[j] = histograms[j] == null ? null : cutPoints(histograms[j]);
+		histograms = null;
+		setOutputFormat();
+	}
+
+	/**
+	 * Reads source chunk by chunk into the histograms and computes the cut points, so the data
+	 * is never held in memory. Sets the input format from the source if not set yet.
+	 * Returns the number of rows read.
+	 */
+	public long learn(ChunkedDataSource source) throws Exception {
+		if(getInputFormat() == null)
+			setInputFormat(source.getStructure());
+		long numRows = 0;
+		Instances chunk;
+		while((chunk = source.nextChunk()) != null) {
+			update(chunk);
+			numRows += chunk.numInstances();
+		}
+		computeCutPoints();
+		return numRows;
+	}
+
+	/**
+	 * First batch: the buffered rows are scanned one task per attribute.
+	 */
+	@Override
+	protected void calculateCutPoints() {
+		if(m_FindNumBins) {
+			super.calculateCutPoints();
+			return;
+		}
+		final Instances data = getInputFormat();
+		m_CutPoints = new double[data.numAttributes()][];
+		try {
+			run(selectedColumns(), new ColumnTask() {
+				public void process(int j) {
+					m_CutPoints[j] = cutPoints(histogram(data, j));
+				}
+			});
+		} catch(Exception e) {
+			throw new IllegalStateException("Could not compute the cut points", e);
+		}
+	}
+
+	//attributes the filter discretizes, as in Discretize.calculateCutPoints
+	private int[] selectedColumns() {
+		Instances format = getInputFormat();
+		int[] columns = new int[format.numAttributes()];
+		int n = 0;
+		for(int j=0;j<format.numAttributes();j++) {
+			if(m_DiscretizeCols.isInRange(j) && format.attribute(j).isNumeric() && format.classIndex() != j)
+				columns[n++] = j;
+		}
+		return Arrays.copyOf(columns, n);
+	}
+
+	private interface ColumnTask {
+		void process(int j) throws Exception;
+	}
+
+	private static void run(int[] columns, final ColumnTask task) throws Exception {
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for(final int j : columns) {
+			tasks.add(new Callable<Void>() {
+				public Void call() throws Exception {
+					task.process(j);
+					return null;
+				}
+			});
+		}
+		Tasks.run(tasks);
+	}
+
+	private StreamingHistogram histogram(Instances data, int j) {
+		boolean withClass = useMDL;
+		//equal-width cut points only need the range
+		int numBins = useMDL || m_UseEqualFrequency ? maxBins : 0;
+		StreamingHistogram h = new StreamingHistogram(numBins, withClass ? data.numClasses() : 0);
+		for(int i=0;i<data.numInstances();i++) {
+			Instance inst = data.instance(i);
+			//a missing class counts as the first class, as in supervised Discretize
+			h.add(inst.value(j), inst.weight(), withClass ? (int) inst.classValue() : 0);
+		}
+		return h;
+	}
+
+	private double[] cutPoints(StreamingHistogram h) {
+		h.flush();
+		if(useMDL)
+			return cutPointsForSubset(h, 0, h.numBins);
+		if(m_UseEqualFrequency)
+			return equalFrequencyCutPoints(h);
+		return equalWidthCutPoints(h);
+	}
+
+	//Discretize.calculateCutPointsByEqualWidthBinning, from the exact range
+	private double[] equalWidthCutPoints(StreamingHistogram h) {
+		if(h.min > h.max)
+			return null;//no values
+		double binWidth = (h.max - h.min) / m_NumBins;
+		if(m_NumBins <= 1 || binWidth <= 0)
+			return null;
+		double[] cutPoints = new double[m_NumBins - 1];
+		for(int i=1;i<m_NumBins;i++)
+			cutPoints[i-1] = h.min + binWidth*i;
+		return cutPoints;
+	}
+
+	//Discretize.calculateCutPointsByEqualFrequencyBinning, one bin standing for the rows of its value
+	private double[] equalFrequencyCutPoints(StreamingHistogram h) {
+		double sumOfWeights = 0;
+		for(int b=0;b<h.numBins;b++)
+			sumOfWeights += h.weights[b];
+		double freq;
+		double[] cutPoints;
+		if(getDesiredWeightOfInstancesPerInterval() > 0) {
+			freq = getDesiredWeightOfInstancesPerInterval();
+			cutPoints = new double[(int) (sumOfWeights / freq)];
+		} else {
+			freq = sumOfWeights / m_NumBins;
+			cutPoints = new double[m_NumBins - 1];
+		}
+
+		double counter = 0, last = 0;
+		int cpindex = 0, lastIndex = -1;
+		for(int b=0;b<h.numBins-1 && cpindex<cutPoints.length;b++) {
+			counter += h.weights[b];
+			sumOfWeights -= h.weights[b];
+			//every bin boundary is a potential breakpoint; have we passed the ideal size?
+			if(counter >= freq) {
+				//is this break point worse than the last one?
+				if((freq - last) < (counter - freq) && lastIndex != -1) {
+					cutPoints[cpindex] = (h.centers[lastIndex] + h.centers[lastIndex+1]) / 2;
+					counter -= last;
+					last = counter;
+					lastIndex = b;
+				} else {
+					cutPoints[cpindex] = (h.centers[b] + h.centers[b+1]) / 2;
+					counter = 0;
+					last = 0;
+					lastIndex = -1;
+				}
+				cpindex++;
+				freq = (sumOfWeights + counter) / ((cutPoints.length + 1) - cpindex);
+			} else {
+				lastIndex = b;
+				last = counter;
+			}
+		}
+
+		//another possibility for a cut point?
+		if(cpindex < cutPoints.length && lastIndex != -1) {
+			cutPoints[cpindex] = (h.centers[lastIndex] + h.centers[lastIndex+1]) / 2;
+			cpindex++;
+		}
+		return cpindex == 0 ? null : Arrays.copyOf(cutPoints, cpindex);
+	}
+
+	//supervised Discretize.cutPointsForSubset over bins [first, lastPlusOne)
+	private double[] cutPointsForSubset(StreamingHistogram h, int first, int lastPlusOne) {
+		int numClasses = h.numClasses;
+		long numRows = 0;
+		for(int b=first;b<lastPlusOne;b++)
+			numRows += h.counts[b];
+		if(numRows < 2)
+			return null;
+
+		double numInstances = 0;
+		double[][] counts = new double[2][numClasses];
+		for(int b=first;b<lastPlusOne;b++) {
+			numInstances += h.weights[b];
+			for(int c=0;c<numClasses;c++)
+				counts[1][c] += h.classWeights[b*numClasses + c];
+		}
+		double[] priorCounts = counts[1].clone();
+		double priorEntropy = ContingencyTables.entropy(priorCounts);
+		double bestEntropy = priorEntropy;
+		double bestCutPoint = -1;
+		int bestIndex = -1;
+		int numCutPoints = 0;
+
+		//find best entropy
+		double[][] bestCounts = new double[2][numClasses];
+		for(int b=first;b<lastPlusOne-1;b++) {
+			for(int c=0;c<numClasses;c++) {
+				counts[0][c] += h.classWeights[b*numClasses + c];
+				counts[1][c] -= h.classWeights[b*numClasses + c];
+			}
+			double currentEntropy = ContingencyTables.entropyConditionedOnRows(counts);
+			if(currentEntropy < bestEntropy) {
+				bestCutPoint = (h.centers[b] + h.centers[b+1]) / 2.0;
+				bestEntropy = currentEntropy;
+				bestIndex = b;
+				System.arraycopy(counts[0], 0, bestCounts[0], 0, numClasses);
+				System.arraycopy(counts[1], 0, bestCounts[1], 0, numClasses);
+			}
+			numCutPoints++;
+		}
+		if(!useBetterEncoding)
+			numCutPoints = (int) (numRows - 1);
+
+		if(priorEntropy - bestEntropy <= 0)
+			return null;
+		boolean accept = useKononenko ? kononenkosMDL(priorCounts, bestCounts, numInstances, numCutPoints)
+			: fayyadAndIranisMDL(priorCounts, bestCounts, numInstances, numCutPoints);
+		if(!accept)
+			return null;
+
+		double[] left = cutPointsForSubset(h, first, bestIndex + 1);
+		double[] right = cutPointsForSubset(h, bestIndex + 1, lastPlusOne);
+		int numLeft = left == null ? 0 : left.length;
+		int numRight = right == null ? 0 : right.length;
+		double[] cutPoints = new double[numLeft + 1 + numRight];
+		if(left != null)
+			System.arraycopy(left, 0, cutPoints, 0, numLeft);
+		cutPoints[numLeft] = bestCutPoint;
+		if(right != null)
+			System.arraycopy(right, 0, cutPoints, numLeft + 1, numRight);
+		return cutPoints;
+	}
+
+	private static boolean kononenkosMDL(double[] priorCounts, double[][] bestCounts, double numInstances, int numCutPoints) {
+		int numClassesTotal = numClassesIn(priorCounts);
+		double distPrior = SpecialFunctions.log2Binomial(numInstances + numClassesTotal - 1, numClassesTotal - 1);
+		double instPrior = SpecialFunctions.log2Multinomial(numInstances, priorCounts);
+		double before = instPrior + distPrior;
+		double distAfter = 0, instAfter = 0;
+		for(double[] bestCount : bestCounts) {
+			double sum = Utils.sum(bestCount);
+			distAfter += SpecialFunctions.log2Binomial(sum + numClassesTotal - 1, numClassesTotal - 1);
+			instAfter += SpecialFunctions.log2Multinomial(sum, bestCount);
+		}
+		double after = Utils.log2(numCutPoints) + distAfter + instAfter;
+		return before > after;
+	}
+
+	private static boolean fayyadAndIranisMDL(double[] priorCounts, double[][] bestCounts, double numInstances, int numCutPoints) {
+		double priorEntropy = ContingencyTables.entropy(priorCounts);
+		double entropy = ContingencyTables.entropyConditionedOnRows(bestCounts);
+		double gain = priorEntropy - entropy;
+		int numClassesTotal = numClassesIn(priorCounts);
+		int numClassesLeft = numClassesIn(bestCounts[0]);
+		int numClassesRight = numClassesIn(bestCounts[1]);
+		double entropyLeft = ContingencyTables.entropy(bestCounts[0]);
+		double entropyRight = ContingencyTables.entropy(bestCounts[1]);
+		double delta = Utils.log2(Math.pow(3, numClassesTotal) - 2)
+			- ((numClassesTotal * priorEntropy) - (numClassesRight * entropyRight) - (numClassesLeft * entropyLeft));
+		return gain > (Utils.log2(numCutPoints) + delta) / numInstances;
+	}
+
+	private static int numClassesIn(double[] counts) {
+		int n = 0;
+		for(double count : counts) {
+			if(count > 0)
+				n++;
+		}
+		return n;
+	}
+
+	/**
+	 * Mergeable histogram of a numeric column: at most maxBins sorted bins with their value
+	 * (the weighted mean of the values merged into them), weight, number of rows and, if
+	 * numClasses > 0, weight per class. A value already in a bin is added to it (binary search);
+	 * other values are buffered and merged in at once, about as many as there are bins, so the
+	 * closest bins are merged once per that many values. Missing values are skipped.
+	 * Exact (one bin per distinct value) until the column has more than maxBins distinct values.
+	 * With maxBins 0 only the range is kept (enough for equal-width cut points).
+	 */
+	public static class StreamingHistogram implements Serializable {
+
+		private static final long serialVersionUID = 6302251480985934907L;
+
+		private final int maxBins;
+		private final int numClasses;
+		private boolean exact = true;
+		private double min = Double.POSITIVE_INFINITY;
+		private double max = Double.NEGATIVE_INFINITY;
+
+		private int numBins;
+		private double[] centers = new double[0];
+		private double[] weights = new double[0];
+		private long[] counts = new long[0];
+		private double[] classWeights = new double[0];//numClasses per bin
+
+		private int numPending;
+		private double[] pendingValues;
+		private double[] pendingWeights;
+		private int[] pendingClasses;
+
+		public StreamingHistogram(int maxBins, int numClasses) {
+			this.maxBins = maxBins;
+			this.numClasses = numClasses;
+			int buffer = Math.min(maxBins, 64);
+			pendingValues = new double[buffer];
+			pendingWeights = new double[buffer];
+			pendingClasses = new int[buffer];
+		}
+
+		/**
+		 * Adds one value (with its weight and class index, ignored if numClasses is 0).
+		 */
+		public void add(double value, double weight, int classIndex) {
+			if(Double.isNaN(value))
+				return;
+			if(value < min)
+				min = value;
+			if(value > max)
+				max = value;
+			if(maxBins == 0)
+				return;
+			int b = Arrays.binarySearch(centers, 0, numBins, value);
+			if(b >= 0) {
+				weights[b] += weight;
+				counts[b]++;
+				if(numClasses > 0)
+					classWeights[b*numClasses + classIndex] += weight;
+				return;
+			}
+			pendingValues[numPending] = value;
+			pendingWeights[numPending] = weight;
+			pendingClasses[numPending] = classIndex;
+			if(++numPending < pendingValues.length)
+				return;
+			if(numPending < Math.min(numBins, maxBins)) {
+				int size = Math.min(maxBins, 2*numPending);
+				pendingValues = Arrays.copyOf(pendingValues, size);
+				pendingWeights = Arrays.copyOf(pendingWeights, size);
+				pendingClasses = Arrays.copyOf(pendingClasses, size);
+			} else {
+				flush();
+			}
+		}
+
+		/**
+		 * Adds the bins of other to this histogram.
+		 */
+		public void merge(StreamingHistogram other) {
+			if(other.numClasses != numClasses)
+				throw new IllegalArgumentException("Histograms with different numbers of classes");
+			flush();
+			other.flush();
+			min = Math.min(min, other.min);
+			max = Math.max(max, other.max);
+			exact &= other.exact;
+			mergeSorted(other.centers, other.weights, other.counts, other.classWeights, other.numBins);
+		}
+
+		public int numBins() {
+			flush();
+			return numBins;
+		}
+
+		/**
+		 * True if every bin holds a single distinct value.
+		 */
+		public boolean isExact() {
+			flush();
+			return exact;
+		}
+
+		public double min() {
+			return min;
+		}
+
+		public double max() {
+			return max;
+		}
+
+		//moves the buffered values into the bins
+		void flush() {
+			if(numPending == 0)
+				return;
+			double[] values = Arrays.copyOf(pendingValues, numPending);
+			int[] order = Utils.sort(values);
+			double[] c = new double[numPending];
+			double[] w = new double[numPending];
+			long[] n = new long[numPending];
+			double[] cw = new double[numPending*numClasses];
+			int m = 0;
+			for(int k=0;k<numPending;k++) {
+				int p = order[k];
+				if(m == 0 || values[p] != c[m-1]) {
+					c[m] = values[p];
+					m++;
+				}
+				w[m-1] += pendingWeights[p];
+				n[m-1]++;
+				if(numClasses > 0)
+					cw[(m-1)*numClasses + pendingClasses[p]] += pendingWeights[p];
+			}
+			numPending = 0;
+			mergeSorted(c, w, n, cw, m);
+		}
+
+		//merge-join of two sorted bin lists (equal values share a bin), then back to maxBins
+		private void mergeSorted(double[] c2, double[] w2, long[] n2, double[] cw2, int m) {
+			int size = numBins + m;
+			double[] c = new double[size];
+			double[] w = new double[size];
+			long[] n = new long[size];
+			double[] cw = new double[size*numClasses];
+			int a = 0, b = 0, k = 0;
+			while(a < numBins || b < m) {
+				boolean takeA = b == m || (a < numBins && centers[a] <= c2[b]);
+				boolean takeB = a == numBins || (b < m && c2[b] <= centers[a]);
+				c[k] = takeA ? centers[a] : c2[b];
+				if(takeA) {
+					w[k] += weights[a];
+					n[k] += counts[a];
+					for(int cl=0;cl<numClasses;cl++)
+						cw[k*numClasses + cl] += classWeights[a*numClasses + cl];
+					a++;
+				}
+				if(takeB) {
+					w[k] += w2[b];
+					n[k] += n2[b];
+					for(int cl=0;cl<numClasses;cl++)
+						cw[k*numClasses + cl] += cw2[b*numClasses + cl];
+					b++;
+				}
+				k++;
+			}
+			centers = c;
+			weights = w;
+			counts = n;
+			classWeights = cw;
+			numBins = k;
+			shrink();
+		}
+
+		//merges the pairs of bins separated by the smallest gaps (into their weighted mean)
+		//until there are maxBins left; a bin is merged at most once per pass
+		private void shrink() {
+			while(numBins > maxBins) {
+				exact = false;
+				mergeClosestPairs(numBins - maxBins);
+			}
+		}
+
+		private void mergeClosestPairs(int toMerge) {
+			double[] gaps = new double[numBins-1];
+			for(int b=0;b<numBins-1;b++)
+				gaps[b] = centers[b+1] - centers[b];
+			double[] sorted = gaps.clone();
+			Arrays.sort(sorted);
+			double threshold = sorted[toMerge-1];
+			int atThreshold = toMerge;
+			for(double gap : gaps) {
+				if(gap < threshold)
+					atThreshold--;
+			}
+			int k = 0;
+			boolean merged = false;
+			for(int b=1;b<numBins;b++) {
+				double gap = gaps[b-1];
+				if(!merged && (gap < threshold || (gap == threshold && atThreshold-- > 0))) {
+					merged = true;
+					double w = weights[k] + weights[b];
+					centers[k] = w > 0 ? (centers[k]*weights[k] + centers[b]*weights[b]) / w
+						: (centers[k]*counts[k] + centers[b]*counts[b]) / (counts[k] + counts[b]);
+					weights[k] = w;
+					counts[k] += counts[b];
+					for(int cl=0;cl<numClasses;cl++)
+						classWeights[k*numClasses + cl] += classWeights[b*numClasses + cl];
+				} else {
+					merged = false;
+					k++;
+					centers[k] = centers[b];
+					weights[k] = weights[b];
+					counts[k] = counts[b];
+					System.arraycopy(classWeights, b*numClasses, classWeights, k*numClasses, numClasses);
+				}
+			}
+			numBins = k+1;
+		}
+	}
+
+	/**
+	 * Command line, as for Discretize (e.g. -B 4 -F -i src/data/iris.arff); see DiscretizeAttributes for a demo.
+	 */
+	public static void main(String[] argv) {
+		runFilter(new HistogramDiscretize(), argv);
+	}
+}
@@ -0,0 +1,456 @@
+package irisDataExamples;
+
+/**
+ * Closed-form scoring kernel for linear WEKA models.
+ *
+ * LinearRegression, SMOreg with a linear PolyKernel and Logistic are all additive over the
+ * input attributes once WEKA's own filters (NominalToBinary, Normalize, RemoveUseless...) are
+ * taken into account: every numeric attribute adds weight*value and every nominal attribute
+ * adds one term per category. The weights are recovered by probing the trained model, so
+ * the filters are folded in, and whole batches are then scored with plain dot products.
+ * Logistic outputs are log-odds against the last class and go through a softmax.
+ * SMO with a linear kernel (and no calibration models) is a vote among pairwise linear
+ * machines: every pair output is additive, so one output per pair is probed and the votes
+ * are counted at scoring time, as SMO does.
+ * A missing value adds a constant term per attribute (the model's ReplaceMissingValues
+ * substitutes the training mean or mode), probed the same way.
+ * Rows can also be scored from a SparseStore: a zero adds nothing (the base point has all
+ * numeric attributes at 0 and nominal ones at their first category), so only the stored
+ * entries are visited and the sums are the same as in the dense path.
+ * The tables can be written to and read back from a compact binary form (see ModelCodec).
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.functions.LinearRegression;
+import weka.classifiers.functions.Logistic;
+import weka.classifiers.functions.SMO;
+import weka.classifiers.functions.SMOreg;
+import weka.classifiers.functions.supportVector.Kernel;
+import weka.classifiers.functions.supportVector.PolyKernel;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+import weka.filters.Filter;
+
+public class LinearScorer {
+
+	//relative difference from the original model above which the kernel is not trusted
+	private static final double TOLERANCE = 1e-6;
+
+	//how the outputs become a prediction
+	private static final byte REGRESSION = 0, LOGISTIC = 1, VOTING = 2;
+
+	private final Instances header;
+	private final byte kind;
+	private final int numOutputs;
+	//for VOTING: the two classes of every pairwise machine (one output each)
+	private int[] pairFirst;
+	private int[] pairSecond;
+	//for probing SMO: weights (sparse), their indices and bias of every pairwise machine
+	private double[][] pairWeights;
+	private int[][] pairIndices;
+	private double[] pairBias;
+
+	//per output: bias, weight of each numeric attribute and term of each nominal category
+	private final double[] bias;
+	private final double[][] weights;
+	private final double[][][] nominalTerms;
+	//per output: term added when an attribute is missing
+	private final double[][] missingTerms;
+
+	private LinearScorer(Instances header, byte kind, int numOutputs) {
+		this.header = header;
+		this.kind = kind;
+		this.numOutputs = numOutputs;
+		this.bias = new double[numOutputs];
+		this.weights = new double[numOutputs][header.numAttributes()];
+		this.nominalTerms = new double[numOutputs][header.numAttributes()][];
+		this.missingTerms = new double[numOutputs][header.numAttributes()];
+	}
+
+	/**
+	 * True for the models that have a closed-form (additive) scoring function.
+	 */
+	public static boolean isLinear(Classifier model) {
+		if(model instanceof LinearRegression || model instanceof Logistic)
+			return true;
+		if(model instanceof SMOreg)
+			return isLinearKernel(((SMOreg) model).getKernel());
+		if(model instanceof SMO)
+			return isLinearKernel(((SMO) model).getKernel()) && !((SMO) model).getBuildCalibrationModels();
+		return false;
+	}
+
+	//PolyKernel of exponent 1 (not its normalized subclass, which is not linear)
+	private static boolean isLinearKernel(Kernel kernel) {
+		return kernel.getClass() == PolyKernel.class && ((PolyKernel) kernel).getExponent() == 1.0;
+	}
+
+	/**
+	 * Extracts the linear form of a trained model, or returns null if the model is not linear,
+	 * the header has attributes other than numeric/nominal, or the extracted kernel does not
+	 * reproduce the model on every row of sample (each of them scored once by the model).
+	 */
+	public static LinearScorer compile(Classifier model, Instances sample) throws Exception {
+		if(!isLinear(model))
+			return null;
+		Instances header = new Instances(sample, 0);
+		for(int j=0;j<header.numAttributes();j++) {
+			if(!header.attribute(j).isNumeric() && !header.attribute(j).isNominal())
+				return null;
+		}
+
+		LinearScorer scorer;
+		if(model instanceof SMO) {
+			//one output per pair of classes that has a trained machine (a linear one keeps its weights)
+			SMO smo = (SMO) model;
+			double[][][] sparseWeights = smo.sparseWeights();
+			int[][][] sparseIndices = smo.sparseIndices();
+			double[][] machineBias = smo.bias();
+			List<int[]> pairs = new ArrayList<int[]>();
+			for(int i=0;i<header.numClasses();i++) {
+				for(int j=i+1;j<header.numClasses();j++) {
+					if(sparseWeights[i][j] != null)
+						pairs.add(new int[] {i, j});
+				}
+			}
+			scorer = new LinearScorer(header, VOTING, pairs.size());
+			scorer.pairFirst = new int[pairs.size()];
+			scorer.pairSecond = new int[pairs.size()];
+			scorer.pairWeights = new double[pairs.size()][];
+			scorer.pairIndices = new int[pairs.size()][];
+			scorer.pairBias = new double[pairs.size()];
+			for(int p=0;p<pairs.size();p++) {
+				int i = pairs.get(p)[0], j = pairs.get(p)[1];
+				scorer.pairFirst[p] = i;
+				scorer.pairSecond[p] = j;
+				scorer.pairWeights[p] = sparseWeights[i][j];
+				scorer.pairIndices[p] = sparseIndices[i][j];
+				scorer.pairBias[p] = machineBias[i][j];
+			}
+		} else if(header.classAttribute().isNominal()) {
+			scorer = new LinearScorer(header, LOGISTIC, header.numClasses());
+		} else {
+			scorer = new LinearScorer(header, REGRESSION, 1);
+		}
+
+		//base point: numeric attributes at 0, nominal attributes at their first category
+		double[] base = new double[header.numAttributes()];
+		base[header.classIndex()] = Utils.missingValue();
+		double[] f0 = scorer.probe(model, base);
+		if(f0 == null)
+			return null;
+		System.arraycopy(f0, 0, scorer.bias, 0, f0.length);
+
+		for(int j=0;j<header.numAttributes();j++) {
+			if(j == header.classIndex())
+				continue;
+			double[] x = base.clone();
+			x[j] = Utils.missingValue();
+			double[] fMissing = scorer.probe(model, x);
+			if(fMissing == null)
+				return null;
+			for(int o=0;o<fMissing.length;o++)
+				scorer.missingTerms[o][j] = fMissing[o] - f0[o];
+			x[j] = 0;
+			if(header.attribute(j).isNumeric()) {
+				x[j] = 1;
+				double[] f = scorer.probe(model, x);
+				if(f == null)
+					return null;
+				for(int o=0;o<f.length;o++)
+					scorer.weights[o][j] = f[o] - f0[o];
+			} else {
+				int numValues = header.attribute(j).numValues();
+				for(int o=0;o<scorer.numOutputs;o++)
+					scorer.nominalTerms[o][j] = new double[numValues];
+				for(int v=1;v<numValues;v++) {
+					x[j] = v;
+					double[] f = scorer.probe(model, x);
+					if(f == null)
+						return null;
+					for(int o=0;o<f.length;o++)
+						scorer.nominalTerms[o][j][v] = f[o] - f0[o];
+				}
+			}
+		}
+
+		//a probe on a saturated logistic model loses precision: only trust a kernel that agrees with the model on every row
+		for(int i=0;i<sample.numInstances();i++) {
+			Instance inst = sample.instance(i);
+			if(hasMissingInput(inst))
+				continue;
+			double[] expected = model.distributionForInstance(inst);
+			double[] actual = scorer.distribution(inst.toDoubleArray());
+			for(int o=0;o<expected.length;o++) {
+				//NaN-safe: a NaN on either side is a disagreement
+				if(!(Math.abs(expected[o]-actual[o]) <= TOLERANCE*Math.max(1, Math.abs(expected[o]))))
+					return null;
+			}
+		}
+		scorer.pairWeights = null;
+		scorer.pairIndices = null;
+		scorer.pairBias = null;
+		return scorer;
+	}
+
+	//model outputs at one point: the prediction for regression, log-odds against the last class for Logistic,
+	//the output of every pairwise machine for SMO; null if any is not finite (a probability of 0 on a
+	//saturated Logistic), as no kernel can be derived from it
+	private double[] probe(Classifier model, double[] values) throws Exception {
+		Instance inst = new DenseInstance(1.0, values.clone());
+		inst.setDataset(header);
+		if(kind == REGRESSION)
+			return finite(new double[] {model.classifyInstance(inst)});
+		if(kind == VOTING)
+			return finite(pairOutputs((SMO) model, inst));
+		double[] dist = model.distributionForInstance(inst);
+		double[] logOdds = new double[numOutputs];
+		for(int o=0;o<numOutputs-1;o++)
+			logOdds[o] = Math.log(dist[o]) - Math.log(dist[numOutputs-1]);
+		return finite(logOdds);
+	}
+
+	private static double[] finite(double[] outputs) {
+		for(double f : outputs) {
+			if(Double.isNaN(f) || Double.isInfinite(f))
+				return null;
+		}
+		return outputs;
+	}
+
+	//SMO.distributionForInstance up to the vote: same filters (SMO has no accessor for them), then the
+	//output of every machine from its public weights and bias, summed as BinarySMO.SVMOutput does
+	private double[] pairOutputs(SMO smo, Instance inst) throws Exception {
+		String[] filters = {"m_Missing", "m_NominalToBinary", "m_Filter"};
+		for(String name : filters) {
+			Filter filter = (Filter) ModelCodec.field(smo, name);
+			if(filter == null || (name.equals("m_Missing") && smo.getChecksTurnedOff()))
+				continue;
+			filter.input(inst);
+			filter.batchFinished();
+			inst = filter.output();
+		}
+		double[] outputs = new double[numOutputs];
+		for(int p=0;p<numOutputs;p++) {
+			double[] w = pairWeights[p];
+			int[] indices = pairIndices[p];
+			double result = 0;
+			for(int p1=0, p2=0;p1<inst.numValues() && p2<w.length;) {
+				int ind1 = inst.index(p1);
+				int ind2 = indices[p2];
+				if(ind1 == ind2) {
+					if(ind1 != inst.classIndex())
+						result += inst.valueSparse(p1)*w[p2];
+					p1++;
+					p2++;
+				} else if(ind1 > ind2) {
+					p2++;
+				} else {
+					p1++;
+				}
+			}
+			outputs[p] = result - pairBias[p];
+		}
+		return outputs;
+	}
+
+	/**
+	 * True if any non-class value is missing. The missing terms are probed but not checked
+	 * against the model, so BatchPredictor sends those rows through the original model.
+	 */
+	public static boolean hasMissingInput(Instance inst) {
+		for(int j=0;j<inst.numValues();j++) {
+			if(inst.index(j) != inst.classIndex() && inst.isMissingSparse(j))
+				return true;
+		}
+		return false;
+	}
+
+	public boolean isLogistic() {
+		return kind == LOGISTIC;
+	}
+
+	/**
+	 * Scores rows [from, to) of data column by column, so the inner loops run over
+	 * contiguous primitive arrays. Returns one row of outputs per instance
+	 * (class distribution for Logistic, predicted value for regression).
+	 */
+	public double[][] distributions(Instances data, int from, int to) {
+		int n = to - from;
+		double[][] acc = new double[numOutputs][n];
+		double[] col = new double[n];
+		for(int o=0;o<numOutputs;o++)
+			Arrays.fill(acc[o], bias[o]);
+
+		for(int j=0;j<header.numAttributes();j++) {
+			if(j == header.classIndex())
+				continue;
+			for(int i=0;i<n;i++)
+				col[i] = data.instance(from+i).value(j);
+			for(int o=0;o<numOutputs;o++) {
+				double[] a = acc[o];
+				double m = missingTerms[o][j];
+				if(header.attribute(j).isNumeric()) {
+					double w = weights[o][j];
+					if(w == 0 && m == 0)
+						continue;
+					for(int i=0;i<n;i++)
+						a[i] += Double.isNaN(col[i]) ? m : w*col[i];
+				} else {
+					double[] terms = nominalTerms[o][j];
+					for(int i=0;i<n;i++)
+						a[i] += Double.isNaN(col[i]) ? m : terms[(int) col[i]];
+				}
+			}
+		}
+
+		double[][] result = new double[n][];
+		for(int i=0;i<n;i++) {
+			double[] out = new double[numOutputs];
+			for(int o=0;o<numOutputs;o++)
+				out[o] = acc[o][i];
+			result[i] = finish(out);
+		}
+		return result;
+	}
+
+	/**
+	 * Scores rows [from, to) of store from their stored entries only; same outputs as
+	 * distributions(Instances, from, to) on the same rows.
+	 */
+	public double[][] distributions(SparseStore store, int from, int to) {
+		double[][] result = new double[to-from][];
+		for(int i=from;i<to;i++) {
+			double[] out = bias.clone();
+			for(int k=store.rowStart[i];k<store.rowStart[i+1];k++) {
+				int j = store.indices[k];
+				double value = store.values[k];
+				for(int o=0;o<numOutputs;o++) {
+					if(Double.isNaN(value))
+						out[o] += missingTerms[o][j];
+					else if(header.attribute(j).isNumeric())
+						out[o] += weights[o][j]*value;
+					else
+						out[o] += nominalTerms[o][j][(int) value];
+				}
+			}
+			result[i-from] = finish(out);
+		}
+		return result;
+	}
+
+	/**
+	 * Scores a single row given as attribute values in header order (class value ignored).
+	 */
+	public double[] distribution(double[] row) {
+		double[] out = bias.clone();
+		for(int j=0;j<row.length;j++) {
+			if(j == header.classIndex())
+				continue;
+			for(int o=0;o<numOutputs;o++) {
+				if(Double.isNaN(row[j]))
+					out[o] += missingTerms[o][j];
+				else if(header.attribute(j).isNumeric())
+					out[o] += weights[o][j]*row[j];
+				else
+					out[o] += nominalTerms[o][j][(int) row[j]];
+			}
+		}
+		return finish(out);
+	}
+
+	//outputs to prediction: softmax of the log-odds, votes of the pairwise machines or the value itself
+	private double[] finish(double[] out) {
+		if(kind == LOGISTIC)
+			return softmax(out);
+		if(kind != VOTING)
+			return out;
+		double[] votes = new double[header.numClasses()];
+		for(int p=0;p<numOutputs;p++)
+			votes[out[p] > 0 ? pairSecond[p] : pairFirst[p]] += 1;
+		Utils.normalize(votes);
+		return votes;
+	}
+
+	/**
+	 * Writes the tables: kind (0 regression, 1 logistic, 2 voting), number of outputs, the two
+	 * classes of every output when voting, then per output the bias and, per attribute,
+	 * its missing term and its weight (numeric) or category terms (nominal).
+	 */
+	void write(DataOutputStream out) throws IOException {
+		out.writeByte(kind);
+		out.writeInt(numOutputs);
+		if(kind == VOTING) {
+			for(int o=0;o<numOutputs;o++) {
+				out.writeInt(pairFirst[o]);
+				out.writeInt(pairSecond[o]);
+			}
+		}
+		for(int o=0;o<numOutputs;o++) {
+			out.writeDouble(bias[o]);
+			for(int j=0;j<header.numAttributes();j++) {
+				out.writeDouble(missingTerms[o][j]);
+				if(header.attribute(j).isNumeric()) {
+					out.writeDouble(weights[o][j]);
+				} else if(j != header.classIndex()) {
+					for(double t : nominalTerms[o][j])
+						out.writeDouble(t);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads the tables written by write, for the same header.
+	 */
+	static LinearScorer read(ByteBuffer buf, Instances header) {
+		byte kind = buf.get();
+		LinearScorer scorer = new LinearScorer(new Instances(header, 0), kind, buf.getInt());
+		if(kind == VOTING) {
+			scorer.pairFirst = new int[scorer.numOutputs];
+			scorer.pairSecond = new int[scorer.numOutputs];
+			for(int o=0;o<scorer.numOutputs;o++) {
+				scorer.pairFirst[o] = buf.getInt();
+				scorer.pairSecond[o] = buf.getInt();
+			}
+		}
+		for(int o=0;o<scorer.numOutputs;o++) {
+			scorer.bias[o] = buf.getDouble();
+			for(int j=0;j<header.numAttributes();j++) {
+				scorer.missingTerms[o][j] = buf.getDouble();
+				if(header.attribute(j).isNumeric()) {
+					scorer.weights[o][j] = buf.getDouble();
+				} else if(j != header.classIndex()) {
+					scorer.nominalTerms[o][j] = new double[header.attribute(j).numValues()];
+					buf.asDoubleBuffer().get(scorer.nominalTerms[o][j]);
+					buf.position(buf.position() + 8*scorer.nominalTerms[o][j].length);
+				}
+			}
+		}
+		return scorer;
+	}
+
+	private static double[] softmax(double[] v) {
+		double max = v[Utils.maxIndex(v)];
+		double sum = 0;
+		for(int o=0;o<v.length;o++) {
+			v[o] = Math.exp(v[o]-max);
+			sum += v[o];
+		}
+		for(int o=0;o<v.length;o++)
+			v[o] /= sum;
+		return v;
+	}
+}
@@ -0,0 +1,750 @@
+package irisDataExamples;
+
+/**
+ * Compact binary format for trained WEKA models.
+ *
+ * SerializationHelper.write stores the whole object graph of a model (training headers,
+ * filters, GUI fields, per-node objects...) with Java serialization, which is large and slow
+ * to read back. Here only what scoring needs is written, as flat arrays in a versioned layout:
+ *   "WMDL", version, ARFF header of the training data, class index, then the model parts
+ *   (a tag byte followed by length-prefixed int/double arrays, see CompactModel).
+ * The file is memory-mapped on read and the arrays are bulk-copied into a CompactModel;
+ * no WEKA classifier is rebuilt.
+ *
+ * Supported: J48 (without Laplace, C45 splits), LMT (without -B), RandomTree, RandomForest and
+ * Bagging of any supported model, Logistic, LinearRegression, SMO and SMOreg with a linear kernel,
+ * MultilayerPerceptron and ZeroR. Every model is checked against the original on the given data
+ * before it is written. Other models (boosting, stacking...) throw an IllegalArgumentException
+ * and should stay in Java serialization.
+ * compile gives the same flat arrays without a file, for batch scoring (see BatchPredictor).
+ *
+ * The main converts the models saved in src/models by Ensembles and ReusingModels.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.functions.MultilayerPerceptron;
+import weka.classifiers.functions.neural.NeuralConnection;
+import weka.classifiers.functions.neural.NeuralNode;
+import weka.classifiers.functions.neural.SigmoidUnit;
+import weka.classifiers.meta.Bagging;
+import weka.classifiers.rules.ZeroR;
+import weka.classifiers.trees.J48;
+import weka.classifiers.trees.LMT;
+import weka.classifiers.trees.j48.C45Split;
+import weka.classifiers.trees.j48.ClassifierTree;
+import weka.classifiers.trees.j48.NoSplit;
+import weka.classifiers.trees.lmt.ResidualSplit;
+import weka.classifiers.trees.lmt.SimpleLinearRegression;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+import weka.core.Utils;
+import weka.core.converters.ConverterUtils.DataSource;
+
+public class ModelCodec {
+
+	public static final String EXTENSION = ".wmdl";
+
+	private static final int MAGIC = 0x574d444c;//"WMDL"
+	private static final int VERSION = 1;
+
+	private static final byte CONSTANT = 0;
+	private static final byte AVERAGE = 1;
+	private static final byte C45_TREE = 2;
+	private static final byte RANDOM_TREE = 3;
+	private static final byte LINEAR = 4;
+	private static final byte NEURAL = 5;
+	private static final byte LOGISTIC_TREE = 6;
+
+	//rows checked against the original model before a file is written
+	private static final int CHECK_ROWS = 100;
+	private static final double TOLERANCE = 1e-6;
+
+	/**
+	 * True if model can be written in the compact format.
+	 */
+	public static boolean isSupported(Classifier model, Instances data) {
+		try {
+			encode(model, data);
+			return true;
+		} catch(Exception e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Writes model, trained on data (whose header and class index are stored with it), to path.
+	 * Throws IllegalArgumentException if the model is not supported.
+	 */
+	public static void write(Classifier model, Instances data, String path) throws Exception {
+		byte[] bytes = encode(model, data);
+		File tmp = new File(path + ".tmp");
+		FileOutputStream out = new FileOutputStream(tmp);
+		try {
+			out.write(bytes);
+		} finally {
+			out.close();
+		}
+		File file = new File(path);
+		if(file.exists() && !file.delete())
+			throw new IOException("Could not replace " + file);
+		if(!tmp.renameTo(file))
+			throw new IOException("Could not write " + file);
+	}
+
+	/**
+	 * Memory-maps a compact model file and decodes it.
+	 */
+	public static CompactModel read(String path) throws IOException {
+		FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+		try {
+			return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Compact form of model without going through a file.
+	 */
+	public static CompactModel compile(Classifier model, Instances data) throws Exception {
+		return decode(ByteBuffer.wrap(encode(model, data)));
+	}
+
+	static byte[] encode(Classifier model, Instances data) throws Exception {
+		if(data.classIndex() < 0)
+			throw new IllegalArgumentException("Class index not set");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(bytes, 1 << 16));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		byte[] header = new Instances(data, 0).toString().getBytes(StandardCharsets.UTF_8);
+		out.writeInt(header.length);
+		out.write(header);
+		out.writeInt(data.classIndex());
+		writePart(out, model, data);
+		out.close();
+
+		//only a model that scores as the original is written
+		CompactModel compact = decode(ByteBuffer.wrap(bytes.toByteArray()));
+		int check = Math.min(CHECK_ROWS, data.numInstances());
+		for(int i=0;i<check;i++) {
+			double[] expected = model.distributionForInstance(data.instance(i));
+			double[] actual = compact.distributionForInstance(data.instance(i));
+			if(data.classAttribute().isNumeric())
+				expected = new double[] {model.classifyInstance(data.instance(i))};
+			for(int o=0;o<expected.length;o++) {
+				if(!(Math.abs(expected[o]-actual[o]) <= TOLERANCE*Math.max(1, Math.abs(expected[o]))) && !(Double.isNaN(expected[o]) && Double.isNaN(actual[o])))
+					throw new IllegalArgumentException(model.getClass().getName() + " does not match its compact form on row " + i);
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void writePart(DataOutputStream out, Classifier model, Instances data) throws Exception {
+		if(model instanceof ZeroR) {
+			out.writeByte(CONSTANT);
+			writeDoubles(out, constant(model, data));
+		} else if(model instanceof Bagging) {
+			Classifier[] members = (Classifier[]) field(model, "m_Classifiers");
+			out.writeByte(AVERAGE);
+			out.writeBoolean(data.classAttribute().isNumeric());
+			out.writeInt(members.length);
+			for(Classifier member : members)
+				writePart(out, member, data);
+		} else if(model instanceof J48) {
+			writeC45Tree(out, (J48) model, data);
+		} else if(model instanceof LMT) {
+			writeLogisticTree(out, (LMT) model, data);
+		} else if(model instanceof weka.classifiers.trees.RandomTree) {
+			writeRandomTree(out, (weka.classifiers.trees.RandomTree) model, data);
+		} else if(LinearScorer.isLinear(model)) {
+			LinearScorer scorer = LinearScorer.compile(model, data);
+			if(scorer == null)
+				throw new IllegalArgumentException(model.getClass().getName() + " could not be reduced to its linear form");
+			out.writeByte(LINEAR);
+			scorer.write(out);
+		} else if(model instanceof MultilayerPerceptron) {
+			writeNeural(out, (MultilayerPerceptron) model, data);
+		} else {
+			throw new IllegalArgumentException(model.getClass().getName() + " is not supported by the compact format");
+		}
+	}
+
+	//distribution of a model that does not depend on the row
+	private static double[] constant(Classifier model, Instances data) throws Exception {
+		Instance empty = new DenseInstance(data.numAttributes());
+		empty.setDataset(data);
+		if(data.classAttribute().isNumeric())
+			return new double[] {model.classifyInstance(empty)};
+		return model.distributionForInstance(empty);
+	}
+
+	private static void writeC45Tree(DataOutputStream out, J48 model, Instances data) throws Exception {
+		if(model.getUseLaplace())
+			throw new IllegalArgumentException("J48 with Laplace smoothing is not supported by the compact format");
+		ClassifierTree root = (ClassifierTree) field(model, "m_root");
+		int numClasses = data.numClasses();
+		Instance empty = new DenseInstance(data.numAttributes());
+		empty.setDataset(data);
+
+		//breadth first, so the children of a node are consecutive
+		List<ClassifierTree> nodes = new ArrayList<ClassifierTree>();
+		List<Double> missing = new ArrayList<Double>();
+		List<double[]> emptyDist = new ArrayList<double[]>();
+		nodes.add(root);
+		missing.add(1.0);
+		emptyDist.add(null);
+		int n = 0;
+		List<Integer> first = new ArrayList<Integer>();
+		while(n < nodes.size()) {
+			ClassifierTree node = nodes.get(n++);
+			if(node.isLeaf()) {
+				if(!(node.getLocalModel() instanceof NoSplit))
+					throw new IllegalArgumentException("Unexpected J48 leaf model " + node.getLocalModel().getClass().getName());
+				first.add(-1);
+				continue;
+			}
+			if(!(node.getLocalModel() instanceof C45Split))
+				throw new IllegalArgumentException(node.getLocalModel().getClass().getName() + " splits are not supported by the compact format");
+			C45Split split = (C45Split) node.getLocalModel();
+			first.add(nodes.size());
+			ClassifierTree[] sons = node.getSons();
+			double total = split.distribution().total();
+			for(int i=0;i<sons.length;i++) {
+				nodes.add(sons[i]);
+				missing.add(split.distribution().perBag(i)/total);
+				double[] dist = null;
+				if((Boolean) field(sons[i], "m_isEmpty")) {
+					dist = new double[numClasses];
+					for(int c=0;c<numClasses;c++)
+						dist[c] = split.classProb(c, empty, i);
+				}
+				emptyDist.add(dist);
+			}
+		}
+
+		int numNodes = nodes.size();
+		int[] att = new int[numNodes];
+		double[] splitPoint = new double[numNodes];
+		int[] firstChild = new int[numNodes];
+		int[] numChildren = new int[numNodes];
+		byte[] isEmpty = new byte[numNodes];
+		double[] missingWeight = new double[numNodes];
+		double[] dist = new double[numNodes*numClasses];
+		for(int i=0;i<numNodes;i++) {
+			ClassifierTree node = nodes.get(i);
+			missingWeight[i] = missing.get(i);
+			firstChild[i] = first.get(i);
+			if(emptyDist.get(i) != null) {
+				isEmpty[i] = 1;
+				att[i] = -1;
+				System.arraycopy(emptyDist.get(i), 0, dist, i*numClasses, numClasses);
+			} else if(node.isLeaf()) {
+				att[i] = -1;
+				for(int c=0;c<numClasses;c++)
+					dist[i*numClasses+c] = node.getLocalModel().classProb(c, empty, -1);
+			} else {
+				C45Split split = (C45Split) node.getLocalModel();
+				att[i] = split.attIndex();
+				splitPoint[i] = split.splitPoint();
+				numChildren[i] = node.getSons().length;
+			}
+		}
+		out.writeByte(C45_TREE);
+		out.writeInt(numClasses);
+		writeInts(out, att);
+		writeDoubles(out, splitPoint);
+		writeInts(out, firstChild);
+		writeInts(out, numChildren);
+		writeBytes(out, isEmpty);
+		writeDoubles(out, missingWeight);
+		writeDoubles(out, dist);
+	}
+
+	private static void writeLogisticTree(DataOutputStream out, LMT model, Instances data) throws Exception {
+		if(model.getConvertNominal())
+			throw new IllegalArgumentException("LMT with -B (global NominalToBinary) is not supported by the compact format");
+		int numClasses = data.numClasses();
+
+		//ReplaceMissingValues, class left alone
+		double[] modesAndMeans = (double[]) field(field(model, "m_replaceMissing"), "m_ModesAndMeans");
+		double[] replace = new double[data.numAttributes()];
+		for(int j=0;j<replace.length;j++)
+			replace[j] = j == data.classIndex() || !(data.attribute(j).isNominal() || data.attribute(j).isNumeric()) ? Double.NaN : modesAndMeans[j];
+
+		//inputs of the leaf models, as the supervised NominalToBinary of every leaf builds them
+		List<int[]> sources = nominalToBinary(data, true);
+		int[] sourceAtt = new int[sources.size()];
+		int[] sourceValue = new int[sources.size()];
+		int classInput = -1;
+		for(int u=0;u<sourceAtt.length;u++) {
+			sourceAtt[u] = sources.get(u)[0];
+			sourceValue[u] = sources.get(u)[1];
+			if(sourceAtt[u] == data.classIndex())
+				classInput = u;
+		}
+
+		//breadth first, as writeC45Tree
+		List<Object> nodes = new ArrayList<Object>();
+		nodes.add(field(model, "m_tree"));
+		int n = 0;
+		List<Integer> first = new ArrayList<Integer>();
+		while(n < nodes.size()) {
+			Object node = nodes.get(n++);
+			if((Boolean) field(node, "m_isLeaf")) {
+				first.add(-1);
+				continue;
+			}
+			first.add(nodes.size());
+			nodes.addAll(Arrays.asList((Object[]) field(node, "m_sons")));
+		}
+
+		int numNodes = nodes.size();
+		int numGroups = sourceAtt.length - 1;
+		int[] att = new int[numNodes];
+		double[] splitPoint = new double[numNodes];
+		byte[] residual = new byte[numNodes];
+		int[] firstChild = new int[numNodes];
+		int[] leafStart = new int[numNodes];
+		List<Integer> regressionAtt = new ArrayList<Integer>();
+		List<Double> slope = new ArrayList<Double>();
+		List<Double> intercept = new ArrayList<Double>();
+		for(int i=0;i<numNodes;i++) {
+			Object node = nodes.get(i);
+			firstChild[i] = first.get(i);
+			if(firstChild[i] >= 0) {
+				leafStart[i] = -1;
+				Object split = field(node, "m_localModel");
+				if(split instanceof C45Split) {
+					att[i] = ((C45Split) split).attIndex();
+					splitPoint[i] = ((C45Split) split).splitPoint();
+				} else if(split instanceof ResidualSplit) {
+					att[i] = (Integer) field(split, "m_attIndex");
+					splitPoint[i] = (Double) field(split, "m_splitPoint");
+					residual[i] = 1;
+				} else {
+					throw new IllegalArgumentException(split.getClass().getName() + " splits are not supported by the compact format");
+				}
+				continue;
+			}
+			att[i] = -1;
+			Instances numericHeader = (Instances) field(node, "m_numericDataHeader");
+			if(numericHeader.numAttributes() != sourceAtt.length || numericHeader.classIndex() != classInput)
+				throw new IllegalArgumentException("LMT leaf inputs do not match the header " + data.relationName());
+			SimpleLinearRegression[][] regressions = (SimpleLinearRegression[][]) field(node, "m_regressions");
+			leafStart[i] = slope.size();
+			//LogisticBase.getFs order: inputs, then classes
+			for(int u=0;u<sourceAtt.length;u++) {
+				if(u == classInput)
+					continue;
+				for(int c=0;c<numClasses;c++) {
+					regressionAtt.add(regressions[c][u].getAttributeIndex());
+					slope.add(regressions[c][u].getSlope());
+					intercept.add(regressions[c][u].getIntercept());
+				}
+			}
+		}
+		out.writeByte(LOGISTIC_TREE);
+		out.writeInt(numClasses);
+		writeDoubles(out, replace);
+		writeInts(out, att);
+		writeDoubles(out, splitPoint);
+		writeBytes(out, residual);
+		writeInts(out, firstChild);
+		writeInts(out, leafStart);
+		writeInts(out, sourceAtt);
+		writeInts(out, sourceValue);
+		out.writeInt(numGroups);
+		writeInts(out, toInts(regressionAtt));
+		writeDoubles(out, toDoubles(slope));
+		writeDoubles(out, toDoubles(intercept));
+	}
+
+	//NominalToBinary of data: input u is attribute u[0], or its indicator for category u[1]
+	private static List<int[]> nominalToBinary(Instances data, boolean expand) {
+		List<int[]> sources = new ArrayList<int[]>();
+		for(int j=0;j<data.numAttributes();j++) {
+			if(expand && j != data.classIndex() && data.attribute(j).isNominal() && data.attribute(j).numValues() > 2) {
+				for(int v=0;v<data.attribute(j).numValues();v++)
+					sources.add(new int[] {j, v});
+			} else {
+				sources.add(new int[] {j, -1});
+			}
+		}
+		return sources;
+	}
+
+	private static void writeRandomTree(DataOutputStream out, weka.classifiers.trees.RandomTree model, Instances data) throws Exception {
+		if(field(model, "m_zeroR") != null) {
+			out.writeByte(CONSTANT);
+			writeDoubles(out, constant(model, data));
+			return;
+		}
+		boolean numeric = data.classAttribute().isNumeric();
+		int numClasses = data.numClasses();
+
+		List<Object> nodes = new ArrayList<Object>();
+		List<Integer> first = new ArrayList<Integer>();
+		List<Double> props = new ArrayList<Double>();
+		nodes.add(field(model, "m_Tree"));
+		props.add(1.0);
+		int n = 0;
+		while(n < nodes.size()) {
+			Object node = nodes.get(n++);
+			Object[] successors = (Object[]) field(node, "m_Successors");
+			if((Integer) field(node, "m_Attribute") < 0 || successors == null) {
+				first.add(-1);
+				continue;
+			}
+			double[] prop = (double[]) field(node, "m_Prop");
+			first.add(nodes.size());
+			for(int i=0;i<successors.length;i++) {
+				nodes.add(successors[i]);
+				props.add(prop != null ? prop[i] : 0.0);
+			}
+		}
+
+		int numNodes = nodes.size();
+		int[] att = new int[numNodes];
+		double[] splitPoint = new double[numNodes];
+		int[] firstChild = new int[numNodes];
+		int[] numChildren = new int[numNodes];
+		double[] prop = new double[numNodes];
+		byte[] hasDist = new byte[numNodes];
+		double[] dist = new double[numNodes*numClasses];
+		for(int i=0;i<numNodes;i++) {
+			Object node = nodes.get(i);
+			firstChild[i] = first.get(i);
+			prop[i] = props.get(i);
+			att[i] = firstChild[i] < 0 ? -1 : (Integer) field(node, "m_Attribute");
+			splitPoint[i] = (Double) field(node, "m_SplitPoint");
+			if(firstChild[i] >= 0)
+				numChildren[i] = ((Object[]) field(node, "m_Successors")).length;
+			double[] classDist = (double[]) field(node, "m_ClassDistribution");
+			if(classDist != null) {
+				//normalized once here instead of on every prediction
+				double[] normalized = classDist.clone();
+				if(!numeric)
+					Utils.normalize(normalized);
+				hasDist[i] = 1;
+				System.arraycopy(normalized, 0, dist, i*numClasses, numClasses);
+			}
+		}
+		out.writeByte(RANDOM_TREE);
+		out.writeInt(numClasses);
+		out.writeBoolean(model.getAllowUnclassifiedInstances());
+		writeInts(out, att);
+		writeDoubles(out, splitPoint);
+		writeInts(out, firstChild);
+		writeInts(out, numChildren);
+		writeDoubles(out, prop);
+		writeBytes(out, hasDist);
+		writeDoubles(out, dist);
+	}
+
+	private static void writeNeural(DataOutputStream out, MultilayerPerceptron model, Instances data) throws Exception {
+		if((Boolean) field(model, "m_useDefaultModel")) {
+			out.writeByte(CONSTANT);
+			writeDoubles(out, constant(model, data));
+			return;
+		}
+		Instances inputs = (Instances) field(model, "m_instances");//header after NominalToBinary
+
+		//input u of the network comes from attribute sourceAtt[u] (category sourceValue[u] for indicators)
+		List<int[]> sources = nominalToBinary(data, (Boolean) field(model, "m_useNomToBin"));
+		if(sources.size() != inputs.numAttributes() || !inputs.classAttribute().name().equals(data.classAttribute().name()))
+			throw new IllegalArgumentException("MultilayerPerceptron inputs do not match the header " + data.relationName());
+		int[] sourceAtt = new int[sources.size()];
+		int[] sourceValue = new int[sources.size()];
+		for(int u=0;u<sourceAtt.length;u++) {
+			sourceAtt[u] = sources.get(u)[0];
+			sourceValue[u] = sources.get(u)[1];
+		}
+
+		//nodes in topological order, from the output ends back to the input ends
+		Object[] outputEnds = (Object[]) field(model, "m_outputs");
+		Map<NeuralConnection, Integer> order = new IdentityHashMap<NeuralConnection, Integer>();
+		List<NeuralNode> nodes = new ArrayList<NeuralNode>();
+		for(Object end : outputEnds) {
+			NeuralConnection c = (NeuralConnection) end;
+			for(int i=0;i<c.getNumInputs();i++)
+				visit(c.getInputs()[i], order, nodes);
+		}
+
+		int numNodes = nodes.size();
+		boolean[] sigmoid = new boolean[numNodes];
+		int[] inputStart = new int[numNodes+1];
+		int[] weightStart = new int[numNodes];
+		List<Integer> nodeInputs = new ArrayList<Integer>();
+		List<Double> weights = new ArrayList<Double>();
+		for(int n=0;n<numNodes;n++) {
+			NeuralNode node = nodes.get(n);
+			if(node.getMethod() instanceof SigmoidUnit)
+				sigmoid[n] = true;
+			else if(!(node.getMethod() instanceof weka.classifiers.functions.neural.LinearUnit))
+				throw new IllegalArgumentException(node.getMethod().getClass().getName() + " units are not supported by the compact format");
+			inputStart[n] = nodeInputs.size();
+			weightStart[n] = weights.size();
+			double[] w = node.getWeights();
+			weights.add(w[0]);
+			for(int i=0;i<node.getNumInputs();i++) {
+				NeuralConnection in = node.getInputs()[i];
+				nodeInputs.add(in instanceof NeuralNode ? order.get(in) : -(Integer) field(in, "m_link")-1);
+				weights.add(w[i+1]);
+			}
+		}
+		inputStart[numNodes] = nodeInputs.size();
+
+		int[] outputStart = new int[outputEnds.length+1];
+		List<Integer> outputs = new ArrayList<Integer>();
+		for(int o=0;o<outputEnds.length;o++) {
+			NeuralConnection end = (NeuralConnection) outputEnds[o];
+			outputStart[o] = outputs.size();
+			for(int i=0;i<end.getNumInputs();i++)
+				outputs.add(order.get(end.getInputs()[i]));
+		}
+		outputStart[outputEnds.length] = outputs.size();
+
+		double[] bases = (double[]) field(model, "m_attributeBases");
+		double[] ranges = (double[]) field(model, "m_attributeRanges");
+		int classInput = inputs.classIndex();
+		out.writeByte(NEURAL);
+		writeInts(out, sourceAtt);
+		writeInts(out, sourceValue);
+		out.writeInt(classInput);
+		out.writeBoolean((Boolean) field(model, "m_normalizeAttributes"));
+		writeDoubles(out, bases != null ? bases : new double[sourceAtt.length]);
+		writeDoubles(out, ranges != null ? ranges : new double[sourceAtt.length]);
+		byte[] sigmoidBytes = new byte[numNodes];
+		for(int n=0;n<numNodes;n++)
+			sigmoidBytes[n] = (byte) (sigmoid[n] ? 1 : 0);
+		writeBytes(out, sigmoidBytes);
+		writeInts(out, inputStart);
+		writeInts(out, toInts(nodeInputs));
+		writeInts(out, weightStart);
+		writeDoubles(out, toDoubles(weights));
+		writeInts(out, outputStart);
+		writeInts(out, toInts(outputs));
+		boolean numeric = (Boolean) field(model, "m_numeric");
+		out.writeBoolean(numeric);
+		out.writeBoolean((Boolean) field(model, "m_normalizeClass"));
+		out.writeDouble(numeric && bases != null ? bases[classInput] : 0);
+		out.writeDouble(numeric && ranges != null ? ranges[classInput] : 1);
+		Classifier zeroR = (Classifier) field(model, "m_ZeroR");
+		writeDoubles(out, numeric ? new double[1] : constant(zeroR, data));
+	}
+
+	//depth first: a node gets its index after all the nodes it reads from
+	private static void visit(NeuralConnection c, Map<NeuralConnection, Integer> order, List<NeuralNode> nodes) {
+		if(!(c instanceof NeuralNode) || order.containsKey(c))
+			return;
+		order.put(c, -1);//being visited
+		for(int i=0;i<c.getNumInputs();i++)
+			visit(c.getInputs()[i], order, nodes);
+		order.put(c, nodes.size());
+		nodes.add((NeuralNode) c);
+	}
+
+	static CompactModel decode(ByteBuffer buf) throws IOException {
+		if(buf.remaining() < 12 || buf.getInt() != MAGIC)
+			throw new IOException("Not a compact model file");
+		int version = buf.getInt();
+		if(version != VERSION)
+			throw new IOException("Unsupported compact model version " + version);
+		byte[] headerBytes = new byte[buf.getInt()];
+		buf.get(headerBytes);
+		Instances header = new Instances(new StringReader(new String(headerBytes, StandardCharsets.UTF_8)));
+		header.setClassIndex(buf.getInt());
+		return new CompactModel(header, readPart(buf, header));
+	}
+
+	private static CompactModel.Part readPart(ByteBuffer buf, Instances header) throws IOException {
+		boolean[] nominalAtt = new boolean[header.numAttributes()];
+		for(int j=0;j<nominalAtt.length;j++)
+			nominalAtt[j] = header.attribute(j).isNominal();
+		byte tag = buf.get();
+		switch(tag) {
+		case CONSTANT:
+			return new CompactModel.Constant(readDoubles(buf));
+		case AVERAGE: {
+			boolean numeric = buf.get() != 0;
+			CompactModel.Part[] members = new CompactModel.Part[buf.getInt()];
+			for(int i=0;i<members.length;i++)
+				members[i] = readPart(buf, header);
+			return new CompactModel.Average(numeric, numeric ? 1 : header.numClasses(), members);
+		}
+		case C45_TREE:
+			return new CompactModel.C45Tree(buf.getInt(), readInts(buf), readDoubles(buf), readInts(buf), readInts(buf),
+				toBooleans(readBytes(buf)), readDoubles(buf), readDoubles(buf), nominalAtt);
+		case RANDOM_TREE: {
+			int numClasses = buf.getInt();
+			boolean allowUnclassified = buf.get() != 0;
+			return new CompactModel.RandomTree(numClasses, readInts(buf), readDoubles(buf), readInts(buf), readInts(buf),
+				readDoubles(buf), toBooleans(readBytes(buf)), readDoubles(buf), allowUnclassified, header.classAttribute().isNumeric(), nominalAtt);
+		}
+		case LINEAR:
+			return new CompactModel.Linear(LinearScorer.read(buf, header));
+		case NEURAL:
+			return new CompactModel.Neural(readInts(buf), readInts(buf), buf.getInt(), buf.get() != 0, readDoubles(buf), readDoubles(buf),
+				toBooleans(readBytes(buf)), readInts(buf), readInts(buf), readInts(buf), readDoubles(buf), readInts(buf), readInts(buf),
+				buf.get() != 0, buf.get() != 0, buf.getDouble(), buf.getDouble(), readDoubles(buf));
+		case LOGISTIC_TREE: {
+			int numClasses = buf.getInt();
+			return new CompactModel.LogisticTree(numClasses, readDoubles(buf), readInts(buf), readDoubles(buf), toBooleans(readBytes(buf)),
+				readInts(buf), readInts(buf), readInts(buf), readInts(buf), buf.getInt(), readInts(buf), readDoubles(buf), readDoubles(buf), nominalAtt);
+		}
+		default:
+			throw new IOException("Unknown model part " + tag);
+		}
+	}
+
+	//field of a WEKA object that has no public getter
+	static Object field(Object obj, String name) throws Exception {
+		return declared(obj, name).get(obj);
+	}
+
+	//sets a field of a WEKA object that has no public setter
+	static void setField(Object obj, String name, Object value) throws Exception {
+		declared(obj, name).set(obj, value);
+	}
+
+	private static Field declared(Object obj, String name) {
+		for(Class<?> c=obj.getClass();c!=null;c=c.getSuperclass()) {
+			try {
+				Field f = c.getDeclaredField(name);
+				f.setAccessible(true);
+				return f;
+			} catch(NoSuchFieldException e) {
+				//declared in a superclass
+			}
+		}
+		throw new IllegalArgumentException(obj.getClass().getName() + " has no field " + name + " (unsupported WEKA version?)");
+	}
+
+	private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+		out.writeInt(values.length);
+		for(int v : values)
+			out.writeInt(v);
+	}
+
+	private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+		out.writeInt(values.length);
+		for(double v : values)
+			out.writeDouble(v);
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] values) throws IOException {
+		out.writeInt(values.length);
+		out.write(values);
+	}
+
+	private static int[] readInts(ByteBuffer buf) {
+		int[] values = new int[buf.getInt()];
+		buf.asIntBuffer().get(values);
+		buf.position(buf.position() + 4*values.length);
+		return values;
+	}
+
+	private static double[] readDoubles(ByteBuffer buf) {
+		double[] values = new double[buf.getInt()];
+		buf.asDoubleBuffer().get(values);
+		buf.position(buf.position() + 8*values.length);
+		return values;
+	}
+
+	private static byte[] readBytes(ByteBuffer buf) {
+		byte[] values = new byte[buf.getInt()];
+		buf.get(values);
+		return values;
+	}
+
+	private static boolean[] toBooleans(byte[] values) {
+		boolean[] b = new boolean[values.length];
+		for(int i=0;i<values.length;i++)
+			b[i] = values[i] != 0;
+		return b;
+	}
+
+	private static int[] toInts(List<Integer> values) {
+		int[] a = new int[values.size()];
+		for(int i=0;i<a.length;i++)
+			a[i] = values.get(i);
+		return a;
+	}
+
+	private static double[] toDoubles(List<Double> values) {
+		double[] a = new double[values.size()];
+		for(int i=0;i<a.length;i++)
+			a[i] = values.get(i);
+		return a;
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		String dir = args.length > 0 ? args[0] : "src/models";
+
+		//training data of the saved models (header, class index, rows to check the conversion)
+		DataSource source_DS = new DataSource("src/data/irisTrain_df.arff");
+		Instances data_intances = source_DS.getDataSet();
+
+		File[] files = new File(dir).listFiles();
+		if(files == null)
+			throw new IOException("Not a directory: " + dir);
+		Arrays.sort(files);
+		for(File file : files) {
+			if(!file.isFile() || file.getName().endsWith(EXTENSION))
+				continue;
+
+			long start = System.nanoTime();
+			Classifier model = (Classifier) SerializationHelper.read(file.getPath());
+			long javaLoad = System.nanoTime() - start;
+
+			//same class index as in the examples that built the models
+			Instances data = new Instances(data_intances);
+			data.setClassIndex(model instanceof MultilayerPerceptron ? data.numAttributes()-2 : data.numAttributes()-1);
+
+			String compactPath = file.getPath() + EXTENSION;
+			try {
+				ModelCodec.write(model, data, compactPath);
+			} catch(IllegalArgumentException e) {
+				System.out.println(file.getName() + ": kept as Java serialization (" + e.getMessage() + ")");
+				continue;
+			}
+			start = System.nanoTime();
+			CompactModel compact = ModelCodec.read(compactPath);
+			long compactLoad = System.nanoTime() - start;
+
+			//largest difference with the original predictions over the whole dataset
+			double maxDiff = 0;
+			double[] pred = compact.classifyInstances(data);
+			for(int n=0;n<data.numInstances();n++)
+				maxDiff = Math.max(maxDiff, Math.abs(model.classifyInstance(data.instance(n)) - pred[n]));
+			System.out.println(file.getName() + ": " + file.length() + " -> " + new File(compactPath).length() + " bytes, load "
+				+ javaLoad/1000 + " -> " + compactLoad/1000 + " us, max prediction difference " + maxDiff);
+		}
+	}
+}
@@ -2,7 +2,7 @@ package irisDataExamples;
 
 import java.util.Random;
 
-import weka.classifiers.Evaluation;
+import weka.classifiers.evaluation.Evaluation;
 import weka.classifiers.trees.J48;
 import weka.core.Instances;
 import weka.core.converters.ConverterUtils.DataSource;
@@ -16,6 +16,8 @@ import weka.core.converters.ConverterUtils.DataSource;
  * This includes: Correctly Classified Instances, Root relative squared error...
  * Also, additional statistics are printed, like AUC or the root-relative-squared-error,
  * plus a confusion matrix.
+ * The folds are RowViews of the test data (row indices, no copies), with the same
+ * results as eval.crossValidateModel.
  * 
  * @author feBueno, May 2020
  * fernando.bueno.gutie@gmail.com
@@ -47,7 +49,8 @@ public class ModelEvaluation {
 		
 		//evaluate model
 		//eval.evaluateModel(tree, dataTest);
-		eval.crossValidateModel(tree, dataTest, folds, rand);//if nominal, carries stratification
+		//eval.crossValidateModel(tree, dataTest, folds, rand);
+		RowView.crossValidateModel(eval, tree, dataTest, folds, rand);//if nominal, carries stratification
 		
 		System.out.println(eval.toSummaryString("Evaluation results:\n",false));
 		System.out.println("AUC: " + eval.areaUnderROC(1));
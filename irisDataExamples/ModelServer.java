@@ -0,0 +1,454 @@
+package irisDataExamples;
+
+/**
+ * Serving WEKA models over HTTP.
+ *
+ * Loads every model saved in src/models once at startup and keeps it warm, then answers
+ * POST /predict/<model name> with one prediction per CSV row of the request body
+ * (attribute values in the order of the header, '?' for missing values and for the class).
+ * Concurrent requests for the same model are gathered by a batcher thread into one
+ * BatchPredictor call (micro-batching), through a PredictionCache: rows already scored are
+ * answered without the model, and a model file that changes is read again.
+ * GET /stats prints, per model, the number of requests, the p50/p99 latency in microseconds
+ * and the counts of the prediction cache.
+ *
+ * Each request gets its own thread: a virtual thread when running on Java 21+,
+ * a pooled platform thread otherwise. Models can be added or loaded while the server runs:
+ * a model gets its batcher as soon as it is registered, and the model it replaces (same name)
+ * has its batcher stopped. Requests that wait longer than requestTimeoutMillis for their
+ * predictions are answered 503; rows that cannot be parsed 400, and failures of the model 500.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import weka.classifiers.Classifier;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+import weka.core.Utils;
+import weka.core.converters.ConverterUtils.DataSource;
+
+public class ModelServer {
+
+	private final Map<String, ServedModel> models = new TreeMap<String, ServedModel>();
+	private int maxBatchSize = 256;//rows scored in one batched call
+	private long maxBatchDelayMicros = 200;//how long the batcher waits for more requests
+	private long requestTimeoutMillis = 10000;//how long a request waits for its predictions
+	private HttpServer server;
+	private ExecutorService requestExecutor;
+
+	public void setMaxBatchSize(int maxBatchSize) {
+		this.maxBatchSize = Math.max(1, maxBatchSize);
+	}
+
+	public void setMaxBatchDelayMicros(long maxBatchDelayMicros) {
+		this.maxBatchDelayMicros = Math.max(0, maxBatchDelayMicros);
+	}
+
+	public void setRequestTimeoutMillis(long requestTimeoutMillis) {
+		this.requestTimeoutMillis = Math.max(1, requestTimeoutMillis);
+	}
+
+	/**
+	 * Registers a trained model under the given name; header gives the attributes
+	 * (and class index) of the rows the model will be asked to score.
+	 */
+	public void addModel(String name, Classifier model, Instances header) {
+		register(new ServedModel(name, new PredictionCache(model), new Instances(header, 0)));
+	}
+
+	/**
+	 * Loads every model file in dir. Files written with SerializationHelper.writeAll(model, header)
+	 * bring their own header; for the others defaultHeader is used.
+	 */
+	public void loadModels(String dir, Instances defaultHeader) throws Exception {
+		File[] files = new File(dir).listFiles();
+		if(files == null)
+			throw new IOException("Not a directory: " + dir);
+		Arrays.sort(files);
+		for(File file : files) {
+			if(!file.isFile() || file.getName().endsWith(ModelCodec.EXTENSION))
+				continue;
+			Object[] objects;
+			long modified = file.lastModified();
+			long length = file.length();
+			long checksum;
+			try {
+				checksum = PredictionCache.checksum(file);
+				objects = SerializationHelper.readAll(file.getPath());
+			} catch(Exception e) {
+				System.err.println("Skipping " + file + ": " + e.getMessage());
+				continue;
+			}
+			if(objects.length == 0 || !(objects[0] instanceof Classifier))
+				continue;
+			Instances header = objects.length > 1 && objects[1] instanceof Instances ? (Instances) objects[1] : defaultHeader;
+			PredictionCache cache = new PredictionCache((Classifier) objects[0], file, modified, length, checksum);
+			register(new ServedModel(file.getName(), cache, new Instances(header, 0)));
+		}
+	}
+
+	//on a running server the model gets its batcher now, and the one it replaces is stopped
+	private synchronized void register(ServedModel m) {
+		ServedModel old = models.put(m.name, m);
+		if(server != null)
+			m.startBatcher();
+		if(old != null)
+			old.stopBatcher();
+	}
+
+	/**
+	 * Overrides the class index of an already loaded model's header.
+	 */
+	public synchronized void setClassIndex(String name, int classIndex) {
+		ServedModel m = models.get(name);
+		if(m == null)
+			return;
+		//a new header, as requests and the batcher may be reading the current one
+		Instances header = new Instances(m.header, 0);
+		header.setClassIndex(classIndex);
+		m.header = header;
+	}
+
+	public synchronized void start(int port) throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+		server.createContext("/predict/", new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				handlePredict(exchange);
+			}
+		});
+		server.createContext("/stats", new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				respond(exchange, 200, statsString());
+			}
+		});
+		requestExecutor = newRequestExecutor();
+		server.setExecutor(requestExecutor);
+		for(ServedModel m : models.values())
+			m.startBatcher();
+		server.start();
+	}
+
+	public synchronized int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	public synchronized void stop() {
+		server.stop(0);
+		server = null;
+		requestExecutor.shutdownNow();
+		for(ServedModel m : models.values())
+			m.stopBatcher();
+	}
+
+	/**
+	 * Number of requests, p50/p99 latency and prediction cache counts per model.
+	 */
+	public synchronized String statsString() {
+		StringBuilder sb = new StringBuilder();
+		for(ServedModel m : models.values()) {
+			long[] p = m.latency.percentiles(0.50, 0.99);
+			sb.append(m.name).append(": requests=").append(m.latency.count())
+				.append(" p50=").append(p[0]/1000).append("us")
+				.append(" p99=").append(p[1]/1000).append("us")
+				.append(" cache: ").append(m.cache.statsString()).append('\n');
+		}
+		return sb.toString();
+	}
+
+	//one thread per request: virtual threads when the JVM has them
+	private static ExecutorService newRequestExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch(Exception e) {
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	private void handlePredict(HttpExchange exchange) throws IOException {
+		long start = System.nanoTime();
+		String name = exchange.getRequestURI().getPath().substring("/predict/".length());
+		ServedModel m;
+		synchronized(this) {
+			m = models.get(name);
+		}
+		if(m == null) {
+			respond(exchange, 404, "Unknown model: " + name + "\n");
+			return;
+		}
+		//the header the request is parsed and answered with, even if the class index changes meanwhile
+		Instances header = m.header;
+		try {
+			double[][] rows;
+			try {
+				rows = m.parse(readBody(exchange.getRequestBody()), header);
+			} catch(IOException e) {
+				throw e;
+			} catch(Exception e) {
+				respond(exchange, 400, e.getMessage() + "\n");
+				return;
+			}
+			PendingRequest request = new PendingRequest(rows);
+			m.queue.put(request);
+			double[][] dist;
+			try {
+				dist = request.result.get(requestTimeoutMillis, TimeUnit.MILLISECONDS);
+			} catch(TimeoutException e) {
+				respond(exchange, 503, "No predictions after " + requestTimeoutMillis + " ms\n");
+				return;
+			} catch(ExecutionException e) {
+				respond(exchange, 500, "Scoring failed: " + e.getCause() + "\n");
+				return;
+			}
+			respond(exchange, 200, m.format(dist, header));
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			respond(exchange, 503, "Server stopping\n");
+		} finally {
+			//every answer counts, errors included
+			m.latency.record(System.nanoTime() - start);
+		}
+	}
+
+	private static String readBody(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buf = new byte[4096];
+		int n;
+		while((n = in.read(buf)) > 0)
+			out.write(buf, 0, n);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static void respond(HttpExchange exchange, int code, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(code, bytes.length);
+		OutputStream out = exchange.getResponseBody();
+		out.write(bytes);
+		out.close();
+	}
+
+	//rows of one request, completed by the batcher thread
+	private static class PendingRequest {
+		final double[][] rows;
+		final CompletableFuture<double[][]> result = new CompletableFuture<double[][]>();
+
+		PendingRequest(double[][] rows) {
+			this.rows = rows;
+		}
+	}
+
+	//a warm model (behind its prediction cache) plus its request queue, batcher thread and latency samples
+	private class ServedModel {
+		final String name;
+		//replaced, never changed, by setClassIndex
+		volatile Instances header;
+		final PredictionCache cache;
+		final LinkedBlockingQueue<PendingRequest> queue = new LinkedBlockingQueue<PendingRequest>();
+		final LatencyRecorder latency = new LatencyRecorder(10000);
+		Thread batcher;
+
+		ServedModel(String name, PredictionCache cache, Instances header) {
+			this.name = name;
+			this.header = header;
+			this.cache = cache;
+		}
+
+		//batcher stopped: the requests left in the queue fail, those arriving later time out
+		void stopBatcher() {
+			if(batcher != null)
+				batcher.interrupt();
+		}
+
+		void startBatcher() {
+			batcher = new Thread(new Runnable() {
+				public void run() {
+					batchLoop();
+				}
+			}, "batcher-" + name);
+			batcher.setDaemon(true);
+			batcher.start();
+		}
+
+		//gathers the queued requests (up to maxBatchSize rows, or whatever arrived within
+		//maxBatchDelayMicros) and scores them in one call
+		void batchLoop() {
+			List<PendingRequest> batch = new ArrayList<PendingRequest>();
+			while(!Thread.currentThread().isInterrupted()) {
+				try {
+					batch.clear();
+					PendingRequest first = queue.take();
+					batch.add(first);
+					int numRows = first.rows.length;
+					long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(maxBatchDelayMicros);
+					while(numRows < maxBatchSize) {
+						PendingRequest next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+						if(next == null)
+							break;
+						batch.add(next);
+						numRows += next.rows.length;
+					}
+					scoreBatch(batch, numRows);
+				} catch(InterruptedException e) {
+					break;
+				}
+			}
+			Exception stopped = new IllegalStateException("Model " + name + " no longer served");
+			for(PendingRequest r : batch)
+				r.result.completeExceptionally(stopped);//no-op for those already scored
+			for(PendingRequest r = queue.poll();r != null;r = queue.poll())
+				r.result.completeExceptionally(stopped);
+		}
+
+		//an interrupted scoring fails the batch and leaves the thread interrupted, which ends batchLoop
+		void scoreBatch(List<PendingRequest> batch, int numRows) {
+			try {
+				Instances data = new Instances(header, numRows);
+				for(PendingRequest r : batch) {
+					for(double[] row : r.rows)
+						data.add(new DenseInstance(1.0, row));
+				}
+				double[][] dist = cache.distributionsForInstances(data);
+				int offset = 0;
+				for(PendingRequest r : batch) {
+					r.result.complete(Arrays.copyOfRange(dist, offset, offset + r.rows.length));
+					offset += r.rows.length;
+				}
+			} catch(Exception e) {
+				for(PendingRequest r : batch)
+					r.result.completeExceptionally(e);
+				if(e instanceof InterruptedException)
+					Thread.currentThread().interrupt();
+			}
+		}
+
+		//one row per non-empty line, comma-separated values in header order
+		double[][] parse(String body, Instances header) throws Exception {
+			List<double[]> rows = new ArrayList<double[]>();
+			for(String line : body.split("\n")) {
+				line = line.trim();
+				if(line.isEmpty())
+					continue;
+				String[] fields = line.split(",");
+				if(fields.length != header.numAttributes() && fields.length != header.numAttributes()-1)
+					throw new Exception("Expected " + header.numAttributes() + " values, got " + fields.length + ": " + line);
+				double[] row = new double[header.numAttributes()];
+				int f = 0;
+				for(int j=0;j<row.length;j++) {
+					//the class value may be left out
+					if(j == header.classIndex() && fields.length == row.length-1) {
+						row[j] = Utils.missingValue();
+						continue;
+					}
+					row[j] = parseValue(header.attribute(j), fields[f++].trim());
+				}
+				rows.add(row);
+			}
+			return rows.toArray(new double[rows.size()][]);
+		}
+
+		double parseValue(Attribute att, String value) throws Exception {
+			if(value.equals("?"))
+				return Utils.missingValue();
+			if(att.isNominal()) {
+				int index = att.indexOfValue(value);
+				if(index < 0)
+					throw new Exception("Unknown value " + value + " for attribute " + att.name());
+				return index;
+			}
+			return Double.parseDouble(value);
+		}
+
+		//predicted label (or value) followed by the class distribution, one line per row
+		String format(double[][] dist, Instances header) {
+			StringBuilder sb = new StringBuilder();
+			for(double[] d : dist) {
+				if(header.classAttribute().isNominal()) {
+					double pred = BatchPredictor.classFromDistribution(d);
+					sb.append(Utils.isMissingValue(pred) ? "?" : header.classAttribute().value((int) pred));
+					for(double p : d)
+						sb.append(',').append(p);
+				} else {
+					sb.append(d[0]);
+				}
+				sb.append('\n');
+			}
+			return sb.toString();
+		}
+	}
+
+	/**
+	 * Keeps the last samples of request latency (ns) in a ring buffer.
+	 */
+	static class LatencyRecorder {
+		private final long[] samples;
+		private long count;
+
+		LatencyRecorder(int capacity) {
+			samples = new long[capacity];
+		}
+
+		synchronized void record(long nanos) {
+			samples[(int) (count % samples.length)] = nanos;
+			count++;
+		}
+
+		synchronized long count() {
+			return count;
+		}
+
+		synchronized long[] percentiles(double... ps) {
+			int n = (int) Math.min(count, samples.length);
+			long[] sorted = Arrays.copyOf(samples, n);
+			Arrays.sort(sorted);
+			long[] result = new long[ps.length];
+			for(int i=0;i<ps.length;i++)
+				result[i] = n == 0 ? 0 : sorted[Math.min(n-1, (int) Math.ceil(ps[i]*n)-1)];
+			return result;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		//header of the rows sent to the models (same as the training data)
+		DataSource source_DS = new DataSource("src/data/irisTrain_df.arff");
+		Instances header = source_DS.getStructure();
+		header.setClassIndex(header.numAttributes()-1);
+
+		//load the models saved by Ensembles and ReusingModels once, and keep them in memory
+		ModelServer server = new ModelServer();
+		server.loadModels("src/models", header);
+		server.setClassIndex("MultilayerPerceptron_OnRawTainData_model", header.numAttributes()-2);//regression on the 2nd last attribute
+
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+		server.start(port);
+		System.out.println("Serving " + server.models.keySet() + " on http://localhost:" + server.getPort());
+		System.out.println("Example: curl --data '5.1,3.5,1.4,0.2,?' http://localhost:" + server.getPort() + "/predict/Bagging_model");
+	}
+}
@@ -0,0 +1,104 @@
+package irisDataExamples;
+
+/**
+ * Localhost client for ModelServer.
+ *
+ * Sends the rows of the Iris test set, one row per request, from several concurrent
+ * threads to a running ModelServer and prints the client-side p50/p99 latency,
+ * then the server's own /stats.
+ *
+ * Start the server first (ModelServer), then run this class.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import weka.core.Instances;
+import weka.core.converters.ConverterUtils.DataSource;
+
+public class ModelServerClient {
+
+	public static void main(String[] args) throws Exception {
+
+		String base = "http://localhost:" + (args.length > 0 ? args[0] : "8080");
+		final String model = args.length > 1 ? args[1] : "Bagging_model";
+		int numThreads = 16;
+		int rounds = 20;//times the whole test set is sent
+
+		//load test dataset, the class value is sent as missing
+		DataSource sourceTest_DS = new DataSource("src/data/irisTest_df.arff");
+		Instances dataTest_instances = sourceTest_DS.getDataSet();
+		dataTest_instances.setClassIndex(dataTest_instances.numAttributes()-1);
+		final List<String> rows = new ArrayList<String>();
+		for(int n=0;n<dataTest_instances.numInstances();n++) {
+			dataTest_instances.instance(n).setClassMissing();
+			rows.add(dataTest_instances.instance(n).toString());
+		}
+
+		//fire the requests concurrently
+		final String url = base + "/predict/" + model;
+		final ModelServer.LatencyRecorder latency = new ModelServer.LatencyRecorder(rows.size()*rounds);
+		ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+		List<Future<String>> answers = new ArrayList<Future<String>>();
+		for(int r=0;r<rounds;r++) {
+			for(final String row : rows) {
+				answers.add(pool.submit(new Callable<String>() {
+					public String call() throws Exception {
+						long start = System.nanoTime();
+						String answer = post(url, row);
+						latency.record(System.nanoTime() - start);
+						return answer;
+					}
+				}));
+			}
+		}
+		for(Future<String> answer : answers)
+			answer.get();
+		pool.shutdown();
+
+		System.out.println("First row " + rows.get(0) + " => " + answers.get(0).get().trim());
+		long[] p = latency.percentiles(0.50, 0.99);
+		System.out.println("Client: requests=" + latency.count() + " p50=" + p[0]/1000 + "us p99=" + p[1]/1000 + "us");
+		System.out.print("Server: " + get(base + "/stats"));
+	}
+
+	static String post(String url, String body) throws Exception {
+		HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+		conn.setRequestMethod("POST");
+		conn.setDoOutput(true);
+		OutputStream out = conn.getOutputStream();
+		out.write(body.getBytes(StandardCharsets.UTF_8));
+		out.close();
+		return read(conn);
+	}
+
+	static String get(String url) throws Exception {
+		return read((HttpURLConnection) new URL(url).openConnection());
+	}
+
+	private static String read(HttpURLConnection conn) throws Exception {
+		if(conn.getResponseCode() != 200)
+			throw new Exception("HTTP " + conn.getResponseCode() + " from " + conn.getURL());
+		InputStream in = conn.getInputStream();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buf = new byte[4096];
+		int n;
+		while((n = in.read(buf)) > 0)
+			out.write(buf, 0, n);
+		in.close();
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
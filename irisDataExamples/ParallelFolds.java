@@ -0,0 +1,142 @@
+package irisDataExamples;
+
+/**
+ * Fold-parallel cross-validation with WEKA
+ *
+ * Same manual fold loop as in Folds, but each fold trains its own copy of the classifier
+ * and the folds run concurrently on a ForkJoinPool.
+ * The per-fold evaluations are merged, in fold order, into one AggregateableEvaluation,
+ * so results only depend on the seed and never on the number of threads.
+ * The data is randomized and stratified as a RowView (row indices); as the folds train
+ * concurrently, each still gets its own copy of its rows.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.Classifier;
+import weka.classifiers.evaluation.AggregateableEvaluation;
+import weka.classifiers.evaluation.Evaluation;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+import weka.core.converters.ConverterUtils.DataSource;
+
+public class ParallelFolds {
+
+	private Classifier classifier = new J48();
+	private int numFolds = 10;
+	private long seed = 47;
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+
+	//filled by crossValidate, one evaluation per fold (in fold order)
+	private Evaluation[] foldEvaluations;
+
+	public void setClassifier(Classifier classifier) {
+		this.classifier = classifier;
+	}
+
+	public void setNumFolds(int numFolds) {
+		this.numFolds = numFolds;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public void setNumThreads(int numThreads) {
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	public Evaluation[] getFoldEvaluations() {
+		return foldEvaluations;
+	}
+
+	/**
+	 * Randomizes (and stratifies, if the class is nominal) the row indices of the data,
+	 * then trains and evaluates every fold concurrently.
+	 * Returns the evaluation aggregated over all folds.
+	 */
+	public AggregateableEvaluation crossValidate(Instances data) throws Exception {
+
+		//randomly sort the rows, only the seed decides the folds
+		final RowView randRows = new RowView(data);
+		randRows.randomize(new Random(seed));
+		if(data.classAttribute().isNominal())
+			randRows.stratify(numFolds);
+		final Instances randData = randRows.instances();
+
+		//one untrained copy of the classifier per fold, so folds never share state
+		final Classifier[] copies = AbstractClassifier.makeCopies(classifier, numFolds);
+
+		List<Callable<Evaluation>> tasks = new ArrayList<Callable<Evaluation>>();
+		for(int n=0;n<numFolds;n++) {
+			final int fold = n;
+			tasks.add(new Callable<Evaluation>() {
+				public Evaluation call() throws Exception {
+					//copies: classifiers running at the same time must not share instances
+					Instances dataTrain = new Instances(randRows.trainCV(numFolds, fold).instances());
+					Instances dataTest = new Instances(randRows.testCV(numFolds, fold).instances());
+					Evaluation eval = new Evaluation(randData);
+					eval.setPriors(dataTrain);
+					copies[fold].buildClassifier(dataTrain);
+					eval.evaluateModel(copies[fold], dataTest);
+					return eval;
+				}
+			});
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(Math.min(numThreads, numFolds));
+		try {
+			List<Future<Evaluation>> results = pool.invokeAll(tasks);
+
+			//merge in fold order, whatever order the folds finished in
+			foldEvaluations = new Evaluation[numFolds];
+			AggregateableEvaluation merged = new AggregateableEvaluation(randData);
+			for(int n=0;n<numFolds;n++) {
+				foldEvaluations[n] = results.get(n).get();
+				merged.aggregate(foldEvaluations[n]);
+			}
+			return merged;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		//load dataset
+		DataSource source = new DataSource("src/data/irisTrain_df.arff");
+		Instances data = source.getDataSet();
+
+		//set class index to the last attribute (categorical)
+		data.setClassIndex(data.numAttributes()-1);
+
+		//set up the parallel cross-validation
+		ParallelFolds cv = new ParallelFolds();
+		cv.setClassifier(new J48());
+		cv.setNumFolds(3);
+		cv.setSeed(47);
+		AggregateableEvaluation eval = cv.crossValidate(data);
+
+		//print for each fold
+		Evaluation[] foldEvals = cv.getFoldEvaluations();
+		for(int n=0;n<foldEvals.length;n++) {
+			System.out.println("Fold "+n+" error Rate:" + foldEvals[n].errorRate());
+		}
+
+		//print merged results
+		System.out.println(eval.toSummaryString("Evaluation results:\n",false));
+		System.out.println("AUC: " + eval.areaUnderROC(1));
+		System.out.println("RRSE:" + eval.rootRelativeSquaredError());
+		System.out.println("Error Rate:" + eval.errorRate());
+		System.out.println(eval.toMatrixString("=== Confusion Matrix ===\n"));
+	}
+}
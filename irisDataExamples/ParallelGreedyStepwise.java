@@ -0,0 +1,464 @@
+package irisDataExamples;
+
+/**
+ * GreedyStepwise search that scores all the candidate subsets of a step together for CfsSubsetEval.
+ *
+ * CfsSubsetEval scores a subset from the correlations of its attributes with the class and with
+ * each other, computing every correlation lazily by walking all the rows, and GreedyStepwise
+ * evaluates every candidate of a step from scratch: each merit sums all the pairs of the subset,
+ * so a backward search on k attributes costs O(k^3) lookups besides the correlations. Here:
+ *  - the correlation matrix is computed in one parallel pass over tiles (a block of attributes
+ *    against another block), from the values of the evaluator stored by column, and written to
+ *    the evaluator's own cache, which is shared by the tasks (a pair is computed once and the
+ *    writes are idempotent) and then reused by postProcess and any later evaluateSubset.
+ *    A forward search only computes the rows of the class and of the attributes it adds.
+ *  - the numerator and denominator of the merit of the current subset are kept, with the sum of
+ *    the correlations of every attribute with the subset, so adding or removing one attribute
+ *    is scored in constant time; the candidates of a step are scored in parallel ranges.
+ *
+ * The steps, ties included, are those of GreedyStepwise and the merits are the same up to
+ * rounding (the sums are updated instead of recomputed). Other evaluators use the GreedyStepwise
+ * search, whose -num-slots option already evaluates their candidates in parallel.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import weka.attributeSelection.ASEvaluation;
+import weka.attributeSelection.CfsSubsetEval;
+import weka.attributeSelection.GreedyStepwise;
+import weka.core.ContingencyTables;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class ParallelGreedyStepwise extends GreedyStepwise {
+
+	private static final long serialVersionUID = -3307426101468845213L;
+
+	//attributes per side of a tile of the correlation matrix
+	private int blockSize = 64;
+	//candidates scored per task
+	private int minCandidatesPerTask = 2048;
+
+	public void setBlockSize(int blockSize) {
+		this.blockSize = Math.max(1, blockSize);
+	}
+
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	public void setMinCandidatesPerTask(int minCandidatesPerTask) {
+		this.minCandidatesPerTask = Math.max(1, minCandidatesPerTask);
+	}
+
+	public int getMinCandidatesPerTask() {
+		return minCandidatesPerTask;
+	}
+
+	@Override
+	public int[] search(ASEvaluation ASEval, Instances data) throws Exception {
+		if(!(ASEval instanceof CfsSubsetEval))
+			return super.search(ASEval, data);
+
+		if(data != null) {//a fresh run (data is null when rankedAttributes completes a search)
+			resetOptions();
+			m_Instances = new Instances(data, 0);
+		}
+		m_ASEval = ASEval;
+		m_numAttribs = m_Instances.numAttributes();
+		m_hasClass = true;
+		m_classIndex = m_Instances.classIndex();
+		if(m_best_group == null)
+			m_best_group = new BitSet(m_numAttribs);
+		m_startRange.setUpper(m_numAttribs - 1);
+		if(!getStartSet().equals(""))
+			m_starting = m_startRange.getSelection();
+		if(m_rankedAtts == null) {
+			m_rankedAtts = new double[m_numAttribs][2];
+			m_rankedSoFar = 0;
+		}
+
+		//initial subset, as in GreedyStepwise
+		if(m_starting != null && m_rankedSoFar <= 0) {
+			for(int i : m_starting) {
+				if(i != m_classIndex)
+					m_best_group.set(i);
+			}
+		} else if(m_backward && m_rankedSoFar <= 0) {
+			for(int i=0;i<m_numAttribs;i++) {
+				if(i != m_classIndex)
+					m_best_group.set(i);
+			}
+		}
+
+		CorrelationMatrix matrix = new CorrelationMatrix((CfsSubsetEval) ASEval, blockSize);
+		if(m_backward)
+			matrix.computeAll();
+		else {
+			matrix.computeRow(m_classIndex);
+			for(int i=m_best_group.nextSetBit(0);i>=0;i=m_best_group.nextSetBit(i+1))
+				matrix.computeRow(i);
+		}
+		Merits merits = new Merits(matrix, m_best_group);
+		double bestMerit = merits.merit();
+
+		boolean done = false;
+		while(!done) {
+			double tempBest = m_doRank ? -Double.MAX_VALUE : bestMerit;
+			Candidate best = bestCandidate(merits, tempBest);
+			//when ranking, tempBest is -Double.MAX_VALUE and any candidate is taken
+			done = best.index < 0;
+			if(!done) {
+				if(!m_backward)
+					matrix.computeRow(best.index);
+				merits.flip(best.index);
+				bestMerit = best.merit;
+				m_rankedAtts[m_rankedSoFar][0] = best.index;
+				m_rankedAtts[m_rankedSoFar][1] = bestMerit;
+				m_rankedSoFar++;
+			}
+		}
+		m_bestMerit = bestMerit;
+		return attributeList(m_best_group);
+	}
+
+	//best candidate of a step (index -1 if none beats tempBest), with GreedyStepwise's tie rule
+	private Candidate bestCandidate(final Merits merits, final double tempBest) throws Exception {
+		final int n = m_numAttribs;
+		int numRanges = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), n/minCandidatesPerTask));
+		List<Callable<Candidate>> tasks = new ArrayList<Callable<Candidate>>();
+		for(int r=0;r<numRanges;r++) {
+			final int from = (int) ((long) n*r/numRanges);
+			final int to = (int) ((long) n*(r+1)/numRanges);
+			tasks.add(new Callable<Candidate>() {
+				public Candidate call() {
+					Candidate best = new Candidate(-Double.MAX_VALUE);
+					for(int i=from;i<to;i++) {
+						if(i == m_classIndex || m_best_group.get(i) != m_backward)
+							continue;
+						best.consider(i, merits.meritIfFlipped(i));
+					}
+					return best;
+				}
+			});
+		}
+
+		//ranges in order, so ties go to the same attribute as in a sequential scan
+		Candidate best = new Candidate(tempBest);
+		for(Candidate partial : Tasks.run(tasks)) {
+			if(partial.index >= 0)
+				best.consider(partial.index, partial.merit);
+		}
+		return best;
+	}
+
+	private class Candidate {
+		int index = -1;
+		double merit;
+
+		Candidate(double merit) {
+			this.merit = merit;
+		}
+
+		void consider(int i, double candidateMerit) {
+			boolean better = m_backward || m_conservativeSelection ? candidateMerit >= merit : candidateMerit > merit;
+			if(better) {
+				merit = candidateMerit;
+				index = i;
+			}
+		}
+	}
+
+	/**
+	 * Numerator and denominator of the CFS merit of the current subset, and for every attribute
+	 * the part of the denominator it shares with the subset, kept up to date as attributes are
+	 * added or removed.
+	 */
+	private static class Merits {
+		private final CorrelationMatrix matrix;
+		private final BitSet subset;
+		private double num;
+		private double denom;
+		private int size;
+		//cross[a]: sum over j in the subset (j != a) of std(a)*std(j)*corr(a, j)
+		private final double[] cross;
+
+		Merits(CorrelationMatrix matrix, BitSet subset) {
+			this.matrix = matrix;
+			this.subset = subset;
+			this.cross = new double[matrix.numAttributes()];
+			for(int j=subset.nextSetBit(0);j>=0;j=subset.nextSetBit(j+1)) {
+				size++;
+				num += matrix.std(j)*matrix.withClass(j);
+				denom += matrix.std(j)*matrix.std(j);
+				addToCross(j, 1);
+			}
+			//every pair was counted from both sides
+			for(int j=subset.nextSetBit(0);j>=0;j=subset.nextSetBit(j+1))
+				denom += cross[j];
+		}
+
+		private void addToCross(int j, int sign) {
+			for(int a=0;a<cross.length;a++) {
+				if(a != j && a != matrix.classIndex())
+					cross[a] += sign*matrix.std(a)*matrix.std(j)*matrix.get(a, j);
+			}
+		}
+
+		double merit() {
+			return merit(num, denom);
+		}
+
+		//merit of the subset with attribute a added, or removed if it is in the subset
+		double meritIfFlipped(int a) {
+			if(size == 1 && subset.get(a))
+				return 0;//empty subset, without the rounding left in the sums
+			double sign = subset.get(a) ? -1 : 1;
+			double s = matrix.std(a);
+			return merit(num + sign*s*matrix.withClass(a), denom + sign*(s*s + 2*cross[a]));
+		}
+
+		void flip(int a) {
+			int sign = subset.get(a) ? -1 : 1;
+			double s = matrix.std(a);
+			num += sign*s*matrix.withClass(a);
+			denom += sign*(s*s + 2*cross[a]);
+			subset.flip(a);
+			size += sign;
+			if(size == 0) {
+				num = denom = 0;
+				Arrays.fill(cross, 0);
+			} else
+				addToCross(a, sign);
+		}
+
+		//as in CfsSubsetEval.evaluateSubset
+		private static double merit(double num, double denom) {
+			if(denom < 0)
+				denom = -denom;
+			if(denom == 0)
+				return 0;
+			return Math.abs(num/Math.sqrt(denom));
+		}
+	}
+
+	/**
+	 * The correlation cache of a built CfsSubsetEval (lower triangle, -999 for a pair not
+	 * computed yet), filled in parallel tasks over tiles of attributes.
+	 *
+	 * With a nominal class the evaluator's data is discretized and the correlations are
+	 * symmetrical uncertainties: they are computed here from the values stored by column,
+	 * as CfsSubsetEval does. With a numeric class each pair goes to the evaluator's own
+	 * computation, which also sets the standard deviations used in the merits.
+	 */
+	public static class CorrelationMatrix {
+
+		private static final float NOT_COMPUTED = -999;
+
+		private final CfsSubsetEval evaluator;
+		private final float[][] corr;
+		private final double[] stdDevs;
+		private final int classIndex;
+		private final int blockSize;
+		private final boolean missingSeparate;
+		//nominal class: value index of every attribute and row (numValues for a missing value)
+		private int[][] columns;
+		private int[] numValues;
+		//numeric class: CfsSubsetEval.correlate
+		private Method correlate;
+
+		/**
+		 * Cache of evaluator, which must be built.
+		 */
+		public CorrelationMatrix(CfsSubsetEval evaluator, int blockSize) throws Exception {
+			this.evaluator = evaluator;
+			this.corr = (float[][]) ModelCodec.field(evaluator, "m_corr_matrix");
+			this.stdDevs = (double[]) ModelCodec.field(evaluator, "m_std_devs");
+			this.blockSize = blockSize;
+			this.missingSeparate = evaluator.getMissingSeparate();
+			Instances data = (Instances) ModelCodec.field(evaluator, "m_trainInstances");
+			classIndex = data.classIndex();
+			if(data.classAttribute().isNumeric()) {
+				correlate = CfsSubsetEval.class.getDeclaredMethod("correlate", int.class, int.class);
+				correlate.setAccessible(true);
+				return;
+			}
+			int numAtts = data.numAttributes();
+			columns = new int[numAtts][data.numInstances()];
+			numValues = new int[numAtts];
+			for(int j=0;j<numAtts;j++)
+				numValues[j] = data.attribute(j).numValues();
+			for(int i=0;i<data.numInstances();i++) {
+				Instance inst = data.instance(i);
+				for(int j=0;j<numAtts;j++)
+					columns[j][i] = inst.isMissing(j) ? numValues[j] : (int) inst.value(j);
+			}
+		}
+
+		public int numAttributes() {
+			return corr.length;
+		}
+
+		public int classIndex() {
+			return classIndex;
+		}
+
+		public double std(int j) {
+			return stdDevs[j];
+		}
+
+		/**
+		 * Correlation of attributes i and j, which must have been computed.
+		 */
+		public float get(int i, int j) {
+			return i >= j ? corr[i][j] : corr[j][i];
+		}
+
+		public float withClass(int j) {
+			return get(j, classIndex);
+		}
+
+		/**
+		 * Computes every missing pair, one task per tile of blockSize x blockSize attributes.
+		 */
+		public void computeAll() throws Exception {
+			int numBlocks = (corr.length + blockSize - 1)/blockSize;
+			List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+			for(int bi=0;bi<numBlocks;bi++) {
+				for(int bj=0;bj<=bi;bj++) {
+					final int rowFrom = bi*blockSize;
+					final int rowTo = Math.min(corr.length, rowFrom + blockSize);
+					final int colFrom = bj*blockSize;
+					final int colTo = Math.min(corr.length, colFrom + blockSize);
+					tasks.add(new Callable<Void>() {
+						public Void call() throws Exception {
+							for(int i=rowFrom;i<rowTo;i++) {
+								for(int j=colFrom;j<Math.min(colTo, i);j++)
+									compute(i, j);
+							}
+							return null;
+						}
+					});
+				}
+			}
+			Tasks.run(tasks);
+		}
+
+		/**
+		 * Computes the missing pairs of attribute a with every other attribute, one task per block.
+		 */
+		public void computeRow(final int a) throws Exception {
+			List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+			for(int from=0;from<corr.length;from+=blockSize) {
+				final int start = from;
+				final int end = Math.min(corr.length, from + blockSize);
+				tasks.add(new Callable<Void>() {
+					public Void call() throws Exception {
+						for(int j=start;j<end;j++) {
+							if(j != a)
+								compute(Math.max(a, j), Math.min(a, j));
+						}
+						return null;
+					}
+				});
+			}
+			Tasks.run(tasks);
+		}
+
+		//i > j; a pair computed twice by two tasks gets the same value
+		private void compute(int i, int j) throws Exception {
+			if(corr[i][j] != NOT_COMPUTED)
+				return;
+			if(correlate != null)//with the class as second argument, as evaluateSubset calls it
+				corr[i][j] = (Float) (i == classIndex ? correlate.invoke(evaluator, j, i) : correlate.invoke(evaluator, i, j));
+			else
+				corr[i][j] = (float) symmetricalUncertainty(i, j);
+		}
+
+		//CfsSubsetEval.symmUncertCorr on the stored columns
+		private double symmetricalUncertainty(int att1, int att2) {
+			int ni = numValues[att1] + 1;
+			int nj = numValues[att2] + 1;
+			double[][] counts = new double[ni][nj];
+			double[] sumi = new double[ni];
+			double[] sumj = new double[nj];
+			int[] col1 = columns[att1];
+			int[] col2 = columns[att2];
+			int numInstances = col1.length;
+			for(int r=0;r<numInstances;r++)
+				counts[col1[r]][col2[r]]++;
+			double sum = 0;
+			for(int i=0;i<ni;i++) {
+				for(int j=0;j<nj;j++) {
+					sumi[i] += counts[i][j];
+					sum += counts[i][j];
+				}
+			}
+			for(int j=0;j<nj;j++) {
+				for(int i=0;i<ni;i++)
+					sumj[j] += counts[i][j];
+			}
+
+			//missing values are distributed over the known ones in proportion to their counts
+			if(!missingSeparate && sumi[ni-1] < numInstances && sumj[nj-1] < numInstances) {
+				double[] iCopy = sumi.clone();
+				double[] jCopy = sumj.clone();
+				double[][] countsCopy = new double[ni][];
+				for(int i=0;i<ni;i++)
+					countsCopy[i] = counts[i].clone();
+				double totalMissing = sumi[ni-1] + sumj[nj-1] - counts[ni-1][nj-1];
+				if(sumi[ni-1] > 0) {
+					for(int j=0;j<nj-1;j++) {
+						if(counts[ni-1][j] > 0) {
+							for(int i=0;i<ni-1;i++) {
+								double temp = (iCopy[i]/(sum - iCopy[ni-1]))*counts[ni-1][j];
+								counts[i][j] += temp;
+								sumi[i] += temp;
+							}
+							counts[ni-1][j] = 0;
+						}
+					}
+				}
+				sumi[ni-1] = 0;
+				if(sumj[nj-1] > 0) {
+					for(int i=0;i<ni-1;i++) {
+						if(counts[i][nj-1] > 0) {
+							for(int j=0;j<nj-1;j++) {
+								double temp = (jCopy[j]/(sum - jCopy[nj-1]))*counts[i][nj-1];
+								counts[i][j] += temp;
+								sumj[j] += temp;
+							}
+							counts[i][nj-1] = 0;
+						}
+					}
+				}
+				sumj[nj-1] = 0;
+				if(counts[ni-1][nj-1] > 0 && totalMissing != sum) {
+					for(int i=0;i<ni-1;i++) {
+						for(int j=0;j<nj-1;j++) {
+							double temp = (countsCopy[i][j]/(sum - totalMissing))*countsCopy[ni-1][nj-1];
+							counts[i][j] += temp;
+							sumi[i] += temp;
+							sumj[j] += temp;
+						}
+					}
+					counts[ni-1][nj-1] = 0;
+				}
+			}
+
+			double measure = ContingencyTables.symmetricalUncertainty(counts);
+			if(Utils.eq(measure, 0))
+				return att1 == classIndex || att2 == classIndex ? 0 : 1;
+			return measure;
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package irisDataExamples;
+
+/**
+ * Stacking with parallel internal cross-validation.
+ *
+ * weka.classifiers.meta.Stacking builds its meta level fold after fold: in each of the
+ * numFolds folds the base classifiers are trained (in parallel only across base classifiers,
+ * with setNumExecutionSlots) and then predict the held-out rows.
+ * Here the folds are split exactly as in Stacking (same seed, same order), and then every
+ * (fold, base classifier) pair is trained at once on its own copy of the base classifier,
+ * using up to getNumExecutionSlots() threads. The meta data is assembled in fold order,
+ * so the trained model is the same as the one Stacking builds.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.Classifier;
+import weka.classifiers.meta.Stacking;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+public class ParallelStacking extends Stacking {
+
+	private static final long serialVersionUID = -2104771735062519517L;
+
+	@Override
+	protected void generateMetaLevel(final Instances newData, Random random) throws Exception {
+
+		Instances metaData = metaFormat(newData);
+		m_MetaFormat = new Instances(metaData, 0);
+
+		//folds are drawn sequentially, trainCV consumes random in fold order
+		final Instances[] trains = new Instances[m_NumFolds];
+		final Instances[] tests = new Instances[m_NumFolds];
+		final Classifier[][] foldModels = new Classifier[m_NumFolds][];
+		for(int j=0;j<m_NumFolds;j++) {
+			trains[j] = newData.trainCV(m_NumFolds, j, random);
+			tests[j] = newData.testCV(m_NumFolds, j);
+			foldModels[j] = new Classifier[m_Classifiers.length];
+			for(int k=0;k<m_Classifiers.length;k++)
+				foldModels[j][k] = AbstractClassifier.makeCopy(m_Classifiers[k]);
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(getNumExecutionSlots(), m_NumFolds*m_Classifiers.length)));
+		try {
+			//train every (fold, base classifier) pair
+			List<Callable<Void>> training = new ArrayList<Callable<Void>>();
+			for(int j=0;j<m_NumFolds;j++) {
+				for(int k=0;k<m_Classifiers.length;k++) {
+					final int fold = j, base = k;
+					training.add(new Callable<Void>() {
+						public Void call() throws Exception {
+							foldModels[fold][base].buildClassifier(trains[fold]);
+							return null;
+						}
+					});
+				}
+			}
+			Tasks.run(pool, training);
+
+			//predict the held-out rows of every fold
+			List<Callable<double[][]>> predicting = new ArrayList<Callable<double[][]>>();
+			for(int j=0;j<m_NumFolds;j++) {
+				final int fold = j;
+				predicting.add(new Callable<double[][]>() {
+					public double[][] call() throws Exception {
+						double[][] rows = new double[tests[fold].numInstances()][];
+						for(int i=0;i<rows.length;i++)
+							rows[i] = metaValues(foldModels[fold], tests[fold].instance(i));
+						return rows;
+					}
+				});
+			}
+			List<double[][]> predicted = Tasks.run(pool, predicting);
+
+			//meta data in fold order, as in Stacking
+			for(int j=0;j<m_NumFolds;j++) {
+				for(double[] values : predicted.get(j))
+					metaData.add(new DenseInstance(1, values));
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		m_MetaClassifier.buildClassifier(metaData);
+	}
+
+	//same values as Stacking.metaInstance, for the given base classifiers
+	private double[] metaValues(Classifier[] models, Instance instance) throws Exception {
+		double[] values = new double[m_MetaFormat.numAttributes()];
+		int i = 0;
+		for(int k=0;k<models.length;k++) {
+			if(m_BaseFormat.classAttribute().isNumeric()) {
+				values[i++] = models[k].classifyInstance(instance);
+			} else {
+				double[] dist = models[k].distributionForInstance(instance);
+				for(int j=0;j<dist.length;j++)
+					values[i++] = dist[j];
+			}
+		}
+		values[i] = instance.classValue();
+		return values;
+	}
+
+	/**
+	 * Command line use, same options as Stacking plus -num-slots, e.g.
+	 * -t src/data/irisTrain_df.arff -B weka.classifiers.trees.J48 -B weka.classifiers.bayes.NaiveBayes -M weka.classifiers.functions.Logistic -num-slots 4
+	 */
+	public static void main(String[] argv) {
+		runClassifier(new ParallelStacking(), argv);
+	}
+}
@@ -0,0 +1,426 @@
+package irisDataExamples;
+
+/**
+ * Predictions of a model cached by the values of the rows, for scoring traffic that repeats the
+ * same rows (Iris itself has duplicate rows, see AttrStats).
+ *
+ * Every row is looked up by its attribute values (the class value left out, missing values equal
+ * to each other) and the generation of the model: rows already scored get their prediction back
+ * without asking the model, the others of a block are scored in one BatchPredictor call, each
+ * distinct row once. The table is split in stripes, each a bounded LRU map behind its own lock,
+ * so concurrent callers rarely wait for each other; maximumSize predictions are kept in all.
+ * Hits (rows answered from the table or from an equal row of the same block), misses (rows
+ * scored), evictions and reloads are counted for metrics.
+ *
+ * A cache made by load(modelFile) watches the file: at most every checkIntervalMillis a call
+ * looks at its modification time, length and CRC32 of its bytes (a model saved again within the
+ * same second with the same size has other bytes), and if any changed the model is read again
+ * and a new generation starts, so no prediction of the previous model is returned (the old
+ * entries are dropped). A file that cannot be read, e.g. while it is being written, keeps the loaded
+ * model until the next check. invalidate() starts a new generation by hand, for models changed
+ * in memory.
+ *
+ * Misses are scored by one caller at a time, as BatchPredictor and WEKA's models expect. Models
+ * whose predictions depend on the rows scored before (IBk widens the ranges of its distance
+ * function with every row it is asked about) keep the prediction of the first time a row came.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+import weka.classifiers.Classifier;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+
+public class PredictionCache {
+
+	private static final int STRIPE_BITS = 4;
+	private static final int NUM_STRIPES = 1 << STRIPE_BITS;
+
+	private final File file;
+	private long checkIntervalMillis = 1000;
+	private volatile long nextCheck;
+	private long fileModified;
+	private long fileLength;
+	private long fileChecksum;
+
+	private volatile Generation current;
+	private final Stripe[] stripes = new Stripe[NUM_STRIPES];
+	private int maximumSize;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder reloads = new LongAdder();
+
+	/**
+	 * Caches the predictions of model, trained in memory.
+	 */
+	public PredictionCache(Classifier model) {
+		this(model, null, 0, 0, 0);
+	}
+
+	//file (if any) had been last modified at modified, with length bytes of that checksum, when model was read
+	PredictionCache(Classifier model, File file, long modified, long length, long checksum) {
+		this.file = file;
+		fileModified = modified;
+		fileLength = length;
+		fileChecksum = checksum;
+		nextCheck = System.currentTimeMillis() + checkIntervalMillis;
+		current = new Generation(model, 0);
+		for(int s=0;s<NUM_STRIPES;s++)
+			stripes[s] = new Stripe();
+		setMaximumSize(100000);
+	}
+
+	/**
+	 * Caches the predictions of the model saved in modelFile (by SerializationHelper.write or
+	 * writeAll), read again whenever the file changes.
+	 */
+	public static PredictionCache load(String modelFile) throws Exception {
+		File file = new File(modelFile);
+		long modified = file.lastModified();
+		long length = file.length();
+		long checksum = checksum(file);
+		return new PredictionCache(read(file), file, modified, length, checksum);
+	}
+
+	//CRC32 of the bytes of file
+	static long checksum(File file) throws IOException {
+		CRC32 crc = new CRC32();
+		InputStream in = new FileInputStream(file);
+		try {
+			byte[] buf = new byte[65536];
+			int n;
+			while((n = in.read(buf)) > 0)
+				crc.update(buf, 0, n);
+		} finally {
+			in.close();
+		}
+		return crc.getValue();
+	}
+
+	private static Classifier read(File file) throws Exception {
+		Object[] objects = SerializationHelper.readAll(file.getPath());
+		if(objects.length == 0 || !(objects[0] instanceof Classifier))
+			throw new IllegalArgumentException("No model in " + file);
+		return (Classifier) objects[0];
+	}
+
+	/**
+	 * Predictions kept at most, in all the stripes (the least recently used go first).
+	 */
+	public void setMaximumSize(int maximumSize) {
+		this.maximumSize = Math.max(NUM_STRIPES, maximumSize);
+		for(Stripe s : stripes) {
+			synchronized(s) {
+				s.capacity = (this.maximumSize+NUM_STRIPES-1)/NUM_STRIPES;
+			}
+		}
+	}
+
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Milliseconds between two looks at the model file (0: at every call).
+	 */
+	public void setCheckIntervalMillis(long checkIntervalMillis) {
+		this.checkIntervalMillis = Math.max(0, checkIntervalMillis);
+		nextCheck = 0;
+	}
+
+	public long getCheckIntervalMillis() {
+		return checkIntervalMillis;
+	}
+
+	/**
+	 * The model predictions come from now (the last one read, for a model file).
+	 */
+	public Classifier getModel() throws Exception {
+		return generation().model;
+	}
+
+	/**
+	 * Class distributions (or the predicted value, for a numeric class) for every instance, as
+	 * BatchPredictor.distributionsForInstances.
+	 */
+	public double[][] distributionsForInstances(Instances data) throws Exception {
+		Generation g = generation();
+		int n = data.numInstances();
+		double[][] result = new double[n][];
+		Key[] keys = new Key[n];
+		//distinct rows to score, by their first row in data
+		Map<Key, Integer> toScore = new HashMap<Key, Integer>();
+		List<Integer> scored = new ArrayList<Integer>();
+		for(int i=0;i<n;i++) {
+			keys[i] = new Key(g.number, data.instance(i));
+			double[] dist = stripe(keys[i]).get(keys[i]);
+			if(dist != null) {
+				result[i] = dist.clone();
+				hits.increment();
+			} else if(!toScore.containsKey(keys[i])) {
+				toScore.put(keys[i], scored.size());
+				scored.add(i);
+				misses.increment();
+			} else {
+				hits.increment();
+			}
+		}
+		if(scored.isEmpty())
+			return result;
+
+		Instances rows = new Instances(data, scored.size());
+		for(int i : scored)
+			rows.add(data.instance(i));
+		double[][] dist;
+		synchronized(g.predictor) {
+			dist = g.predictor.distributionsForInstances(rows);
+		}
+		for(int k=0;k<dist.length;k++) {
+			Key key = keys[scored.get(k)];
+			stripe(key).put(key, dist[k]);
+		}
+		for(int i=0;i<n;i++) {
+			if(result[i] == null)
+				result[i] = dist[toScore.get(keys[i])].clone();
+		}
+		return result;
+	}
+
+	/**
+	 * Predicted class index (or value, for a numeric class) for every instance.
+	 */
+	public double[] classifyInstances(Instances data) throws Exception {
+		double[][] dist = distributionsForInstances(data);
+		double[] pred = new double[dist.length];
+		boolean nominal = data.classAttribute().isNominal();
+		for(int i=0;i<dist.length;i++)
+			pred[i] = nominal ? BatchPredictor.classFromDistribution(dist[i]) : dist[i][0];
+		return pred;
+	}
+
+	/**
+	 * Same as distributionsForInstances, for one instance (with its dataset).
+	 */
+	public double[] distributionForInstance(Instance inst) throws Exception {
+		Instances data = new Instances(inst.dataset(), 1);
+		data.add(inst);
+		return distributionsForInstances(data)[0];
+	}
+
+	/**
+	 * Same as classifyInstances, for one instance (with its dataset).
+	 */
+	public double classifyInstance(Instance inst) throws Exception {
+		double[] dist = distributionForInstance(inst);
+		return inst.classAttribute().isNominal() ? BatchPredictor.classFromDistribution(dist) : dist[0];
+	}
+
+	/**
+	 * Drops every prediction: the next ones come from the model again.
+	 */
+	public synchronized void invalidate() {
+		Generation g = current;
+		current = new Generation(g.model, g.number+1);
+		clear();
+	}
+
+	private void clear() {
+		for(Stripe s : stripes) {
+			synchronized(s) {
+				s.clear();
+			}
+		}
+	}
+
+	//the model now, read again first if its file changed
+	private Generation generation() throws Exception {
+		if(file != null && System.currentTimeMillis() >= nextCheck)
+			checkFile();
+		return current;
+	}
+
+	private synchronized void checkFile() {
+		long now = System.currentTimeMillis();
+		if(now < nextCheck)
+			return;
+		nextCheck = now + checkIntervalMillis;
+		long modified = file.lastModified();
+		long length = file.length();
+		long checksum;
+		Classifier model;
+		try {
+			checksum = checksum(file);
+			if(modified == fileModified && length == fileLength && checksum == fileChecksum)
+				return;
+			model = read(file);
+		} catch(Exception e) {
+			//being written, or removed: the loaded model goes on until the next check
+			System.err.println("Keeping the loaded model, cannot read " + file + ": " + e);
+			return;
+		}
+		fileModified = modified;
+		fileLength = length;
+		fileChecksum = checksum;
+		current = new Generation(model, current.number+1);
+		clear();
+		reloads.increment();
+	}
+
+	private Stripe stripe(Key key) {
+		//high bits: the low ones pick the bucket within the stripe
+		return stripes[key.hash >>> (32-STRIPE_BITS)];
+	}
+
+	/**
+	 * Rows answered without the model.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Rows scored by the model.
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Predictions dropped to keep maximumSize.
+	 */
+	public long getEvictions() {
+		long evictions = 0;
+		for(Stripe s : stripes) {
+			synchronized(s) {
+				evictions += s.evictions;
+			}
+		}
+		return evictions;
+	}
+
+	/**
+	 * Times the model file changed and the model was read again.
+	 */
+	public long getReloads() {
+		return reloads.sum();
+	}
+
+	/**
+	 * Predictions kept now.
+	 */
+	public int size() {
+		int size = 0;
+		for(Stripe s : stripes) {
+			synchronized(s) {
+				size += s.size();
+			}
+		}
+		return size;
+	}
+
+	public String statsString() {
+		long h = getHits(), m = getMisses();
+		return "hits=" + h + " misses=" + m + " hit rate=" + (h+m == 0 ? 0 : Math.round(1000.0*h/(h+m))/10.0) + "%"
+			+ " size=" + size() + " evictions=" + getEvictions() + " reloads=" + getReloads();
+	}
+
+	//a model and the number that tells its predictions from those of the models before
+	private static class Generation {
+		final Classifier model;
+		final int number;
+		final BatchPredictor predictor;
+
+		Generation(Classifier model, int number) {
+			this.model = model;
+			this.number = number;
+			this.predictor = new BatchPredictor(model);
+		}
+	}
+
+	//values of a row but the class, and the generation of the model that scores it
+	private static class Key {
+		final int generation;
+		final long[] bits;
+		final int hash;
+
+		Key(int generation, Instance inst) {
+			this.generation = generation;
+			int classIndex = inst.classIndex();
+			bits = new long[inst.numAttributes()];
+			long h = generation;
+			for(int j=0;j<bits.length;j++) {
+				//doubleToLongBits: every missing value (NaN) the same
+				bits[j] = j == classIndex ? 0 : Double.doubleToLongBits(inst.value(j));
+				h = h*31 + bits[j];
+			}
+			h *= 0x9E3779B97F4A7C15L;
+			hash = (int) (h ^ (h >>> 32));
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if(!(o instanceof Key))
+				return false;
+			Key k = (Key) o;
+			if(k.hash != hash || k.generation != generation || k.bits.length != bits.length)
+				return false;
+			for(int j=0;j<bits.length;j++) {
+				if(k.bits[j] != bits[j])
+					return false;
+			}
+			return true;
+		}
+	}
+
+	//one stripe of the table: an LRU map in access order, bounded to capacity
+	private static class Stripe extends LinkedHashMap<Key, double[]> {
+
+		private static final long serialVersionUID = 4466734102381729113L;
+
+		int capacity;
+		long evictions;
+
+		Stripe() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		public synchronized double[] get(Object key) {
+			return super.get(key);
+		}
+
+		@Override
+		public synchronized double[] put(Key key, double[] value) {
+			return super.put(key, value);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, double[]> eldest) {
+			if(size() > capacity) {
+				evictions++;
+				return true;
+			}
+			return false;
+		}
+	}
+}
@@ -5,6 +5,11 @@ package irisDataExamples;
  * 
  * Linear Regression, Support Vector Machine and Multilayer Perceptron 
  * are applied on the Iris data, and the coefficient estimates are printed.
+ * The support vector machine is FastSMOreg, whose optimizer computes and caches whole kernel rows
+ * into the model of SMOreg (see FastSMOregTest in the benchmarks module); its kernel counts are
+ * printed.
+ * The multilayer perceptron is FastMultilayerPerceptron, trained on primitive arrays (row by row
+ * by default, as MultilayerPerceptron, into the same network: see FastMultilayerPerceptronTest).
  * 
  * REQUIRE:
  * Depending on Weka installation, it may be required to add arpack_combined.jar core.jar and mtj.jar from
@@ -37,12 +42,13 @@ public class RegressionCoefficients {
 		System.out.println("=====linear regression=====");
 		System.out.println(lr);
 		
-		SMOreg SMOr = new SMOreg();
+		FastSMOreg SMOr = new FastSMOreg();
 		SMOr.buildClassifier(data);
 		System.out.println("=====support vector machine regression=====");
 		System.out.println(SMOr);
+		System.out.println("Kernel evaluations: "+SMOr.getKernelEvaluations()+", cache hits: "+SMOr.getCacheHits()+", cache misses: "+SMOr.getCacheMisses());
 		
-		MultilayerPerceptron MLP = new MultilayerPerceptron();
+		FastMultilayerPerceptron MLP = new FastMultilayerPerceptron();
 		MLP.buildClassifier(data);
 		System.out.println("=====multilayer perceptron=====");
 		System.out.println(MLP);
@@ -74,7 +80,8 @@ weights (not support vectors):
 
 
 
-Number of kernel evaluations: 11325 (92.805% cached)
+Number of kernel evaluations: 22650 (87.399% cached)
+Kernel evaluations: 22650, cache hits: 157094, cache misses: 300
 =====multilayer perceptron=====
 Linear Node 0
     Inputs    Weights
@@ -74,25 +74,27 @@ public class RegressionPrediction {
 		System.out.println("=====support vector machine regression=====");
 		System.out.println(SMOr_model);
 		
-		//load test dataset
-		DataSource sourceTest_DS = new DataSource("src/data/irisTest_df.arff");
-		Instances dataTest_instances = sourceTest_DS.getDataSet();
-		dataTest_instances.setClassIndex(dataTest_instances.numAttributes()-2);
+		//stream the test dataset in chunks, only one chunk is held in memory
+		ChunkedDataSource sourceTest_DS = new ChunkedDataSource("src/data/irisTest_df.arff", 1000);
+		sourceTest_DS.getStructure().setClassIndex(sourceTest_DS.getStructure().numAttributes()-2);
+		PredictionCache predictor = new PredictionCache(SMOr_model);//repeated rows are answered without the model
 		
 		//handle decimals
 		DecimalFormat f = new DecimalFormat("##.00");
 		
-		//carry and print predictions
+		//carry and print predictions, one call per chunk
 		System.out.println("Actual Class, SMO Predicted");
-		for(int n=0;n<dataTest_instances.numInstances();n++) {
-			
-			double actualValue_dou = dataTest_instances.instance(n).classValue();
-			
-			Instance newInst_instance = dataTest_instances.instance(n);
-			
-			double predSMOr_dou = SMOr_model.classifyInstance(newInst_instance);
-			
-			System.out.println(f.format(actualValue_dou)+", "+f.format(predSMOr_dou));
+		Instances dataTest_instances;
+		while((dataTest_instances = sourceTest_DS.nextChunk()) != null) {
+			double[] pred_douArr = predictor.classifyInstances(dataTest_instances);
+			for(int n=0;n<dataTest_instances.numInstances();n++) {
+				
+				double actualValue_dou = dataTest_instances.instance(n).classValue();
+				
+				double predSMOr_dou = pred_douArr[n];
+				
+				System.out.println(f.format(actualValue_dou)+", "+f.format(predSMOr_dou));
+			}
 		}
 	}
 } /* Output:
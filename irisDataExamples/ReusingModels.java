@@ -3,8 +3,10 @@ package irisDataExamples;
 /**
  * Reusing models in WEKA. 
  * 
- * A MultilayerPerceptron model is saved as binary and then loaded to make and
- * print predictions in a test Iris dataset.
+ * A MultilayerPerceptron model (trained by FastMultilayerPerceptron) is saved as binary and
+ * then loaded to make and print predictions in a test Iris dataset.
+ * Predictions go through a PredictionCache watching the model file: the test rows scored again
+ * are answered from the cache, and saving the model again drops the cached predictions.
  * 
  * @author feBueno, June 2020
  * fernando.bueno.gutie@gmail.com
@@ -58,7 +60,7 @@ public class ReusingModels {
 		data_intances.setClassIndex(data_intances.numAttributes()-2);
 		
 		//build model
-		MultilayerPerceptron MLP_model = new MultilayerPerceptron();//weka.classifiers.functions.SMOreg
+		MultilayerPerceptron MLP_model = new FastMultilayerPerceptron();//weka.classifiers.functions.SMOreg
 		MLP_model.buildClassifier(data_intances);
 		System.out.println("=====multilayer perceptron regression=====");
 		System.out.println(MLP_model);
@@ -82,18 +84,30 @@ public class ReusingModels {
 		//handle decimals
 		DecimalFormat f = new DecimalFormat("##.00");
 		
-		//carry and print predictions
+		//carry predictions for the whole test set in one call, cached by row values for the model file
+		PredictionCache cache = PredictionCache.load("src/models/MultilayerPerceptron_OnRawTainData_model");
+		double[] pred_douArr = cache.classifyInstances(dataTest_instances);
+		
+		//print predictions
 		System.out.println("Actual Class, SMO Predicted");
 		for(int n=0;n<dataTest_instances.numInstances();n++) {
 			
 			double actualValue_dou = dataTest_instances.instance(n).classValue();
 			
-			Instance newInst_instance = dataTest_instances.instance(n);
-			
-			double predSMOr_dou = MLP_loaded_model.classifyInstance(newInst_instance);
+			double predSMOr_dou = pred_douArr[n];
 			
 			System.out.println(f.format(actualValue_dou)+", "+f.format(predSMOr_dou));
 		}
+		
+		//the same rows again are answered from the cache
+		cache.classifyInstances(dataTest_instances);
+		System.out.println("Prediction cache: "+cache.statsString());
+		
+		//a new model file is read at the next call (here checked at every call), its predictions computed again
+		cache.setCheckIntervalMillis(0);
+		weka.core.SerializationHelper.write("src/models/MultilayerPerceptron_OnRawTainData_model", MLP_model);
+		cache.classifyInstances(dataTest_instances);
+		System.out.println("Prediction cache once the model is saved again: "+cache.statsString());
 	}
 } /* Output:
 =====multilayer perceptron regression=====
@@ -194,4 +208,6 @@ Actual Class, SMO Predicted
 2.40, 2.16
 2.30, 2.21
 1.80, 2.06
+Prediction cache: hits=52 misses=48 hit rate=52.0% size=48 evictions=0 reloads=0
+Prediction cache once the model is saved again: hits=54 misses=96 hit rate=36.0% size=48 evictions=0 reloads=1
 */
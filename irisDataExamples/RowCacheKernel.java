@@ -0,0 +1,335 @@
+package irisDataExamples;
+
+/**
+ * A WEKA SVM kernel with its values cached by rows: a row is the kernel of one training instance
+ * with all the others, as the SMO solvers ask for them.
+ *
+ * CachedKernel caches single values in a hash table of doubles: every value costs a long key
+ * and a double on the heap, and the table (250007 values by default) soon holds a small part of
+ * the matrix. The SMO solvers, though, update their error cache from the whole rows of the two
+ * multipliers they just changed and compute outputs from the row of one instance. So here the
+ * first value asked of a row computes the whole row (in parallel ranges on the common pool for
+ * the kernels known to be read-only when built) and stores it in an off-heap buffer of
+ * cacheSize megabytes, which keeps the most recently used rows. K(id1,id2) is read from the row
+ * of id1 only, never from the row of id2, and the diagonal is kept apart. Instances that are not
+ * training rows (predictions) go straight to the wrapped kernel, whose own cache is turned off.
+ *
+ * Rows are doubles, so the solver gets, to the last bit, the values the wrapped kernel returns
+ * for the order it asks for them: the machines are those of the kernel with its cache turned off
+ * (cacheSize -1). CachedKernel keeps one value per pair, the one of whichever order came first,
+ * and RBFKernel and Puk are not symmetric to the last bit, so with them SMO and SMOreg with the
+ * default cache can end with another machine (a support vector more or less, weights moved in
+ * the third decimal on iris). PolyKernel and NormalizedPolyKernel give the same machines with
+ * either cache.
+ *
+ * With singlePrecision the rows are floats, twice as many rows in the same memory; the rounding
+ * then moves the multipliers (weights of SMOreg on iris in the third decimal, some predictions
+ * of SMO with NormalizedPolyKernel), so it is meant for data whose rows do not fit otherwise.
+ *
+ * Evaluations, hits and misses are counted for metrics; numEvals and numCacheHits report them
+ * to SMO and SMOreg for toString.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import weka.classifiers.functions.supportVector.CachedKernel;
+import weka.classifiers.functions.supportVector.Kernel;
+import weka.classifiers.functions.supportVector.NormalizedPolyKernel;
+import weka.classifiers.functions.supportVector.PolyKernel;
+import weka.classifiers.functions.supportVector.Puk;
+import weka.classifiers.functions.supportVector.RBFKernel;
+import weka.core.Capabilities;
+import weka.core.Instance;
+import weka.core.Instances;
+
+public class RowCacheKernel extends Kernel {
+
+	private static final long serialVersionUID = 3390541528823102874L;
+
+	//values per parallel task below which a row is not split further
+	private static final int MIN_VALUES_PER_TASK = 1024;
+
+	private final Kernel kernel;
+	//evaluate only reads what buildKernel set up, so a row can be computed in parallel
+	private final boolean readOnly;
+	private int cacheSize = 64;
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+
+	private boolean singlePrecision;
+
+	private int numRows;
+	//cached rows, numRows values per slot (doubles, or floats if singlePrecision), allocated by the first row
+	private transient DoubleBuffer doubleRows;
+	private transient FloatBuffer floatRows;
+	private transient double[] scratch;
+	//slot of every row (-1 if not cached), row in every slot, slots from most to least recently used
+	private transient int[] slotOfRow;
+	private transient int[] rowOfSlot;
+	private transient int[] newer;
+	private transient int[] older;
+	private transient int newest;
+	private transient int oldest;
+	private transient int usedSlots;
+	private transient double[] diagonal;
+	private transient boolean[] hasDiagonal;
+
+	private long evaluations;
+	private long hits;
+	private long misses;
+
+	/**
+	 * Caches the values of kernel, whose own cache is turned off if it has one.
+	 */
+	public RowCacheKernel(Kernel kernel) {
+		this.kernel = kernel;
+		if(kernel instanceof CachedKernel)
+			((CachedKernel) kernel).setCacheSize(-1);
+		Class<?> c = kernel.getClass();
+		readOnly = c == PolyKernel.class || c == NormalizedPolyKernel.class || c == RBFKernel.class || c == Puk.class;
+	}
+
+	public Kernel getKernel() {
+		return kernel;
+	}
+
+	/**
+	 * Megabytes of cached rows (at least two rows are kept).
+	 */
+	public void setCacheSize(int cacheSize) {
+		this.cacheSize = Math.max(0, cacheSize);
+	}
+
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * Cache rows as floats (twice as many rows in cacheSize), rounding the values the solver
+	 * gets. Off by default: the rows are doubles and the machines are the same as without cache.
+	 */
+	public void setSinglePrecision(boolean singlePrecision) {
+		this.singlePrecision = singlePrecision;
+	}
+
+	public boolean getSinglePrecision() {
+		return singlePrecision;
+	}
+
+	public void setNumThreads(int numThreads) {
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	/**
+	 * Values computed by the wrapped kernel.
+	 */
+	public long getEvaluations() {
+		return evaluations;
+	}
+
+	/**
+	 * Values of training rows found in the cache.
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Values of training rows that were not cached, each of them computing its row (or diagonal value).
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	@Override
+	public String globalInfo() {
+		return "Row cache (off-heap) of the values of " + kernel.getClass().getName() + ".";
+	}
+
+	@Override
+	public void buildKernel(Instances data) throws Exception {
+		kernel.buildKernel(data);
+		m_data = data;
+		numRows = data.numInstances();
+		doubleRows = null;
+		floatRows = null;
+		slotOfRow = null;
+		diagonal = new double[numRows];
+		hasDiagonal = new boolean[numRows];
+		evaluations = 0;
+		hits = 0;
+		misses = 0;
+	}
+
+	@Override
+	public double eval(int id1, int id2, Instance inst1) throws Exception {
+		if(id1 < 0) {
+			evaluations++;
+			return kernel.eval(id1, id2, inst1);
+		}
+		if(id1 == id2) {
+			if(hasDiagonal[id1]) {
+				hits++;
+				return diagonal[id1];
+			}
+			misses++;
+			evaluations++;
+			diagonal[id1] = kernel.eval(id1, id1, inst1);
+			hasDiagonal[id1] = true;
+			return diagonal[id1];
+		}
+		if(slotOfRow != null) {
+			int slot = slotOfRow[id1];
+			if(slot >= 0) {
+				hits++;
+				use(slot);
+				return value(slot, id2);
+			}
+		}
+		misses++;
+		return value(fill(id1, inst1), id2);
+	}
+
+	private double value(int slot, int column) {
+		int index = slot*numRows + column;
+		return singlePrecision ? floatRows.get(index) : doubleRows.get(index);
+	}
+
+	//computes row into the least recently used slot, which becomes the most recently used
+	private int fill(final int row, final Instance inst) throws Exception {
+		if(slotOfRow == null)
+			allocate();
+		int slot;
+		if(usedSlots < rowOfSlot.length) {
+			slot = usedSlots++;
+			link(slot);
+		} else {
+			slot = oldest;
+			slotOfRow[rowOfSlot[slot]] = -1;
+			use(slot);
+		}
+		rowOfSlot[slot] = row;
+		slotOfRow[row] = slot;
+
+		final double[] values = scratch;
+		int tasks = readOnly ? Math.min(numThreads, Math.max(1, numRows/MIN_VALUES_PER_TASK)) : 1;
+		List<Callable<Void>> ranges = new ArrayList<Callable<Void>>();
+		for(int t=0;t<tasks;t++) {
+			final int from = (int) ((long) numRows*t/tasks);
+			final int to = (int) ((long) numRows*(t+1)/tasks);
+			ranges.add(new Callable<Void>() {
+				public Void call() throws Exception {
+					for(int j=from;j<to;j++)
+						values[j] = kernel.eval(row, j, inst);
+					return null;
+				}
+			});
+		}
+		Tasks.run(ranges);
+		evaluations += numRows;
+		int base = slot*numRows;
+		for(int j=0;j<numRows;j++) {
+			if(singlePrecision)
+				floatRows.put(base+j, (float) values[j]);
+			else
+				doubleRows.put(base+j, values[j]);
+		}
+		return slot;
+	}
+
+	private void allocate() {
+		long rowBytes = (singlePrecision ? 4L : 8L)*numRows;
+		long slots = Math.max(2, (long) cacheSize*1024*1024/rowBytes);
+		slots = Math.min(Math.min(slots, numRows), Integer.MAX_VALUE/rowBytes);
+		int numSlots = (int) slots;
+		ByteBuffer rows = ByteBuffer.allocateDirect((int) (numSlots*rowBytes)).order(ByteOrder.nativeOrder());
+		if(singlePrecision)
+			floatRows = rows.asFloatBuffer();
+		else
+			doubleRows = rows.asDoubleBuffer();
+		scratch = new double[numRows];
+		slotOfRow = new int[numRows];
+		Arrays.fill(slotOfRow, -1);
+		rowOfSlot = new int[numSlots];
+		newer = new int[numSlots];
+		older = new int[numSlots];
+		newest = -1;
+		oldest = -1;
+		usedSlots = 0;
+	}
+
+	//moves slot to the front of the recency list
+	private void use(int slot) {
+		if(slot == newest)
+			return;
+		int n = newer[slot];
+		int o = older[slot];
+		older[n] = o;
+		if(o >= 0)
+			newer[o] = n;
+		else
+			oldest = n;
+		link(slot);
+	}
+
+	//puts slot (not in the list) at the front of the recency list
+	private void link(int slot) {
+		newer[slot] = -1;
+		older[slot] = newest;
+		if(newest >= 0)
+			newer[newest] = slot;
+		newest = slot;
+		if(oldest < 0)
+			oldest = slot;
+	}
+
+	/**
+	 * Frees the cached rows and cleans the wrapped kernel; the counts are kept.
+	 */
+	@Override
+	public void clean() {
+		doubleRows = null;
+		floatRows = null;
+		scratch = null;
+		slotOfRow = null;
+		rowOfSlot = null;
+		newer = null;
+		older = null;
+		diagonal = null;
+		hasDiagonal = null;
+		kernel.clean();
+	}
+
+	@Override
+	public int numEvals() {
+		return (int) Math.min(evaluations, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public int numCacheHits() {
+		return (int) Math.min(hits, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public Capabilities getCapabilities() {
+		return kernel.getCapabilities();
+	}
+
+	@Override
+	public String toString() {
+		return kernel.toString();
+	}
+}
@@ -0,0 +1,255 @@
+package irisDataExamples;
+
+/**
+ * Rows of a dataset picked by their indices, for folds and splits that copy no data.
+ *
+ * Instances.trainCV, testCV and new Instances(data) copy every instance they keep (a new
+ * Instance object pointing to the same values) into a new list, so a 10-fold cross-validation
+ * makes about 10 copies of the data on top of the randomized one, and ParallelFolds holds as
+ * many at once as folds run. A RowView is the dataset and an int[] with the indices of its rows:
+ * randomize and stratify shuffle the indices, with the same random numbers and in the same
+ * order as Instances does it, and trainCV, testCV and split return new views over the same
+ * data, so the folds and the predictions are those of Instances.
+ *
+ * instances() gives the Instances a classifier trains on: a list of the instances of the
+ * dataset themselves, one reference per row, none copied (a subclass of Instances that sets its
+ * list, saved as a plain copy). It is meant for a classifier that
+ * leaves the instances it is given as they are (J48, NaiveBayes, Logistic, SMO... copy the data
+ * before changing weights or values), trained on one thread at a time: a classifier that
+ * changed them would change the dataset, and with it the other folds. Folds trained
+ * concurrently, or by classifiers not known to copy their input, get a copy of their rows
+ * (new Instances(view.instances())), as ParallelFolds does.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.Classifier;
+import weka.classifiers.evaluation.Evaluation;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.UnassignedClassException;
+
+public class RowView {
+
+	private final Instances data;
+	private final int[] rows;
+
+	/**
+	 * Every row of data, in order.
+	 */
+	public RowView(Instances data) {
+		this(data, identity(data.numInstances()));
+	}
+
+	/**
+	 * The rows of data at the given indices (kept, not copied), in their order.
+	 */
+	public RowView(Instances data, int[] rows) {
+		this.data = data;
+		this.rows = rows;
+	}
+
+	private static int[] identity(int n) {
+		int[] rows = new int[n];
+		for(int i=0;i<n;i++)
+			rows[i] = i;
+		return rows;
+	}
+
+	public Instances getData() {
+		return data;
+	}
+
+	/**
+	 * Indices of the rows in the dataset (the view's own array).
+	 */
+	public int[] getRows() {
+		return rows;
+	}
+
+	public int numRows() {
+		return rows.length;
+	}
+
+	/**
+	 * The i-th row of the view, an instance of the dataset.
+	 */
+	public Instance row(int i) {
+		return data.instance(rows[i]);
+	}
+
+	/**
+	 * Shuffles the rows as Instances.randomize does it.
+	 */
+	public void randomize(Random random) {
+		for(int j=rows.length-1;j>0;j--)
+			swap(rows, j, random.nextInt(j+1));
+	}
+
+	/**
+	 * Orders the rows for a stratified cross-validation as Instances.stratify does it: grouped by
+	 * class, then dealt every numFolds rows (nothing to do for a numeric class).
+	 */
+	public void stratify(int numFolds) {
+		if(numFolds <= 1)
+			throw new IllegalArgumentException("Number of folds must be greater than 1");
+		if(data.classIndex() < 0)
+			throw new UnassignedClassException("Class index is negative (not set)!");
+		if(!data.classAttribute().isNominal())
+			return;
+
+		//class values of the rows, swapped along with them
+		int n = rows.length;
+		double[] classes = new double[n];
+		for(int i=0;i<n;i++)
+			classes[i] = row(i).classValue();
+		//sort by class
+		int index = 1;
+		while(index < n) {
+			double class1 = classes[index-1];
+			for(int j=index;j<n;j++) {
+				double class2 = classes[j];
+				if(class1 == class2 || (Double.isNaN(class1) && Double.isNaN(class2))) {
+					swap(rows, index, j);
+					swap(classes, index, j);
+					index++;
+				}
+			}
+			index++;
+		}
+		//stratStep
+		int[] dealt = new int[n];
+		int k = 0;
+		for(int start=0;k<n;start++) {
+			for(int j=start;j<n;j+=numFolds)
+				dealt[k++] = rows[j];
+		}
+		System.arraycopy(dealt, 0, rows, 0, n);
+	}
+
+	/**
+	 * Training rows of fold numFold, as Instances.trainCV.
+	 */
+	public RowView trainCV(int numFolds, int numFold) {
+		int n = rows.length;
+		int first = first(numFolds, numFold);
+		int size = foldSize(numFolds, numFold);
+		int[] train = new int[n-size];
+		System.arraycopy(rows, 0, train, 0, first);
+		System.arraycopy(rows, first+size, train, first, n-first-size);
+		return new RowView(data, train);
+	}
+
+	/**
+	 * Training rows of fold numFold shuffled by random, as Instances.trainCV (the one
+	 * Evaluation.crossValidateModel uses).
+	 */
+	public RowView trainCV(int numFolds, int numFold, Random random) {
+		RowView train = trainCV(numFolds, numFold);
+		train.randomize(random);
+		return train;
+	}
+
+	/**
+	 * Test rows of fold numFold, as Instances.testCV.
+	 */
+	public RowView testCV(int numFolds, int numFold) {
+		int first = first(numFolds, numFold);
+		int[] test = new int[foldSize(numFolds, numFold)];
+		System.arraycopy(rows, first, test, 0, test.length);
+		return new RowView(data, test);
+	}
+
+	//rows in fold numFold, the first folds taking one more when they do not divide evenly
+	private int foldSize(int numFolds, int numFold) {
+		if(numFolds < 2)
+			throw new IllegalArgumentException("Number of folds must be at least 2!");
+		if(numFolds > rows.length)
+			throw new IllegalArgumentException("Can't have more folds than instances!");
+		return rows.length/numFolds + (numFold < rows.length%numFolds ? 1 : 0);
+	}
+
+	private int first(int numFolds, int numFold) {
+		int offset = Math.min(numFold, rows.length%numFolds);
+		return numFold*(rows.length/numFolds) + offset;
+	}
+
+	/**
+	 * Training and test rows of a percentage split, as Evaluation's -split-percentage: the first
+	 * round(numRows*percent/100) rows, then the rest.
+	 */
+	public RowView[] split(double percent) {
+		if(percent <= 0 || percent >= 100)
+			throw new IllegalArgumentException("Percentage must be between 0 and 100");
+		int trainSize = (int) Math.round(rows.length*percent/100);
+		int[] train = new int[trainSize];
+		int[] test = new int[rows.length-trainSize];
+		System.arraycopy(rows, 0, train, 0, train.length);
+		System.arraycopy(rows, trainSize, test, 0, test.length);
+		return new RowView[] {new RowView(data, train), new RowView(data, test)};
+	}
+
+	/**
+	 * The rows as Instances with the header of the dataset, for buildClassifier and
+	 * evaluateModel: the instances of the dataset themselves, not copies.
+	 */
+	public Instances instances() {
+		ArrayList<Instance> list = new ArrayList<Instance>(rows.length);
+		for(int r : rows)
+			list.add(data.instance(r));
+		return new View(data, list);
+	}
+
+	/**
+	 * Same as eval.crossValidateModel(classifier, data, numFolds, random), on views of data: the
+	 * same folds, models and evaluation, with no copy of the data (see instances() for the
+	 * classifiers this suits). The number of folds eval keeps for itself (protected, and read by
+	 * none of its statistics) is left as it was.
+	 */
+	public static void crossValidateModel(Evaluation eval, Classifier classifier, Instances data, int numFolds, Random random) throws Exception {
+		RowView randData = new RowView(data);
+		randData.randomize(random);
+		if(data.classAttribute().isNominal())
+			randData.stratify(numFolds);
+		for(int i=0;i<numFolds;i++) {
+			Instances train = randData.trainCV(numFolds, i, random).instances();
+			eval.setPriors(train);
+			Classifier copiedClassifier = AbstractClassifier.makeCopy(classifier);
+			copiedClassifier.buildClassifier(train);
+			eval.evaluateModel(copiedClassifier, randData.testCV(numFolds, i).instances());
+		}
+	}
+
+	//Instances over a list of instances it does not copy (Instances.add copies every instance)
+	private static class View extends Instances {
+
+		private static final long serialVersionUID = -6309812270385517457L;
+
+		View(Instances header, ArrayList<Instance> instances) {
+			super(header, 0);
+			m_Instances = instances;
+		}
+
+		//saved (in a model that keeps its data) as the Instances it stands for
+		private Object writeReplace() {
+			return new Instances(this);
+		}
+	}
+
+	private static void swap(int[] a, int i, int j) {
+		int t = a[i];
+		a[i] = a[j];
+		a[j] = t;
+	}
+
+	private static void swap(double[] a, int i, int j) {
+		double t = a[i];
+		a[i] = a[j];
+		a[j] = t;
+	}
+}
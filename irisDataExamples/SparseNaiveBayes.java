@@ -0,0 +1,267 @@
+package irisDataExamples;
+
+/**
+ * NaiveBayes trained and scored from the non-zero entries of a SparseStore.
+ *
+ * WEKA's NaiveBayes sorts the whole dataset once per numeric attribute to choose the precision
+ * of its estimators, then updates one estimator per attribute for every row, zeros included.
+ * Here the store is transposed into columns once: the precision comes from the distinct
+ * non-zero values of the column (plus 0 if the column has zeros), and the estimators get the
+ * non-zero values one by one and all the zeros of a class in a single weighted update, so the
+ * cost is proportional to the number of non-zero entries. The estimators, and so the model, are
+ * the ones NaiveBayes builds with its default options (the sums only add up in another order);
+ * with a kernel estimator or supervised discretization the WEKA training is used.
+ *
+ * Scoring works in log space: the log-probability of a row with only zeros is computed once per
+ * class, and each non-zero entry of a row replaces the zero term of its attribute with its own.
+ * The probabilities are the ones NaiveBayes returns, up to rounding.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.Arrays;
+
+import weka.classifiers.bayes.NaiveBayes;
+import weka.core.Attribute;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+import weka.estimators.DiscreteEstimator;
+import weka.estimators.Estimator;
+import weka.estimators.NormalEstimator;
+
+public class SparseNaiveBayes extends NaiveBayes {
+
+	private static final long serialVersionUID = 4113876124305316762L;
+
+	//floor of every per-attribute factor, as in NaiveBayes.distributionForInstance
+	private static final double MIN_PROBABILITY = 1e-75;
+
+	//per class: log prior plus the log-probability of a row with only zeros
+	private double[] logZeroRow;
+	//per attribute and class: log-probability of a zero (0 for the class attribute)
+	private double[][] logZero;
+
+	/**
+	 * Trains from the rows of data; goes through a SparseStore unless the options need
+	 * the WEKA training (kernel estimator, supervised discretization).
+	 */
+	@Override
+	public void buildClassifier(Instances data) throws Exception {
+		if(getUseKernelEstimator() || getUseSupervisedDiscretization()) {
+			super.buildClassifier(data);
+			logZeroRow = null;
+			return;
+		}
+		getCapabilities().testWithFail(data);
+		buildClassifier(SparseStore.of(data));
+	}
+
+	/**
+	 * Trains from the non-zero entries of store (rows with a missing class are ignored).
+	 */
+	public void buildClassifier(SparseStore store) throws Exception {
+		if(getUseKernelEstimator() || getUseSupervisedDiscretization()) {
+			super.buildClassifier(store.toInstances());
+			logZeroRow = null;
+			return;
+		}
+		Instances header = store.header();
+		getCapabilities().testWithFail(header);
+		int numAtts = header.numAttributes();
+		int classIndex = header.classIndex();
+		m_NumClasses = header.numClasses();
+		m_Instances = new Instances(header, 0);
+		m_Disc = null;
+
+		//class of every row, weight and number of rows of every class
+		m_ClassDistribution = new DiscreteEstimator(m_NumClasses, true);
+		double[] classWeight = new double[m_NumClasses];
+		int[] classCount = new int[m_NumClasses];
+		int[] colCount = new int[numAtts+1];
+		for(int i=0;i<store.numRows;i++) {
+			if(Double.isNaN(store.classValues[i]))
+				continue;
+			int c = (int) store.classValues[i];
+			m_ClassDistribution.addValue(c, store.weights[i]);
+			classWeight[c] += store.weights[i];
+			classCount[c]++;
+			for(int k=store.rowStart[i];k<store.rowStart[i+1];k++)
+				colCount[store.indices[k]+1]++;
+		}
+		int numKnown = 0;
+		for(int c=0;c<m_NumClasses;c++)
+			numKnown += classCount[c];
+
+		//transpose: the entries of every column, in row order
+		for(int j=0;j<numAtts;j++)
+			colCount[j+1] += colCount[j];
+		int[] colStart = colCount.clone();
+		int[] rows = new int[colStart[numAtts]];
+		double[] vals = new double[rows.length];
+		for(int i=0;i<store.numRows;i++) {
+			if(Double.isNaN(store.classValues[i]))
+				continue;
+			for(int k=store.rowStart[i];k<store.rowStart[i+1];k++) {
+				int slot = colCount[store.indices[k]]++;
+				rows[slot] = i;
+				vals[slot] = store.values[k];
+			}
+		}
+
+		m_Distributions = new Estimator[numAtts-1][m_NumClasses];
+		int attIndex = 0;
+		for(int j=0;j<numAtts;j++) {
+			if(j == classIndex)
+				continue;
+			Attribute attribute = header.attribute(j);
+			int from = colStart[j];
+			int to = colStart[j+1];
+			for(int c=0;c<m_NumClasses;c++) {
+				if(attribute.isNumeric())
+					m_Distributions[attIndex][c] = new NormalEstimator(precision(vals, from, to, numKnown));
+				else if(attribute.isNominal())
+					m_Distributions[attIndex][c] = new DiscreteEstimator(attribute.numValues(), true);
+				else
+					throw new Exception("Attribute type unknown to NaiveBayes");
+			}
+
+			//non-zero values one by one, then the zeros of each class at once
+			double[] zeroWeight = classWeight.clone();
+			int[] zeroCount = classCount.clone();
+			for(int k=from;k<to;k++) {
+				int c = (int) store.classValues[rows[k]];
+				double w = store.weights[rows[k]];
+				zeroWeight[c] -= w;
+				zeroCount[c]--;
+				if(!Double.isNaN(vals[k]))
+					m_Distributions[attIndex][c].addValue(vals[k], w);
+			}
+			for(int c=0;c<m_NumClasses;c++) {
+				if(zeroCount[c] > 0)
+					m_Distributions[attIndex][c].addValue(0, zeroWeight[c]);
+			}
+			attIndex++;
+		}
+		prepareScoring();
+	}
+
+	//NaiveBayes' precision: mean gap between the sorted distinct values of the column
+	private static double precision(double[] vals, int from, int to, int numKnown) {
+		double[] sorted = new double[to-from+1];
+		int n = 0;
+		for(int k=from;k<to;k++) {
+			if(!Double.isNaN(vals[k]))
+				sorted[n++] = vals[k];
+		}
+		if(to-from < numKnown)
+			sorted[n++] = 0;//rows not in the column are zeros
+		if(n == 0)
+			return DEFAULT_NUM_PRECISION;
+		Arrays.sort(sorted, 0, n);
+		double lastVal = sorted[0];
+		double deltaSum = 0;
+		int distinct = 0;
+		for(int k=1;k<n;k++) {
+			if(sorted[k] != lastVal) {
+				deltaSum += sorted[k] - lastVal;
+				lastVal = sorted[k];
+				distinct++;
+			}
+		}
+		return distinct > 0 ? deltaSum/distinct : DEFAULT_NUM_PRECISION;
+	}
+
+	//log-probabilities of the zeros, computed once per model
+	private void prepareScoring() {
+		int numAtts = m_Instances.numAttributes();
+		logZeroRow = new double[m_NumClasses];
+		logZero = new double[numAtts][m_NumClasses];
+		for(int c=0;c<m_NumClasses;c++)
+			logZeroRow[c] = Math.log(m_ClassDistribution.getProbability(c));
+		for(int j=0;j<numAtts;j++) {
+			if(j == m_Instances.classIndex())
+				continue;
+			for(int c=0;c<m_NumClasses;c++) {
+				logZero[j][c] = logTerm(j, c, 0);
+				logZeroRow[c] += logZero[j][c];
+			}
+		}
+	}
+
+	//log of the factor of attribute j for class c, as NaiveBayes computes it
+	private double logTerm(int j, int c, double value) {
+		int attIndex = j < m_Instances.classIndex() ? j : j-1;
+		double p = m_Distributions[attIndex][c].getProbability(value);
+		double weight = m_Instances.attribute(attIndex).weight();
+		if(weight != 1)
+			p = Math.pow(p, weight);
+		return Math.log(Math.max(MIN_PROBABILITY, p));
+	}
+
+	/**
+	 * Class distribution of one instance, from its non-zero values.
+	 */
+	@Override
+	public double[] distributionForInstance(Instance instance) throws Exception {
+		if(logZeroRow == null)
+			return super.distributionForInstance(instance);
+		double[] logProbs = logZeroRow.clone();
+		int classIndex = m_Instances.classIndex();
+		for(int v=0;v<instance.numValues();v++) {
+			int j = instance.index(v);
+			double value = instance.valueSparse(v);
+			if(j != classIndex && value != 0)
+				addEntry(logProbs, j, value);
+		}
+		return normalize(logProbs);
+	}
+
+	/**
+	 * Class distributions of rows [from, to) of store, from their non-zero entries.
+	 */
+	public double[][] distributions(SparseStore store, int from, int to) throws Exception {
+		if(logZeroRow == null)
+			throw new IllegalStateException("Not trained from a SparseStore (kernel estimator or discretization)");
+		double[][] result = new double[to-from][];
+		for(int i=from;i<to;i++) {
+			double[] logProbs = logZeroRow.clone();
+			for(int k=store.rowStart[i];k<store.rowStart[i+1];k++)
+				addEntry(logProbs, store.indices[k], store.values[k]);
+			result[i-from] = normalize(logProbs);
+		}
+		return result;
+	}
+
+	/**
+	 * True if the model is scored with the sparse kernel (trained with the default estimators).
+	 */
+	public boolean isSparse() {
+		return logZeroRow != null;
+	}
+
+	//swaps the zero term of attribute j for the term of value (a missing value has no term)
+	private void addEntry(double[] logProbs, int j, double value) {
+		for(int c=0;c<m_NumClasses;c++) {
+			logProbs[c] -= logZero[j][c];
+			if(!Double.isNaN(value))
+				logProbs[c] += logTerm(j, c, value);
+		}
+	}
+
+	private static double[] normalize(double[] logProbs) {
+		double max = logProbs[Utils.maxIndex(logProbs)];
+		for(int c=0;c<logProbs.length;c++)
+			logProbs[c] = Math.exp(logProbs[c]-max);
+		Utils.normalize(logProbs);
+		return logProbs;
+	}
+
+	/**
+	 * Command line, as for NaiveBayes (e.g. -t src/data/iris.arff); see SparseStore for a demo.
+	 */
+	public static void main(String[] argv) {
+		runClassifier(new SparseNaiveBayes(), argv);
+	}
+}
@@ -0,0 +1,230 @@
+package irisDataExamples;
+
+/**
+ * Compressed sparse row (CSR) store of a dataset.
+ *
+ * NonSparseToSparse only changes how the rows are written: once loaded, every WEKA classifier
+ * still walks all the attributes of every row, so a text-derived dataset with 99% zeros costs
+ * as much as a dense one. Here the non-zero values of all the rows are kept in two flat arrays
+ * (attribute index and value) with the offset of each row, plus the weight and the class value
+ * of each row, so memory is proportional to the number of non-zero entries and a kernel that
+ * walks a row only sees its non-zero entries. Missing values are stored as NaN entries (they are
+ * not zeros); the class is kept apart and never appears among the entries.
+ *
+ * The store is built from an Instances (dense or sparse) or filled row by row, e.g. straight
+ * from a FilterPipeline or a ChunkedDataSource. The sparse kernels are in LinearScorer
+ * (Logistic, LinearRegression, SMO and SMOreg with a linear kernel) and SparseNaiveBayes;
+ * BatchPredictor.distributions(SparseStore) picks the right one.
+ *
+ * On Iris, the data discretized and converted to sparse format by FilterPipeline is loaded
+ * into a store and used to train and score NaiveBayes and Logistic. SparseStoreTest in the
+ * benchmarks module checks the models and scores against WEKA's.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.Arrays;
+
+import weka.classifiers.functions.Logistic;
+import weka.classifiers.bayes.NaiveBayes;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.SparseInstance;
+import weka.core.Utils;
+import weka.core.converters.ConverterUtils.DataSource;
+
+public class SparseStore implements FilterPipeline.RowConsumer {
+
+	private final Instances header;
+
+	//row i has its entries in [rowStart[i], rowStart[i+1]) of indices/values, in attribute order
+	int numRows;
+	int[] rowStart = new int[17];
+	int[] indices = new int[64];
+	double[] values = new double[64];
+	double[] weights = new double[16];
+	double[] classValues = new double[16];
+
+	/**
+	 * Empty store for rows with the format of header (class index set, or -1 for no class).
+	 */
+	public SparseStore(Instances header) {
+		this.header = new Instances(header, 0);
+	}
+
+	/**
+	 * Store with all the rows of data.
+	 */
+	public static SparseStore of(Instances data) {
+		SparseStore store = new SparseStore(data);
+		store.ensureRows(data.numInstances());
+		for(int i=0;i<data.numInstances();i++)
+			store.add(data.instance(i));
+		return store;
+	}
+
+	/**
+	 * Appends one row; only its non-zero values are kept.
+	 */
+	public void add(Instance inst) {
+		ensureRows(numRows+1);
+		int classIndex = header.classIndex();
+		int k = rowStart[numRows];
+		for(int v=0;v<inst.numValues();v++) {
+			int j = inst.index(v);
+			double value = inst.valueSparse(v);
+			if(j == classIndex || value == 0)
+				continue;
+			if(k == indices.length) {
+				indices = Arrays.copyOf(indices, 2*k);
+				values = Arrays.copyOf(values, 2*k);
+			}
+			indices[k] = j;
+			values[k] = value;
+			k++;
+		}
+		weights[numRows] = inst.weight();
+		classValues[numRows] = classIndex < 0 ? Utils.missingValue() : inst.value(classIndex);
+		rowStart[++numRows] = k;
+	}
+
+	/**
+	 * Same as add, so a store can be the end of a FilterPipeline.
+	 */
+	public void accept(Instance inst) {
+		add(inst);
+	}
+
+	private void ensureRows(int n) {
+		if(n < weights.length)
+			return;
+		int capacity = Math.max(n, 2*weights.length);
+		rowStart = Arrays.copyOf(rowStart, capacity+1);
+		weights = Arrays.copyOf(weights, capacity);
+		classValues = Arrays.copyOf(classValues, capacity);
+	}
+
+	/**
+	 * Format of the rows (no instances).
+	 */
+	public Instances header() {
+		return header;
+	}
+
+	public int numRows() {
+		return numRows;
+	}
+
+	/**
+	 * Number of stored entries (non-zero or missing values, class excluded).
+	 */
+	public int nnz() {
+		return rowStart[numRows];
+	}
+
+	/**
+	 * Fraction of the non-class cells that are stored.
+	 */
+	public double density() {
+		int numCells = numRows*(header.numAttributes() - (header.classIndex() < 0 ? 0 : 1));
+		return numCells == 0 ? 0 : nnz()/(double) numCells;
+	}
+
+	/**
+	 * Bytes taken by the used part of the arrays (4+8 per entry, 4+8+8 per row).
+	 */
+	public long memoryBytes() {
+		return 12L*nnz() + 20L*numRows;
+	}
+
+	/**
+	 * True if a non-class value of row i is missing.
+	 */
+	public boolean hasMissing(int i) {
+		for(int k=rowStart[i];k<rowStart[i+1];k++) {
+			if(Double.isNaN(values[k]))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Row i as a SparseInstance with the header as dataset.
+	 */
+	public Instance instance(int i) {
+		int from = rowStart[i];
+		int count = rowStart[i+1] - from;
+		int classIndex = header.classIndex();
+		boolean withClass = classIndex >= 0 && classValues[i] != 0;
+		int[] ind = new int[count + (withClass ? 1 : 0)];
+		double[] val = new double[ind.length];
+		int n = 0;
+		for(int k=from;k<from+count;k++) {
+			if(withClass && classIndex < indices[k]) {
+				ind[n] = classIndex;
+				val[n++] = classValues[i];
+				withClass = false;
+			}
+			ind[n] = indices[k];
+			val[n++] = values[k];
+		}
+		if(withClass) {
+			ind[n] = classIndex;
+			val[n] = classValues[i];
+		}
+		Instance inst = new SparseInstance(weights[i], val, ind, header.numAttributes());
+		inst.setDataset(header);
+		return inst;
+	}
+
+	/**
+	 * Rows [from, to) as an Instances of SparseInstance rows.
+	 */
+	public Instances toInstances(int from, int to) {
+		Instances data = new Instances(header, to-from);
+		for(int i=from;i<to;i++)
+			data.add(instance(i));
+		return data;
+	}
+
+	public Instances toInstances() {
+		return toInstances(0, numRows);
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		//Iris discretized and converted to sparse format (see FilterPipeline)
+		DataSource source = new DataSource("src/data/iris_afterFilterPipeline.arff");
+		Instances iris_ds = source.getDataSet();
+		iris_ds.setClassIndex(iris_ds.numAttributes()-1);
+
+		SparseStore store = SparseStore.of(iris_ds);
+		System.out.println(store.numRows() + " rows, " + store.nnz() + " stored values (density "
+			+ Utils.doubleToString(store.density(), 2) + "), " + store.memoryBytes() + " bytes");
+
+		//NaiveBayes trained from the non-zero entries only (the model of NaiveBayes, see SparseStoreTest)
+		SparseNaiveBayes sparseNB = new SparseNaiveBayes();
+		sparseNB.buildClassifier(store);
+
+		//score the models from the store with the sparse kernels
+		Logistic logistic = new Logistic();
+		logistic.buildClassifier(iris_ds);
+		NaiveBayes NB = new NaiveBayes();
+		NB.buildClassifier(iris_ds);
+		BatchPredictor[] predictors = {new BatchPredictor(NB), new BatchPredictor(sparseNB), new BatchPredictor(logistic)};
+		for(BatchPredictor predictor : predictors) {
+			double[][] dist = predictor.distributions(store);
+			String first = "";
+			for(double p : dist[0])
+				first += " " + Utils.doubleToString(p, 4);
+			System.out.println(predictor.getModel().getClass().getSimpleName() + " sparse kernel: " + predictor.isSparse()
+				+ ", first row:" + first);
+		}
+	}
+} /*Output:
+150 rows, 205 stored values (density 0.68), 5460 bytes
+NaiveBayes sparse kernel: false, first row: 0.9961 0.0029 0.001
+SparseNaiveBayes sparse kernel: true, first row: 0.9961 0.0029 0.001
+Logistic sparse kernel: true, first row: 1 0 0
+*/
\ No newline at end of file
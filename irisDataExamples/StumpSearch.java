@@ -0,0 +1,573 @@
+package irisDataExamples;
+
+/**
+ * The split of WEKA's DecisionStump for a fixed set of rows and any weights and class values,
+ * as boosting asks for it round after round (FastAdaBoostM1, FastLogitBoost).
+ *
+ * DecisionStump copies its training data on every build and sorts the instances by every
+ * numeric attribute, so every boosting round copies the data and sorts it once per attribute,
+ * although only the weights (and for LogitBoost the class values) change. Here the values of
+ * every attribute are kept in a column and every numeric attribute is sorted once, the way
+ * DecisionStump sorts it (Instances.sort, each sort starting from the order the previous one
+ * left). A search then walks the columns in those orders with the weights and class values of
+ * the round in arrays, adding up in the same order as DecisionStump, so the stumps are the same
+ * to the last bit. The attributes are searched by up to numThreads tasks on the common pool.
+ *
+ * With numBins > 0 the values of every numeric attribute are grouped instead into at most numBins
+ * bins of about as many rows (equal values in the same bin, one bin per value if there are no
+ * more values than bins). A search adds up the weights of every bin in one pass over the rows and
+ * tries the cuts between bins only, midway between the largest value of a bin and the smallest of
+ * the next: the stumps are those of a DecisionStump looking at numBins cut points per attribute.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import weka.classifiers.trees.DecisionStump;
+import weka.core.ContingencyTables;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class StumpSearch {
+
+	private final Instances header;
+	private final int numRows;
+	//classes of a nominal class, 1 for a numeric class
+	private final int numClasses;
+	private final boolean nominalClass;
+	private final int numBins;
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+
+	//per attribute other than the class, in index order: index, values of the rows (NaN if missing)
+	private final int[] attributes;
+	private final boolean[] nominal;
+	private final double[][] columns;
+	private final int[] numMissing;
+	//exact: rows in the order DecisionStump adds them up (null for the order of the data) and sorted
+	private final int[][] before;
+	private final int[][] sorted;
+	//binned: bin of every row (-1 if missing), smallest and largest value of every bin
+	private final int[][] bins;
+	private final double[][] binMin;
+	private final double[][] binMax;
+
+	/**
+	 * Keeps the columns of data (no missing class), sorted or binned (numBins > 0).
+	 */
+	public StumpSearch(Instances data, int numBins) {
+		header = new Instances(data, 0);
+		numRows = data.numInstances();
+		nominalClass = data.classAttribute().isNominal();
+		numClasses = nominalClass ? data.numClasses() : 1;
+		this.numBins = numBins;
+		int m = data.numAttributes()-1;
+		attributes = new int[m];
+		nominal = new boolean[m];
+		columns = new double[m][];
+		numMissing = new int[m];
+		before = new int[m][];
+		sorted = new int[m][];
+		bins = new int[m][];
+		binMin = new double[m][];
+		binMax = new double[m][];
+		int[] order = null;
+		for(int a=0,j=0;j<data.numAttributes();j++) {
+			if(j == data.classIndex())
+				continue;
+			attributes[a] = j;
+			nominal[a] = data.attribute(j).isNominal();
+			columns[a] = data.attributeToDoubleArray(j);
+			for(double v : columns[a]) {
+				if(Double.isNaN(v))
+					numMissing[a]++;
+			}
+			if(!nominal[a]) {
+				//as Instances.sort: missing values last, from the order of the previous sort
+				double[] vals = new double[numRows];
+				for(int k=0;k<numRows;k++) {
+					double v = columns[a][order == null ? k : order[k]];
+					vals[k] = Double.isNaN(v) ? Double.MAX_VALUE : v;
+				}
+				int[] s = Utils.sortWithNoMissingValues(vals);
+				if(order != null) {
+					for(int k=0;k<numRows;k++)
+						s[k] = order[s[k]];
+				}
+				if(numBins > 0) {
+					bin(a, s);
+				} else {
+					before[a] = order;
+					sorted[a] = s;
+				}
+				order = s;
+			} else if(numBins <= 0) {
+				before[a] = order;
+			}
+			a++;
+		}
+	}
+
+	//groups the values of a, sorted rows s, into at most numBins bins
+	private void bin(int a, int[] s) {
+		double[] col = columns[a];
+		int present = numRows-numMissing[a];
+		int distinct = 0;
+		for(int k=0;k<present;k++) {
+			if(k == 0 || col[s[k]] > col[s[k-1]])
+				distinct++;
+		}
+		int perBin = distinct <= numBins ? 1 : (present+numBins-1)/numBins;
+		int[] rowBins = new int[numRows];
+		double[] min = new double[Math.min(distinct, numBins)];
+		double[] max = new double[min.length];
+		int b = -1, inBin = 0;
+		for(int k=0;k<present;k++) {
+			double v = col[s[k]];
+			if(b < 0 || (inBin >= perBin && v > col[s[k-1]])) {
+				b++;
+				min[b] = v;
+				inBin = 0;
+			}
+			max[b] = v;
+			inBin++;
+			rowBins[s[k]] = b;
+		}
+		for(int k=present;k<numRows;k++)
+			rowBins[s[k]] = -1;
+		bins[a] = rowBins;
+		binMin[a] = Arrays.copyOf(min, b+1);
+		binMax[a] = Arrays.copyOf(max, b+1);
+	}
+
+	public void setNumThreads(int numThreads) {
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	public int numRows() {
+		return numRows;
+	}
+
+	/**
+	 * The split of a DecisionStump trained on the rows with weights and classValues (class index
+	 * for a nominal class), whose split point before training was splitPoint; null if
+	 * DecisionStump would find no split because the rows have no weight.
+	 */
+	public Split search(final double[] weights, final double[] classValues, double splitPoint) throws Exception {
+		final Result[] results = new Result[attributes.length];
+		final List<Integer> order = new ArrayList<Integer>();
+		//sorted numeric attributes first, the longest searches
+		for(int a=0;a<attributes.length;a++) {
+			if(!nominal[a])
+				order.add(a);
+		}
+		for(int a=0;a<attributes.length;a++) {
+			if(nominal[a])
+				order.add(a);
+		}
+		final AtomicInteger next = new AtomicInteger();
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for(int t=0;t<Math.min(numThreads, attributes.length);t++) {
+			tasks.add(new Callable<Void>() {
+				public Void call() {
+					for(int i=next.getAndIncrement();i<order.size();i=next.getAndIncrement()) {
+						int a = order.get(i);
+						results[a] = search(a, weights, classValues);
+					}
+					return null;
+				}
+			});
+		}
+		Tasks.run(tasks);
+
+		//DecisionStump's choice, attribute after attribute, its split point kept from one to the next
+		boolean first = true;
+		double bestVal = Double.MAX_VALUE;
+		Split best = null;
+		for(int a=0;a<attributes.length;a++) {
+			Result r = results[a];
+			if(r == null)
+				return null;
+			if(r.found)
+				splitPoint = r.splitPoint;
+			if(first || r.value < bestVal) {
+				bestVal = r.value;
+				best = new Split(attributes[a], splitPoint, r.dist);
+			}
+			first = false;
+		}
+		if(best != null && nominalClass) {
+			double[][] dist = best.distribution;
+			for(int i=0;i<dist.length;i++) {
+				double sumCounts = Utils.sum(dist[i]);
+				if(sumCounts == 0) {
+					System.arraycopy(dist[2], 0, dist[i], 0, dist[2].length);
+					Utils.normalize(dist[i]);
+				} else {
+					Utils.normalize(dist[i], sumCounts);
+				}
+			}
+		}
+		return best;
+	}
+
+	private Result search(int a, double[] w, double[] c) {
+		if(nominal[a])
+			return nominalClass ? nominalNominal(a, w, c) : nominalNumeric(a, w, c);
+		if(numBins > 0)
+			return nominalClass ? binnedNominal(a, w, c) : binnedNumeric(a, w, c);
+		return nominalClass ? numericNominal(a, w, c) : numericNumeric(a, w, c);
+	}
+
+	/**
+	 * The subset (0, 1 or 2 for missing values) of every row under split, as
+	 * DecisionStump.distributionForInstance picks it.
+	 */
+	public int[] subsets(Split split) {
+		double[] col = columns[position(split.attribute)];
+		boolean nom = header.attribute(split.attribute).isNominal();
+		int[] subsets = new int[numRows];
+		for(int r=0;r<numRows;r++) {
+			double v = col[r];
+			if(Double.isNaN(v))
+				subsets[r] = 2;
+			else if(nom)
+				subsets[r] = (int) v == split.splitPoint ? 0 : 1;
+			else
+				subsets[r] = v <= split.splitPoint ? 0 : 1;
+		}
+		return subsets;
+	}
+
+	/**
+	 * Makes stump (untrained) the DecisionStump of split.
+	 */
+	public void apply(Split split, DecisionStump stump) throws Exception {
+		ModelCodec.setField(stump, "m_AttIndex", split.attribute);
+		ModelCodec.setField(stump, "m_SplitPoint", split.splitPoint);
+		ModelCodec.setField(stump, "m_Distribution", split.distribution);
+		ModelCodec.setField(stump, "m_Instances", new Instances(header, 0));
+		ModelCodec.setField(stump, "m_ZeroR", null);
+	}
+
+	private int position(int attribute) {
+		for(int a=0;a<attributes.length;a++) {
+			if(attributes[a] == attribute)
+				return a;
+		}
+		throw new IllegalArgumentException("No attribute " + attribute);
+	}
+
+	//DecisionStump.findSplitNumericNominal
+	private Result numericNominal(int a, double[] w, double[] c) {
+		int[] order = before[a];
+		int[] s = sorted[a];
+		double[] col = columns[a];
+		double[][] dist = new double[3][numClasses];
+		for(int k=0;k<numRows;k++) {
+			int r = order == null ? k : order[k];
+			if(!Double.isNaN(col[r]))
+				dist[1][(int) c[r]] += w[r];
+			else
+				dist[2][(int) c[r]] += w[r];
+		}
+		double[] sum = dist[1].clone();
+		Result result = new Result(copy(dist));
+		int last = numRows-(numMissing[a]+1);
+		for(int i=0;i<last;i++) {
+			int r = s[i];
+			int k = (int) c[r];
+			dist[0][k] += w[r];
+			dist[1][k] -= w[r];
+			double v = col[r];
+			double vNext = col[s[i+1]];
+			if(v < vNext) {
+				double cut = (v+vNext)/2.0;
+				result.offer(ContingencyTables.entropyConditionedOnRows(dist), cut, dist);
+			}
+		}
+		if(numMissing[a] == 0)
+			System.arraycopy(sum, 0, result.dist[2], 0, numClasses);
+		return result;
+	}
+
+	//DecisionStump.findSplitNumericNumeric, null where it returns without sorting
+	private Result numericNumeric(int a, double[] w, double[] c) {
+		int[] order = before[a];
+		int[] s = sorted[a];
+		double[] col = columns[a];
+		double[][] dist = new double[3][1];
+		double[] sumsSquares = new double[3];
+		double[] sumOfWeights = new double[3];
+		double totalSum = 0, totalSumOfWeights = 0;
+		for(int k=0;k<numRows;k++) {
+			int r = order == null ? k : order[k];
+			int j = Double.isNaN(col[r]) ? 2 : 1;
+			dist[j][0] += c[r]*w[r];
+			sumsSquares[j] += c[r]*c[r]*w[r];
+			sumOfWeights[j] += w[r];
+			totalSumOfWeights += w[r];
+			totalSum += c[r]*w[r];
+		}
+		if(totalSumOfWeights <= 0)
+			return null;
+		Result result = new Result(new double[3][1]);
+		int last = numRows-(numMissing[a]+1);
+		for(int i=0;i<last;i++) {
+			int r = s[i];
+			dist[0][0] += c[r]*w[r];
+			sumsSquares[0] += c[r]*c[r]*w[r];
+			sumOfWeights[0] += w[r];
+			dist[1][0] -= c[r]*w[r];
+			sumsSquares[1] -= c[r]*c[r]*w[r];
+			sumOfWeights[1] -= w[r];
+			double v = col[r];
+			double vNext = col[s[i+1]];
+			if(v < vNext) {
+				double cut = (v+vNext)/2.0;
+				result.offerMeans(variance(dist, sumsSquares, sumOfWeights), cut, dist, sumOfWeights, totalSum/totalSumOfWeights);
+			}
+		}
+		return result;
+	}
+
+	//DecisionStump.findSplitNominalNominal
+	private Result nominalNominal(int a, double[] w, double[] c) {
+		int[] order = before[a];
+		double[] col = columns[a];
+		int numValues = header.attribute(attributes[a]).numValues();
+		double[][] counts = new double[numValues+1][numClasses];
+		for(int k=0;k<numRows;k++) {
+			int r = order == null ? k : order[k];
+			double v = col[r];
+			counts[Double.isNaN(v) ? numValues : (int) v][(int) c[r]] += w[r];
+		}
+		double[] sumCounts = new double[numClasses];
+		for(int i=0;i<numValues;i++) {
+			for(int j=0;j<numClasses;j++)
+				sumCounts[j] += counts[i][j];
+		}
+		double[][] dist = new double[3][numClasses];
+		System.arraycopy(counts[numValues], 0, dist[2], 0, numClasses);
+		Result result = new Result(new double[3][numClasses]);
+		for(int i=0;i<numValues;i++) {
+			for(int j=0;j<numClasses;j++) {
+				dist[0][j] = counts[i][j];
+				dist[1][j] = sumCounts[j]-counts[i][j];
+			}
+			result.offer(ContingencyTables.entropyConditionedOnRows(dist), i, dist);
+		}
+		if(numMissing[a] == 0)
+			System.arraycopy(sumCounts, 0, result.dist[2], 0, numClasses);
+		return result;
+	}
+
+	//DecisionStump.findSplitNominalNumeric, null where it returns with no split
+	private Result nominalNumeric(int a, double[] w, double[] c) {
+		int[] order = before[a];
+		double[] col = columns[a];
+		int numValues = header.attribute(attributes[a]).numValues();
+		double[] sumsSquaresPerValue = new double[numValues];
+		double[] sumsPerValue = new double[numValues];
+		double[] weightsPerValue = new double[numValues];
+		double totalSumSquaresW = 0, totalSumW = 0, totalSumOfWeightsW = 0, totalSumOfWeights = 0, totalSum = 0;
+		double[][] dist = new double[3][1];
+		double[] sumsSquares = new double[3];
+		double[] sumOfWeights = new double[3];
+		for(int k=0;k<numRows;k++) {
+			int r = order == null ? k : order[k];
+			double v = col[r];
+			if(Double.isNaN(v)) {
+				dist[2][0] += c[r]*w[r];
+				sumsSquares[2] += c[r]*c[r]*w[r];
+				sumOfWeights[2] += w[r];
+			} else {
+				weightsPerValue[(int) v] += w[r];
+				sumsPerValue[(int) v] += c[r]*w[r];
+				sumsSquaresPerValue[(int) v] += c[r]*c[r]*w[r];
+			}
+			totalSumOfWeights += w[r];
+			totalSum += c[r]*w[r];
+		}
+		if(totalSumOfWeights <= 0)
+			return null;
+		for(int i=0;i<numValues;i++) {
+			totalSumOfWeightsW += weightsPerValue[i];
+			totalSumSquaresW += sumsSquaresPerValue[i];
+			totalSumW += sumsPerValue[i];
+		}
+		Result result = new Result(new double[3][1]);
+		for(int i=0;i<numValues;i++) {
+			dist[0][0] = sumsPerValue[i];
+			sumsSquares[0] = sumsSquaresPerValue[i];
+			sumOfWeights[0] = weightsPerValue[i];
+			dist[1][0] = totalSumW-sumsPerValue[i];
+			sumsSquares[1] = totalSumSquaresW-sumsSquaresPerValue[i];
+			sumOfWeights[1] = totalSumOfWeightsW-weightsPerValue[i];
+			result.offerMeans(variance(dist, sumsSquares, sumOfWeights), i, dist, sumOfWeights, totalSum/totalSumOfWeights);
+		}
+		return result;
+	}
+
+	//findSplitNumericNominal over the bins of a
+	private Result binnedNominal(int a, double[] w, double[] c) {
+		int[] rowBins = bins[a];
+		int nb = binMin[a].length;
+		double[][] hist = new double[nb][numClasses];
+		double[][] dist = new double[3][numClasses];
+		for(int r=0;r<numRows;r++) {
+			int b = rowBins[r];
+			if(b >= 0)
+				hist[b][(int) c[r]] += w[r];
+			else
+				dist[2][(int) c[r]] += w[r];
+		}
+		for(int b=0;b<nb;b++) {
+			for(int j=0;j<numClasses;j++)
+				dist[1][j] += hist[b][j];
+		}
+		double[] sum = dist[1].clone();
+		Result result = new Result(copy(dist));
+		for(int b=0;b<nb-1;b++) {
+			for(int j=0;j<numClasses;j++) {
+				dist[0][j] += hist[b][j];
+				dist[1][j] -= hist[b][j];
+			}
+			double cut = (binMax[a][b]+binMin[a][b+1])/2.0;
+			result.offer(ContingencyTables.entropyConditionedOnRows(dist), cut, dist);
+		}
+		if(numMissing[a] == 0)
+			System.arraycopy(sum, 0, result.dist[2], 0, numClasses);
+		return result;
+	}
+
+	//findSplitNumericNumeric over the bins of a
+	private Result binnedNumeric(int a, double[] w, double[] c) {
+		int[] rowBins = bins[a];
+		int nb = binMin[a].length;
+		double[] sums = new double[nb];
+		double[] squares = new double[nb];
+		double[] weights = new double[nb];
+		double[][] dist = new double[3][1];
+		double[] sumsSquares = new double[3];
+		double[] sumOfWeights = new double[3];
+		double totalSum = 0, totalSumOfWeights = 0;
+		for(int r=0;r<numRows;r++) {
+			int b = rowBins[r];
+			if(b >= 0) {
+				sums[b] += c[r]*w[r];
+				squares[b] += c[r]*c[r]*w[r];
+				weights[b] += w[r];
+			} else {
+				dist[2][0] += c[r]*w[r];
+				sumsSquares[2] += c[r]*c[r]*w[r];
+				sumOfWeights[2] += w[r];
+			}
+			totalSumOfWeights += w[r];
+			totalSum += c[r]*w[r];
+		}
+		if(totalSumOfWeights <= 0)
+			return null;
+		for(int b=0;b<nb;b++) {
+			dist[1][0] += sums[b];
+			sumsSquares[1] += squares[b];
+			sumOfWeights[1] += weights[b];
+		}
+		Result result = new Result(new double[3][1]);
+		for(int b=0;b<nb-1;b++) {
+			dist[0][0] += sums[b];
+			sumsSquares[0] += squares[b];
+			sumOfWeights[0] += weights[b];
+			dist[1][0] -= sums[b];
+			sumsSquares[1] -= squares[b];
+			sumOfWeights[1] -= weights[b];
+			double cut = (binMax[a][b]+binMin[a][b+1])/2.0;
+			result.offerMeans(variance(dist, sumsSquares, sumOfWeights), cut, dist, sumOfWeights, totalSum/totalSumOfWeights);
+		}
+		return result;
+	}
+
+	//DecisionStump.variance
+	private static double variance(double[][] s, double[] sS, double[] sumOfWeights) {
+		double var = 0;
+		for(int i=0;i<s.length;i++) {
+			if(sumOfWeights[i] > 0)
+				var += sS[i]-((s[i][0]*s[i][0])/sumOfWeights[i]);
+		}
+		return var;
+	}
+
+	private static double[][] copy(double[][] dist) {
+		double[][] copy = new double[dist.length][];
+		for(int j=0;j<dist.length;j++)
+			copy[j] = dist[j].clone();
+		return copy;
+	}
+
+	/**
+	 * Attribute, split point and distribution (class probabilities, or means of a numeric class,
+	 * of the rows at or below the split point or with the value, the others and missing values).
+	 */
+	public static class Split {
+
+		final int attribute;
+		final double splitPoint;
+		final double[][] distribution;
+
+		private Split(int attribute, double splitPoint, double[][] distribution) {
+			this.attribute = attribute;
+			this.splitPoint = splitPoint;
+			this.distribution = distribution;
+		}
+
+		public int getAttribute() {
+			return attribute;
+		}
+
+		public double getSplitPoint() {
+			return splitPoint;
+		}
+	}
+
+	//best split of one attribute, as the findSplit methods of DecisionStump keep it
+	private static class Result {
+
+		double value = Double.MAX_VALUE;
+		boolean found;
+		double splitPoint;
+		final double[][] dist;
+
+		Result(double[][] dist) {
+			this.dist = dist;
+		}
+
+		void offer(double value, double splitPoint, double[][] dist) {
+			if(value < this.value) {
+				this.value = value;
+				this.splitPoint = splitPoint;
+				found = true;
+				for(int j=0;j<3;j++)
+					System.arraycopy(dist[j], 0, this.dist[j], 0, dist[j].length);
+			}
+		}
+
+		void offerMeans(double value, double splitPoint, double[][] sums, double[] sumOfWeights, double mean) {
+			if(value < this.value) {
+				this.value = value;
+				this.splitPoint = splitPoint;
+				found = true;
+				for(int j=0;j<3;j++)
+					dist[j][0] = sumOfWeights[j] > 0 ? sums[j][0]/sumOfWeights[j] : mean;
+			}
+		}
+	}
+}
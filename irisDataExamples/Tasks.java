@@ -0,0 +1,46 @@
+package irisDataExamples;
+
+/**
+ * Runs the parallel tasks of the Fast* classes on the common ForkJoinPool.
+ *
+ * A single task runs on the calling thread; more are handed to the common pool at once and
+ * waited for. The results come back in the order of the tasks, and the exception a task threw
+ * is thrown as it is, not wrapped in an ExecutionException. Classes that bound their threads
+ * (ParallelStacking's execution slots) hand their own pool to run.
+ *
+ * @author feBueno, October 2026
+ * fernando.bueno.gutie@gmail.com
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+final class Tasks {
+
+	private Tasks() {
+	}
+
+	static <T> List<T> run(List<Callable<T>> tasks) throws Exception {
+		return run(ForkJoinPool.commonPool(), tasks);
+	}
+
+	static <T> List<T> run(ExecutorService pool, List<Callable<T>> tasks) throws Exception {
+		List<T> results = new ArrayList<T>();
+		if(tasks.size() == 1) {
+			results.add(tasks.get(0).call());
+			return results;
+		}
+		try {
+			for(Future<T> f : pool.invokeAll(tasks))
+				results.add(f.get());
+		} catch(ExecutionException e) {
+			throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+		}
+		return results;
+	}
+}
@@ -9,6 +9,9 @@ package irisDataExamples;
  * This leads to removal of Sepal.length and Sepal.width.
  * After attributes removal, data is saved in src/data/iris_afterMyAttributeSelection.arff
  *
+ * The search is ParallelGreedyStepwise, which computes the correlations of CfsSubsetEval
+ * in one parallel pass and scores the candidates of each step together; it selects the same
+ * attributes as GreedyStepwise (see ParallelGreedyStepwiseTest in the benchmarks module).
  * 
  * @author feBueno, May 2020
  * fernando.bueno.gutie@gmail.com
@@ -17,7 +20,6 @@ package irisDataExamples;
 import java.io.File;
 
 import weka.attributeSelection.CfsSubsetEval;
-import weka.attributeSelection.GreedyStepwise;
 import weka.core.Instances;
 import weka.filters.Filter;
 import weka.filters.supervised.attribute.AttributeSelection;
@@ -37,7 +39,7 @@ public class VariableSelection {
 		//create evaluator
 		CfsSubsetEval eval = new CfsSubsetEval();//feature selection based on individual performance and redundancy with other variables
 		//searh algorithm object
-		GreedyStepwise search = new GreedyStepwise();//adds/deletes features iteratively and stops when performance increases no more
+		ParallelGreedyStepwise search = new ParallelGreedyStepwise();//adds/deletes features iteratively and stops when performance increases no more
 		//set backwards search
 		search.setSearchBackwards(true);
 		//set the filter to use the evaluator and search algorithm
@@ -54,6 +56,7 @@ public class VariableSelection {
 		saver.writeBatch();
 		
 		System.out.println("Filtered file was saved in src/data/iris_afterMyAttributeSelection.arff");
+
 	}
 } /*Output: 
 Filtered file was saved in src/data/iris_afterMyAttributeSelection.arff